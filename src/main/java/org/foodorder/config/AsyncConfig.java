@@ -0,0 +1,35 @@
+package org.foodorder.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executors for request work that runs off the servlet threads.
+ */
+@Configuration
+public class AsyncConfig {
+
+  @Value("${orders.placement.pool-size:16}")
+  private int placementPoolSize;
+
+  @Value("${orders.placement.queue-capacity:200}")
+  private int placementQueueCapacity;
+
+  /**
+   * Bounded executor for order placement, which blocks on JPA calls and so must not run on the
+   * common ForkJoinPool. When the pool and its queue are full, new placements are rejected.
+   */
+  @Bean
+  public ThreadPoolTaskExecutor orderPlacementExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(placementPoolSize);
+    executor.setMaxPoolSize(placementPoolSize);
+    executor.setQueueCapacity(placementQueueCapacity);
+    executor.setThreadNamePrefix("order-placement-");
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(10);
+    return executor;
+  }
+}
@@ -0,0 +1,47 @@
+package org.foodorder.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.foodorder.scheduler.HashedWheelTimer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Shared timer infrastructure for order preparation and capacity-release timeouts, and
+ * scheduling for background maintenance such as capacity reconciliation.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulerConfig {
+
+  @Value("${order.timer.tick-ms:50}")
+  private long tickMillis;
+
+  @Value("${order.timer.ticks-per-wheel:512}")
+  private int ticksPerWheel;
+
+  @Value("${order.timer.worker-threads:4}")
+  private int workerThreads;
+
+  /**
+   * Threads that run expired timer tasks, kept apart from the wheel so a slow task never delays a tick.
+   */
+  @Bean(destroyMethod = "shutdown")
+  public ExecutorService orderTimerExecutor() {
+    AtomicInteger counter = new AtomicInteger();
+    return Executors.newFixedThreadPool(workerThreads, runnable -> {
+      Thread thread = new Thread(runnable, "order-timer-task-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @Bean(destroyMethod = "stop")
+  public HashedWheelTimer orderTimer(ExecutorService orderTimerExecutor) {
+    return new HashedWheelTimer(tickMillis, TimeUnit.MILLISECONDS, ticksPerWheel, orderTimerExecutor);
+  }
+}
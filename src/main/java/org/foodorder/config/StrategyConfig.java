@@ -0,0 +1,86 @@
+package org.foodorder.config;
+
+import org.foodorder.model.ScoringWeights;
+import org.foodorder.service.MenuCatalogIndex;
+import org.foodorder.service.RestaurantCapacityLedger;
+import org.foodorder.service.RestaurantGeoIndex;
+import org.foodorder.strategy.CompositeScoringStrategy;
+import org.foodorder.strategy.ConsolidationStrategy;
+import org.foodorder.strategy.OrderOptimizationStrategy;
+import org.foodorder.strategy.OrderOptimizationStrategy.Objective;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Restaurant selection strategies that need per-instance settings.
+ */
+@Configuration
+public class StrategyConfig {
+
+  @Value("${selection.optimizer.node-budget:20000}")
+  private int optimizerNodeBudget;
+
+  @Value("${selection.consolidation.tolerance:0.15}")
+  private double consolidationTolerance;
+
+  @Value("${selection.composite.rating-weight:0.4}")
+  private double ratingWeight;
+
+  @Value("${selection.composite.price-weight:0.3}")
+  private double priceWeight;
+
+  @Value("${selection.composite.headroom-weight:0.2}")
+  private double headroomWeight;
+
+  @Value("${selection.composite.distance-weight:0.1}")
+  private double distanceWeight;
+
+  /**
+   * Whole-order strategy that minimizes the total price within the restaurants' remaining capacity.
+   */
+  @Bean
+  public OrderOptimizationStrategy costOptimizationStrategy(MenuCatalogIndex catalogIndex,
+                                                            RestaurantCapacityLedger capacityLedger) {
+    return new OrderOptimizationStrategy(catalogIndex, capacityLedger, Objective.PRICE, optimizerNodeBudget);
+  }
+
+  /**
+   * Whole-order strategy that maximizes the total rating within the restaurants' remaining capacity.
+   */
+  @Bean
+  public OrderOptimizationStrategy ratingOptimizationStrategy(MenuCatalogIndex catalogIndex,
+                                                              RestaurantCapacityLedger capacityLedger) {
+    return new OrderOptimizationStrategy(catalogIndex, capacityLedger, Objective.RATING, optimizerNodeBudget);
+  }
+
+  /**
+   * Whole-order strategy that uses the fewest restaurants whose prices are within the tolerance of the lowest.
+   */
+  @Bean
+  public ConsolidationStrategy priceConsolidationStrategy(MenuCatalogIndex catalogIndex,
+                                                          RestaurantCapacityLedger capacityLedger) {
+    return new ConsolidationStrategy(catalogIndex, capacityLedger, Objective.PRICE, consolidationTolerance);
+  }
+
+  /**
+   * Whole-order strategy that uses the fewest restaurants whose ratings are within the tolerance of the highest.
+   */
+  @Bean
+  public ConsolidationStrategy ratingConsolidationStrategy(MenuCatalogIndex catalogIndex,
+                                                           RestaurantCapacityLedger capacityLedger) {
+    return new ConsolidationStrategy(catalogIndex, capacityLedger, Objective.RATING, consolidationTolerance);
+  }
+
+  /**
+   * Strategy that blends rating, price, headroom and distance with the configured weights, which
+   * an order can override.
+   */
+  @Bean
+  public CompositeScoringStrategy compositeScoringStrategy(MenuCatalogIndex catalogIndex,
+                                                           RestaurantCapacityLedger capacityLedger,
+                                                           RestaurantGeoIndex geoIndex) {
+    return new CompositeScoringStrategy(catalogIndex, capacityLedger, geoIndex,
+        new ScoringWeights(ratingWeight, priceWeight, headroomWeight, distanceWeight));
+  }
+}
@@ -1,21 +1,30 @@
 package org.foodorder.controller;
 
 import org.foodorder.entity.OrderEntity;
+import org.foodorder.exception.CapacityExceededException;
 import org.foodorder.model.CartItem;
 import org.foodorder.model.OrderItemRequest;
 import org.foodorder.model.OrderRequest;
+import org.foodorder.model.KitchenQueueStats;
 import org.foodorder.service.OrderService;
+import org.foodorder.service.RestaurantExecutorService;
 import org.foodorder.service.RestaurantSelectorService;
 import org.foodorder.service.RestaurantService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.ModelAndView;
 import java.util.*;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -43,6 +52,12 @@ public class OrderController {
     @Autowired
     private RestaurantSelectorService restaurantSelectorService;
 
+    @Autowired
+    private RestaurantExecutorService restaurantExecutorService;
+
+    @Value("${orders.placement.timeout-ms:10000}")
+    private long placementTimeoutMillis;
+
     /**
      * API to check if an order can be placed for a restaurant based on its current load and capacity.
      *
@@ -65,7 +80,7 @@ public class OrderController {
 
     /**
      * Handles the request to place an order.
-     * This method checks if each restaurant can handle the requested items in the cart before placing the order.
+     * This method reserves capacity at each restaurant for the requested items in the cart before placing the order.
      *
      * @param cartItems A list of {@link CartItem} objects representing items in the order.
      * @return A {@link ResponseEntity} with success or error messages based on the result.
@@ -80,33 +95,18 @@ public class OrderController {
             Map<Long, List<CartItem>> groupedItems = cartItems.stream()
                     .collect(Collectors.groupingBy(CartItem::getRestaurantId));
 
-            // Verify each restaurant can handle the order before proceeding
-            for (Map.Entry<Long, List<CartItem>> entry : groupedItems.entrySet()) {
-                Long restaurantId = entry.getKey();
-                int totalItemsForRestaurant = entry.getValue().stream()
-                        .mapToInt(CartItem::getQuantity)
-                        .sum();
-
-                LOGGER.info("totalItemsForRestaurant: " + totalItemsForRestaurant);
-                LOGGER.info("Checking if Restaurant ID " + restaurantId + " can handle " + totalItemsForRestaurant + "items");
-                if (!restaurantService.canPlaceOrder(restaurantId, totalItemsForRestaurant)) {
-                    String errorMessage = "Restaurant ID " + restaurantId + " cannot handle the order for " + totalItemsForRestaurant + " items.";
-                    LOGGER.log(Level.SEVERE, errorMessage);
-                    return ResponseEntity.status(500).body(Collections.singletonMap("message", errorMessage));
-                }
+            // Reserve capacity at every restaurant at once, or at none of them
+            Map<Long, Integer> itemsPerRestaurant = countItemsPerRestaurant(groupedItems, CartItem::getQuantity);
+            Map<Long, Long> reservations;
+            try {
+                reservations = restaurantService.reserveCapacityForAll(itemsPerRestaurant);
+            } catch (CapacityExceededException e) {
+                LOGGER.log(Level.SEVERE, e.getMessage());
+                return ResponseEntity.status(500).body(Collections.singletonMap("message", e.getMessage()));
             }
 
-            // If all restaurants can handle the load, proceed to place the order
-            for (Map.Entry<Long, List<CartItem>> entry : groupedItems.entrySet()) {
-                Long restaurantId = entry.getKey();
-                int totalItemsForRestaurant = entry.getValue().stream()
-                        .mapToInt(CartItem::getQuantity)
-                        .sum();
-                LOGGER.log(Level.INFO, "Placing order for {} items at Restaurant ID: {0}: {1}", new Object[]{totalItemsForRestaurant, restaurantId});
-                restaurantService.placeOrder(restaurantId, totalItemsForRestaurant);
-            }
-
-            OrderEntity order = orderService.saveOrdersToDB(cartItems, groupedItems, customerId);
+            OrderEntity order = saveOrReleaseCapacity(reservations,
+                    () -> orderService.saveOrdersToDB(cartItems, groupedItems, customerId));
 
             LOGGER.info("Order placed successfully for all restaurants.");
             return ResponseEntity.ok(Map.of("message", "Order placed successfully!", "orderId", order.getId()));
@@ -145,36 +145,23 @@ public class OrderController {
                     new Object[]{customerId, strategy});
 
             // Group the items by restaurant based on the selection strategy
-            Map<Long, List<OrderItemRequest>> groupedItems = restaurantSelectorService.groupItemsByRestaurant(items, strategy);
-
-            // Verify each restaurant can handle the order before proceeding
-            for (Map.Entry<Long, List<OrderItemRequest>> entry : groupedItems.entrySet()) {
-                Long restaurantId = entry.getKey();
-                int totalItemsForRestaurant = entry.getValue().stream()
-                        .mapToInt(OrderItemRequest::getQuantity)
-                        .sum();
-
-                LOGGER.info("Checking if Restaurant ID " + restaurantId + " can handle " + totalItemsForRestaurant + " items");
-                if (!restaurantService.canPlaceOrder(restaurantId, totalItemsForRestaurant)) {
-                    String errorMessage = "Restaurant ID " + restaurantId + " cannot handle the order for " + totalItemsForRestaurant + " items.";
-                    LOGGER.log(Level.SEVERE, errorMessage);
-                    return ResponseEntity.status(500).body(Collections.singletonMap("message", errorMessage));
-                }
-            }
-
-            // Place the order for each restaurant
-            for (Map.Entry<Long, List<OrderItemRequest>> entry : groupedItems.entrySet()) {
-                Long restaurantId = entry.getKey();
-                int totalItemsForRestaurant = entry.getValue().stream()
-                        .mapToInt(OrderItemRequest::getQuantity)
-                        .sum();
-
-                LOGGER.log(Level.INFO, "Placing order for {0} items at Restaurant ID {1}", new Object[]{totalItemsForRestaurant, restaurantId});
-                restaurantService.placeOrder(restaurantId, totalItemsForRestaurant);
+            Map<Long, List<OrderItemRequest>> groupedItems = restaurantSelectorService.groupItemsByRestaurant(items, strategy,
+                    orderRequest.toSelectionOptions());
+
+            // Reserve capacity at every restaurant at once, or at none of them
+            Map<Long, Integer> itemsPerRestaurant = countItemsPerRestaurant(groupedItems, OrderItemRequest::getQuantity);
+            LOGGER.log(Level.INFO, "Placing order for items per Restaurant ID: {0}", itemsPerRestaurant);
+            Map<Long, Long> reservations;
+            try {
+                reservations = restaurantService.reserveCapacityForAll(itemsPerRestaurant);
+            } catch (CapacityExceededException e) {
+                LOGGER.log(Level.SEVERE, e.getMessage());
+                return ResponseEntity.status(500).body(Collections.singletonMap("message", e.getMessage()));
             }
 
             // Save the order to the database
-            OrderEntity order = orderService.saveCustomerOrdersToDB(items, groupedItems, customerId);
+            OrderEntity order = saveOrReleaseCapacity(reservations,
+                    () -> orderService.saveCustomerOrdersToDB(items, groupedItems, customerId));
 
             LOGGER.log(Level.INFO, "Order placed successfully for customer ID: {0}", customerId);
             return ResponseEntity.ok(Map.of("message", "Order placed successfully!", "orderId", order.getId()));
@@ -186,40 +173,55 @@ public class OrderController {
     }
 
     /**
-     * Endpoint to place an order by customer request. Orders are processed asynchronously to handle concurrency.
+     * Endpoint to place an order by customer request. The order is placed asynchronously, so no
+     * servlet thread waits for it; the response is written when placement completes or when
+     * {@code orders.placement.timeout-ms} expires, whichever comes first.
      *
      * @param orderRequest the order request containing items, customer ID, and strategy
-     * @return a response entity containing order placement status
+     * @return a future of the response entity containing order placement status
      */
     @PostMapping("/placeOrderUponCustomerRequest")
-    public ResponseEntity<?> placeOrderUponCustomerRequestNew(@RequestBody OrderRequest orderRequest) {
-        try {
-            // Validate input
-            if (orderRequest.getItems().isEmpty()) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("No items provided for order placement.");
-            }
+    public CompletableFuture<ResponseEntity<?>> placeOrderUponCustomerRequestNew(@RequestBody OrderRequest orderRequest) {
+        // Validate input
+        if (orderRequest.getItems().isEmpty()) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.BAD_REQUEST).body("No items provided for order placement."));
+        }
 
-            Long customerId = orderRequest.getCustomerId();
-            String strategy = orderRequest.getStrategy();
-            if (strategy == null || strategy.isEmpty()) {
-                strategy = "rating";  // Default strategy
-            }
+        Long customerId = orderRequest.getCustomerId();
+        String strategy = orderRequest.getStrategy();
+        if (strategy == null || strategy.isEmpty()) {
+            strategy = "rating";  // Default strategy
+        }
 
+        CompletableFuture<OrderEntity> futureOrder;
+        try {
             // Trigger order placement asynchronously
-            Future<OrderEntity> futureOrder = orderService.placeOrderUponCustomerRequest(orderRequest.getItems(), customerId, strategy);
-
-            // Optionally, block and wait for the order completion (e.g., use futureOrder.get() for blocking call)
-            OrderEntity order = futureOrder.get();  // Blocking call to wait for order to complete, can be made async if needed
-
-            return ResponseEntity.ok(Map.of("message", "Order placed successfully!", "orderId", order.getId()));
-        } catch (ExecutionException | InterruptedException e) {
-            Thread.currentThread().interrupt(); // Preserve interrupt status
-            LOGGER.log(Level.SEVERE, "Failed to place order", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Failed to place order: " + e.getMessage()));
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error occurred while placing the order", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Failed to place order: " + e.getMessage()));
+            futureOrder = orderService.placeOrderUponCustomerRequest(orderRequest.getItems(), customerId, strategy,
+                    orderRequest.toSelectionOptions());
+        } catch (RejectedExecutionException e) {
+            LOGGER.log(Level.WARNING, "Order placement executor is saturated", e);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("message", "Too many orders are being placed. Please retry shortly.")));
         }
+        if (placementTimeoutMillis > 0) {
+            futureOrder = futureOrder.orTimeout(placementTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        return futureOrder.<ResponseEntity<?>>thenApply(order ->
+                        ResponseEntity.ok(Map.of("message", "Order placed successfully!", "orderId", order.getId())))
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof TimeoutException) {
+                        // Placement keeps running; the order may still be created after this response
+                        LOGGER.log(Level.WARNING, "Order placement for customer ID {0} timed out", customerId);
+                        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                                .body(Map.of("message", "Order placement is taking longer than expected."));
+                    }
+                    LOGGER.log(Level.SEVERE, "Failed to place order", cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(Map.of("message", "Failed to place order: " + cause.getMessage()));
+                });
     }
 
     // =========== UI Methods to handle items ==============
@@ -231,7 +233,7 @@ public class OrderController {
 
     /**
      * Handles the request to place an order.
-     * This method checks if each restaurant can handle the requested items in the cart before placing the order.
+     * This method reserves capacity at each restaurant for the requested items in the cart before placing the order.
      *
      * @param cartItems A list of {@link CartItem} objects representing items in the order.
      * @return A {@link ModelAndView} with a success or error view based on the result.
@@ -246,34 +248,19 @@ public class OrderController {
             Map<Long, List<CartItem>> groupedItems = cartItems.stream()
                     .collect(Collectors.groupingBy(CartItem::getRestaurantId));
 
-            // Verify each restaurant can handle the order before proceeding
-            for (Map.Entry<Long, List<CartItem>> entry : groupedItems.entrySet()) {
-                Long restaurantId = entry.getKey();
-                int totalItemsForRestaurant = entry.getValue().stream()
-                        .mapToInt(CartItem::getQuantity)
-                        .sum();
-
-                LOGGER.info("Checking if Restaurant ID " + restaurantId + " can handle " + totalItemsForRestaurant + "items");
-                if (!restaurantService.canPlaceOrder(restaurantId, totalItemsForRestaurant)) {
-                    String errorMessage = "Restaurant ID " + restaurantId + " cannot handle the order for " + totalItemsForRestaurant + " items.";
-                    LOGGER.log(Level.SEVERE, errorMessage);
-                    // Add error message to model for the error page
-                    model.addAttribute("error", errorMessage);
-                    return REDIRECT_ORDER_FAILURE; // Return the error page if the order cannot be placed
-                }
-            }
-
-            // If all restaurants can handle the load, proceed to place the order
-            for (Map.Entry<Long, List<CartItem>> entry : groupedItems.entrySet()) {
-                Long restaurantId = entry.getKey();
-                int totalItemsForRestaurant = entry.getValue().stream()
-                        .mapToInt(CartItem::getQuantity)
-                        .sum();
-                LOGGER.log(Level.INFO, "Placing order for {} items at Restaurant ID: {0}: {1}", new Object[]{totalItemsForRestaurant, restaurantId});
-                restaurantService.placeOrder(restaurantId, totalItemsForRestaurant);
+            // Reserve capacity at every restaurant at once, or at none of them
+            Map<Long, Integer> itemsPerRestaurant = countItemsPerRestaurant(groupedItems, CartItem::getQuantity);
+            Map<Long, Long> reservations;
+            try {
+                reservations = restaurantService.reserveCapacityForAll(itemsPerRestaurant);
+            } catch (CapacityExceededException e) {
+                LOGGER.log(Level.SEVERE, e.getMessage());
+                // Add error message to model for the error page
+                model.addAttribute("error", e.getMessage());
+                return REDIRECT_ORDER_FAILURE; // Return the error page if the order cannot be placed
             }
 
-            OrderEntity order = orderService.saveOrdersToDB(cartItems, groupedItems, 1L);
+            saveOrReleaseCapacity(reservations, () -> orderService.saveOrdersToDB(cartItems, groupedItems, 1L));
 
             LOGGER.info("Order placed successfully for all restaurants.");
             // Add success message to model for the success page
@@ -309,6 +296,47 @@ public class OrderController {
         }
     }
 
+    /**
+     * Sums the item quantities per restaurant.
+     *
+     * @param groupedItems the order items grouped by restaurant ID
+     * @param quantity     extracts the quantity of a single item
+     * @return the total number of items per restaurant ID
+     */
+    private static <T> Map<Long, Integer> countItemsPerRestaurant(Map<Long, List<T>> groupedItems, ToIntFunction<T> quantity) {
+        Map<Long, Integer> itemsPerRestaurant = new HashMap<>();
+        groupedItems.forEach((restaurantId, items) ->
+                itemsPerRestaurant.put(restaurantId, items.stream().mapToInt(quantity).sum()));
+        return itemsPerRestaurant;
+    }
+
+    /**
+     * Saves the order and gives the reserved capacity back if saving fails, so a failed
+     * checkout never keeps restaurant capacity.
+     *
+     * @param reservations the capacity reservations taken for the order, keyed by restaurant ID
+     * @param saveOrder    saves the order to the database
+     * @return the saved order
+     */
+    private OrderEntity saveOrReleaseCapacity(Map<Long, Long> reservations, Supplier<OrderEntity> saveOrder) {
+        try {
+            return saveOrder.get();
+        } catch (RuntimeException e) {
+            restaurantService.releaseReservations(reservations);
+            throw e;
+        }
+    }
+
+    /**
+     * API to inspect the kitchen queue of every restaurant with orders in progress.
+     *
+     * @return Queue depth, running orders and queue wait time per restaurant.
+     */
+    @GetMapping("/kitchens/stats")
+    public List<KitchenQueueStats> getKitchenQueueStats() {
+        return restaurantExecutorService.getKitchenQueueStats();
+    }
+
     @GetMapping("/customer/{customerId}")
     public ResponseEntity<List<OrderEntity>> getOrdersByCustomer(@PathVariable Long customerId) {
         try {
@@ -6,20 +6,26 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.KeysetPage;
+import org.foodorder.model.ListingSort;
+import org.foodorder.model.PageCursor;
+import org.foodorder.model.RestaurantCard;
 import org.foodorder.service.RestaurantService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.repository.query.Param;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 @Controller
@@ -30,15 +36,20 @@ public class RestaurantController {
   private static final String REDIRECT_RESTUARENTS = "redirect:/restaurants";
   private static final String RESTUARENT_FORM = "restaurant_form";
   private static final String RESTUARENTS = "restaurants";
+  private static final int PAGE_SIZE = 20;
+  private static final int MAX_PAGE_SIZE = 100;
 
   @Autowired
   private RestaurantService restaurantService;
 
   /**
-   * Retrieve a list of all restaurants or search by name (case-insensitive).
+   * Retrieve the first page of all restaurants or of those matching a keyword (case-insensitive).
+   * Further pages are appended by the view as the user scrolls, from {@link #getPage}.
    *
    * @param model the Spring model
-   * @param keyword the optional keyword for searching by restaurant name
+   * @param keyword the optional keyword for searching by restaurant name or cuisine
+   * @param sort the order, 'rating', 'price' or 'name' (defaults to 'rating')
+   * @param cursor the optional cursor of the page to start at
    * @return the view name to display the list of restaurants
    */
   @GetMapping("/restaurants")
@@ -48,24 +59,106 @@ public class RestaurantController {
           @ApiResponse(responseCode = "400", description = "Invalid request"),
           @ApiResponse(responseCode = "500", description = "Internal Server Error")
   })
-  public String getAll(Model model, @Param("keyword") String keyword) {
+  public String getAll(Model model, @Param("keyword") String keyword,
+                       @RequestParam(value = "sort", required = false, defaultValue = "rating") String sort,
+                       @RequestParam(value = "cursor", required = false) String cursor) {
+    addPage(model, keyword, sort, cursor);
+    return RESTUARENTS;
+  }
+
+  /**
+   * Retrieve the table rows of the page following a cursor, for the listing to append.
+   *
+   * @param model the Spring model
+   * @param keyword the optional keyword for searching by restaurant name or cuisine
+   * @param sort the order, 'rating', 'price' or 'name' (defaults to 'rating')
+   * @param cursor the cursor returned with the page before
+   * @return the fragment of the listing holding the rows
+   */
+  @GetMapping("/restaurants/page")
+  public String getPage(Model model, @Param("keyword") String keyword,
+                        @RequestParam(value = "sort", required = false, defaultValue = "rating") String sort,
+                        @RequestParam(value = "cursor", required = false) String cursor) {
+    addPage(model, keyword, sort, cursor);
+    return RESTUARENTS + " :: rows";
+  }
+
+  /**
+   * Retrieve one page of all restaurants or of those matching a keyword as JSON.
+   *
+   * @param keyword the optional keyword for searching by restaurant name or cuisine
+   * @param sort the order, 'rating', 'price' or 'name' (defaults to 'rating')
+   * @param cursor the opaque cursor returned with the page before, omitted for the first page
+   * @param size the number of restaurants per page, at most 100
+   * @return the restaurants and the cursor of the next page, null on the last page
+   */
+  @GetMapping("/restaurants/api")
+  @ResponseBody
+  @Operation(summary = "Page through restaurants", description = "Retrieve restaurants one page at a time, following opaque cursors", tags = {"findAll", "get"})
+  @ApiResponses(value = {
+          @ApiResponse(responseCode = "200", description = "Restaurants retrieved successfully"),
+          @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+          @ApiResponse(responseCode = "500", description = "Internal Server Error")
+  })
+  public ResponseEntity<KeysetPage<RestaurantCard>> getPageJson(
+          @RequestParam(value = "keyword", required = false) String keyword,
+          @RequestParam(value = "sort", required = false, defaultValue = "rating") String sort,
+          @RequestParam(value = "cursor", required = false) String cursor,
+          @RequestParam(value = "size", required = false, defaultValue = "20") int size) {
+    ListingSort order = listingSort(sort);
+    PageCursor after;
     try {
-      List<RestaurantEntity> restaurants = new ArrayList<>();
-      if (keyword == null) {
-        restaurants.addAll(restaurantService.findAll());
-      } else {
-        restaurants.addAll(restaurantService.findByNameContainingIgnoreCase(keyword));
+      after = PageCursor.decode(cursor, order);
+    } catch (IllegalArgumentException e) {
+      LOGGER.warning(e.getMessage());
+      return ResponseEntity.badRequest().build();
+    }
+    try {
+      KeysetPage<RestaurantEntity> page = restaurantService.findPage(blankToNull(keyword), order, after,
+              Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+      List<RestaurantCard> cards = page.getItems().stream()
+              .map(r -> new RestaurantCard(r.getId(), r.getName(), r.getCuisineType(), r.getAddress(), r.getRating()))
+              .toList();
+      return ResponseEntity.ok(new KeysetPage<>(cards, page.getNextCursor()));
+    } catch (Exception e) {
+      LOGGER.log(Level.SEVERE, "Error retrieving restaurants", e);
+      return ResponseEntity.status(500).build();
+    }
+  }
+
+  private void addPage(Model model, String keyword, String sort, String cursor) {
+    ListingSort order = listingSort(sort);
+    model.addAttribute("sort", order.parameter());
+    try {
+      KeysetPage<RestaurantEntity> page = restaurantService.findPage(blankToNull(keyword), order,
+              PageCursor.decode(cursor, order), PAGE_SIZE);
+      if (keyword != null) {
         model.addAttribute("keyword", keyword);
       }
 
-      model.addAttribute("restaurants", restaurants);
+      model.addAttribute("restaurants", page.getItems());
+      model.addAttribute("nextCursor", page.getNextCursor());
       LOGGER.info("Restaurants retrieved successfully");
     } catch (Exception e) {
       LOGGER.log(Level.SEVERE, "Error retrieving restaurants", e);
+      model.addAttribute("restaurants", List.of());
       model.addAttribute("message", "Error retrieving restaurants: " + e.getMessage());
     }
+  }
 
-    return RESTUARENTS;
+  /**
+   * Links to further pages carry an empty keyword when the listing is not searched.
+   */
+  private static String blankToNull(String keyword) {
+    return keyword == null || keyword.isBlank() ? null : keyword;
+  }
+
+  /**
+   * The listing pages through the restaurant table, which holds no distances.
+   */
+  private static ListingSort listingSort(String sort) {
+    ListingSort order = ListingSort.fromParameter(sort);
+    return order == ListingSort.DISTANCE ? ListingSort.RATING : order;
   }
 
   /**
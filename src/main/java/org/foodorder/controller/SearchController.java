@@ -3,24 +3,27 @@ package org.foodorder.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
-import org.foodorder.entity.MenuItemEntity;
-import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.GeoPoint;
+import org.foodorder.model.KeysetPage;
+import org.foodorder.model.ListingSort;
+import org.foodorder.model.PageCursor;
+import org.foodorder.model.RestaurantCard;
+import org.foodorder.model.Suggestion;
 import org.foodorder.service.MenuService;
-import org.foodorder.service.RestaurantSelectorService;
-import org.foodorder.service.RestaurantService;
-import org.foodorder.strategy.HighestRatingStrategy;
-import org.foodorder.strategy.LowestCostStrategy;
+import org.foodorder.service.SuggestionIndex;
+import org.foodorder.service.ZipCentroidGeocoder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 /**
  * Controller for handling search requests related to restaurants offering specific menu items.
@@ -32,27 +35,50 @@ public class SearchController {
     private static final Logger LOGGER = Logger.getLogger(SearchController.class.getName());
     private static final String ERROR = "error";
     private static final String SEARCH_RESULTS = "search_results";
+    private static final int SUGGESTIONS = 10;
+    private static final int PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
 
     @Autowired
     private MenuService menuService;
 
     @Autowired
-    private RestaurantService restaurantService;
+    private ZipCentroidGeocoder geocoder;
 
     @Autowired
-    private RestaurantSelectorService restaurantSelectorService;
+    private SuggestionIndex suggestionIndex;
 
-    @Autowired
-    private HighestRatingStrategy highestRatingStrategy;
-
-    @Autowired
-    private LowestCostStrategy lowestCostStrategy;
+    /**
+     * Completes what has been typed into the search box to menu item and restaurant names.
+     *
+     * @param prefix The text typed so far
+     * @return The 10 most popular names starting with the prefix, or with a word starting with it
+     */
+    @GetMapping("/suggest")
+    @ResponseBody
+    @Operation(summary = "Suggest menu item and restaurant names completing a prefix")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error")
+    })
+    public ResponseEntity<List<Suggestion>> suggest(@RequestParam("prefix") String prefix) {
+        try {
+            return ResponseEntity.ok(suggestionIndex.suggest(prefix, SUGGESTIONS));
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error while suggesting completions for: " + prefix, e);
+            return ResponseEntity.status(500).build();
+        }
+    }
 
     /**
-     * Search for restaurants offering a specific menu item.
+     * Search for restaurants offering a specific menu item. The first page of results is rendered;
+     * further pages are appended by the view as the user scrolls, from {@link #searchPage}.
      *
      * @param keyword The name of the menu item being searched for
-     * @param sort The sorting criteria, either 'price' or 'rating' (defaults to 'rating')
+     * @param sort The sorting criteria, 'price', 'rating', 'name' or 'distance' (defaults to 'rating')
+     * @param zip The ZIP code to measure distances from, optional
+     * @param radiusKm The maximum distance from the ZIP code in kilometers, optional
+     * @param cursor The cursor of the page to start at, optional
      * @param model The model to store data for rendering the view
      * @return The view name for displaying search results
      */
@@ -65,69 +91,129 @@ public class SearchController {
     public String searchRestaurantsByItem(
             @RequestParam("keyword") String keyword,
             @RequestParam(value = "sort", required = false, defaultValue = "rating") String sort,
+            @RequestParam(value = "zip", required = false) String zip,
+            @RequestParam(value = "radiusKm", required = false) Double radiusKm,
+            @RequestParam(value = "cursor", required = false) String cursor,
             Model model) {
+        return search(keyword, sort, zip, radiusKm, cursor, model, SEARCH_RESULTS);
+    }
 
-        LOGGER.info("Searching for restaurants offering the item: " + keyword);
+    /**
+     * Search for the next page of restaurants offering a specific menu item, for the results page to append.
+     *
+     * @param keyword The name of the menu item being searched for
+     * @param sort The sorting criteria, 'price', 'rating', 'name' or 'distance' (defaults to 'rating')
+     * @param zip The ZIP code to measure distances from, optional
+     * @param radiusKm The maximum distance from the ZIP code in kilometers, optional
+     * @param cursor The cursor returned with the page before
+     * @param model The model to store data for rendering the view
+     * @return The fragment of the results page holding the restaurant cards
+     */
+    @GetMapping("/menu/page")
+    public String searchPage(
+            @RequestParam("keyword") String keyword,
+            @RequestParam(value = "sort", required = false, defaultValue = "rating") String sort,
+            @RequestParam(value = "zip", required = false) String zip,
+            @RequestParam(value = "radiusKm", required = false) Double radiusKm,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            Model model) {
+        return search(keyword, sort, zip, radiusKm, cursor, model, SEARCH_RESULTS + " :: cards");
+    }
 
+    /**
+     * Search for restaurants offering a specific menu item, one page at a time, as JSON.
+     *
+     * @param keyword The name of the menu item being searched for
+     * @param sort The sorting criteria, 'price', 'rating', 'name' or 'distance' (defaults to 'rating')
+     * @param zip The ZIP code to measure distances from, optional
+     * @param radiusKm The maximum distance from the ZIP code in kilometers, optional
+     * @param cursor The opaque cursor returned with the page before, omitted for the first page
+     * @param size The number of restaurants per page, at most 100
+     * @return The restaurants with their matching menu items and the cursor of the next page, null on the last page
+     */
+    @GetMapping("/api/menu")
+    @ResponseBody
+    @Operation(summary = "Page through restaurants offering a specific menu item")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search successful"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or unknown ZIP code"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error")
+    })
+    public ResponseEntity<KeysetPage<RestaurantCard>> searchRestaurantsByItemJson(
+            @RequestParam("keyword") String keyword,
+            @RequestParam(value = "sort", required = false, defaultValue = "rating") String sort,
+            @RequestParam(value = "zip", required = false) String zip,
+            @RequestParam(value = "radiusKm", required = false) Double radiusKm,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false, defaultValue = "20") int size) {
         try {
-            // Find menu items based on the keyword
-            List<MenuItemEntity> menuItems = menuService.searchMenuItems(keyword);
-
-            if (menuItems.isEmpty()) {
-                LOGGER.warning("No items found for keyword: " + keyword);
-                model.addAttribute("message", "No restaurants found offering the item: " + keyword);
-                return SEARCH_RESULTS;  // Display a message to the user
+            GeoPoint origin = null;
+            if (zip != null && !zip.isBlank()) {
+                Optional<GeoPoint> located = geocoder.geocode(zip);
+                if (located.isEmpty()) {
+                    LOGGER.warning("Unknown ZIP code: " + zip);
+                    return ResponseEntity.badRequest().build();
+                }
+                origin = located.get();
             }
+            ListingSort order = searchSort(sort, origin);
+            PageCursor after = PageCursor.decode(cursor, order);
+            return ResponseEntity.ok(menuService.searchRestaurantCards(keyword, order, origin, radiusKm, after,
+                    Math.max(1, Math.min(size, MAX_PAGE_SIZE))));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warning(e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error while searching for restaurants offering the item: " + keyword, e);
+            return ResponseEntity.status(500).build();
+        }
+    }
 
-            // Find restaurants associated with these menu items
-            List<RestaurantEntity> restaurants = restaurantService.findRestaurantsByMenuItems(menuItems);
-
-            if (restaurants.isEmpty()) {
-                LOGGER.warning("No restaurants found for the given menu items.");
-                model.addAttribute("message", "No restaurants found for the item: " + keyword);
-                return SEARCH_RESULTS;  // No restaurants found
-            }
+    private String search(String keyword, String sort, String zip, Double radiusKm, String cursor, Model model,
+                          String view) {
 
-            // Filter each restaurant's menu items to include only those that match the keyword
-            for (RestaurantEntity restaurant : restaurants) {
-                List<MenuItemEntity> filteredMenuItems = restaurant.getMenuItems().stream()
-                        .filter(menuItem -> menuItem.getName().toLowerCase().contains(keyword.toLowerCase()))
-                        .collect(Collectors.toList());
+        LOGGER.info("Searching for restaurants offering the item: " + keyword);
 
-                restaurant.setMenuItems(filteredMenuItems);  // Set the filtered menu items back to the restaurant
+        try {
+            // Locate the ZIP code first, so an unknown one fails before any query
+            GeoPoint origin = null;
+            if (zip != null && !zip.isBlank()) {
+                Optional<GeoPoint> located = geocoder.geocode(zip);
+                if (located.isEmpty()) {
+                    LOGGER.warning("Unknown ZIP code: " + zip);
+                    model.addAttribute("message", "Unknown ZIP code: " + zip);
+                    return view;
+                }
+                origin = located.get();
+                model.addAttribute("zip", zip);
+                model.addAttribute("radiusKm", radiusKm);
             }
 
-            // Remove any restaurants that have no matching menu items after filtering
-            List<RestaurantEntity> filteredRestaurants = restaurants.stream()
-                    .filter(restaurant -> !restaurant.getMenuItems().isEmpty())
-                    .collect(Collectors.toList());
+            // Sort restaurants based on the user's selection (price, rating, name or distance)
+            ListingSort order = searchSort(sort, origin);
+            model.addAttribute("sort", order.parameter());
+            model.addAttribute("keyword", keyword);
+            // Find the page of restaurants offering matching menu items, each with only those items
+            KeysetPage<RestaurantCard> page = menuService.searchRestaurantCards(keyword, order, origin, radiusKm,
+                    PageCursor.decode(cursor, order), PAGE_SIZE);
 
-            if (filteredRestaurants.isEmpty()) {
+            if (page.getItems().isEmpty() && cursor == null) {
                 LOGGER.warning("No matching menu items found for keyword: " + keyword);
                 model.addAttribute("message", "No restaurants found offering the item: " + keyword);
-                return SEARCH_RESULTS;
-            }
-
-            // Sort restaurants based on the user's selection (price or rating)
-            if ("price".equals(sort)) {
-                filteredRestaurants.sort(Comparator.comparing(r -> r.getMenuItems().get(0).getPrice())); // Assumes at least 1 menu item
-                LOGGER.info("Sorting restaurants by price (Low to High)");
-            } else {
-                filteredRestaurants.sort(Comparator.comparing(RestaurantEntity::getRating).reversed()); // Rating: High to Low
-                LOGGER.info("Sorting restaurants by rating (High to Low)");
+                return view;  // Display a message to the user
             }
 
             // Log the restaurants and their filtered menu items
             LOGGER.info("Keyword: " + keyword);
-            LOGGER.info("Restaurants found: " + filteredRestaurants.size());
-            for (RestaurantEntity restaurant : filteredRestaurants) {
+            LOGGER.info("Restaurants on page: " + page.getItems().size() + ", sorted by " + order.parameter());
+            for (RestaurantCard restaurant : page.getItems()) {
                 LOGGER.info("Restaurant: " + restaurant.getName() + ", MenuItems: " + restaurant.getMenuItems());
             }
 
-            // Add the filtered restaurants and keyword to the model
-            model.addAttribute("restaurants", filteredRestaurants);
-            model.addAttribute("keyword", keyword);
-            return SEARCH_RESULTS;  // Display the search results in Thymeleaf
+            // Add the page of restaurants and the cursor of the next one to the model
+            model.addAttribute("restaurants", page.getItems());
+            model.addAttribute("nextCursor", page.getNextCursor());
+            return view;  // Display the search results in Thymeleaf
 
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error while searching for restaurants offering the item: " + keyword, e);
@@ -135,4 +221,12 @@ public class SearchController {
             return ERROR;  // Return an error page in case of failure
         }
     }
+
+    /**
+     * Distance can only be sorted by from a ZIP code; without one, results are sorted by rating.
+     */
+    private static ListingSort searchSort(String sort, GeoPoint origin) {
+        ListingSort order = ListingSort.fromParameter(sort);
+        return order == ListingSort.DISTANCE && origin == null ? ListingSort.RATING : order;
+    }
 }
\ No newline at end of file
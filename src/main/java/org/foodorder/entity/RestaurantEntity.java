@@ -66,6 +66,12 @@ public class RestaurantEntity {
   @Column(nullable = false)
   private int currentProcessingLoad = 0; // Current load of processing orders
 
+  @Column(name = "preparation_time_ms", nullable = false)
+  private int preparationTimeMs = 3000; // Time it takes to prepare an order
+
+  @Column(name = "min_menu_price", precision = 10, scale = 2, insertable = false, updatable = false)
+  private BigDecimal minMenuPrice; // Lowest menu item price, maintained by RestaurantRepository.refreshMinMenuPrice
+
   @Column(name = "created_at", nullable = false, updatable = false)
   private LocalDateTime createdAt;
 
@@ -0,0 +1,28 @@
+package org.foodorder.exception;
+
+/**
+ * Thrown when a restaurant does not have enough processing capacity left for an order.
+ */
+public class CapacityExceededException extends RuntimeException {
+
+    private final Long restaurantId;
+    private final int itemCount;
+
+    /**
+     * @param restaurantId the ID of the restaurant that rejected the order
+     * @param itemCount    the number of items that could not be reserved
+     */
+    public CapacityExceededException(Long restaurantId, int itemCount) {
+        super("Restaurant ID " + restaurantId + " cannot handle the order for " + itemCount + " items.");
+        this.restaurantId = restaurantId;
+        this.itemCount = itemCount;
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+}
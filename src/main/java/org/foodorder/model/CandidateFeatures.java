@@ -0,0 +1,119 @@
+package org.foodorder.model;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * The candidates offering one menu item name together with their scoring features laid out in
+ * primitive arrays, so that strategies can score them without unboxing {@link BigDecimal}s.
+ * Instances are built once per name by the menu catalog index and are immutable.
+ */
+public class CandidateFeatures {
+
+    private final CatalogCandidate[] candidates; // The candidates, ordered by restaurant ID then menu item ID
+    private final long[] restaurantIds; // The restaurant ID of each candidate
+    private final double[] prices; // The price of each candidate
+    private final double[] ratings; // The rating of each candidate, 0 if the restaurant has none
+    private final double minPrice;
+    private final double maxPrice;
+    private final double minRating;
+    private final double maxRating;
+
+    /**
+     * Lays out the features of the given candidates.
+     *
+     * @param candidates the candidates of one name, ordered by restaurant ID then menu item ID; must not be empty
+     */
+    public CandidateFeatures(List<CatalogCandidate> candidates) {
+        int size = candidates.size();
+        this.candidates = candidates.toArray(new CatalogCandidate[0]);
+        this.restaurantIds = new long[size];
+        this.prices = new double[size];
+        this.ratings = new double[size];
+        double lowestPrice = Double.POSITIVE_INFINITY;
+        double highestPrice = Double.NEGATIVE_INFINITY;
+        double lowestRating = Double.POSITIVE_INFINITY;
+        double highestRating = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            CatalogCandidate candidate = this.candidates[i];
+            restaurantIds[i] = candidate.getRestaurantId();
+            prices[i] = candidate.getPrice().doubleValue();
+            ratings[i] = candidate.getRating() == null ? 0 : candidate.getRating().doubleValue();
+            lowestPrice = Math.min(lowestPrice, prices[i]);
+            highestPrice = Math.max(highestPrice, prices[i]);
+            lowestRating = Math.min(lowestRating, ratings[i]);
+            highestRating = Math.max(highestRating, ratings[i]);
+        }
+        this.minPrice = lowestPrice;
+        this.maxPrice = highestPrice;
+        this.minRating = lowestRating;
+        this.maxRating = highestRating;
+    }
+
+    public int size() {
+        return candidates.length;
+    }
+
+    /**
+     * Finds the candidate of a restaurant by binary search over the ordered restaurant IDs.
+     *
+     * @param restaurantId the ID of the restaurant
+     * @return the index of its candidate with the lowest menu item ID, or -1 if it offers none
+     */
+    public int indexOf(long restaurantId) {
+        int low = 0;
+        int high = restaurantIds.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (restaurantIds[middle] < restaurantId) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low < restaurantIds.length && restaurantIds[low] == restaurantId ? low : -1;
+    }
+
+    public CatalogCandidate getCandidate(int index) {
+        return candidates[index];
+    }
+
+    public long getRestaurantId(int index) {
+        return restaurantIds[index];
+    }
+
+    public double getPrice(int index) {
+        return prices[index];
+    }
+
+    public double getRating(int index) {
+        return ratings[index];
+    }
+
+    public double getMinPrice() {
+        return minPrice;
+    }
+
+    public double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public double getMinRating() {
+        return minRating;
+    }
+
+    public double getMaxRating() {
+        return maxRating;
+    }
+
+    @Override
+    public String toString() {
+        return "CandidateFeatures{" +
+                "size=" + candidates.length +
+                ", minPrice=" + minPrice +
+                ", maxPrice=" + maxPrice +
+                ", minRating=" + minRating +
+                ", maxRating=" + maxRating +
+                '}';
+    }
+}
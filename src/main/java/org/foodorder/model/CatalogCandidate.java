@@ -0,0 +1,64 @@
+package org.foodorder.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Compact, immutable view of one menu item offered by one restaurant, holding everything the
+ * selection strategies need so that a restaurant can be chosen without loading entities.
+ */
+public class CatalogCandidate {
+
+    private final Long menuItemId; // The ID of the menu item
+    private final Long restaurantId; // The ID of the restaurant offering the menu item
+    private final BigDecimal price; // The price of the menu item at this restaurant
+    private final BigDecimal rating; // The rating of the restaurant, may be null
+    private final boolean open; // Whether the restaurant is open
+
+    /**
+     * Creates a catalog candidate.
+     *
+     * @param menuItemId   the ID of the menu item
+     * @param restaurantId the ID of the restaurant offering the menu item
+     * @param price        the price of the menu item
+     * @param rating       the rating of the restaurant, or null if it has none
+     * @param open         whether the restaurant is open
+     */
+    public CatalogCandidate(Long menuItemId, Long restaurantId, BigDecimal price, BigDecimal rating, boolean open) {
+        this.menuItemId = menuItemId;
+        this.restaurantId = restaurantId;
+        this.price = price;
+        this.rating = rating;
+        this.open = open;
+    }
+
+    public Long getMenuItemId() {
+        return menuItemId;
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public BigDecimal getRating() {
+        return rating;
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogCandidate{" +
+                "menuItemId=" + menuItemId +
+                ", restaurantId=" + restaurantId +
+                ", price=" + price +
+                ", rating=" + rating +
+                ", open=" + open +
+                '}';
+    }
+}
@@ -0,0 +1,69 @@
+package org.foodorder.model;
+
+/**
+ * Immutable point on the earth's surface in decimal degrees, e.g. the centroid of a ZIP code.
+ */
+public class GeoPoint {
+
+    /**
+     * Mean radius of the earth in kilometers.
+     */
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    /**
+     * Length of one degree of latitude (and of longitude at the equator) in kilometers.
+     */
+    public static final double KM_PER_DEGREE = Math.toRadians(EARTH_RADIUS_KM);
+
+    private final double latitude; // Degrees north of the equator, -90 to 90
+    private final double longitude; // Degrees east of Greenwich, -180 to 180
+
+    /**
+     * Creates a point.
+     *
+     * @param latitude  the latitude in degrees
+     * @param longitude the longitude in degrees
+     */
+    public GeoPoint(double latitude, double longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * @param other The point to measure the distance to.
+     * @return The great-circle distance between both points in kilometers.
+     */
+    public double distanceKm(GeoPoint other) {
+        return distanceKm(latitude, longitude, other.latitude, other.longitude);
+    }
+
+    /**
+     * Computes the great-circle distance between two points with the haversine formula.
+     *
+     * @return The distance in kilometers.
+     */
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double deltaLatitude = Math.toRadians(latitude2 - latitude1);
+        double deltaLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(deltaLatitude / 2) * Math.sin(deltaLatitude / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(deltaLongitude / 2) * Math.sin(deltaLongitude / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    @Override
+    public String toString() {
+        return "GeoPoint{" +
+                "latitude=" + latitude +
+                ", longitude=" + longitude +
+                '}';
+    }
+}
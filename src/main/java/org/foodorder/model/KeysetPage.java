@@ -0,0 +1,103 @@
+package org.foodorder.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * One page of restaurants and the cursor of the page after it.
+ *
+ * @param <T> the type of the restaurants listed, an entity or a card
+ */
+public class KeysetPage<T> {
+
+    private final List<T> items; // The restaurants on this page
+    private final String nextCursor; // The opaque cursor of the next page, null on the last page
+
+    /**
+     * Creates a page.
+     *
+     * @param items      the restaurants on the page
+     * @param nextCursor the cursor of the next page, or null if this is the last one
+     */
+    public KeysetPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Cuts a page from restaurants loaded one beyond the page size, which tells whether another
+     * page follows.
+     *
+     * @param loaded the restaurants after the cursor in order, at most {@code size + 1} of them
+     * @param size   the page size
+     * @param sort   the order of the restaurants
+     * @param key    the sort key of a restaurant
+     * @param id     the ID of a restaurant
+     * @return the page
+     */
+    public static <T> KeysetPage<T> of(List<T> loaded, int size, ListingSort sort,
+                                       Function<T, Comparable<?>> key, ToLongFunction<T> id) {
+        if (loaded.size() <= size) {
+            return new KeysetPage<>(loaded, null);
+        }
+        List<T> items = new ArrayList<>(loaded.subList(0, size));
+        T last = items.get(size - 1);
+        return new KeysetPage<>(items, new PageCursor(sort, key.apply(last), id.applyAsLong(last)).encode());
+    }
+
+    /**
+     * Pages through restaurants held in memory, such as the matches of a search. Only the page and
+     * the restaurant after it are kept while scanning, in a heap, so the cost is linear in the
+     * number of restaurants and independent of how deep the page is.
+     *
+     * @param all    all restaurants, in any order
+     * @param after  the cursor of the page before, or null for the first page
+     * @param size   the page size
+     * @param sort   the order to page through
+     * @param key    the sort key of a restaurant
+     * @param id     the ID of a restaurant
+     * @return the page after the cursor
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T> KeysetPage<T> slice(Collection<T> all, PageCursor after, int size, ListingSort sort,
+                                          Function<T, Comparable<?>> key, ToLongFunction<T> id) {
+        Comparator<T> order = (first, second) -> sort.compare((Comparable) key.apply(first), id.applyAsLong(first),
+                (Comparable) key.apply(second), id.applyAsLong(second));
+        // The last of the kept restaurants at the head, to be dropped first
+        PriorityQueue<T> kept = new PriorityQueue<>(size + 2, order.reversed());
+        for (T item : all) {
+            if (after != null
+                    && sort.compare((Comparable) key.apply(item), id.applyAsLong(item), after.getKey(), after.getId()) <= 0) {
+                continue;
+            }
+            kept.add(item);
+            if (kept.size() > size + 1) {
+                kept.poll();
+            }
+        }
+        List<T> loaded = new ArrayList<>(kept);
+        loaded.sort(order);
+        return of(loaded, size, sort, key, id);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetPage{" +
+                "items=" + items +
+                ", nextCursor='" + nextCursor + '\'' +
+                '}';
+    }
+}
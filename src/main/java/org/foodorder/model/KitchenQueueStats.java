@@ -0,0 +1,71 @@
+package org.foodorder.model;
+
+/**
+ * Snapshot of the order queue of one restaurant kitchen, used to check that kitchen scheduling
+ * stays fair under skewed traffic.
+ */
+public class KitchenQueueStats {
+
+    private final Long restaurantId; // The ID of the restaurant
+    private final int maxParallel; // The maximum number of orders processed at once (the weight in fair mode)
+    private final int activeCount; // Orders being processed right now
+    private final int queueDepth; // Orders waiting to be processed
+    private final Long averageWaitMillis; // Average time orders waited in the queue, null if not measured
+    private final Long maxWaitMillis; // Longest time an order waited in the queue, null if not measured
+
+    /**
+     * Creates a snapshot of a kitchen queue.
+     *
+     * @param restaurantId      the ID of the restaurant
+     * @param maxParallel       the maximum number of orders processed at once
+     * @param activeCount       the number of orders being processed
+     * @param queueDepth        the number of orders waiting
+     * @param averageWaitMillis the average queue wait in milliseconds, or null if not measured
+     * @param maxWaitMillis     the longest queue wait in milliseconds, or null if not measured
+     */
+    public KitchenQueueStats(Long restaurantId, int maxParallel, int activeCount, int queueDepth,
+                             Long averageWaitMillis, Long maxWaitMillis) {
+        this.restaurantId = restaurantId;
+        this.maxParallel = maxParallel;
+        this.activeCount = activeCount;
+        this.queueDepth = queueDepth;
+        this.averageWaitMillis = averageWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    public int getMaxParallel() {
+        return maxParallel;
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public Long getAverageWaitMillis() {
+        return averageWaitMillis;
+    }
+
+    public Long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "KitchenQueueStats{" +
+                "restaurantId=" + restaurantId +
+                ", maxParallel=" + maxParallel +
+                ", activeCount=" + activeCount +
+                ", queueDepth=" + queueDepth +
+                ", averageWaitMillis=" + averageWaitMillis +
+                ", maxWaitMillis=" + maxWaitMillis +
+                '}';
+    }
+}
@@ -0,0 +1,94 @@
+package org.foodorder.model;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * The orders restaurant listings and search results can be paged through. Each orders by one sort
+ * key, restaurants without a value last, and then by ID, so that every restaurant has a unique
+ * position a {@link PageCursor} can point at.
+ */
+public enum ListingSort {
+
+    RATING(true), // Highest rating first
+    PRICE(false), // Lowest price first
+    NAME(false), // Alphabetically
+    DISTANCE(false); // Nearest first, when a location is given
+
+    private final boolean descending;
+
+    ListingSort(boolean descending) {
+        this.descending = descending;
+    }
+
+    /**
+     * Reads the sort request parameter, falling back to rating for a missing or unknown value as
+     * the search page always has.
+     *
+     * @param value the parameter, e.g. "price"
+     * @return the sort order
+     */
+    public static ListingSort fromParameter(String value) {
+        if (value != null) {
+            for (ListingSort sort : values()) {
+                if (sort.name().equalsIgnoreCase(value.trim())) {
+                    return sort;
+                }
+            }
+        }
+        return RATING;
+    }
+
+    /**
+     * @return the request parameter selecting this order, e.g. "price"
+     */
+    public String parameter() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Compares two positions in this order: by sort key, missing keys last, then by ID.
+     *
+     * @return a negative number if the first position comes first, a positive one if it comes last
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public int compare(Comparable key, long id, Comparable otherKey, long otherId) {
+        if (key == null || otherKey == null) {
+            if (key != otherKey) {
+                return key == null ? 1 : -1;
+            }
+        } else {
+            int byKey = key.compareTo(otherKey);
+            if (byKey != 0) {
+                return descending ? -byKey : byKey;
+            }
+        }
+        return Long.compare(id, otherId);
+    }
+
+    /**
+     * Reads a sort key written by {@link PageCursor#encode()}.
+     */
+    Comparable<?> parseKey(String key) {
+        switch (this) {
+            case RATING:
+            case PRICE:
+                return new BigDecimal(key);
+            case DISTANCE:
+                return Double.valueOf(key);
+            default:
+                return key;
+        }
+    }
+
+    /**
+     * Writes a sort key for a {@link PageCursor}.
+     */
+    static String formatKey(Comparable<?> key) {
+        return key instanceof BigDecimal ? ((BigDecimal) key).toPlainString() : key.toString();
+    }
+}
@@ -0,0 +1,47 @@
+package org.foodorder.model;
+
+import java.math.BigDecimal;
+
+/**
+ * A menu item as listed on a {@link RestaurantCard} in the search results.
+ */
+public class MenuItemCard {
+
+    private final Long id; // The ID of the menu item
+    private final String name; // The name of the menu item
+    private final BigDecimal price; // The price of the menu item
+
+    /**
+     * Creates a menu item card.
+     *
+     * @param id    the ID of the menu item
+     * @param name  the name of the menu item
+     * @param price the price of the menu item
+     */
+    public MenuItemCard(Long id, String name, BigDecimal price) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    @Override
+    public String toString() {
+        return "MenuItemCard{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", price=" + price +
+                '}';
+    }
+}
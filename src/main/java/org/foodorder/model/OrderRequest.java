@@ -12,6 +12,8 @@ public class OrderRequest {
     private Long customerId; // The ID of the customer placing the order
     private List<OrderItemRequest> items; // The list of items and their quantities in the order
     private String strategy; // Strategy for restaurant selection (e.g., "price" or "rating")
+    private ScoringWeights weights; // Optional weights for the "composite" strategy
+    private String deliveryZipCode; // Optional ZIP code to deliver to, for the "nearest" and "composite" strategies
 
     /**
      * Default constructor for deserialization purposes.
@@ -86,12 +88,57 @@ public class OrderRequest {
         this.strategy = strategy;
     }
 
+    /**
+     * Gets the scoring weights for strategies that blend several criteria.
+     *
+     * @return the scoring weights, or null to use the configured ones
+     */
+    public ScoringWeights getWeights() {
+        return weights;
+    }
+
+    /**
+     * Sets the scoring weights for strategies that blend several criteria.
+     *
+     * @param weights the scoring weights, or null to use the configured ones
+     */
+    public void setWeights(ScoringWeights weights) {
+        this.weights = weights;
+    }
+
+    /**
+     * Gets the ZIP code the order is delivered to, which distance-aware strategies measure from.
+     *
+     * @return the delivery ZIP code, or null if none was given
+     */
+    public String getDeliveryZipCode() {
+        return deliveryZipCode;
+    }
+
+    /**
+     * Sets the ZIP code the order is delivered to, which distance-aware strategies measure from.
+     *
+     * @param deliveryZipCode the delivery ZIP code, or null if none was given
+     */
+    public void setDeliveryZipCode(String deliveryZipCode) {
+        this.deliveryZipCode = deliveryZipCode;
+    }
+
+    /**
+     * @return the per-order selection options carried by this request
+     */
+    public SelectionOptions toSelectionOptions() {
+        return new SelectionOptions(weights, deliveryZipCode);
+    }
+
     @Override
     public String toString() {
         return "OrderRequest{" +
                 "customerId=" + customerId +
                 ", items=" + items +
                 ", strategy='" + strategy + '\'' +
+                ", weights=" + weights +
+                ", deliveryZipCode='" + deliveryZipCode + '\'' +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package org.foodorder.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last restaurant on a page: its sort key and ID in a {@link ListingSort}. The next
+ * page starts right after it, however many restaurants came before it, so a page is found by an
+ * index seek rather than by skipping an offset, and restaurants added or removed meanwhile neither
+ * repeat nor go missing. Clients receive cursors as opaque URL-safe strings.
+ */
+public class PageCursor {
+
+    private final ListingSort sort; // The order the cursor points into
+    private final Comparable<?> key; // The sort key of the last restaurant, null if it has none
+    private final long id; // The ID of the last restaurant
+
+    /**
+     * Creates a cursor.
+     *
+     * @param sort the order the cursor points into
+     * @param key  the sort key of the last restaurant on the page, or null if it has none
+     * @param id   the ID of the last restaurant on the page
+     */
+    public PageCursor(ListingSort sort, Comparable<?> key, long id) {
+        this.sort = sort;
+        this.key = key;
+        this.id = id;
+    }
+
+    /**
+     * Reads a cursor returned with an earlier page.
+     *
+     * @param cursor the opaque cursor, or null or blank for the first page
+     * @param sort   the order requested, which the cursor must have been created for
+     * @return the cursor, or null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed or belongs to another order
+     */
+    public static PageCursor decode(String cursor, ListingSort sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 3);
+            if (parts.length != 3 || !parts[0].equals(sort.name())) {
+                throw new IllegalArgumentException("Cursor does not belong to the " + sort.parameter() + " order");
+            }
+            Comparable<?> key = parts[2].isEmpty() ? null : sort.parseKey(parts[2].substring(1));
+            return new PageCursor(sort, key, Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * @return the cursor as an opaque URL-safe string
+     */
+    public String encode() {
+        String value = sort.name() + ":" + id + ":" + (key == null ? "" : "=" + ListingSort.formatKey(key));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public ListingSort getSort() {
+        return sort;
+    }
+
+    public Comparable<?> getKey() {
+        return key;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "PageCursor{" +
+                "sort=" + sort +
+                ", key=" + key +
+                ", id=" + id +
+                '}';
+    }
+}
@@ -0,0 +1,82 @@
+package org.foodorder.model;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A restaurant as shown in the search results: the few columns the results page displays and the
+ * menu items of the restaurant that matched the search, most relevant first. Cards are assembled
+ * from a single projection query, so reading them never loads anything lazily.
+ */
+public class RestaurantCard {
+
+    private final Long id; // The ID of the restaurant
+    private final String name; // The name of the restaurant
+    private final String cuisineType; // The cuisine of the restaurant
+    private final String address; // The street address of the restaurant
+    private final BigDecimal rating; // The rating of the restaurant, may be null
+    private final List<MenuItemCard> menuItems = new ArrayList<>(); // The matching menu items
+
+    /**
+     * Creates a restaurant card without menu items.
+     *
+     * @param id          the ID of the restaurant
+     * @param name        the name of the restaurant
+     * @param cuisineType the cuisine of the restaurant
+     * @param address     the street address of the restaurant
+     * @param rating      the rating of the restaurant, or null if it has none
+     */
+    public RestaurantCard(Long id, String name, String cuisineType, String address, BigDecimal rating) {
+        this.id = id;
+        this.name = name;
+        this.cuisineType = cuisineType;
+        this.address = address;
+        this.rating = rating;
+    }
+
+    /**
+     * Adds a matching menu item after those added before, which are more relevant.
+     *
+     * @param menuItem the menu item
+     */
+    public void addMenuItem(MenuItemCard menuItem) {
+        menuItems.add(menuItem);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getCuisineType() {
+        return cuisineType;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public BigDecimal getRating() {
+        return rating;
+    }
+
+    public List<MenuItemCard> getMenuItems() {
+        return menuItems;
+    }
+
+    @Override
+    public String toString() {
+        return "RestaurantCard{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", cuisineType='" + cuisineType + '\'' +
+                ", address='" + address + '\'' +
+                ", rating=" + rating +
+                ", menuItems=" + menuItems +
+                '}';
+    }
+}
@@ -0,0 +1,85 @@
+package org.foodorder.model;
+
+/**
+ * Weights of the features blended by the composite restaurant selection strategy. Each weight
+ * scales one feature normalized to [0, 1], so only the ratio between the weights matters.
+ * A customer can send weights with an order to override the configured defaults.
+ */
+public class ScoringWeights {
+
+    private double rating; // Weight of the restaurant rating, higher is better
+    private double price; // Weight of the menu item price, lower is better
+    private double headroom; // Weight of the capacity left at the restaurant, more is better
+    private double distance; // Weight of the distance to the restaurant, closer is better
+
+    /**
+     * Default constructor for deserialization purposes.
+     */
+    public ScoringWeights() {
+    }
+
+    /**
+     * Creates scoring weights.
+     *
+     * @param rating   the weight of the restaurant rating
+     * @param price    the weight of the menu item price
+     * @param headroom the weight of the capacity left at the restaurant
+     * @param distance the weight of the distance to the restaurant
+     */
+    public ScoringWeights(double rating, double price, double headroom, double distance) {
+        this.rating = rating;
+        this.price = price;
+        this.headroom = headroom;
+        this.distance = distance;
+    }
+
+    public double getRating() {
+        return rating;
+    }
+
+    public void setRating(double rating) {
+        this.rating = rating;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
+    public double getHeadroom() {
+        return headroom;
+    }
+
+    public void setHeadroom(double headroom) {
+        this.headroom = headroom;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    public void setDistance(double distance) {
+        this.distance = distance;
+    }
+
+    /**
+     * @return true if no weight is negative and at least one is positive.
+     */
+    public boolean isValid() {
+        return rating >= 0 && price >= 0 && headroom >= 0 && distance >= 0
+                && rating + price + headroom + distance > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ScoringWeights{" +
+                "rating=" + rating +
+                ", price=" + price +
+                ", headroom=" + headroom +
+                ", distance=" + distance +
+                '}';
+    }
+}
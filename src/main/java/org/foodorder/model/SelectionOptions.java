@@ -0,0 +1,46 @@
+package org.foodorder.model;
+
+/**
+ * Per-order settings of restaurant selection that a customer can send along with the strategy:
+ * the scoring weights of the composite strategy and the ZIP code the order is delivered to.
+ * Both are optional.
+ */
+public class SelectionOptions {
+
+    private final ScoringWeights weights; // Weights overriding the configured ones, may be null
+    private final String deliveryZipCode; // The ZIP code to measure distances from, may be null
+
+    /**
+     * Creates selection options.
+     *
+     * @param weights         the scoring weights, or null to use the configured ones
+     * @param deliveryZipCode the delivery ZIP code, or null if none was given
+     */
+    public SelectionOptions(ScoringWeights weights, String deliveryZipCode) {
+        this.weights = weights;
+        this.deliveryZipCode = deliveryZipCode;
+    }
+
+    /**
+     * @return Options that keep the configured weights and have no delivery location.
+     */
+    public static SelectionOptions none() {
+        return new SelectionOptions(null, null);
+    }
+
+    public ScoringWeights getWeights() {
+        return weights;
+    }
+
+    public String getDeliveryZipCode() {
+        return deliveryZipCode;
+    }
+
+    @Override
+    public String toString() {
+        return "SelectionOptions{" +
+                "weights=" + weights +
+                ", deliveryZipCode='" + deliveryZipCode + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,49 @@
+package org.foodorder.model;
+
+/**
+ * One completion offered by the search box: the name of a menu item or a restaurant, and how
+ * popular it is. Menu items of the same name at several restaurants are offered once.
+ */
+public class Suggestion {
+
+    public static final String MENU_ITEM = "menuItem";
+    public static final String RESTAURANT = "restaurant";
+
+    private final String text; // The name to complete to, as it is displayed
+    private final String type; // MENU_ITEM or RESTAURANT
+    private final long popularity; // The number of listings of the name plus the quantity ordered
+
+    /**
+     * Creates a suggestion.
+     *
+     * @param text       the name to complete to
+     * @param type       {@link #MENU_ITEM} or {@link #RESTAURANT}
+     * @param popularity the popularity of the name
+     */
+    public Suggestion(String text, String type, long popularity) {
+        this.text = text;
+        this.type = type;
+        this.popularity = popularity;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public long getPopularity() {
+        return popularity;
+    }
+
+    @Override
+    public String toString() {
+        return "Suggestion{" +
+                "text='" + text + '\'' +
+                ", type='" + type + '\'' +
+                ", popularity=" + popularity +
+                '}';
+    }
+}
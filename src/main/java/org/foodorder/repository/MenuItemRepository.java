@@ -1,8 +1,10 @@
 package org.foodorder.repository;
 
+import java.util.Collection;
 import java.util.List;
 import org.foodorder.entity.MenuItemEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -10,7 +12,7 @@ import org.springframework.stereotype.Repository;
  * Extends JpaRepository to provide CRUD operations and custom query methods for the MenuItemEntity.
  */
 @Repository
-public interface MenuItemRepository extends JpaRepository<MenuItemEntity, Long> {
+public interface MenuItemRepository extends JpaRepository<MenuItemEntity, Long>, MenuItemRepositoryCustom {
 
     /**
      * Find all menu items associated with a specific restaurant by the restaurant's ID.
@@ -27,4 +29,15 @@ public interface MenuItemRepository extends JpaRepository<MenuItemEntity, Long>
      * @return a list of menu items whose name contains the given keyword, case-insensitively
      */
     List<MenuItemEntity> findByNameContainingIgnoreCase(String keyword);
+
+    /**
+     * Load what the search results show of the given menu items and their restaurants in one query,
+     * without loading entities or any other menu items of those restaurants.
+     *
+     * @param menuItemIds the IDs of the menu items
+     * @return rows of the restaurant ID, name, cuisine, address and rating, followed by the menu item ID, name and price
+     */
+    @Query("SELECT r.id, r.name, r.cuisineType, r.address, r.rating, m.id, m.name, m.price "
+            + "FROM MenuItemEntity m JOIN m.restaurant r WHERE m.id IN :menuItemIds")
+    List<Object[]> findRestaurantCardRows(Collection<Long> menuItemIds);
 }
\ No newline at end of file
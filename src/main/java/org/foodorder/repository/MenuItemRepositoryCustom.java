@@ -0,0 +1,20 @@
+package org.foodorder.repository;
+
+import java.util.Collection;
+import java.util.List;
+import org.foodorder.entity.MenuItemEntity;
+
+/**
+ * Custom query methods for MenuItemEntity that cannot be expressed as derived queries.
+ */
+public interface MenuItemRepositoryCustom {
+
+    /**
+     * Find the menu items whose name contains any of the given keywords (case-insensitive), together
+     * with their restaurants, in a single query.
+     *
+     * @param keywords the search terms used to find menu items
+     * @return the matching menu items ordered by ID, with their restaurant already loaded
+     */
+    List<MenuItemEntity> findWithRestaurantByNamesContainingIgnoreCase(Collection<String> keywords);
+}
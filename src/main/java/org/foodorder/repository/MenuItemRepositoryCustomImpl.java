@@ -0,0 +1,50 @@
+package org.foodorder.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import org.foodorder.entity.MenuItemEntity;
+
+/**
+ * Criteria-based implementation of {@link MenuItemRepositoryCustom}.
+ */
+public class MenuItemRepositoryCustomImpl implements MenuItemRepositoryCustom {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<MenuItemEntity> findWithRestaurantByNamesContainingIgnoreCase(Collection<String> keywords) {
+        if (keywords.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<MenuItemEntity> query = cb.createQuery(MenuItemEntity.class);
+        Root<MenuItemEntity> menuItem = query.from(MenuItemEntity.class);
+        menuItem.fetch("restaurant", JoinType.INNER);
+
+        Expression<String> name = cb.lower(menuItem.get("name"));
+        Predicate[] matches = keywords.stream()
+                .map(keyword -> keyword.toLowerCase(Locale.ROOT))
+                .distinct()
+                .map(keyword -> cb.like(name, "%" + escapeLike(keyword) + "%", LIKE_ESCAPE))
+                .toArray(Predicate[]::new);
+
+        query.select(menuItem).where(cb.or(matches)).orderBy(cb.asc(menuItem.get("id")));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private static String escapeLike(String keyword) {
+        return keyword.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
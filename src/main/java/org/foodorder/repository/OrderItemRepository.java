@@ -2,6 +2,7 @@ package org.foodorder.repository;
 
 import org.foodorder.entity.OrderItemEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -16,4 +17,20 @@ public interface OrderItemRepository extends JpaRepository<OrderItemEntity, Long
      * @return List of order items belonging to the given order.
      */
     List<OrderItemEntity> findByOrderId(Long orderId);
+
+    /**
+     * Sum up the quantity ordered of every menu item, as a measure of its popularity.
+     *
+     * @return Rows of the menu item ID and the total quantity ordered.
+     */
+    @Query("SELECT oi.menuItemId, SUM(oi.quantity) FROM OrderItemEntity oi GROUP BY oi.menuItemId")
+    List<Object[]> sumQuantityByMenuItem();
+
+    /**
+     * Sum up the quantity ordered from every restaurant, as a measure of its popularity.
+     *
+     * @return Rows of the restaurant ID and the total quantity ordered.
+     */
+    @Query("SELECT oi.restaurantId, SUM(oi.quantity) FROM OrderItemEntity oi GROUP BY oi.restaurantId")
+    List<Object[]> sumQuantityByRestaurant();
 }
\ No newline at end of file
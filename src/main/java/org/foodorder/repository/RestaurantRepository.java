@@ -14,7 +14,7 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 @Transactional
-public interface RestaurantRepository extends JpaRepository<RestaurantEntity, Long> {
+public interface RestaurantRepository extends JpaRepository<RestaurantEntity, Long>, RestaurantRepositoryCustom {
 
   /**
    * Find restaurants by a case-insensitive search on the name field.
@@ -24,6 +24,14 @@ public interface RestaurantRepository extends JpaRepository<RestaurantEntity, Lo
    */
   List<RestaurantEntity> findByNameContainingIgnoreCase(String keyword);
 
+  /**
+   * Find the restaurants whose current processing load is above the given value.
+   *
+   * @param load the processing load to compare with
+   * @return the restaurants holding more than the given load
+   */
+  List<RestaurantEntity> findByCurrentProcessingLoadGreaterThan(int load);
+
   /**
    * Update the 'isOpen' status of a restaurant by its ID.
    *
@@ -34,6 +42,67 @@ public interface RestaurantRepository extends JpaRepository<RestaurantEntity, Lo
   @Modifying
   public void updateRestaurantIsOpenStatus(Long id, boolean isOpen);
 
+  /**
+   * Overwrite the current processing load of a restaurant.
+   *
+   * @param id the ID of the restaurant to update
+   * @param load the processing load to store
+   */
+  @Query("UPDATE RestaurantEntity t SET t.currentProcessingLoad = :load WHERE t.id = :id")
+  @Modifying
+  void updateCurrentProcessingLoad(Long id, int load);
+
+  /**
+   * Overwrite the current processing load of a restaurant, but only if it still holds the value
+   * read before, so a reservation or release committed meanwhile is not lost.
+   *
+   * @param id the ID of the restaurant to update
+   * @param stored the processing load read before
+   * @param load the processing load to store
+   * @return 1 if the load was overwritten, 0 if it changed since it was read
+   */
+  @Query("UPDATE RestaurantEntity t SET t.currentProcessingLoad = :load "
+          + "WHERE t.id = :id AND t.currentProcessingLoad = :stored")
+  @Modifying
+  int compareAndSetCurrentProcessingLoad(Long id, int stored, int load);
+
+  /**
+   * Reserve capacity for the given number of items in a single statement. The load is only
+   * increased if the result stays within the restaurant's maximum capacity.
+   *
+   * @param id the ID of the restaurant
+   * @param items the number of items to reserve
+   * @return 1 if the capacity was reserved, 0 if the restaurant is full or does not exist
+   */
+  @Query("UPDATE RestaurantEntity t SET t.currentProcessingLoad = t.currentProcessingLoad + :items "
+          + "WHERE t.id = :id AND t.currentProcessingLoad + :items <= t.maxCapacity")
+  @Modifying
+  int reserveCapacity(Long id, int items);
+
+  /**
+   * Release previously reserved capacity in a single statement. The load is only decreased
+   * if it holds at least the given number of items, so it can never become negative.
+   *
+   * @param id the ID of the restaurant
+   * @param items the number of items to release
+   * @return 1 if the capacity was released, 0 otherwise
+   */
+  @Query("UPDATE RestaurantEntity t SET t.currentProcessingLoad = t.currentProcessingLoad - :items "
+          + "WHERE t.id = :id AND t.currentProcessingLoad >= :items")
+  @Modifying
+  int releaseCapacity(Long id, int items);
+
+  /**
+   * Recompute the lowest menu item price of a restaurant from its menu items. Called whenever a
+   * menu item of the restaurant is written, so sorting by price never has to load the menus.
+   *
+   * @param id the ID of the restaurant
+   */
+  @Query("UPDATE RestaurantEntity r SET r.minMenuPrice = "
+          + "(SELECT MIN(m.price) FROM MenuItemEntity m WHERE m.restaurantId = :id) WHERE r.id = :id")
+  @Modifying
+  void refreshMinMenuPrice(Long id);
+
   /**
    * Find all restaurants offering a specific menu item by its ID.
    *
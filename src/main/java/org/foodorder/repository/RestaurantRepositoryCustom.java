@@ -0,0 +1,23 @@
+package org.foodorder.repository;
+
+import java.util.List;
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.ListingSort;
+import org.foodorder.model.PageCursor;
+
+/**
+ * Custom query methods for RestaurantEntity that cannot be expressed as derived queries.
+ */
+public interface RestaurantRepositoryCustom {
+
+  /**
+   * Find the restaurants following a cursor in the given order, seeking on the (sort key, id) index
+   * instead of skipping the rows of the pages before. Restaurants without a sort key come last.
+   *
+   * @param sort the order to page through, by rating, price or name
+   * @param after the position of the last restaurant of the page before, or null for the first page
+   * @param limit the maximum number of restaurants to return
+   * @return at most {@code limit} restaurants following the cursor, in order
+   */
+  List<RestaurantEntity> findPage(ListingSort sort, PageCursor after, int limit);
+}
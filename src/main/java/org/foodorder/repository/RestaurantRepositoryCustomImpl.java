@@ -0,0 +1,96 @@
+package org.foodorder.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.ListingSort;
+import org.foodorder.model.PageCursor;
+
+/**
+ * Criteria-based implementation of {@link RestaurantRepositoryCustom}.
+ */
+public class RestaurantRepositoryCustomImpl implements RestaurantRepositoryCustom {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public List<RestaurantEntity> findPage(ListingSort sort, PageCursor after, int limit) {
+    if (limit <= 0) {
+      return List.of();
+    }
+    String attribute = attribute(sort);
+    List<RestaurantEntity> page = new ArrayList<>();
+
+    // Restaurants with a sort key, unless the cursor is already past them
+    if (after == null || after.getKey() != null) {
+      page.addAll(findWithKey(sort, attribute, after, limit));
+    }
+    // Then the restaurants without one, by ID
+    if (page.size() < limit) {
+      page.addAll(findWithoutKey(attribute, after != null && after.getKey() == null ? after.getId() : null,
+              limit - page.size()));
+    }
+    return page;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private List<RestaurantEntity> findWithKey(ListingSort sort, String attribute, PageCursor after, int limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<RestaurantEntity> query = cb.createQuery(RestaurantEntity.class);
+    Root<RestaurantEntity> restaurant = query.from(RestaurantEntity.class);
+    Expression key = restaurant.get(attribute);
+    Expression<Long> id = restaurant.get("id");
+
+    List<Predicate> where = new ArrayList<>();
+    where.add(cb.isNotNull(key));
+    if (after != null) {
+      // key <= k AND (key < k OR id > i) for a descending key; the first term bounds the index range
+      Comparable last = after.getKey();
+      where.add(sort.isDescending() ? cb.lessThanOrEqualTo(key, last) : cb.greaterThanOrEqualTo(key, last));
+      where.add(cb.or(sort.isDescending() ? cb.lessThan(key, last) : cb.greaterThan(key, last),
+              cb.greaterThan(id, after.getId())));
+    }
+
+    query.select(restaurant)
+            .where(where.toArray(Predicate[]::new))
+            .orderBy(sort.isDescending() ? cb.desc(key) : cb.asc(key), cb.asc(id));
+    return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+  }
+
+  private List<RestaurantEntity> findWithoutKey(String attribute, Long afterId, int limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<RestaurantEntity> query = cb.createQuery(RestaurantEntity.class);
+    Root<RestaurantEntity> restaurant = query.from(RestaurantEntity.class);
+    Expression<Long> id = restaurant.get("id");
+
+    List<Predicate> where = new ArrayList<>();
+    where.add(cb.isNull(restaurant.get(attribute)));
+    if (afterId != null) {
+      where.add(cb.greaterThan(id, afterId));
+    }
+
+    query.select(restaurant).where(where.toArray(Predicate[]::new)).orderBy(cb.asc(id));
+    return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+  }
+
+  private static String attribute(ListingSort sort) {
+    switch (sort) {
+      case RATING:
+        return "rating";
+      case PRICE:
+        return "minMenuPrice";
+      case NAME:
+        return "name";
+      default:
+        throw new IllegalArgumentException("Restaurants cannot be listed by " + sort.parameter());
+    }
+  }
+}
@@ -0,0 +1,216 @@
+package org.foodorder.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor view that runs at most a fixed number of tasks at a time on a shared executor.
+ * <p>
+ * A semaphore holds one permit per task that may run concurrently. Tasks that find no permit
+ * wait in a queue instead of blocking a thread, and every finishing task hands its permit to
+ * the next queued one. Many of these views can share one executor, so the number of threads is
+ * independent of how many views exist.
+ * <p>
+ * When the shared executor rejects a task, the task goes back to the head of the queue and waits
+ * for the next completion or submission to try again. Only the thread that submitted a task sees
+ * its rejection, and only while the task has not been handed on yet.
+ */
+public class CapacityLimitedExecutor extends AbstractExecutorService {
+
+    private final Executor delegate;
+    private final ResizableSemaphore permits;
+    private final ConcurrentLinkedDeque<Runnable> queue = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Object terminationLock = new Object();
+    private volatile boolean shutdown;
+    private int maxParallel;
+
+    /**
+     * @param delegate    the shared executor that runs the tasks
+     * @param maxParallel the maximum number of tasks that run at the same time
+     */
+    public CapacityLimitedExecutor(Executor delegate, int maxParallel) {
+        if (maxParallel <= 0) {
+            throw new IllegalArgumentException("Max parallel tasks must be positive.");
+        }
+        this.delegate = delegate;
+        this.permits = new ResizableSemaphore(maxParallel);
+        this.maxParallel = maxParallel;
+    }
+
+    /**
+     * Changes the number of tasks that may run at the same time. When the limit shrinks, tasks
+     * already running are allowed to finish; new tasks start once the running count is below it.
+     *
+     * @param maxParallel the new maximum number of tasks that run at the same time
+     */
+    public synchronized void setMaxParallel(int maxParallel) {
+        if (maxParallel <= 0) {
+            throw new IllegalArgumentException("Max parallel tasks must be positive.");
+        }
+        int delta = maxParallel - this.maxParallel;
+        this.maxParallel = maxParallel;
+        if (delta > 0) {
+            permits.release(delta);
+            drain();
+        } else if (delta < 0) {
+            permits.reducePermits(-delta);
+        }
+    }
+
+    /**
+     * @return the maximum number of tasks that run at the same time
+     */
+    public synchronized int getMaxParallel() {
+        return maxParallel;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (shutdown) {
+            throw new RejectedExecutionException("Executor has been shut down.");
+        }
+        pending.incrementAndGet();
+        queue.add(task);
+        RejectedExecutionException rejected = drain();
+        // Withdraw the task if the shared executor turned it or a task ahead of it away
+        if (rejected != null && queue.removeLastOccurrence(task)) {
+            finish();
+            throw rejected;
+        }
+    }
+
+    /**
+     * Starts queued tasks while permits are available. Called after every enqueue and every
+     * completion, so a task is never left waiting while a permit is free.
+     *
+     * @return the rejection of the shared executor, after putting the rejected task back at the
+     * head of the queue, or null if it accepted every task started
+     */
+    private RejectedExecutionException drain() {
+        while (!queue.isEmpty() && permits.tryAcquire()) {
+            Runnable task = queue.poll();
+            if (task == null) {
+                permits.release();
+                continue;
+            }
+            try {
+                delegate.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        complete();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                queue.addFirst(task);
+                permits.release();
+                return e;
+            }
+        }
+        return null;
+    }
+
+    private void complete() {
+        permits.release();
+        finish();
+        // A rejected task stays queued for the next completion or submission
+        drain();
+    }
+
+    private void finish() {
+        if (pending.decrementAndGet() == 0 && shutdown) {
+            synchronized (terminationLock) {
+                terminationLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * @return the number of tasks waiting for a permit
+     */
+    public int getQueuedTaskCount() {
+        return queue.size();
+    }
+
+    /**
+     * @return the number of tasks currently running
+     */
+    public int getActiveCount() {
+        return Math.max(0, pending.get() - queue.size());
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        if (pending.get() == 0) {
+            synchronized (terminationLock) {
+                terminationLock.notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        List<Runnable> dropped = new ArrayList<>();
+        Runnable task;
+        while ((task = queue.poll()) != null) {
+            dropped.add(task);
+            pending.decrementAndGet();
+        }
+        if (pending.get() == 0) {
+            synchronized (terminationLock) {
+                terminationLock.notifyAll();
+            }
+        }
+        return dropped;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && pending.get() == 0;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (terminationLock) {
+            while (!isTerminated()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(terminationLock, remaining);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Semaphore whose permit count can also shrink, which {@link Semaphore} only allows subclasses to do.
+     */
+    private static final class ResizableSemaphore extends Semaphore {
+
+        private ResizableSemaphore(int permits) {
+            super(permits);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package org.foodorder.scheduler;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hashed timing wheel for large numbers of order timers.
+ * <p>
+ * The wheel is a ring of buckets, each holding a doubly linked list of timeouts. A single
+ * worker thread advances one bucket per tick and fires the timeouts whose remaining rounds
+ * reached zero; timeouts further away than one revolution simply wait a number of rounds.
+ * Scheduling and cancelling are O(1): new and cancelled timeouts are handed to the worker
+ * through lock-free queues and linked in or out of their bucket on the next tick.
+ * Expired tasks run on the given executor, so a slow task never delays the wheel, and
+ * whatever a task or the executor throws is logged rather than stopping the worker.
+ */
+public class HashedWheelTimer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private static final int STATE_INIT = 0;
+    private static final int STATE_STARTED = 1;
+    private static final int STATE_STOPPED = 2;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Executor taskExecutor;
+    private final Thread workerThread;
+    private final ConcurrentLinkedQueue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger state = new AtomicInteger(STATE_INIT);
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final CountDownLatch startedLatch = new CountDownLatch(1);
+    private volatile long startTime;
+
+    /**
+     * @param tickDuration  the duration of one tick, i.e. the timer resolution
+     * @param unit          the unit of {@code tickDuration}
+     * @param ticksPerWheel the number of buckets, rounded up to a power of two
+     * @param taskExecutor  the executor that runs expired tasks
+     */
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int ticksPerWheel, Executor taskExecutor) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive.");
+        }
+        if (ticksPerWheel <= 0 || ticksPerWheel > (1 << 30)) {
+            throw new IllegalArgumentException("Ticks per wheel must be between 1 and 2^30.");
+        }
+        int size = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        this.wheel = new Bucket[Math.max(size, 1)];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheel.length - 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.taskExecutor = taskExecutor;
+        this.workerThread = new Thread(new Worker(), "order-timer-wheel");
+        this.workerThread.setDaemon(true);
+    }
+
+    /**
+     * Schedules a task to run once after the given delay.
+     *
+     * @param task  the task to run
+     * @param delay the delay before the task runs
+     * @param unit  the unit of {@code delay}
+     * @return a handle that can cancel the task before it runs
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null.");
+        }
+        start();
+        long deadline = System.nanoTime() - startTime + unit.toNanos(Math.max(delay, 0));
+        Timeout timeout = new Timeout(this, task, deadline);
+        pendingCount.incrementAndGet();
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Returns a future that completes after the given delay. Continuations attached without an
+     * executor run on the timer's task executor. Cancelling the future cancels the timeout.
+     *
+     * @param delay the delay before the future completes
+     * @param unit  the unit of {@code delay}
+     * @return a future that completes after the delay
+     */
+    public CompletableFuture<Void> completeAfter(long delay, TimeUnit unit) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        Timeout timeout = newTimeout(() -> future.complete(null), delay, unit);
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                timeout.cancel();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * @return the number of timeouts that are scheduled and have neither fired nor been cancelled
+     */
+    public long pendingTimeouts() {
+        return pendingCount.get();
+    }
+
+    /**
+     * Starts the worker thread. Called implicitly by the first {@link #newTimeout}.
+     */
+    public void start() {
+        if (state.get() == STATE_INIT && state.compareAndSet(STATE_INIT, STATE_STARTED)) {
+            workerThread.start();
+        }
+        if (state.get() == STATE_STOPPED) {
+            throw new IllegalStateException("Timer has been stopped.");
+        }
+        try {
+            startedLatch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops the worker thread. Timeouts that have not fired yet are dropped.
+     */
+    public void stop() {
+        if (state.getAndSet(STATE_STOPPED) == STATE_STARTED) {
+            workerThread.interrupt();
+            try {
+                workerThread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private final class Worker implements Runnable {
+
+        private long tick;
+
+        @Override
+        public void run() {
+            startTime = System.nanoTime();
+            startedLatch.countDown();
+            while (state.get() == STATE_STARTED) {
+                long deadline = waitForNextTick();
+                if (deadline < 0) {
+                    continue;
+                }
+                try {
+                    processCancelledTimeouts();
+                    transferPendingTimeouts();
+                    wheel[(int) (tick & mask)].expireTimeouts(deadline);
+                } catch (Throwable t) {
+                    // Losing the worker would silently drop every pending timeout
+                    LOGGER.error("Timer wheel failed to process tick {}", tick, t);
+                }
+                tick++;
+            }
+        }
+
+        private long waitForNextTick() {
+            long deadline = tickNanos * (tick + 1);
+            while (true) {
+                long sleepNanos = deadline - (System.nanoTime() - startTime);
+                if (sleepNanos <= 0) {
+                    return deadline;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (state.get() != STATE_STARTED) {
+                        return -1;
+                    }
+                }
+            }
+        }
+
+        private void transferPendingTimeouts() {
+            // Bound the work per tick so that a burst of new timeouts cannot stall the wheel
+            for (int i = 0; i < 100_000; i++) {
+                Timeout timeout = pendingTimeouts.poll();
+                if (timeout == null) {
+                    return;
+                }
+                if (timeout.state.get() != Timeout.ST_INIT) {
+                    continue;
+                }
+                long calculated = timeout.deadline / tickNanos;
+                timeout.remainingRounds = (calculated - tick) / wheel.length;
+                long ticks = Math.max(calculated, tick);
+                wheel[(int) (ticks & mask)].add(timeout);
+            }
+        }
+
+        private void processCancelledTimeouts() {
+            Timeout timeout;
+            while ((timeout = cancelledTimeouts.poll()) != null) {
+                if (timeout.bucket != null) {
+                    timeout.bucket.remove(timeout);
+                }
+            }
+        }
+    }
+
+    private void expire(Timeout timeout) {
+        if (!timeout.state.compareAndSet(Timeout.ST_INIT, Timeout.ST_EXPIRED)) {
+            return;
+        }
+        pendingCount.decrementAndGet();
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    timeout.task.run();
+                } catch (Throwable t) {
+                    LOGGER.warn("Timer task threw an exception", t);
+                }
+            });
+        } catch (Throwable t) {
+            LOGGER.warn("Timer task could not be handed to the executor", t);
+        }
+    }
+
+    /**
+     * Doubly linked list of the timeouts that share a wheel slot. Only touched by the worker thread.
+     */
+    private final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void expireTimeouts(long deadline) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    if (timeout.deadline <= deadline) {
+                        expire(timeout);
+                    } else {
+                        // Placed into the wrong slot; should never happen, so place it again on the next tick
+                        LOGGER.error("Timeout due at {} ns found in the slot of {} ns; rescheduling it",
+                                timeout.deadline, deadline);
+                        pendingTimeouts.add(timeout);
+                    }
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(Timeout timeout) {
+            Timeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+
+    /**
+     * Handle of a scheduled task.
+     */
+    public static final class Timeout {
+
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private final HashedWheelTimer timer;
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+
+        // Only accessed by the worker thread
+        private long remainingRounds;
+        private Timeout next;
+        private Timeout prev;
+        private Bucket bucket;
+
+        private Timeout(HashedWheelTimer timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the task if it has not run yet.
+         *
+         * @return true if the task was cancelled, false if it already ran or was cancelled before
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            timer.pendingCount.decrementAndGet();
+            timer.cancelledTimeouts.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == ST_EXPIRED;
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package org.foodorder.scheduler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shares one pool between many task queues ("flows") with weighted fair queuing.
+ * <p>
+ * Every flow has a weight. Each queued task gets a virtual finish tag of
+ * {@code max(virtualTime, previous tag of the flow) + 1 / weight}, and whenever a pool slot frees up
+ * the flow whose head task has the smallest tag runs next. A flow with twice the weight is therefore
+ * served twice as often while both are backlogged, and a flow that was idle resumes at the current
+ * virtual time instead of claiming the service it missed. The virtual time is the tag of the task
+ * that was dispatched last (self-clocked fair queuing).
+ * <p>
+ * At most {@code slots} tasks are handed to the pool at a time, so the ordering decision is made here
+ * rather than in the pool's own queues, and a flow never runs more than {@code weight} tasks at once.
+ * <p>
+ * If the pool rejects a task, its slot is given back and the task goes back to the head of its flow
+ * with its finish tag, so it runs when a slot frees up or the next task is submitted. A submitter
+ * whose own task is still queued at that point gets it back as a {@link RejectedExecutionException}.
+ */
+public class WeightedFairScheduler {
+
+    private final ExecutorService pool;
+    private final int slots;
+    private final PriorityQueue<Flow> ready = new PriorityQueue<>(
+            Comparator.comparingDouble((Flow flow) -> flow.queue.peek().finishTag).thenComparingLong(flow -> flow.queue.peek().sequence));
+    private double virtualTime;
+    private long sequence;
+    private int inFlight;
+
+    /**
+     * @param pool  the pool that runs the tasks
+     * @param slots the maximum number of tasks handed to the pool at the same time, usually its parallelism
+     */
+    public WeightedFairScheduler(ExecutorService pool, int slots) {
+        if (slots <= 0) {
+            throw new IllegalArgumentException("Slots must be positive.");
+        }
+        this.pool = pool;
+        this.slots = slots;
+    }
+
+    /**
+     * Creates a new flow.
+     *
+     * @param weight the share of the pool the flow gets while backlogged, and the maximum number of
+     *               its tasks that run at the same time
+     * @return the flow, usable as an executor
+     */
+    public Flow newFlow(int weight) {
+        return new Flow(weight);
+    }
+
+    /**
+     * Stops the underlying pool. Tasks already handed to it still run.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Stops the underlying pool and interrupts the tasks running on it. Tasks still queued in
+     * flows are left to {@link Flow#shutdownNow()}.
+     */
+    public void shutdownNow() {
+        pool.shutdownNow();
+    }
+
+    private RejectedExecutionException dispatch() {
+        List<Dispatched> toRun = new ArrayList<>();
+        synchronized (this) {
+            while (inFlight < slots && !ready.isEmpty()) {
+                Flow flow = ready.poll();
+                flow.inReady = false;
+                QueuedTask next = flow.queue.poll();
+                virtualTime = Math.max(virtualTime, next.finishTag);
+                long waitNanos = System.nanoTime() - next.enqueuedNanos;
+                flow.running++;
+                flow.recordStart(waitNanos);
+                inFlight++;
+                flow.makeReadyIfRunnable();
+                toRun.add(new Dispatched(flow, next, waitNanos));
+            }
+        }
+        RejectedExecutionException rejected = null;
+        int handedOff = 0;
+        for (; handedOff < toRun.size(); handedOff++) {
+            Dispatched dispatched = toRun.get(handedOff);
+            try {
+                pool.execute(() -> {
+                    try {
+                        dispatched.task().task.run();
+                    } finally {
+                        complete(dispatched.flow());
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejected = e;
+                break;
+            }
+        }
+        if (rejected == null) {
+            return null;
+        }
+        synchronized (this) {
+            // Give the slots back and requeue the tasks the pool did not take, last first,
+            // so every flow gets its tasks back at the head in their original order
+            for (int i = toRun.size() - 1; i >= handedOff; i--) {
+                Dispatched dispatched = toRun.get(i);
+                inFlight--;
+                dispatched.flow().running--;
+                dispatched.flow().unrecordStart(dispatched.waitNanos());
+                dispatched.flow().requeue(dispatched.task());
+            }
+        }
+        return rejected;
+    }
+
+    private void complete(Flow flow) {
+        synchronized (this) {
+            flow.running--;
+            inFlight--;
+            flow.pending--;
+            flow.makeReadyIfRunnable();
+            if (flow.isTerminated()) {
+                notifyAll();
+            }
+        }
+        // A task the pool rejects here stays queued for the next completion or submission
+        dispatch();
+    }
+
+    /**
+     * A task taken from its flow to be handed to the pool.
+     */
+    private record Dispatched(Flow flow, QueuedTask task, long waitNanos) {
+    }
+
+    /**
+     * A task waiting in a flow.
+     */
+    private static final class QueuedTask {
+        private final Runnable task;
+        private final double finishTag;
+        private final long sequence;
+        private final long enqueuedNanos = System.nanoTime();
+
+        private QueuedTask(Runnable task, double finishTag, long sequence) {
+            this.task = task;
+            this.finishTag = finishTag;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * One task queue of the scheduler. All state is guarded by the owning scheduler's monitor.
+     */
+    public final class Flow extends AbstractExecutorService {
+
+        private final ArrayDeque<QueuedTask> queue = new ArrayDeque<>();
+        private int weight;
+        private double lastFinishTag;
+        private int running;
+        private int pending;
+        private boolean inReady;
+        private boolean shutdown;
+        private long started;
+        private long totalWaitNanos;
+        private long maxWaitNanos;
+
+        private Flow(int weight) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Weight must be positive.");
+            }
+            this.weight = weight;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            QueuedTask queued;
+            synchronized (WeightedFairScheduler.this) {
+                if (shutdown) {
+                    throw new RejectedExecutionException("Flow has been shut down.");
+                }
+                double finishTag = Math.max(virtualTime, lastFinishTag) + 1.0 / weight;
+                lastFinishTag = finishTag;
+                queued = new QueuedTask(task, finishTag, sequence++);
+                queue.add(queued);
+                pending++;
+                makeReadyIfRunnable();
+            }
+            RejectedExecutionException rejected = dispatch();
+            // Withdraw the task if the pool turned it or a task ahead of it away
+            if (rejected != null && withdraw(queued)) {
+                throw rejected;
+            }
+        }
+
+        /**
+         * Changes the weight of the flow, which also caps how many of its tasks run at once.
+         * Tasks already queued keep their finish tags.
+         *
+         * @param weight the new weight
+         */
+        public void setWeight(int weight) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Weight must be positive.");
+            }
+            synchronized (WeightedFairScheduler.this) {
+                this.weight = weight;
+                makeReadyIfRunnable();
+            }
+            dispatch();
+        }
+
+        public int getWeight() {
+            synchronized (WeightedFairScheduler.this) {
+                return weight;
+            }
+        }
+
+        /**
+         * @return the number of tasks waiting to run
+         */
+        public int getQueueDepth() {
+            synchronized (WeightedFairScheduler.this) {
+                return queue.size();
+            }
+        }
+
+        /**
+         * @return the number of tasks currently running
+         */
+        public int getActiveCount() {
+            synchronized (WeightedFairScheduler.this) {
+                return running;
+            }
+        }
+
+        /**
+         * @return the number of tasks that have started running
+         */
+        public long getStartedCount() {
+            synchronized (WeightedFairScheduler.this) {
+                return started;
+            }
+        }
+
+        /**
+         * @return the average time tasks waited in the queue before running, in nanoseconds
+         */
+        public long getAverageWaitNanos() {
+            synchronized (WeightedFairScheduler.this) {
+                return started == 0 ? 0 : totalWaitNanos / started;
+            }
+        }
+
+        /**
+         * @return the longest time a task waited in the queue before running, in nanoseconds
+         */
+        public long getMaxWaitNanos() {
+            synchronized (WeightedFairScheduler.this) {
+                return maxWaitNanos;
+            }
+        }
+
+        private void recordStart(long waitNanos) {
+            started++;
+            totalWaitNanos += waitNanos;
+            maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+        }
+
+        // The longest wait is kept, the requeued task waits longer still
+        private void unrecordStart(long waitNanos) {
+            started--;
+            totalWaitNanos -= waitNanos;
+        }
+
+        private void requeue(QueuedTask task) {
+            unready();
+            queue.addFirst(task);
+            makeReadyIfRunnable();
+        }
+
+        private boolean withdraw(QueuedTask task) {
+            synchronized (WeightedFairScheduler.this) {
+                unready();
+                boolean withdrawn = queue.removeLastOccurrence(task);
+                if (withdrawn) {
+                    pending--;
+                    if (isTerminated()) {
+                        WeightedFairScheduler.this.notifyAll();
+                    }
+                }
+                makeReadyIfRunnable();
+                return withdrawn;
+            }
+        }
+
+        // The ready queue is ordered by the head task, so a flow leaves it before its head changes
+        private void unready() {
+            if (inReady) {
+                ready.remove(this);
+                inReady = false;
+            }
+        }
+
+        private void makeReadyIfRunnable() {
+            if (!inReady && !queue.isEmpty() && running < weight) {
+                ready.add(this);
+                inReady = true;
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            synchronized (WeightedFairScheduler.this) {
+                shutdown = true;
+                WeightedFairScheduler.this.notifyAll();
+            }
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            List<Runnable> dropped = new ArrayList<>();
+            synchronized (WeightedFairScheduler.this) {
+                shutdown = true;
+                unready();
+                QueuedTask queued;
+                while ((queued = queue.poll()) != null) {
+                    dropped.add(queued.task);
+                    pending--;
+                }
+                WeightedFairScheduler.this.notifyAll();
+            }
+            return dropped;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            synchronized (WeightedFairScheduler.this) {
+                return shutdown;
+            }
+        }
+
+        @Override
+        public boolean isTerminated() {
+            synchronized (WeightedFairScheduler.this) {
+                return shutdown && pending == 0;
+            }
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            synchronized (WeightedFairScheduler.this) {
+                while (!isTerminated()) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(WeightedFairScheduler.this, remaining);
+                }
+                return true;
+            }
+        }
+    }
+}
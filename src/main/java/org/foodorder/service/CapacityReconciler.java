@@ -0,0 +1,140 @@
+package org.foodorder.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.repository.RestaurantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Background sweeper that keeps {@code restaurant.current_processing_load} in line with the live
+ * reservations in {@link CapacityReservationTable}. Load left behind by a crash or restart, or by
+ * a release that never happened, is reset to the sum of the live reservations, in the database
+ * and in the {@link RestaurantCapacityLedger}.
+ * <p>
+ * Reservations in flight briefly show up as a mismatch, so a restaurant is only corrected when
+ * the same mismatch is seen on two consecutive sweeps. Both loads are only overwritten if they still
+ * hold the values compared, so capacity reserved or released during a sweep is never lost. The reservation table is per process, so
+ * this assumes a single application node owns the restaurant rows.
+ * <p>
+ * The database is the source of truth: each correction runs in its own transaction, the ledger is
+ * only reset once the guarded update of the row succeeded, and the update is rolled back if the
+ * ledger moved meanwhile. A sweep only reads the rows that hold load; a restaurant without stored
+ * load can only have drifted if memory holds load or reservations for it.
+ */
+@Component
+public class CapacityReconciler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CapacityReconciler.class);
+
+    private final RestaurantRepository restaurantRepository;
+    private final RestaurantCapacityLedger capacityLedger;
+    private final CapacityReservationTable reservationTable;
+    private final TransactionTemplate transactionTemplate;
+
+    // Mismatches seen on the previous sweep, keyed by restaurant ID; only touched by the sweeping thread
+    private Map<Long, Drift> suspected = new HashMap<>();
+
+    public CapacityReconciler(RestaurantRepository restaurantRepository,
+                              RestaurantCapacityLedger capacityLedger,
+                              CapacityReservationTable reservationTable,
+                              PlatformTransactionManager transactionManager) {
+        this.restaurantRepository = restaurantRepository;
+        this.capacityLedger = capacityLedger;
+        this.reservationTable = reservationTable;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Compares the stored and in-memory load of every restaurant that holds load or live
+     * reservations with those reservations and corrects the ones that drifted.
+     *
+     * @return the number of restaurants corrected by this sweep
+     */
+    @Scheduled(fixedDelayString = "${capacity.reconcile.interval-ms:30000}",
+            initialDelayString = "${capacity.reconcile.interval-ms:30000}")
+    public synchronized int reconcile() {
+        Map<Long, Integer> liveItems = reservationTable.liveItemsByRestaurant();
+        Map<Long, Integer> inMemoryLoads = capacityLedger.loads();
+        Map<Long, Integer> storedLoads = new HashMap<>();
+        for (RestaurantEntity restaurant : restaurantRepository.findByCurrentProcessingLoadGreaterThan(0)) {
+            storedLoads.put(restaurant.getId(), restaurant.getCurrentProcessingLoad());
+        }
+        Set<Long> restaurantIds = new TreeSet<>(storedLoads.keySet());
+        restaurantIds.addAll(liveItems.keySet());
+        inMemoryLoads.forEach((restaurantId, load) -> {
+            if (load > 0) {
+                restaurantIds.add(restaurantId);
+            }
+        });
+
+        Map<Long, Drift> stillSuspected = new HashMap<>();
+        int corrected = 0;
+        for (Long restaurantId : restaurantIds) {
+            int stored = storedLoads.getOrDefault(restaurantId, 0);
+            // A restaurant the ledger has not loaded yet is loaded from the stored load
+            Drift drift = new Drift(liveItems.getOrDefault(restaurantId, 0), stored,
+                    inMemoryLoads.getOrDefault(restaurantId, stored));
+            if (!drift.isMismatch()) {
+                continue;
+            }
+            if (!drift.equals(suspected.get(restaurantId))) {
+                stillSuspected.put(restaurantId, drift);
+                continue;
+            }
+            if (!correct(restaurantId, drift)) {
+                LOGGER.debug("Processing load of restaurant ID {} changed while reconciling; skipped", restaurantId);
+                continue;
+            }
+            corrected++;
+            LOGGER.warn("Reset processing load of restaurant ID {} to {} (stored {}, in memory {})",
+                    restaurantId, drift.expected(), drift.stored(), drift.inMemory());
+        }
+        suspected = stillSuspected;
+        return corrected;
+    }
+
+    /**
+     * Resets both loads of a restaurant to the expected value. Only the loads observed are
+     * overwritten, so a reservation or release committed since the live items were read is not
+     * lost; the restaurant is looked at again on the next sweep.
+     *
+     * @return true if both loads were reset, false if either changed and nothing was reset
+     */
+    private boolean correct(Long restaurantId, Drift drift) {
+        boolean[] ledgerReset = new boolean[1];
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (restaurantRepository.compareAndSetCurrentProcessingLoad(restaurantId, drift.stored(), drift.expected()) == 0) {
+                    return false;
+                }
+                if (!capacityLedger.compareAndResetLoad(restaurantId, drift.inMemory(), drift.expected())) {
+                    status.setRollbackOnly();
+                    return false;
+                }
+                ledgerReset[0] = true;
+                return true;
+            }));
+        } catch (RuntimeException e) {
+            // The update did not commit, so the ledger goes back to the load it held
+            if (ledgerReset[0]) {
+                capacityLedger.compareAndResetLoad(restaurantId, drift.expected(), drift.inMemory());
+            }
+            LOGGER.error("Failed to reset processing load of restaurant ID {}", restaurantId, e);
+            return false;
+        }
+    }
+
+    private record Drift(int expected, int stored, int inMemory) {
+        private boolean isMismatch() {
+            return stored != expected || inMemory != expected;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.foodorder.service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory table of live capacity reservations. Every successful reservation gets a unique ID,
+ * and the items it holds can be taken out of the table exactly once: either by ID, when the order
+ * that made it finishes, or by count, oldest first, when a restaurant dispatches items without
+ * knowing which order they belonged to. The sum of the live reservations of a restaurant is the
+ * load it should have, which {@link CapacityReconciler} uses to correct drift.
+ * <p>
+ * The table only covers reservations made by this process, so it is a single-node view.
+ */
+@Component
+public class CapacityReservationTable {
+
+    private final AtomicLong nextId = new AtomicLong();
+    private final ConcurrentHashMap<Long, Reservation> reservations = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, ConcurrentLinkedQueue<Reservation>> byRestaurant = new ConcurrentHashMap<>();
+
+    /**
+     * Records a reservation that has already been applied to the restaurant's load.
+     *
+     * @param restaurantId The ID of the restaurant.
+     * @param itemCount    The number of items reserved.
+     * @return The ID of the new reservation.
+     */
+    public long add(Long restaurantId, int itemCount) {
+        Reservation reservation = new Reservation(nextId.incrementAndGet(), restaurantId, itemCount);
+        reservations.put(reservation.id, reservation);
+        byRestaurant.computeIfAbsent(restaurantId, id -> new ConcurrentLinkedQueue<>()).add(reservation);
+        return reservation.id;
+    }
+
+    /**
+     * Takes a reservation out of the table.
+     *
+     * @param reservationId The ID of the reservation.
+     * @return The restaurant and the number of items still held by the reservation, or null if it
+     *         is unknown or was already released.
+     */
+    public Released remove(long reservationId) {
+        Reservation reservation = reservations.remove(reservationId);
+        if (reservation == null) {
+            return null;
+        }
+        int items = reservation.remaining.getAndSet(0);
+        return items > 0 ? new Released(reservation.restaurantId, items) : null;
+    }
+
+    /**
+     * Takes up to the given number of items out of the live reservations of a restaurant,
+     * oldest reservation first.
+     *
+     * @param restaurantId The ID of the restaurant.
+     * @param itemCount    The number of items to take.
+     * @return The number of items actually taken, at most {@code itemCount}.
+     */
+    public int consume(Long restaurantId, int itemCount) {
+        ConcurrentLinkedQueue<Reservation> queue = byRestaurant.get(restaurantId);
+        if (queue == null) {
+            return 0;
+        }
+        int left = itemCount;
+        // Consumers of a restaurant take turns: the iterator is weakly consistent, so a consumer
+        // could otherwise miss a reservation added while another one drains those ahead of it
+        synchronized (queue) {
+            Iterator<Reservation> iterator = queue.iterator();
+            while (left > 0 && iterator.hasNext()) {
+                Reservation reservation = iterator.next();
+                int current;
+                int taken;
+                do {
+                    current = reservation.remaining.get();
+                    taken = Math.min(current, left);
+                } while (taken > 0 && !reservation.remaining.compareAndSet(current, current - taken));
+                left -= taken;
+                if (current - taken == 0) {
+                    reservations.remove(reservation.id, reservation);
+                    iterator.remove();
+                }
+            }
+        }
+        return itemCount - left;
+    }
+
+    /**
+     * @param restaurantId The ID of the restaurant.
+     * @return The number of items held by the live reservations of the restaurant.
+     */
+    public int liveItems(Long restaurantId) {
+        ConcurrentLinkedQueue<Reservation> queue = byRestaurant.get(restaurantId);
+        return queue == null ? 0 : sumAndPurge(queue);
+    }
+
+    /**
+     * @return The number of items held by live reservations, keyed by restaurant ID. Restaurants
+     *         without live reservations are left out.
+     */
+    public Map<Long, Integer> liveItemsByRestaurant() {
+        Map<Long, Integer> live = new HashMap<>();
+        byRestaurant.forEach((restaurantId, queue) -> {
+            int items = sumAndPurge(queue);
+            if (items > 0) {
+                live.put(restaurantId, items);
+            }
+        });
+        return live;
+    }
+
+    /**
+     * @return The number of live reservations.
+     */
+    public int size() {
+        return reservations.size();
+    }
+
+    /**
+     * Drops every reservation of a restaurant, e.g. after it has been deleted.
+     *
+     * @param restaurantId The ID of the restaurant.
+     */
+    public void evict(Long restaurantId) {
+        ConcurrentLinkedQueue<Reservation> queue = byRestaurant.remove(restaurantId);
+        if (queue != null) {
+            queue.forEach(reservation -> reservations.remove(reservation.id, reservation));
+        }
+    }
+
+    private static int sumAndPurge(ConcurrentLinkedQueue<Reservation> queue) {
+        int sum = 0;
+        Iterator<Reservation> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            int items = iterator.next().remaining.get();
+            if (items == 0) {
+                iterator.remove();
+            }
+            sum += items;
+        }
+        return sum;
+    }
+
+    /**
+     * The restaurant and item count handed back by {@link #remove(long)}.
+     */
+    public record Released(Long restaurantId, int itemCount) {
+    }
+
+    private static final class Reservation {
+        private final long id;
+        private final Long restaurantId;
+        private final AtomicInteger remaining;
+
+        private Reservation(long id, Long restaurantId, int itemCount) {
+            this.id = id;
+            this.restaurantId = restaurantId;
+            this.remaining = new AtomicInteger(itemCount);
+        }
+    }
+}
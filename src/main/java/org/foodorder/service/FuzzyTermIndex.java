@@ -0,0 +1,177 @@
+package org.foodorder.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds the terms of a {@link MenuSearchIndex} within a few edits of a misspelled query term, such
+ * as "pizza" for "piza" or "biryani" for "biriyani", without comparing the query to every term.
+ * <p>
+ * Terms are indexed by their trigrams. An insertion, deletion or substitution changes at most 3 of
+ * a term's trigrams and a transposition of adjacent letters, which counts as one edit, at most 4,
+ * so a term within {@code k} edits of the query shares all but at most {@code 4k} of its trigrams.
+ * The trigram postings are bucketed by term length, so only terms within {@code k} characters of
+ * the query's length are ever looked at. Only terms sharing enough trigrams are candidates, and only
+ * those are verified with a bounded edit distance that gives up as soon as it exceeds {@code k}. Terms with digits are not indexed,
+ * since a misspelled number is better left unmatched.
+ * <p>
+ * Reads are lock-free; writes are serialized by the enclosing index.
+ */
+final class FuzzyTermIndex {
+
+    private static final String PADDING = "$$";
+    private static final int MIN_LENGTH = 3;
+
+    // Keyed by term length, then by trigram
+    private final ConcurrentHashMap<Integer, ConcurrentHashMap<String, Set<String>>> termsByLength = new ConcurrentHashMap<>();
+
+    /**
+     * The number of edits tolerated for a term of the given length: none below 3 characters, where
+     * almost any word would match, one up to 5 and two from 6 on.
+     *
+     * @param term The query term.
+     * @return The maximum edit distance of a correction.
+     */
+    static int maxEdits(String term) {
+        int length = term.length();
+        return length < MIN_LENGTH ? 0 : length < 6 ? 1 : 2;
+    }
+
+    void add(String term) {
+        if (indexable(term)) {
+            ConcurrentHashMap<String, Set<String>> termsByTrigram = termsByLength.computeIfAbsent(term.length(),
+                    k -> new ConcurrentHashMap<>());
+            for (String trigram : trigrams(term)) {
+                termsByTrigram.computeIfAbsent(trigram, k -> ConcurrentHashMap.newKeySet()).add(term);
+            }
+        }
+    }
+
+    void remove(String term) {
+        ConcurrentHashMap<String, Set<String>> termsByTrigram = termsByLength.get(term.length());
+        if (indexable(term) && termsByTrigram != null) {
+            for (String trigram : trigrams(term)) {
+                termsByTrigram.computeIfPresent(trigram, (k, terms) -> {
+                    terms.remove(term);
+                    return terms.isEmpty() ? null : terms;
+                });
+            }
+        }
+    }
+
+    void clear() {
+        termsByLength.clear();
+    }
+
+    /**
+     * Finds the indexed terms within {@link #maxEdits(String)} of a query term.
+     *
+     * @param term The query term, folded and stemmed like the indexed terms.
+     * @return The matching terms with their edit distance, nearest first; unordered within a distance.
+     */
+    List<Match> similar(String term) {
+        int maxEdits = maxEdits(term);
+        if (maxEdits == 0 || !indexable(term)) {
+            return List.of();
+        }
+        Set<String> trigrams = trigrams(term);
+        int required = Math.max(1, trigrams.size() - 4 * maxEdits);
+
+        Map<String, Integer> shared = new HashMap<>();
+        for (int length = term.length() - maxEdits; length <= term.length() + maxEdits; length++) {
+            ConcurrentHashMap<String, Set<String>> termsByTrigram = termsByLength.get(length);
+            if (termsByTrigram == null) {
+                continue;
+            }
+            for (String trigram : trigrams) {
+                Set<String> terms = termsByTrigram.get(trigram);
+                if (terms != null) {
+                    terms.forEach(candidate -> shared.merge(candidate, 1, Integer::sum));
+                }
+            }
+        }
+
+        List<Match> matches = new ArrayList<>();
+        shared.forEach((candidate, count) -> {
+            if (count >= required) {
+                int distance = distance(term, candidate, maxEdits);
+                if (distance <= maxEdits) {
+                    matches.add(new Match(candidate, distance));
+                }
+            }
+        });
+        matches.sort((first, second) -> Integer.compare(first.distance(), second.distance()));
+        return matches;
+    }
+
+    /**
+     * Edit distance counting insertions, deletions, substitutions and transpositions of adjacent
+     * characters, computed only as far as it can stay within the bound.
+     *
+     * @return The distance, or {@code maxEdits + 1} if it exceeds {@code maxEdits}.
+     */
+    static int distance(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return maxEdits + 1;
+        }
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMinimum = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, beforePrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMinimum = Math.min(rowMinimum, value);
+            }
+            if (rowMinimum > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], maxEdits + 1);
+    }
+
+    private static boolean indexable(String term) {
+        if (term.length() < MIN_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < term.length(); i++) {
+            if (Character.isDigit(term.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> trigrams(String term) {
+        String padded = PADDING + term + PADDING;
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    /**
+     * An indexed term and its edit distance from the query term.
+     */
+    record Match(String term, int distance) {
+    }
+}
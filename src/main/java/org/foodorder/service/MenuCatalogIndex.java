@@ -0,0 +1,393 @@
+package org.foodorder.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.CandidateFeatures;
+import org.foodorder.model.CatalogCandidate;
+import org.foodorder.repository.MenuItemRepository;
+import org.foodorder.repository.RestaurantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory index of the menu catalog that maps normalized menu item names to the
+ * {@link CatalogCandidate}s offering them, so restaurants can be selected for an order without
+ * touching the database. The index is loaded once the application is ready and kept current by
+ * {@link MenuServiceImpl} and {@link RestaurantServiceImpl} whenever they write menu items or
+ * restaurants. Writes made directly through the repositories are not seen until {@link #rebuild()}.
+ * <p>
+ * Lookups are lock-free reads of immutable candidate lists; writes are serialized on the index.
+ */
+@Component
+public class MenuCatalogIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MenuCatalogIndex.class);
+
+    private static final Comparator<CatalogCandidate> CANDIDATE_ORDER =
+            Comparator.comparing(CatalogCandidate::getRestaurantId).thenComparing(CatalogCandidate::getMenuItemId);
+    private static final int DEFAULT_CACHED_SELECTIONS = 1024;
+
+    private static final Comparator<CatalogCandidate> PRICE_ORDER =
+            Comparator.comparing(CatalogCandidate::getPrice).thenComparing(CANDIDATE_ORDER);
+
+    private final MenuItemRepository menuItemRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final SelectionCache selectionCache;
+
+    // Read without locking; each list is immutable and replaced as a whole
+    private final ConcurrentHashMap<String, List<CatalogCandidate>> candidatesByName = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, NavigableSet<CatalogCandidate>> candidatesByPrice = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CandidateFeatures> featuresByName = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private final Map<Long, MenuItemRow> menuItems = new HashMap<>();
+    private final Map<Long, RestaurantRow> restaurants = new HashMap<>();
+    private final Map<String, Set<Long>> menuItemIdsByName = new HashMap<>();
+    private final Map<Long, Set<Long>> menuItemIdsByRestaurant = new HashMap<>();
+
+    public MenuCatalogIndex(MenuItemRepository menuItemRepository, RestaurantRepository restaurantRepository) {
+        this(menuItemRepository, restaurantRepository, DEFAULT_CACHED_SELECTIONS);
+    }
+
+    /**
+     * @param maxCachedSelections the maximum number of ranked candidate lists kept by {@link #findRankedCandidates}
+     */
+    @Autowired
+    public MenuCatalogIndex(MenuItemRepository menuItemRepository, RestaurantRepository restaurantRepository,
+                            @Value("${selection.cache.max-entries:1024}") int maxCachedSelections) {
+        this.menuItemRepository = menuItemRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.selectionCache = new SelectionCache(maxCachedSelections);
+    }
+
+    /**
+     * Reloads the whole index from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        menuItems.clear();
+        restaurants.clear();
+        menuItemIdsByName.clear();
+        menuItemIdsByRestaurant.clear();
+
+        restaurantRepository.findAll().forEach(restaurant -> restaurants.put(restaurant.getId(), RestaurantRow.of(restaurant)));
+        menuItemRepository.findAll().forEach(this::indexMenuItem);
+        new ArrayList<>(menuItemIdsByName.keySet()).forEach(this::publish);
+        candidatesByName.keySet().retainAll(menuItemIdsByName.keySet());
+        candidatesByPrice.keySet().retainAll(menuItemIdsByName.keySet());
+        featuresByName.keySet().retainAll(menuItemIdsByName.keySet());
+        selectionCache.clear();
+        LOGGER.info("Indexed {} menu items from {} restaurants", menuItems.size(), restaurants.size());
+    }
+
+    /**
+     * Finds the candidates whose menu item name contains the given name, ignoring case.
+     *
+     * @param itemName The name of the item being ordered.
+     * @return The matching candidates ordered by restaurant ID, then menu item ID.
+     */
+    public List<CatalogCandidate> findCandidates(String itemName) {
+        String needle = normalize(itemName);
+        List<CatalogCandidate> matches = new ArrayList<>();
+        candidatesByName.forEach((name, candidates) -> {
+            if (name.contains(needle)) {
+                matches.addAll(candidates);
+            }
+        });
+        matches.sort(CANDIDATE_ORDER);
+        return matches;
+    }
+
+    /**
+     * Finds the candidates like {@link #findCandidates(String)}, ranked in the given order. The
+     * ranked list is cached per normalized name and ranking, and dropped as soon as a menu item
+     * it may contain, or the rating or open status of one of their restaurants, changes; repeated
+     * lookups of a popular item cost one map lookup.
+     *
+     * @param itemName The name of the item being ordered.
+     * @param ranking  The name of the ranking, e.g. the strategy name; the same name must always use the same order.
+     * @param order    The order to rank the candidates in.
+     * @return The matching candidates in the given order; immutable.
+     */
+    public List<CatalogCandidate> findRankedCandidates(String itemName, String ranking, Comparator<CatalogCandidate> order) {
+        return selectionCache.get(normalize(itemName), ranking, () -> {
+            List<CatalogCandidate> candidates = findCandidates(itemName);
+            candidates.sort(order);
+            return candidates;
+        });
+    }
+
+    /**
+     * @return The number of ranked candidate lists currently cached.
+     */
+    public int cachedSelectionCount() {
+        return selectionCache.size();
+    }
+
+    /**
+     * Finds the candidates like {@link #findCandidates(String)}, as one block of precomputed
+     * scoring features per matching menu item name.
+     *
+     * @param itemName The name of the item being ordered.
+     * @return The feature blocks of the matching names, in no particular order.
+     */
+    public List<CandidateFeatures> findCandidateFeatures(String itemName) {
+        String needle = normalize(itemName);
+        List<CandidateFeatures> matches = new ArrayList<>();
+        featuresByName.forEach((name, features) -> {
+            if (name.contains(needle)) {
+                matches.add(features);
+            }
+        });
+        return matches;
+    }
+
+    /**
+     * Finds the cheapest candidate for an item, ignoring case. Each name keeps its candidates in a
+     * price-ordered set, so an item ordered by its full menu item name costs one hash lookup and
+     * reading the cheapest entry. Only if no menu item has that exact name are the names containing
+     * it matched instead, which scans every distinct name.
+     *
+     * @param itemName The name of the item being ordered.
+     * @return The cheapest candidate, ties broken by restaurant ID, or empty if nothing matches.
+     */
+    public Optional<CatalogCandidate> findCheapestCandidate(String itemName) {
+        return findCheapestCandidate(itemName, candidate -> true);
+    }
+
+    /**
+     * Finds the cheapest candidate like {@link #findCheapestCandidate(String)} among the candidates
+     * accepted by the filter. Each price-ordered set is walked from its cheapest entry until the
+     * filter accepts one, so the next-cheapest candidates are tried in the same pass. The names
+     * containing the item name are only scanned if the exact name has no accepted candidate.
+     *
+     * @param itemName The name of the item being ordered.
+     * @param filter   Accepts the candidates that may be selected, e.g. those of certain restaurants.
+     * @return The cheapest accepted candidate, or empty if the filter accepts none.
+     */
+    public Optional<CatalogCandidate> findCheapestCandidate(String itemName, Predicate<CatalogCandidate> filter) {
+        String needle = normalize(itemName);
+        NavigableSet<CatalogCandidate> exact = candidatesByPrice.get(needle);
+        if (exact != null) {
+            CatalogCandidate cheapest = cheapestAccepted(exact, filter, null);
+            if (cheapest != null) {
+                return Optional.of(cheapest);
+            }
+        }
+
+        // Substring fallback, linear in the number of distinct names
+        CatalogCandidate cheapest = null;
+        for (Map.Entry<String, NavigableSet<CatalogCandidate>> entry : candidatesByPrice.entrySet()) {
+            if (entry.getKey().contains(needle)) {
+                cheapest = cheapestAccepted(entry.getValue(), filter, cheapest);
+            }
+        }
+        return Optional.ofNullable(cheapest);
+    }
+
+    /**
+     * Adds or refreshes a menu item after it has been saved.
+     *
+     * @param menuItem The saved menu item.
+     */
+    public synchronized void putMenuItem(MenuItemEntity menuItem) {
+        if (menuItem.getId() == null) {
+            return;
+        }
+        MenuItemRow previous = unindexMenuItem(menuItem.getId());
+        indexMenuItem(menuItem);
+        if (previous != null) {
+            publish(previous.name());
+        }
+        publish(normalize(menuItem.getName()));
+    }
+
+    /**
+     * Drops a menu item after it has been deleted.
+     *
+     * @param menuItemId The ID of the menu item.
+     */
+    public synchronized void removeMenuItem(Long menuItemId) {
+        MenuItemRow previous = unindexMenuItem(menuItemId);
+        if (previous != null) {
+            publish(previous.name());
+        }
+    }
+
+    /**
+     * Adds or refreshes a restaurant after it has been saved, updating the rating and open flag of
+     * all candidates it offers if either changed.
+     *
+     * @param restaurant The saved restaurant.
+     */
+    public synchronized void putRestaurant(RestaurantEntity restaurant) {
+        if (restaurant.getId() == null) {
+            return;
+        }
+        RestaurantRow row = RestaurantRow.of(restaurant);
+        if (!row.equals(restaurants.put(restaurant.getId(), row))) {
+            publishRestaurant(restaurant.getId());
+        }
+    }
+
+    /**
+     * Updates the open flag of a restaurant's candidates.
+     *
+     * @param restaurantId The ID of the restaurant.
+     * @param open         Whether the restaurant is open.
+     */
+    public synchronized void updateOpenStatus(Long restaurantId, boolean open) {
+        RestaurantRow restaurant = restaurants.get(restaurantId);
+        if (restaurant != null && restaurant.open() != open) {
+            restaurants.put(restaurantId, new RestaurantRow(restaurant.rating(), open));
+            publishRestaurant(restaurantId);
+        }
+    }
+
+    /**
+     * Drops a restaurant and all of its menu items after it has been deleted.
+     *
+     * @param restaurantId The ID of the restaurant.
+     */
+    public synchronized void removeRestaurant(Long restaurantId) {
+        restaurants.remove(restaurantId);
+        Set<String> names = new HashSet<>();
+        for (Long menuItemId : new ArrayList<>(menuItemIdsByRestaurant.getOrDefault(restaurantId, Set.of()))) {
+            MenuItemRow previous = unindexMenuItem(menuItemId);
+            if (previous != null) {
+                names.add(previous.name());
+            }
+        }
+        names.forEach(this::publish);
+    }
+
+    /**
+     * @return The number of menu items in the index.
+     */
+    public synchronized int size() {
+        return menuItems.size();
+    }
+
+    private void indexMenuItem(MenuItemEntity menuItem) {
+        MenuItemRow row = new MenuItemRow(menuItem.getId(), menuItem.getRestaurantId(), normalize(menuItem.getName()), menuItem.getPrice());
+        menuItems.put(row.id(), row);
+        menuItemIdsByName.computeIfAbsent(row.name(), k -> new HashSet<>()).add(row.id());
+        menuItemIdsByRestaurant.computeIfAbsent(row.restaurantId(), k -> new HashSet<>()).add(row.id());
+    }
+
+    private MenuItemRow unindexMenuItem(Long menuItemId) {
+        MenuItemRow row = menuItems.remove(menuItemId);
+        if (row != null) {
+            removeFromGroup(menuItemIdsByName, row.name(), row.id());
+            removeFromGroup(menuItemIdsByRestaurant, row.restaurantId(), row.id());
+        }
+        return row;
+    }
+
+    private void publishRestaurant(Long restaurantId) {
+        Set<String> names = new HashSet<>();
+        for (Long menuItemId : menuItemIdsByRestaurant.getOrDefault(restaurantId, Set.of())) {
+            names.add(menuItems.get(menuItemId).name());
+        }
+        names.forEach(this::publish);
+    }
+
+    /**
+     * Walks a price-ordered set from its cheapest entry to the first candidate the filter accepts,
+     * stopping early once no cheaper candidate than the current one can follow.
+     */
+    private static CatalogCandidate cheapestAccepted(NavigableSet<CatalogCandidate> candidates,
+                                                     Predicate<CatalogCandidate> filter, CatalogCandidate current) {
+        for (CatalogCandidate candidate : candidates) {
+            if (current != null && PRICE_ORDER.compare(candidate, current) >= 0) {
+                break;
+            }
+            if (filter.test(candidate)) {
+                return candidate;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Rebuilds the immutable candidate list, price-ordered set and feature block of one name, and
+     * then drops the cached selections that may include it. Invalidating only after the new list
+     * is stored means a lookup that still read the old list is either dropped with the cache
+     * entry or fails the version check, so it is never kept. Menu items of restaurants the index
+     * does not know are left out until the restaurant is put.
+     */
+    private void publish(String name) {
+        List<CatalogCandidate> candidates = new ArrayList<>();
+        for (Long menuItemId : menuItemIdsByName.getOrDefault(name, Set.of())) {
+            MenuItemRow row = menuItems.get(menuItemId);
+            RestaurantRow restaurant = restaurants.get(row.restaurantId());
+            if (restaurant != null) {
+                candidates.add(new CatalogCandidate(row.id(), row.restaurantId(), row.price(),
+                        restaurant.rating(), restaurant.open()));
+            }
+        }
+        if (candidates.isEmpty()) {
+            candidatesByName.remove(name);
+            candidatesByPrice.remove(name);
+            featuresByName.remove(name);
+        } else {
+            TreeSet<CatalogCandidate> byPrice = new TreeSet<>(PRICE_ORDER);
+            byPrice.addAll(candidates);
+            candidates.sort(CANDIDATE_ORDER);
+            candidatesByName.put(name, List.copyOf(candidates));
+            candidatesByPrice.put(name, Collections.unmodifiableNavigableSet(byPrice));
+            featuresByName.put(name, new CandidateFeatures(candidates));
+        }
+        selectionCache.invalidate(name);
+    }
+
+    private static <K> void removeFromGroup(Map<K, Set<Long>> groups, K key, Long menuItemId) {
+        Set<Long> group = groups.get(key);
+        if (group != null) {
+            group.remove(menuItemId);
+            if (group.isEmpty()) {
+                groups.remove(key);
+            }
+        }
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A menu item as held by the index.
+     */
+    private record MenuItemRow(Long id, Long restaurantId, String name, BigDecimal price) {
+    }
+
+    /**
+     * The parts of a restaurant the candidates carry.
+     */
+    private record RestaurantRow(BigDecimal rating, boolean open) {
+
+        private static RestaurantRow of(RestaurantEntity restaurant) {
+            return new RestaurantRow(restaurant.getRating(), Boolean.TRUE.equals(restaurant.getIsOpen()));
+        }
+    }
+}
@@ -0,0 +1,630 @@
+package org.foodorder.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.ListingSort;
+import org.foodorder.repository.MenuItemRepository;
+import org.foodorder.repository.RestaurantRepository;
+import org.foodorder.strategy.RestaurantRanking;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory inverted index for full-text search of menu items and restaurants, replacing
+ * {@code LIKE '%keyword%'} scans. A menu item is indexed under the terms of its name, its description
+ * and the name and cuisine of its restaurant, split by the {@link SearchTokenizer}; a restaurant
+ * under the terms of its name and cuisine. Matches must contain every query term and are ranked
+ * with BM25, a name match counting more than a description or restaurant match. A query term
+ * found in no document is taken for a typo and replaced by the nearest term within one or two
+ * edits, found through the {@link FuzzyTermIndex}, so "piza" finds pizzas.
+ * <p>
+ * A query intersects the posting lists of its terms, starting from the shortest, so its cost
+ * depends on how many documents match rather than on the size of the catalog. Like the
+ * {@link MenuCatalogIndex}, the index is loaded once the application is ready and kept current by
+ * {@link MenuServiceImpl} and {@link RestaurantServiceImpl}. Queries are lock-free reads of
+ * immutable posting lists; writes are serialized on the index.
+ * <p>
+ * The index also keeps the restaurant and price of each menu item, and the name, rating and lowest
+ * menu price of each restaurant, so that search results can be grouped by restaurant and paged
+ * without passing every match to the database.
+ */
+@Component
+public class MenuSearchIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MenuSearchIndex.class);
+
+    // Field weights: a term in the name of a menu item counts as three in its description
+    private static final float ITEM_NAME_WEIGHT = 3;
+    private static final float DESCRIPTION_WEIGHT = 1;
+    private static final float RESTAURANT_NAME_WEIGHT = 1;
+    private static final float CUISINE_WEIGHT = 1;
+
+    private final MenuItemRepository menuItemRepository;
+    private final RestaurantRepository restaurantRepository;
+
+    private final InvertedIndex menuItemIndex = new InvertedIndex();
+    private final InvertedIndex restaurantIndex = new InvertedIndex();
+
+    // Read without locking; each listing is immutable and replaced as a whole
+    private final ConcurrentHashMap<Long, ItemListing> itemListings = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, RestaurantListing> restaurantListings = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private final Map<Long, Set<Long>> menuItemIdsByRestaurant = new HashMap<>();
+    private final Map<Long, Map<String, Float>> restaurantTerms = new HashMap<>();
+
+    public MenuSearchIndex(MenuItemRepository menuItemRepository, RestaurantRepository restaurantRepository) {
+        this.menuItemRepository = menuItemRepository;
+        this.restaurantRepository = restaurantRepository;
+    }
+
+    /**
+     * Reloads the whole index from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        itemListings.clear();
+        restaurantListings.clear();
+        menuItemIdsByRestaurant.clear();
+        restaurantTerms.clear();
+
+        for (RestaurantEntity restaurant : restaurantRepository.findAll()) {
+            restaurantTerms.put(restaurant.getId(), restaurantTerms(restaurant));
+            restaurantListings.put(restaurant.getId(), new RestaurantListing(restaurant.getName(), restaurant.getRating(), null));
+        }
+        Map<Long, Map<String, Float>> documents = new HashMap<>();
+        for (MenuItemEntity menuItem : menuItemRepository.findAll()) {
+            link(menuItem);
+            documents.put(menuItem.getId(), documentTerms(menuItem));
+        }
+        restaurantListings.keySet().forEach(this::refreshLowestPrice);
+        // Built in bulk, since adding documents one at a time copies the posting lists
+        menuItemIndex.load(documents);
+        restaurantIndex.load(restaurantTerms);
+        LOGGER.info("Indexed {} terms of {} menu items and {} terms of {} restaurants for search",
+                menuItemIndex.termCount(), itemListings.size(), restaurantIndex.termCount(), restaurantTerms.size());
+    }
+
+    /**
+     * Finds the menu items matching every term of the query, correcting misspelled terms.
+     *
+     * @param query The search query, e.g. "chicken tacos".
+     * @param limit The maximum number of menu items to return.
+     * @return The IDs of the best matching menu items, most relevant first; ties in order of ID.
+     */
+    public List<Long> searchMenuItems(String query, int limit) {
+        return menuItemIndex.search(SearchTokenizer.tokenize(query), limit);
+    }
+
+    /**
+     * Finds the restaurants whose name or cuisine matches every term of the query, correcting
+     * misspelled terms.
+     *
+     * @param query The search query, e.g. "thai".
+     * @param limit The maximum number of restaurants to return.
+     * @return The IDs of the best matching restaurants, most relevant first; ties in order of ID.
+     */
+    public List<Long> searchRestaurants(String query, int limit) {
+        return restaurantIndex.search(SearchTokenizer.tokenize(query), limit);
+    }
+
+    /**
+     * Finds every menu item matching the query and groups them by restaurant. Costs a pass over the
+     * matches in memory; nothing is loaded from the database.
+     *
+     * @param query The search query, e.g. "pizza".
+     * @return The restaurants offering a matching menu item, in no particular order, each with its
+     * matching menu items and the lowest price among them.
+     */
+    public List<RestaurantMatch> searchRestaurantsByMenuItems(String query) {
+        Map<Long, List<Long>> menuItemIds = new HashMap<>();
+        Map<Long, BigDecimal> lowestPrices = new HashMap<>();
+        for (Long menuItemId : searchMenuItems(query, Integer.MAX_VALUE)) {
+            ItemListing item = itemListings.get(menuItemId);
+            if (item == null) {
+                continue; // Removed since the search
+            }
+            menuItemIds.computeIfAbsent(item.restaurantId(), k -> new ArrayList<>()).add(menuItemId);
+            if (item.price() != null) {
+                lowestPrices.merge(item.restaurantId(), item.price(), BigDecimal::min);
+            }
+        }
+        List<RestaurantMatch> matches = new ArrayList<>(menuItemIds.size());
+        menuItemIds.forEach((restaurantId, ids) -> {
+            RestaurantListing restaurant = restaurantListings.get(restaurantId);
+            if (restaurant != null) {
+                matches.add(new RestaurantMatch(restaurantId, restaurant.name(), restaurant.rating(),
+                        lowestPrices.get(restaurantId), ids));
+            }
+        });
+        return matches;
+    }
+
+    /**
+     * Finds every restaurant whose name or cuisine matches the query, with the keys it is listed by.
+     *
+     * @param query The search query, e.g. "thai".
+     * @return The matching restaurants, in no particular order, each with the lowest price of its menu.
+     */
+    public List<RestaurantMatch> matchRestaurants(String query) {
+        List<RestaurantMatch> matches = new ArrayList<>();
+        for (Long restaurantId : searchRestaurants(query, Integer.MAX_VALUE)) {
+            RestaurantListing restaurant = restaurantListings.get(restaurantId);
+            if (restaurant != null) {
+                matches.add(new RestaurantMatch(restaurantId, restaurant.name(), restaurant.rating(),
+                        restaurant.lowestPrice(), List.of()));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Adds or refreshes a menu item after it has been saved.
+     *
+     * @param menuItem The saved menu item.
+     */
+    public synchronized void putMenuItem(MenuItemEntity menuItem) {
+        if (menuItem.getId() == null) {
+            return;
+        }
+        Long previousRestaurantId = unlink(menuItem.getId());
+        link(menuItem);
+        menuItemIndex.put(menuItem.getId(), documentTerms(menuItem));
+        if (previousRestaurantId != null && !previousRestaurantId.equals(menuItem.getRestaurantId())) {
+            refreshLowestPrice(previousRestaurantId);
+        }
+        refreshLowestPrice(menuItem.getRestaurantId());
+    }
+
+    /**
+     * Drops a menu item after it has been deleted.
+     *
+     * @param menuItemId The ID of the menu item.
+     */
+    public synchronized void removeMenuItem(Long menuItemId) {
+        Long restaurantId = unlink(menuItemId);
+        menuItemIndex.remove(menuItemId);
+        if (restaurantId != null) {
+            refreshLowestPrice(restaurantId);
+        }
+    }
+
+    /**
+     * Adds or refreshes a restaurant after it has been saved. If its name or cuisine changed, its
+     * menu items are reloaded and reindexed, since they are found by those terms as well.
+     *
+     * @param restaurant The saved restaurant.
+     */
+    public synchronized void putRestaurant(RestaurantEntity restaurant) {
+        if (restaurant.getId() == null) {
+            return;
+        }
+        RestaurantListing listed = restaurantListings.get(restaurant.getId());
+        restaurantListings.put(restaurant.getId(), new RestaurantListing(restaurant.getName(), restaurant.getRating(),
+                listed == null ? null : listed.lowestPrice()));
+        Map<String, Float> terms = restaurantTerms(restaurant);
+        if (terms.equals(restaurantTerms.put(restaurant.getId(), terms))) {
+            return;
+        }
+        restaurantIndex.put(restaurant.getId(), terms);
+        if (menuItemIdsByRestaurant.containsKey(restaurant.getId())) {
+            for (MenuItemEntity menuItem : menuItemRepository.findByRestaurantId(restaurant.getId())) {
+                putMenuItem(menuItem);
+            }
+        }
+    }
+
+    /**
+     * Drops a restaurant and all of its menu items after it has been deleted.
+     *
+     * @param restaurantId The ID of the restaurant.
+     */
+    public synchronized void removeRestaurant(Long restaurantId) {
+        restaurantTerms.remove(restaurantId);
+        restaurantListings.remove(restaurantId);
+        restaurantIndex.remove(restaurantId);
+        Set<Long> menuItemIds = menuItemIdsByRestaurant.remove(restaurantId);
+        if (menuItemIds != null) {
+            for (Long menuItemId : menuItemIds) {
+                itemListings.remove(menuItemId);
+                menuItemIndex.remove(menuItemId);
+            }
+        }
+    }
+
+    /**
+     * @return The number of menu items in the index.
+     */
+    public int size() {
+        return itemListings.size();
+    }
+
+    private void link(MenuItemEntity menuItem) {
+        itemListings.put(menuItem.getId(), new ItemListing(menuItem.getRestaurantId(), menuItem.getPrice()));
+        menuItemIdsByRestaurant.computeIfAbsent(menuItem.getRestaurantId(), k -> new HashSet<>()).add(menuItem.getId());
+    }
+
+    /**
+     * @return The ID of the restaurant the menu item belonged to, or null if it was not indexed.
+     */
+    private Long unlink(Long menuItemId) {
+        ItemListing item = itemListings.remove(menuItemId);
+        if (item == null) {
+            return null;
+        }
+        Set<Long> menuItemIds = menuItemIdsByRestaurant.get(item.restaurantId());
+        if (menuItemIds != null) {
+            menuItemIds.remove(menuItemId);
+        }
+        return item.restaurantId();
+    }
+
+    // The lowest price of a menu, as the min_menu_price column holds it
+    private void refreshLowestPrice(Long restaurantId) {
+        RestaurantListing restaurant = restaurantListings.get(restaurantId);
+        if (restaurant == null) {
+            return;
+        }
+        BigDecimal lowestPrice = null;
+        for (Long menuItemId : menuItemIdsByRestaurant.getOrDefault(restaurantId, Set.of())) {
+            BigDecimal price = itemListings.get(menuItemId).price();
+            if (price != null && (lowestPrice == null || price.compareTo(lowestPrice) < 0)) {
+                lowestPrice = price;
+            }
+        }
+        restaurantListings.put(restaurantId, new RestaurantListing(restaurant.name(), restaurant.rating(), lowestPrice));
+    }
+
+    private Map<String, Float> documentTerms(MenuItemEntity menuItem) {
+        Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, menuItem.getName(), ITEM_NAME_WEIGHT);
+        addTerms(terms, menuItem.getDescription(), DESCRIPTION_WEIGHT);
+        restaurantTerms.getOrDefault(menuItem.getRestaurantId(), Map.of())
+                .forEach((term, frequency) -> terms.merge(term, frequency, Float::sum));
+        return terms;
+    }
+
+    private static Map<String, Float> restaurantTerms(RestaurantEntity restaurant) {
+        Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, restaurant.getName(), RESTAURANT_NAME_WEIGHT);
+        addTerms(terms, restaurant.getCuisineType(), CUISINE_WEIGHT);
+        return terms;
+    }
+
+    private static void addTerms(Map<String, Float> terms, String text, float weight) {
+        for (String term : SearchTokenizer.tokenize(text)) {
+            terms.merge(term, weight, Float::sum);
+        }
+    }
+
+    /**
+     * A restaurant matching a search, with the keys it can be listed by.
+     *
+     * @param restaurantId The ID of the restaurant.
+     * @param name         Its name.
+     * @param rating       Its rating, or null.
+     * @param lowestPrice  The lowest price of its matching menu items, or of its whole menu when
+     *                     restaurants are searched by name or cuisine; null without any price.
+     * @param menuItemIds  Its matching menu items, most relevant first; empty when restaurants are
+     *                     searched by name or cuisine.
+     */
+    public record RestaurantMatch(long restaurantId, String name, BigDecimal rating, BigDecimal lowestPrice,
+                                  List<Long> menuItemIds) {
+
+        /**
+         * @param sort The order, by rating, price or name.
+         * @return The key this restaurant is listed by in that order.
+         */
+        public Comparable<?> sortKey(ListingSort sort) {
+            switch (sort) {
+                case RATING:
+                    return rating;
+                case PRICE:
+                    return lowestPrice;
+                case NAME:
+                    return name;
+                default:
+                    throw new IllegalArgumentException("Search matches carry no key for " + sort.parameter());
+            }
+        }
+    }
+
+    private record ItemListing(Long restaurantId, BigDecimal price) {
+    }
+
+    private record RestaurantListing(String name, BigDecimal rating, BigDecimal lowestPrice) {
+    }
+
+    /**
+     * The terms a document is indexed under, kept to remove it again, and its length. Terms are
+     * interned, so a million documents share one copy of each word.
+     */
+    private record Document(String[] terms, float length) {
+
+        private static Document of(Map<String, Float> terms) {
+            String[] interned = new String[terms.size()];
+            float length = 0;
+            int i = 0;
+            for (Map.Entry<String, Float> term : terms.entrySet()) {
+                interned[i++] = term.getKey().intern();
+                length += term.getValue();
+            }
+            return new Document(interned, length);
+        }
+    }
+
+    /**
+     * Term to document postings with BM25 ranking. Documents are identified by their entity ID and
+     * carry a weighted frequency per term; their length is the sum of those frequencies.
+     */
+    private static final class InvertedIndex {
+
+        private static final double K1 = 1.2;
+        private static final double B = 0.75;
+
+        // Read without locking; each posting list is immutable and replaced as a whole
+        private final ConcurrentHashMap<String, Postings> postings = new ConcurrentHashMap<>();
+        // Written under the lock of the enclosing index
+        private final Map<Long, Document> documents = new HashMap<>();
+        private final FuzzyTermIndex fuzzyTerms = new FuzzyTermIndex();
+        private volatile int documentCount;
+        private volatile double totalLength;
+
+        private void put(long id, Map<String, Float> terms) {
+            remove(id);
+            Document document = Document.of(terms);
+            for (Map.Entry<String, Float> term : terms.entrySet()) {
+                Postings added = postings.merge(term.getKey(), Postings.of(id, term.getValue(), document.length()),
+                        (existing, single) -> existing.with(id, term.getValue(), document.length()));
+                if (added.size() == 1) {
+                    fuzzyTerms.add(term.getKey());
+                }
+            }
+            documents.put(id, document);
+            documentCount = documents.size();
+            totalLength += document.length();
+        }
+
+        private void remove(long id) {
+            Document document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            for (String term : document.terms()) {
+                if (postings.computeIfPresent(term, (key, existing) -> existing.without(id)) == null) {
+                    fuzzyTerms.remove(term);
+                }
+            }
+            documentCount = documents.size();
+            totalLength = documents.isEmpty() ? 0 : totalLength - document.length();
+        }
+
+        private void load(Map<Long, Map<String, Float>> all) {
+            Map<String, PostingsBuilder> builders = new HashMap<>();
+            long[] ids = all.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            double total = 0;
+            documents.clear();
+            for (long id : ids) {
+                Map<String, Float> terms = all.get(id);
+                Document document = Document.of(terms);
+                for (Map.Entry<String, Float> term : terms.entrySet()) {
+                    builders.computeIfAbsent(term.getKey(), k -> new PostingsBuilder()).add(id, term.getValue(), document.length());
+                }
+                documents.put(id, document);
+                total += document.length();
+            }
+            postings.keySet().retainAll(builders.keySet());
+            builders.forEach((term, builder) -> postings.put(term, builder.build()));
+            fuzzyTerms.clear();
+            builders.keySet().forEach(fuzzyTerms::add);
+            documentCount = documents.size();
+            totalLength = total;
+        }
+
+        private int termCount() {
+            return postings.size();
+        }
+
+        private List<Long> search(List<String> queryTerms, int limit) {
+            if (queryTerms.isEmpty() || limit <= 0) {
+                return List.of();
+            }
+            List<Postings> lists = new ArrayList<>();
+            for (String term : new LinkedHashSet<>(queryTerms)) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    list = correct(term);
+                }
+                if (list == null) {
+                    return List.of(); // Every term must match
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(Postings::size));
+
+            // Score the documents of the shortest list, dropping those missing from another list
+            int n = documentCount;
+            double averageLength = n == 0 ? 1 : Math.max(totalLength / n, 1e-9);
+            Postings driver = lists.get(0);
+            double[] scores = new double[driver.size()];
+            int matches = scores.length;
+            for (Postings list : lists) {
+                double idf = Math.log(1 + (n - list.size() + 0.5) / (list.size() + 0.5));
+                int from = 0;
+                for (int i = 0; i < scores.length; i++) {
+                    if (scores[i] == Double.NEGATIVE_INFINITY) {
+                        continue;
+                    }
+                    int j = list == driver ? i : gallop(list.ids, from, driver.ids[i]);
+                    if (j < 0) {
+                        from = -j - 1;
+                        scores[i] = Double.NEGATIVE_INFINITY;
+                        matches--;
+                        continue;
+                    }
+                    from = j + 1;
+                    double frequency = list.frequencies[j];
+                    double norm = K1 * (1 - B + B * list.lengths[j] / averageLength);
+                    scores[i] += idf * frequency * (K1 + 1) / (frequency + norm);
+                }
+            }
+
+            int[] top = RestaurantRanking.topK(scores, Math.min(limit, matches));
+            List<Long> ids = new ArrayList<>(top.length);
+            for (int index : top) {
+                ids.add(driver.ids[index]);
+            }
+            return ids;
+        }
+
+        /**
+         * Finds the posting list of the term nearest to a misspelled one, preferring among terms at
+         * the same distance the one found in the most documents.
+         *
+         * @return The posting list, or null if no term is within reach.
+         */
+        private Postings correct(String term) {
+            Postings best = null;
+            String bestTerm = null;
+            int bestDistance = Integer.MAX_VALUE;
+            for (FuzzyTermIndex.Match match : fuzzyTerms.similar(term)) {
+                if (match.distance() > bestDistance) {
+                    break;
+                }
+                Postings list = postings.get(match.term());
+                if (list != null && (best == null || list.size() > best.size()
+                        || list.size() == best.size() && match.term().compareTo(bestTerm) < 0)) {
+                    best = list;
+                    bestTerm = match.term();
+                    bestDistance = match.distance();
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Finds an ID at or after a position, probing 1, 2, 4, ... entries ahead before a binary
+         * search, so that walking a list in order costs little more than a merge when the lists are
+         * of similar length, and a binary search per ID when one is much shorter.
+         *
+         * @return The position of the ID, or {@code -(insertion point) - 1} as for {@link Arrays#binarySearch}.
+         */
+        private static int gallop(long[] ids, int from, long id) {
+            int step = 1;
+            int high = from;
+            while (high < ids.length && ids[high] < id) {
+                from = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            return Arrays.binarySearch(ids, from, Math.min(high + 1, ids.length), id);
+        }
+    }
+
+    /**
+     * Collects a posting list from documents added in order of ID.
+     */
+    private static final class PostingsBuilder {
+        private long[] ids = new long[4];
+        private float[] frequencies = new float[4];
+        private float[] lengths = new float[4];
+        private int size;
+
+        private void add(long id, float frequency, float length) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+                lengths = Arrays.copyOf(lengths, size * 2);
+            }
+            ids[size] = id;
+            frequencies[size] = frequency;
+            lengths[size] = length;
+            size++;
+        }
+
+        private Postings build() {
+            return new Postings(Arrays.copyOf(ids, size), Arrays.copyOf(frequencies, size), Arrays.copyOf(lengths, size));
+        }
+    }
+
+    /**
+     * Immutable posting list of one term, sorted by document ID.
+     */
+    private static final class Postings {
+        private final long[] ids;
+        private final float[] frequencies;
+        private final float[] lengths;
+
+        private Postings(long[] ids, float[] frequencies, float[] lengths) {
+            this.ids = ids;
+            this.frequencies = frequencies;
+            this.lengths = lengths;
+        }
+
+        private static Postings of(long id, float frequency, float length) {
+            return new Postings(new long[]{id}, new float[]{frequency}, new float[]{length});
+        }
+
+        private int size() {
+            return ids.length;
+        }
+
+        private Postings with(long id, float frequency, float length) {
+            int at = Arrays.binarySearch(ids, id);
+            if (at >= 0) {
+                Postings updated = new Postings(ids, frequencies.clone(), lengths.clone());
+                updated.frequencies[at] = frequency;
+                updated.lengths[at] = length;
+                return updated;
+            }
+            int insert = -at - 1;
+            long[] newIds = new long[ids.length + 1];
+            float[] newFrequencies = new float[ids.length + 1];
+            float[] newLengths = new float[ids.length + 1];
+            System.arraycopy(ids, 0, newIds, 0, insert);
+            System.arraycopy(frequencies, 0, newFrequencies, 0, insert);
+            System.arraycopy(lengths, 0, newLengths, 0, insert);
+            newIds[insert] = id;
+            newFrequencies[insert] = frequency;
+            newLengths[insert] = length;
+            System.arraycopy(ids, insert, newIds, insert + 1, ids.length - insert);
+            System.arraycopy(frequencies, insert, newFrequencies, insert + 1, ids.length - insert);
+            System.arraycopy(lengths, insert, newLengths, insert + 1, ids.length - insert);
+            return new Postings(newIds, newFrequencies, newLengths);
+        }
+
+        private Postings without(long id) {
+            int at = Arrays.binarySearch(ids, id);
+            if (at < 0) {
+                return this;
+            }
+            if (ids.length == 1) {
+                return null; // Drops the term
+            }
+            long[] newIds = new long[ids.length - 1];
+            float[] newFrequencies = new float[ids.length - 1];
+            float[] newLengths = new float[ids.length - 1];
+            System.arraycopy(ids, 0, newIds, 0, at);
+            System.arraycopy(frequencies, 0, newFrequencies, 0, at);
+            System.arraycopy(lengths, 0, newLengths, 0, at);
+            System.arraycopy(ids, at + 1, newIds, at, ids.length - at - 1);
+            System.arraycopy(frequencies, at + 1, newFrequencies, at, ids.length - at - 1);
+            System.arraycopy(lengths, at + 1, newLengths, at, ids.length - at - 1);
+            return new Postings(newIds, newFrequencies, newLengths);
+        }
+    }
+}
@@ -3,6 +3,11 @@ package org.foodorder.service;
 import java.util.List;
 import java.util.Optional;
 import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.model.GeoPoint;
+import org.foodorder.model.KeysetPage;
+import org.foodorder.model.ListingSort;
+import org.foodorder.model.PageCursor;
+import org.foodorder.model.RestaurantCard;
 
 /**
  * Interface for managing menu items.
@@ -46,13 +51,31 @@ public interface MenuService {
     void deleteMenuItem(Long restaurantId, Long menuItemId);
 
     /**
-     * Searches for menu items by name (case insensitive).
+     * Searches for menu items whose name, description, restaurant name or cuisine contain every
+     * word of the keyword, ignoring case and plurals.
      *
      * @param keyword The search keyword
-     * @return A list of menu items matching the keyword
+     * @return A list of menu items matching the keyword, most relevant first
      */
     List<MenuItemEntity> searchMenuItems(String keyword);
 
+    /**
+     * Searches for menu items like {@link #searchMenuItems(String)} and returns one page of the
+     * restaurants offering any of them. Every matching menu item is considered, not only the most
+     * relevant ones, so the order and the radius apply to all restaurants offering the item.
+     *
+     * @param keyword  The search keyword
+     * @param sort     The order, by rating, lowest matching price, name or distance from the origin
+     * @param origin   The point to measure distances from, or null
+     * @param radiusKm The maximum distance from the origin in kilometers, or null for any distance
+     * @param after    The cursor returned with the page before, or null for the first page
+     * @param size     The maximum number of restaurants on the page
+     * @return Cards of the restaurants on the page, each holding only its matching menu items, most
+     *         relevant first, and the cursor of the next page
+     */
+    KeysetPage<RestaurantCard> searchRestaurantCards(String keyword, ListingSort sort, GeoPoint origin, Double radiusKm,
+                                                     PageCursor after, int size);
+
     /**
      * Finds a specific menu item by its ID.
      *
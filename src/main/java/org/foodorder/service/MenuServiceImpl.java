@@ -1,12 +1,29 @@
 package org.foodorder.service;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.model.GeoPoint;
+import org.foodorder.model.KeysetPage;
+import org.foodorder.model.ListingSort;
+import org.foodorder.model.MenuItemCard;
+import org.foodorder.model.PageCursor;
+import org.foodorder.model.RestaurantCard;
 import org.foodorder.repository.MenuItemRepository;
+import org.foodorder.repository.RestaurantRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -15,6 +32,24 @@ public class MenuServiceImpl implements MenuService {
     @Autowired
     private MenuItemRepository menuItemRepository;
 
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private MenuCatalogIndex catalogIndex;
+
+    @Autowired
+    private MenuSearchIndex searchIndex;
+
+    @Autowired
+    private SuggestionIndex suggestionIndex;
+
+    @Autowired
+    private RestaurantGeoIndex geoIndex;
+
+    @Value("${search.max-results:200}")
+    private int maxSearchResults;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(MenuServiceImpl.class);
 
     /**
@@ -29,7 +64,12 @@ public class MenuServiceImpl implements MenuService {
         try {
             menuItem.setRestaurantId(restaurantId);
             LOGGER.info("Adding new menu item to restaurant ID: {}", restaurantId);
-            return menuItemRepository.save(menuItem);
+            MenuItemEntity saved = menuItemRepository.save(menuItem);
+            restaurantRepository.refreshMinMenuPrice(restaurantId);
+            catalogIndex.putMenuItem(saved);
+            searchIndex.putMenuItem(saved);
+            suggestionIndex.catalogChanged();
+            return saved;
         } catch (Exception e) {
             LOGGER.error("Error adding menu item to restaurant ID: {}", restaurantId, e);
             throw new RuntimeException("Failed to add menu item", e);
@@ -77,7 +117,12 @@ public class MenuServiceImpl implements MenuService {
             menuItem.setAvailable(updatedMenuItem.getAvailable());
 
             LOGGER.info("Updating menu item ID: {} for restaurant ID: {}", menuItemId, restaurantId);
-            return menuItemRepository.save(menuItem);
+            MenuItemEntity saved = menuItemRepository.save(menuItem);
+            restaurantRepository.refreshMinMenuPrice(restaurantId);
+            catalogIndex.putMenuItem(saved);
+            searchIndex.putMenuItem(saved);
+            suggestionIndex.catalogChanged();
+            return saved;
         } catch (Exception e) {
             LOGGER.error("Error updating menu item ID: {} for restaurant ID: {}", menuItemId, restaurantId, e);
             throw new RuntimeException("Failed to update menu item", e);
@@ -102,6 +147,10 @@ public class MenuServiceImpl implements MenuService {
 
             LOGGER.info("Deleting menu item ID: {} from restaurant ID: {}", menuItemId, restaurantId);
             menuItemRepository.deleteById(menuItemId);
+            restaurantRepository.refreshMinMenuPrice(restaurantId);
+            catalogIndex.removeMenuItem(menuItemId);
+            searchIndex.removeMenuItem(menuItemId);
+            suggestionIndex.catalogChanged();
         } catch (Exception e) {
             LOGGER.error("Error deleting menu item ID: {} from restaurant ID: {}", menuItemId, restaurantId, e);
             throw new RuntimeException("Failed to delete menu item", e);
@@ -109,22 +158,100 @@ public class MenuServiceImpl implements MenuService {
     }
 
     /**
-     * Search for menu items by name (case insensitive).
+     * Search for menu items matching every word of the keyword in the in-memory {@link MenuSearchIndex},
+     * then load the best matches by primary key.
      *
      * @param keyword The search keyword
-     * @return List of menu items matching the keyword
+     * @return List of at most {@code search.max-results} menu items matching the keyword, most relevant first
      */
     @Override
     public List<MenuItemEntity> searchMenuItems(String keyword) {
         try {
             LOGGER.info("Searching for menu items by keyword: {}", keyword);
-            return menuItemRepository.findByNameContainingIgnoreCase(keyword);
+            List<Long> menuItemIds = searchIndex.searchMenuItems(keyword, maxSearchResults);
+            if (menuItemIds.isEmpty()) {
+                return new ArrayList<>();
+            }
+            Map<Long, MenuItemEntity> menuItemsById = menuItemRepository.findAllById(menuItemIds).stream()
+                    .collect(Collectors.toMap(MenuItemEntity::getId, Function.identity()));
+            return menuItemIds.stream()
+                    .map(menuItemsById::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
         } catch (Exception e) {
             LOGGER.error("Error searching menu items by keyword: {}", keyword, e);
             throw new RuntimeException("Failed to search menu items", e);
         }
     }
 
+    /**
+     * Search for menu items in the in-memory {@link MenuSearchIndex}, which groups them by
+     * restaurant with the keys of every order, cut the page after the cursor from those
+     * restaurants in memory, then load the matching menu items of the restaurants on the page in
+     * one projection query. The query is bounded by the page, however many items match.
+     *
+     * @param keyword  The search keyword
+     * @param sort     The order, by rating, lowest matching price, name or distance from the origin
+     * @param origin   The point to measure distances from, or null
+     * @param radiusKm The maximum distance from the origin in kilometers, or null for any distance
+     * @param after    The cursor returned with the page before, or null for the first page
+     * @param size     The maximum number of restaurants on the page
+     * @return Cards of the restaurants on the page and the cursor of the next page
+     */
+    @Override
+    public KeysetPage<RestaurantCard> searchRestaurantCards(String keyword, ListingSort sort, GeoPoint origin,
+                                                            Double radiusKm, PageCursor after, int size) {
+        try {
+            LOGGER.info("Searching for restaurants by menu item keyword: {}, sorted by {}", keyword, sort.parameter());
+            List<MenuSearchIndex.RestaurantMatch> matches = searchIndex.searchRestaurantsByMenuItems(keyword);
+            if (origin != null && radiusKm != null && !matches.isEmpty()) {
+                // Restaurants within the radius, found in the geo grid without scanning all of them
+                Set<Long> nearby = new HashSet<>(geoIndex.withinRadius(origin, radiusKm));
+                matches.removeIf(match -> !nearby.contains(match.restaurantId()));
+            }
+            KeysetPage<MenuSearchIndex.RestaurantMatch> restaurants = KeysetPage.slice(matches, after, size, sort,
+                    match -> sort == ListingSort.DISTANCE ? distanceKey(match.restaurantId(), origin) : match.sortKey(sort),
+                    MenuSearchIndex.RestaurantMatch::restaurantId);
+            if (restaurants.getItems().isEmpty()) {
+                return new KeysetPage<>(new ArrayList<>(), null);
+            }
+
+            List<Long> menuItemIds = restaurants.getItems().stream()
+                    .flatMap(match -> match.menuItemIds().stream())
+                    .collect(Collectors.toList());
+            Map<Long, Object[]> rowsByMenuItem = new HashMap<>();
+            for (Object[] row : menuItemRepository.findRestaurantCardRows(menuItemIds)) {
+                rowsByMenuItem.put((Long) row[5], row);
+            }
+            List<RestaurantCard> page = new ArrayList<>();
+            for (MenuSearchIndex.RestaurantMatch match : restaurants.getItems()) {
+                RestaurantCard card = null;
+                for (Long menuItemId : match.menuItemIds()) {
+                    Object[] row = rowsByMenuItem.get(menuItemId);
+                    if (row == null) {
+                        continue; // Deleted after the search
+                    }
+                    if (card == null) {
+                        card = new RestaurantCard((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (BigDecimal) row[4]);
+                    }
+                    card.addMenuItem(new MenuItemCard(menuItemId, (String) row[6], (BigDecimal) row[7]));
+                }
+                if (card != null) {
+                    page.add(card);
+                }
+            }
+            return new KeysetPage<>(page, restaurants.getNextCursor());
+        } catch (Exception e) {
+            LOGGER.error("Error searching restaurants by menu item keyword: {}", keyword, e);
+            throw new RuntimeException("Failed to search restaurants", e);
+        }
+    }
+
+    private Comparable<?> distanceKey(Long restaurantId, GeoPoint origin) {
+        double distanceKm = geoIndex.distanceKm(restaurantId, origin);
+        return Double.isInfinite(distanceKm) ? null : distanceKm; // Restaurants without a location last
+    }
+
     /**
      * Find a specific menu item by its ID.
      *
@@ -3,12 +3,13 @@ package org.foodorder.service;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.Future;
+import java.util.concurrent.CompletableFuture;
 
 import org.foodorder.entity.OrderEntity;
 import org.foodorder.entity.OrderItemEntity;
 import org.foodorder.model.CartItem;
 import org.foodorder.model.OrderItemRequest;
+import org.foodorder.model.SelectionOptions;
 
 /**
  * Interface for managing orders and order items.
@@ -83,7 +84,20 @@ public interface OrderService {
      * @param items      the items in the order
      * @param customerId the ID of the customer placing the order
      * @param strategy   the strategy to select restaurants (e.g., "lowest cost", "highest rating")
-     * @return a Future representing the result of the order placement
+     * @return a CompletableFuture representing the result of the order placement
      */
-    Future<OrderEntity> placeOrderUponCustomerRequest(List<OrderItemRequest> items, Long customerId, String strategy);
+    CompletableFuture<OrderEntity> placeOrderUponCustomerRequest(List<OrderItemRequest> items, Long customerId, String strategy);
+
+    /**
+     * Places an order like {@link #placeOrderUponCustomerRequest(List, Long, String)}, selecting the
+     * restaurants with the weights and delivery ZIP code sent with the order.
+     *
+     * @param items      the items in the order
+     * @param customerId the ID of the customer placing the order
+     * @param strategy   the strategy to select restaurants (e.g., "price", "composite", "nearest")
+     * @param options    the per-order selection options
+     * @return a CompletableFuture representing the result of the order placement
+     */
+    CompletableFuture<OrderEntity> placeOrderUponCustomerRequest(List<OrderItemRequest> items, Long customerId, String strategy,
+                                                                 SelectionOptions options);
 }
\ No newline at end of file
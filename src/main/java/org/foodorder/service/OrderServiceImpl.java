@@ -1,6 +1,7 @@
 package org.foodorder.service;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -10,12 +11,15 @@ import org.foodorder.entity.OrderItemEntity;
 import org.foodorder.entity.RestaurantEntity;
 import org.foodorder.model.CartItem;
 import org.foodorder.model.OrderItemRequest;
+import org.foodorder.model.SelectionOptions;
 import org.foodorder.repository.OrderRepository;
 import org.foodorder.repository.OrderItemRepository;
+import org.foodorder.scheduler.HashedWheelTimer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -37,8 +41,16 @@ public class OrderServiceImpl implements OrderService {
     @Autowired
     private RestaurantExecutorService restaurantExecutorService;
 
+    @Autowired
+    private HashedWheelTimer orderTimer;
+
+    @Autowired
+    @Qualifier("orderPlacementExecutor")
+    private Executor orderPlacementExecutor;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(OrderServiceImpl.class);
     private static final int DEFAULT_PREPARATION_TIME = 3000; // 3 seconds for example
+    private static final int AUTO_RELEASE_GRACE_PERIOD = 5000; // extra time before a stuck order's load is released
 
     /**
      * Add a new order.
@@ -218,68 +230,87 @@ public class OrderServiceImpl implements OrderService {
 
     /**
      * Places an order by grouping items by restaurant and submitting each restaurant's order processing to an ExecutorService.
+     * Placement runs on the bounded order placement executor, since it blocks on database calls.
      *
      * @param items      the items in the order
      * @param customerId the ID of the customer placing the order
      * @param strategy   the strategy to select restaurants (e.g., "lowest cost", "highest rating")
-     * @return a Future representing the result of the order placement
+     * @return a CompletableFuture representing the result of the order placement
+     * @throws java.util.concurrent.RejectedExecutionException if the placement executor is saturated
      */
     @Override
-    public Future<OrderEntity> placeOrderUponCustomerRequest(List<OrderItemRequest> items, Long customerId, String strategy) {
+    public CompletableFuture<OrderEntity> placeOrderUponCustomerRequest(List<OrderItemRequest> items, Long customerId, String strategy) {
+        return placeOrderUponCustomerRequest(items, customerId, strategy, SelectionOptions.none());
+    }
+
+    @Override
+    public CompletableFuture<OrderEntity> placeOrderUponCustomerRequest(List<OrderItemRequest> items, Long customerId, String strategy,
+                                                                        SelectionOptions options) {
         return CompletableFuture.supplyAsync(() -> {
             try {
                 // Group items by restaurant
-                Map<Long, List<OrderItemRequest>> groupedItems = restaurantSelectorService.groupItemsByRestaurant(items, strategy);
+                Map<Long, List<OrderItemRequest>> groupedItems = restaurantSelectorService.groupItemsByRestaurant(items, strategy, options);
 
                 LOGGER.info("-------GROUPED ITEMS: {0}---------", groupedItems);
+                Map<Long, Integer> itemsPerRestaurant = new HashMap<>();
+                Map<Long, RestaurantEntity> restaurants = new HashMap<>();
                 for (Map.Entry<Long, List<OrderItemRequest>> entry : groupedItems.entrySet()) {
                     Long restaurantId = entry.getKey();
-                    List<OrderItemRequest> restaurantItems = entry.getValue();
-                    int totalItemsForRestaurant = restaurantItems.stream()
+                    itemsPerRestaurant.put(restaurantId, entry.getValue().stream()
                             .mapToInt(OrderItemRequest::getQuantity)
-                            .sum();
+                            .sum());
 
-                    // Fetch restaurant entity and check if it can accept the order
+                    // Fetch restaurant entity for its executor settings
                     Optional<RestaurantEntity> restaurantOpt = restaurantService.getRestaurantById(restaurantId);
                     if (restaurantOpt.isEmpty()) {
                         throw new RuntimeException("Restaurant not found with ID: " + restaurantId);
                     }
-                    RestaurantEntity restaurant = restaurantOpt.get();
+                    restaurants.put(restaurantId, restaurantOpt.get());
+                }
 
-                    if (!restaurantService.canPlaceOrder(restaurantId, totalItemsForRestaurant)) {
-                        throw new RuntimeException("Restaurant ID " + restaurantId + " cannot handle the order.");
-                    }
+                // Reserve capacity at every restaurant at once, or at none of them
+                Map<Long, Long> reservations = restaurantService.reserveCapacityForAll(itemsPerRestaurant);
+                LOGGER.info("Reserved capacity for items per restaurant ID: {}", itemsPerRestaurant);
+
+                // Save the order to the DB, giving the capacity back if that fails
+                OrderEntity order;
+                try {
+                    order = saveCustomerOrdersToDB(items, groupedItems, customerId);
+                } catch (RuntimeException e) {
+                    restaurantService.releaseReservations(reservations);
+                    throw e;
+                }
+
+                for (Map.Entry<Long, List<OrderItemRequest>> entry : groupedItems.entrySet()) {
+                    Long restaurantId = entry.getKey();
+                    List<OrderItemRequest> restaurantItems = entry.getValue();
+                    long reservationId = reservations.get(restaurantId);
+                    RestaurantEntity restaurant = restaurants.get(restaurantId);
 
-                    // Increment the processing load for the restaurant
-                    LOGGER.info("Current processing load before increment: {}", restaurant.getCurrentProcessingLoad());
-                    restaurantService.incrementRestaurantLoad(restaurantId, totalItemsForRestaurant);
-                    LOGGER.info("Current processing load after increment: {}", restaurant.getCurrentProcessingLoad());
+                    long preparationTime = restaurant.getPreparationTimeMs() > 0
+                            ? restaurant.getPreparationTimeMs() : DEFAULT_PREPARATION_TIME;
+
+                    // Automatically release the load if the order is never dispatched (even if something goes wrong)
+                    HashedWheelTimer.Timeout autoRelease = orderTimer.newTimeout(() -> {
+                        if (restaurantService.releaseReservation(reservationId)) {
+                            LOGGER.info("Automatically released load for restaurant ID: {} after timeout.", restaurantId);
+                        }
+                    }, preparationTime + AUTO_RELEASE_GRACE_PERIOD, TimeUnit.MILLISECONDS);
 
                     // Submit task to the restaurant executor
-                    ExecutorService restaurantExecutor = restaurantExecutorService.getExecutorServiceForRestaurant(restaurantId, restaurant.getMaxCapacity());
-                    restaurantExecutor.submit(() -> {
+                    restaurantExecutorService.submit(restaurantId, restaurant.getMaxCapacity(), () -> {
                         try {
                             // Process the order
                             processOrder(restaurantId, restaurantItems);
-
-                            // Simulate dispatch after preparation (3-second preparation time)
-                            Thread.sleep(3000);  // Simulating food preparation
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                            LOGGER.warn("Thread interrupted during order preparation: {}", e.getMessage());
-                        } finally {
-                            // Decrement the processing load no matter what (even in case of failure)
-                            restaurantService.decrementRestaurantLoad(restaurantId, totalItemsForRestaurant);
-                            LOGGER.info("Order processing completed for restaurant ID: {}. Load decremented.", restaurantId);
+                        } catch (RuntimeException e) {
+                            LOGGER.error("Failed to process order for restaurant ID: {}", restaurantId, e);
+                            dispatchOrder(restaurantId, reservationId, autoRelease);
+                            return;
                         }
+                        // The food cooks on the shared timer, so no thread is held during preparation
+                        orderTimer.completeAfter(preparationTime, TimeUnit.MILLISECONDS)
+                                .thenRun(() -> dispatchOrder(restaurantId, reservationId, autoRelease));
                     });
-
-                    // Automatically release the load after a timeout (even if something goes wrong)
-                    ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-                    scheduler.schedule(() -> {
-                        restaurantService.decrementRestaurantLoad(restaurantId, totalItemsForRestaurant);
-                        LOGGER.info("Automatically released load for restaurant ID: {} after timeout.", restaurantId);
-                    }, DEFAULT_PREPARATION_TIME, TimeUnit.MILLISECONDS);
                 }
 //
 //                    // Simulate dispatch after preparation
@@ -293,12 +324,26 @@ public class OrderServiceImpl implements OrderService {
 //                        }
 //                    });
 
-                // Save the order to the DB
-                return saveCustomerOrdersToDB(items, groupedItems, customerId);
+                return order;
             } catch (Exception e) {
                 throw new RuntimeException("Failed to place order: " + e.getMessage(), e);
             }
-        });
+        }, orderPlacementExecutor);
+    }
+
+    /**
+     * Dispatches a restaurant's part of an order once preparation is over, releasing its capacity.
+     * The reservation is released only once, whether here or by the auto-release timeout.
+     *
+     * @param restaurantId  the ID of the restaurant that prepared the order
+     * @param reservationId the capacity reservation taken for the order
+     * @param autoRelease   the auto-release timeout, cancelled as it is no longer needed
+     */
+    private void dispatchOrder(Long restaurantId, long reservationId, HashedWheelTimer.Timeout autoRelease) {
+        autoRelease.cancel();
+        if (restaurantService.releaseReservation(reservationId)) {
+            LOGGER.info("Order processing completed for restaurant ID: {}. Load decremented.", restaurantId);
+        }
     }
 
     /**
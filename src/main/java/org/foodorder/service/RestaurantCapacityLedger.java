@@ -0,0 +1,176 @@
+package org.foodorder.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.repository.RestaurantRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process ledger of restaurant processing capacity. Each restaurant gets one atomic
+ * counter that is reserved and released with compare-and-set against its maximum capacity,
+ * so concurrent orders for the same restaurant never lose updates or overbook it.
+ * The database row stays authoritative: {@link RestaurantServiceImpl} applies every change
+ * with a guarded update as well, and uses the ledger to reject orders without a round trip
+ * when memory already shows the restaurant is full.
+ */
+@Component
+public class RestaurantCapacityLedger {
+
+    private final ConcurrentHashMap<Long, Slot> slots = new ConcurrentHashMap<>();
+    private final RestaurantRepository restaurantRepository;
+
+    public RestaurantCapacityLedger(RestaurantRepository restaurantRepository) {
+        this.restaurantRepository = restaurantRepository;
+    }
+
+    /**
+     * Loads every restaurant into the ledger once the application is ready, so that capacity-aware
+     * restaurant selection can read the headroom of any restaurant without a database round trip.
+     * Restaurants added later are loaded lazily as before.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        for (RestaurantEntity restaurant : restaurantRepository.findAll()) {
+            slots.putIfAbsent(restaurant.getId(), new Slot(restaurant.getMaxCapacity(), restaurant.getCurrentProcessingLoad()));
+        }
+    }
+
+    /**
+     * Atomically reserves capacity for the given number of items.
+     *
+     * @param restaurantId The ID of the restaurant.
+     * @param itemCount    The number of items to reserve.
+     * @return true if the items were reserved, false if they would exceed the maximum capacity.
+     */
+    public boolean tryReserve(Long restaurantId, int itemCount) {
+        Slot slot = slot(restaurantId);
+        while (true) {
+            int current = slot.load.get();
+            if (current + itemCount > slot.maxCapacity) {
+                return false;
+            }
+            if (slot.load.compareAndSet(current, current + itemCount)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Atomically releases previously reserved capacity. The load never drops below zero.
+     *
+     * @param restaurantId The ID of the restaurant.
+     * @param itemCount    The number of items to release.
+     * @return The processing load after the release.
+     */
+    public int release(Long restaurantId, int itemCount) {
+        Slot slot = slot(restaurantId);
+        return slot.load.updateAndGet(current -> Math.max(0, current - itemCount));
+    }
+
+    /**
+     * Checks whether the given number of items currently fits, without reserving anything.
+     *
+     * @param restaurantId The ID of the restaurant.
+     * @param itemCount    The number of items to check.
+     * @return true if the items fit into the remaining capacity.
+     */
+    public boolean canReserve(Long restaurantId, int itemCount) {
+        return itemCount <= getAvailableCapacity(restaurantId);
+    }
+
+    /**
+     * @param restaurantId The ID of the restaurant.
+     * @return The current processing load held by the ledger.
+     */
+    public int getLoad(Long restaurantId) {
+        return slot(restaurantId).load.get();
+    }
+
+    /**
+     * @param restaurantId The ID of the restaurant.
+     * @return The remaining capacity ({@code maxCapacity - currentProcessingLoad}), never negative.
+     */
+    public int getAvailableCapacity(Long restaurantId) {
+        Slot slot = slot(restaurantId);
+        return Math.max(0, slot.maxCapacity - slot.load.get());
+    }
+
+    /**
+     * Refreshes the maximum capacity of a restaurant after it has been saved.
+     * Restaurants the ledger has not seen yet are left to be loaded lazily.
+     *
+     * @param restaurant The saved restaurant.
+     */
+    public void updateMaxCapacity(RestaurantEntity restaurant) {
+        if (restaurant.getId() == null) {
+            return;
+        }
+        Slot slot = slots.get(restaurant.getId());
+        if (slot != null) {
+            slot.maxCapacity = restaurant.getMaxCapacity();
+        }
+    }
+
+    /**
+     * Overwrites the load of a restaurant, e.g. after {@link CapacityReconciler} found it drifted,
+     * but only if it still holds the load observed before. Restaurants the ledger has not seen yet
+     * are left to be loaded lazily.
+     *
+     * @param restaurantId The ID of the restaurant.
+     * @param observed     The processing load observed before.
+     * @param load         The processing load to store.
+     * @return false if the load changed since it was observed, true otherwise.
+     */
+    public boolean compareAndResetLoad(Long restaurantId, int observed, int load) {
+        Slot slot = slots.get(restaurantId);
+        return slot == null || slot.load.compareAndSet(observed, load);
+    }
+
+    /**
+     * @return The processing load of every restaurant the ledger has loaded, keyed by restaurant ID.
+     */
+    public Map<Long, Integer> loads() {
+        Map<Long, Integer> loads = new HashMap<>();
+        slots.forEach((restaurantId, slot) -> loads.put(restaurantId, slot.load.get()));
+        return loads;
+    }
+
+    /**
+     * Drops a restaurant from the ledger, e.g. after it has been deleted.
+     *
+     * @param restaurantId The ID of the restaurant.
+     */
+    public void evict(Long restaurantId) {
+        slots.remove(restaurantId);
+    }
+
+    private Slot slot(Long restaurantId) {
+        Slot slot = slots.get(restaurantId);
+        if (slot != null) {
+            return slot;
+        }
+        RestaurantEntity restaurant = restaurantRepository.findById(restaurantId)
+                .orElseThrow(() -> new RuntimeException("Restaurant with ID " + restaurantId + " not found"));
+        Slot loaded = new Slot(restaurant.getMaxCapacity(), restaurant.getCurrentProcessingLoad());
+        Slot existing = slots.putIfAbsent(restaurantId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * Capacity state of a single restaurant.
+     */
+    private static final class Slot {
+        private final AtomicInteger load;
+        private volatile int maxCapacity;
+
+        private Slot(int maxCapacity, int load) {
+            this.maxCapacity = maxCapacity;
+            this.load = new AtomicInteger(load);
+        }
+    }
+}
@@ -1,42 +1,336 @@
 package org.foodorder.service;
 
-import org.springframework.stereotype.Service;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.foodorder.model.KitchenQueueStats;
+import org.foodorder.scheduler.CapacityLimitedExecutor;
+import org.foodorder.scheduler.WeightedFairScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
 
 /**
  * Service that manages concurrency for restaurant operations by providing an
- * ExecutorService for each restaurant. Each restaurant is assigned a separate
- * ExecutorService to handle orders concurrently, with a pool size limited to
- * the restaurant's maximum processing capacity.
+ * ExecutorService for each restaurant. Each restaurant's executor runs at most
+ * the restaurant's maximum processing capacity of orders at a time.
+ * <p>
+ * The {@code kitchen.execution-mode} property selects how the executors are backed:
+ * <ul>
+ *   <li>{@code pooled} (default): a fixed thread pool of {@code maxCapacity} threads per restaurant.</li>
+ *   <li>{@code virtual}: all restaurants share one executor that starts a virtual thread per task,
+ *       and a per-restaurant semaphore enforces {@code maxCapacity}. The thread count no longer grows
+ *       with the number of restaurants. Virtual threads need Java 21; on older runtimes the shared
+ *       executor falls back to a pool of {@code kitchen.shared-pool-size} platform threads.</li>
+ *   <li>{@code fair}: all restaurants share one work-stealing pool sized to the number of cores
+ *       ({@code kitchen.fair-parallelism} overrides it). Each restaurant has its own queue, and the
+ *       queues are served with weighted fair queuing, weighted by {@code maxCapacity}, so a busy
+ *       restaurant cannot starve the others. Queue depth and wait time per restaurant are reported
+ *       by {@link #getKitchenQueueStats()}.</li>
+ * </ul>
+ * Executors follow the restaurant's capacity when it changes, are evicted once they have been idle
+ * for {@code kitchen.executor.idle-ttl-ms} or the restaurant is deleted, and are drained on shutdown
+ * for at most {@code kitchen.executor.drain-timeout-ms}.
  */
 @Service
 public class RestaurantExecutorService {
 
-    // A thread-safe map to store ExecutorServices for each restaurant by their ID.
-    private final ConcurrentHashMap<Long, ExecutorService> restaurantExecutors = new ConcurrentHashMap<>();
+    private static final Logger LOGGER = LoggerFactory.getLogger(RestaurantExecutorService.class);
+
+    /**
+     * How restaurant executors are backed.
+     */
+    public enum ExecutionMode {
+        POOLED, VIRTUAL, FAIR
+    }
+
+    // A thread-safe map to store the executor of each restaurant by its ID.
+    private final ConcurrentHashMap<Long, KitchenExecutor> restaurantExecutors = new ConcurrentHashMap<>();
+
+    private final ExecutionMode executionMode;
+
+    // The executor shared by all restaurants in VIRTUAL mode, null otherwise
+    private final ExecutorService sharedExecutor;
+
+    // The scheduler shared by all restaurants in FAIR mode, null otherwise
+    private final WeightedFairScheduler fairScheduler;
+
+    private final long idleTtlNanos;
+    private final long drainTimeoutMillis;
+
+    public RestaurantExecutorService(@Value("${kitchen.execution-mode:pooled}") String executionMode,
+                                     @Value("${kitchen.shared-pool-size:256}") int sharedPoolSize,
+                                     @Value("${kitchen.executor.idle-ttl-ms:600000}") long idleTtlMillis,
+                                     @Value("${kitchen.executor.drain-timeout-ms:10000}") long drainTimeoutMillis,
+                                     @Value("${kitchen.fair-parallelism:0}") int fairParallelism) {
+        this.executionMode = ExecutionMode.valueOf(executionMode.trim().toUpperCase(Locale.ROOT));
+        this.sharedExecutor = this.executionMode == ExecutionMode.VIRTUAL ? newSharedKitchenExecutor(sharedPoolSize) : null;
+        this.fairScheduler = this.executionMode == ExecutionMode.FAIR ? newFairScheduler(fairParallelism) : null;
+        this.idleTtlNanos = TimeUnit.MILLISECONDS.toNanos(idleTtlMillis);
+        this.drainTimeoutMillis = drainTimeoutMillis;
+        LOGGER.info("Restaurant kitchens run in {} mode", this.executionMode);
+    }
 
     /**
      * Returns an ExecutorService for the given restaurant ID. If an ExecutorService
-     * does not exist for the restaurant, a new one is created with a thread pool size
-     * equivalent to the restaurant's maximum processing capacity.
+     * does not exist for the restaurant, a new one is created that runs at most
+     * the restaurant's maximum processing capacity of tasks at a time; an existing one
+     * is resized if the capacity changed.
+     * <p>
+     * The returned executor may be evicted once it is idle, so prefer
+     * {@link #submit(Long, int, Runnable)}, which looks up and submits in one step.
      *
      * @param restaurantId The unique ID of the restaurant.
-     * @param maxCapacity  The maximum processing capacity (thread pool size) for the restaurant.
+     * @param maxCapacity  The maximum processing capacity (parallel tasks) for the restaurant.
      * @return The ExecutorService associated with the restaurant, which manages concurrency
      *         for processing its orders.
      */
     public ExecutorService getExecutorServiceForRestaurant(Long restaurantId, int maxCapacity) {
-        return restaurantExecutors.computeIfAbsent(restaurantId, id -> Executors.newFixedThreadPool(maxCapacity));
+        return restaurantExecutors.compute(restaurantId, (id, kitchen) -> acquire(kitchen, maxCapacity)).executor;
+    }
+
+    /**
+     * Submits a task to the restaurant's executor. The lookup and the submission happen
+     * atomically with respect to idle eviction, so the task is never handed to an evicted executor.
+     *
+     * @param restaurantId The unique ID of the restaurant.
+     * @param maxCapacity  The maximum processing capacity (parallel tasks) for the restaurant.
+     * @param task         The task to run.
+     */
+    public void submit(Long restaurantId, int maxCapacity, Runnable task) {
+        restaurantExecutors.compute(restaurantId, (id, kitchen) -> {
+            KitchenExecutor acquired = acquire(kitchen, maxCapacity);
+            acquired.executor.execute(task);
+            return acquired;
+        });
+    }
+
+    /**
+     * Applies a changed maximum capacity to the restaurant's executor, if it has one.
+     *
+     * @param restaurantId The unique ID of the restaurant.
+     * @param maxCapacity  The new maximum processing capacity.
+     */
+    public void resizeExecutorForRestaurant(Long restaurantId, int maxCapacity) {
+        restaurantExecutors.computeIfPresent(restaurantId, (id, kitchen) -> {
+            kitchen.resize(maxCapacity);
+            return kitchen;
+        });
+    }
+
+    /**
+     * Removes the restaurant's executor, e.g. after the restaurant has been deleted. Tasks already
+     * submitted still run to completion.
+     *
+     * @param restaurantId The unique ID of the restaurant.
+     */
+    public void evictExecutorForRestaurant(Long restaurantId) {
+        KitchenExecutor kitchen = restaurantExecutors.remove(restaurantId);
+        if (kitchen != null) {
+            kitchen.executor.shutdown();
+        }
+    }
+
+    /**
+     * Evicts the executors that have no running or queued tasks and have not been used for
+     * longer than the idle TTL.
+     *
+     * @return The number of executors evicted.
+     */
+    @Scheduled(fixedDelayString = "${kitchen.executor.idle-sweep-ms:60000}",
+            initialDelayString = "${kitchen.executor.idle-sweep-ms:60000}")
+    public int evictIdleExecutors() {
+        long now = System.nanoTime();
+        AtomicInteger evicted = new AtomicInteger();
+        restaurantExecutors.keySet().forEach(restaurantId ->
+                restaurantExecutors.computeIfPresent(restaurantId, (id, kitchen) -> {
+                    if (!kitchen.isIdle() || now - kitchen.lastUsedNanos < idleTtlNanos) {
+                        return kitchen;
+                    }
+                    kitchen.executor.shutdown();
+                    evicted.incrementAndGet();
+                    return null;
+                }));
+        if (evicted.get() > 0) {
+            LOGGER.info("Evicted {} idle restaurant executors, {} remain", evicted.get(), restaurantExecutors.size());
+        }
+        return evicted.get();
+    }
+
+    /**
+     * @return The number of restaurants that currently have an executor.
+     */
+    public int getExecutorCount() {
+        return restaurantExecutors.size();
+    }
+
+    /**
+     * Reports the queue of every restaurant that currently has an executor. Wait times are only
+     * measured in FAIR mode and are null otherwise.
+     *
+     * @return The queue statistics, ordered by restaurant ID.
+     */
+    public List<KitchenQueueStats> getKitchenQueueStats() {
+        List<KitchenQueueStats> stats = new ArrayList<>();
+        new TreeMap<>(restaurantExecutors).forEach((restaurantId, kitchen) -> stats.add(kitchen.stats(restaurantId)));
+        return stats;
     }
 
     /**
-     * Shuts down all ExecutorServices for all restaurants. This method can be
-     * used during application shutdown to properly close all ongoing tasks.
-     * It ensures that each restaurant's ExecutorService is shut down gracefully.
+     * @return The execution mode the restaurant executors run in.
      */
-    public void shutdownAllExecutors() {
-        restaurantExecutors.forEach((id, executor) -> executor.shutdown());
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Shuts down all ExecutorServices for all restaurants. Kitchen tasks already in flight are
+     * given until the drain timeout to finish; after that, queued tasks are dropped and running
+     * ones are interrupted, on the restaurant's own pool or on the shared pool they run on.
+     * Called on application shutdown.
+     *
+     * @return true if every task finished within the drain timeout.
+     */
+    @PreDestroy
+    public boolean shutdownAllExecutors() {
+        restaurantExecutors.forEach((id, kitchen) -> kitchen.executor.shutdown());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(drainTimeoutMillis);
+        boolean drained = true;
+        try {
+            for (KitchenExecutor kitchen : restaurantExecutors.values()) {
+                long remaining = deadline - System.nanoTime();
+                if (!kitchen.executor.awaitTermination(Math.max(0, remaining), TimeUnit.NANOSECONDS)) {
+                    drained = false;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            drained = false;
+        }
+        if (!drained) {
+            LOGGER.warn("Kitchen tasks did not finish within {} ms; dropping queued tasks and interrupting running ones",
+                    drainTimeoutMillis);
+            restaurantExecutors.forEach((id, kitchen) -> kitchen.executor.shutdownNow());
+        }
+        restaurantExecutors.clear();
+        // In VIRTUAL and FAIR mode the restaurant executors only queue; the tasks run on the shared pool
+        if (sharedExecutor != null) {
+            if (drained) {
+                sharedExecutor.shutdown();
+            } else {
+                sharedExecutor.shutdownNow();
+            }
+        }
+        if (fairScheduler != null) {
+            if (drained) {
+                fairScheduler.shutdown();
+            } else {
+                fairScheduler.shutdownNow();
+            }
+        }
+        return drained;
+    }
+
+    private KitchenExecutor acquire(KitchenExecutor kitchen, int maxCapacity) {
+        if (kitchen == null) {
+            kitchen = new KitchenExecutor(switch (executionMode) {
+                case VIRTUAL -> new CapacityLimitedExecutor(sharedExecutor, maxCapacity);
+                case FAIR -> fairScheduler.newFlow(maxCapacity);
+                case POOLED -> new ThreadPoolExecutor(maxCapacity, maxCapacity, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+            });
+        } else {
+            kitchen.resize(maxCapacity);
+        }
+        kitchen.lastUsedNanos = System.nanoTime();
+        return kitchen;
+    }
+
+    /**
+     * Creates the executor shared by all restaurants in VIRTUAL mode. The virtual-thread factory
+     * is looked up reflectively so the application still compiles and runs on Java 17.
+     */
+    private static ExecutorService newSharedKitchenExecutor(int sharedPoolSize) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            LOGGER.warn("Virtual threads are not available on this runtime; using a shared pool of {} threads", sharedPoolSize);
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(sharedPoolSize, runnable -> {
+                Thread thread = new Thread(runnable, "kitchen-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Creates the work-stealing pool and the weighted fair scheduler shared by all restaurants in FAIR mode.
+     */
+    private static WeightedFairScheduler newFairScheduler(int fairParallelism) {
+        int parallelism = fairParallelism > 0 ? fairParallelism : Runtime.getRuntime().availableProcessors();
+        return new WeightedFairScheduler(Executors.newWorkStealingPool(parallelism), parallelism);
+    }
+
+    /**
+     * A restaurant's executor and when it was last used.
+     */
+    private static final class KitchenExecutor {
+        private final ExecutorService executor;
+        private volatile long lastUsedNanos;
+
+        private KitchenExecutor(ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        private void resize(int maxCapacity) {
+            if (executor instanceof CapacityLimitedExecutor limited) {
+                if (limited.getMaxParallel() != maxCapacity) {
+                    limited.setMaxParallel(maxCapacity);
+                }
+            } else if (executor instanceof WeightedFairScheduler.Flow flow) {
+                if (flow.getWeight() != maxCapacity) {
+                    flow.setWeight(maxCapacity);
+                }
+            } else if (executor instanceof ThreadPoolExecutor pool && pool.getMaximumPoolSize() != maxCapacity) {
+                // The core size may never exceed the maximum size, so the order depends on the direction
+                if (maxCapacity > pool.getMaximumPoolSize()) {
+                    pool.setMaximumPoolSize(maxCapacity);
+                    pool.setCorePoolSize(maxCapacity);
+                } else {
+                    pool.setCorePoolSize(maxCapacity);
+                    pool.setMaximumPoolSize(maxCapacity);
+                }
+            }
+        }
+
+        private boolean isIdle() {
+            KitchenQueueStats stats = stats(null);
+            return stats.getActiveCount() == 0 && stats.getQueueDepth() == 0;
+        }
+
+        private KitchenQueueStats stats(Long restaurantId) {
+            if (executor instanceof WeightedFairScheduler.Flow flow) {
+                return new KitchenQueueStats(restaurantId, flow.getWeight(), flow.getActiveCount(), flow.getQueueDepth(),
+                        TimeUnit.NANOSECONDS.toMillis(flow.getAverageWaitNanos()), TimeUnit.NANOSECONDS.toMillis(flow.getMaxWaitNanos()));
+            }
+            if (executor instanceof CapacityLimitedExecutor limited) {
+                return new KitchenQueueStats(restaurantId, limited.getMaxParallel(), limited.getActiveCount(),
+                        limited.getQueuedTaskCount(), null, null);
+            }
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+            return new KitchenQueueStats(restaurantId, pool.getMaximumPoolSize(), pool.getActiveCount(),
+                    pool.getQueue().size(), null, null);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,330 @@
+package org.foodorder.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.GeoPoint;
+import org.foodorder.repository.RestaurantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory spatial index of restaurant locations. Every restaurant is geocoded once from its ZIP
+ * code with the {@link ZipCentroidGeocoder} and placed in a uniform latitude/longitude grid, so
+ * nearest-neighbour and radius queries only visit the cells around the origin instead of every
+ * restaurant.
+ * <p>
+ * A query expands square rings of cells around the origin cell and stops as soon as no point in
+ * the next ring can be closer than the k-th nearest restaurant found so far, or than the radius.
+ * Restaurants whose ZIP code is not in the centroid table are not indexed. Like the
+ * {@link MenuCatalogIndex}, the index is loaded when the application is ready and kept up to date
+ * by {@link RestaurantServiceImpl}. Queries do not wrap around the antimeridian.
+ */
+@Component
+public class RestaurantGeoIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RestaurantGeoIndex.class);
+
+    public static final double DEFAULT_CELL_DEGREES = 0.1;
+
+    private final RestaurantRepository restaurantRepository;
+    private final ZipCentroidGeocoder geocoder;
+    private final double cellDegrees;
+    private final int maxRing;
+
+    private final ConcurrentHashMap<Long, Location> locations = new ConcurrentHashMap<>();
+    // Cells are replaced, never modified, so queries can read them without locking
+    private final ConcurrentHashMap<Long, Location[]> cells = new ConcurrentHashMap<>();
+
+    public RestaurantGeoIndex(RestaurantRepository restaurantRepository, ZipCentroidGeocoder geocoder) {
+        this(restaurantRepository, geocoder, DEFAULT_CELL_DEGREES);
+    }
+
+    /**
+     * @param cellDegrees the width and height of a grid cell in degrees; about the radius of a typical query
+     */
+    @Autowired
+    public RestaurantGeoIndex(RestaurantRepository restaurantRepository, ZipCentroidGeocoder geocoder,
+                              @Value("${geo.grid.cell-degrees:0.1}") double cellDegrees) {
+        if (!(cellDegrees > 0)) {
+            throw new IllegalArgumentException("Grid cells must be wider than zero degrees: " + cellDegrees);
+        }
+        this.restaurantRepository = restaurantRepository;
+        this.geocoder = geocoder;
+        this.cellDegrees = cellDegrees;
+        this.maxRing = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    /**
+     * Geocodes and indexes every restaurant once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        locations.clear();
+        cells.clear();
+        for (RestaurantEntity restaurant : restaurantRepository.findAll()) {
+            put(restaurant);
+        }
+        LOGGER.info("Indexed the locations of {} restaurants in {} grid cells", locations.size(), cells.size());
+    }
+
+    /**
+     * Indexes a saved restaurant at the centroid of its ZIP code, moving it if the ZIP code changed.
+     *
+     * @param restaurant The saved restaurant.
+     */
+    public synchronized void put(RestaurantEntity restaurant) {
+        if (restaurant.getId() == null) {
+            return;
+        }
+        Optional<GeoPoint> point = geocoder.geocode(restaurant.getZipCode());
+        if (point.isEmpty()) {
+            remove(restaurant.getId());
+            return;
+        }
+        Location location = new Location(restaurant.getId(), point.get().getLatitude(), point.get().getLongitude(),
+                cellKey(cellIndex(point.get().getLatitude()), cellIndex(point.get().getLongitude())));
+        Location previous = locations.put(restaurant.getId(), location);
+        if (previous != null) {
+            if (previous.equals(location)) {
+                return;
+            }
+            removeFromCell(previous);
+        }
+        cells.merge(location.cell(), new Location[]{location}, (existing, added) -> {
+            Location[] merged = Arrays.copyOf(existing, existing.length + 1);
+            merged[existing.length] = location;
+            return merged;
+        });
+    }
+
+    /**
+     * Drops a restaurant from the index, e.g. after it has been deleted.
+     *
+     * @param restaurantId The ID of the restaurant.
+     */
+    public synchronized void remove(Long restaurantId) {
+        Location previous = locations.remove(restaurantId);
+        if (previous != null) {
+            removeFromCell(previous);
+        }
+    }
+
+    /**
+     * @param restaurantId The ID of the restaurant.
+     * @return The location of the restaurant, or empty if its ZIP code could not be geocoded.
+     */
+    public Optional<GeoPoint> locate(Long restaurantId) {
+        Location location = locations.get(restaurantId);
+        return location == null ? Optional.empty() : Optional.of(new GeoPoint(location.latitude(), location.longitude()));
+    }
+
+    /**
+     * @param restaurantId The ID of the restaurant.
+     * @param origin       The point to measure from.
+     * @return The distance in kilometers, or positive infinity if the restaurant is not located.
+     */
+    public double distanceKm(long restaurantId, GeoPoint origin) {
+        Location location = locations.get(restaurantId);
+        return location == null ? Double.POSITIVE_INFINITY : location.distanceKm(origin);
+    }
+
+    /**
+     * Finds the restaurants nearest to a point.
+     *
+     * @param origin The point to search around.
+     * @param k      The maximum number of restaurants to return.
+     * @param maxKm  The maximum distance in kilometers.
+     * @return The IDs of at most {@code k} restaurants within {@code maxKm}, nearest first; ties in
+     * order of restaurant ID.
+     */
+    public List<Long> nearest(GeoPoint origin, int k, double maxKm) {
+        if (k <= 0 || !(maxKm >= 0) || locations.isEmpty()) {
+            return List.of();
+        }
+        // Farthest of the best k on top, so it is the one to replace
+        PriorityQueue<Hit> best = new PriorityQueue<>(Comparator.comparingDouble(Hit::distanceKm)
+                .thenComparingLong(Hit::restaurantId).reversed());
+        int total = locations.size();
+        int originRow = cellIndex(origin.getLatitude());
+        int originColumn = cellIndex(origin.getLongitude());
+        int seen = 0;
+        for (int ring = 0; ring <= maxRing && seen < total; ring++) {
+            double ringMinKm = ringLowerBoundKm(origin, ring);
+            if (ringMinKm > maxKm || (best.size() == k && ringMinKm > best.peek().distanceKm())) {
+                break;
+            }
+            for (Location[] cell : ringCells(originRow, originColumn, ring)) {
+                seen += cell.length;
+                for (Location location : cell) {
+                    double distance = location.distanceKm(origin);
+                    if (distance <= maxKm) {
+                        offer(best, new Hit(location.restaurantId(), distance), k);
+                    }
+                }
+            }
+        }
+
+        List<Long> nearest = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            nearest.add(best.poll().restaurantId());
+        }
+        Collections.reverse(nearest);
+        return nearest;
+    }
+
+    /**
+     * Finds the nearest restaurant accepted by a filter, such as those offering an item with room
+     * for it. Rings are expanded until no point in the next one can be closer than the nearest
+     * accepted restaurant found so far, so the filter is only asked about the restaurants passed
+     * on the way. Since the rings around a sparse area are mostly empty, the search gives up after
+     * a number of cells, leaving the caller to look up the few acceptable restaurants directly.
+     *
+     * @param origin   The point to search around.
+     * @param accept   Accepts the IDs of the restaurants that may be returned.
+     * @param maxCells The maximum number of grid cells to visit.
+     * @return The nearest accepted restaurant, ties in order of restaurant ID, unless the search gave up.
+     */
+    public Nearest nearest(GeoPoint origin, LongPredicate accept, int maxCells) {
+        Hit best = null;
+        int total = locations.size();
+        int originRow = cellIndex(origin.getLatitude());
+        int originColumn = cellIndex(origin.getLongitude());
+        int seen = 0;
+        int visited = 0;
+        for (int ring = 0; ring <= maxRing && seen < total; ring++) {
+            if (best != null && ringLowerBoundKm(origin, ring) > best.distanceKm()) {
+                break;
+            }
+            visited += ring == 0 ? 1 : 8 * ring;
+            if (visited > maxCells) {
+                return new Nearest(null, false);
+            }
+            for (Location[] cell : ringCells(originRow, originColumn, ring)) {
+                seen += cell.length;
+                for (Location location : cell) {
+                    double distance = location.distanceKm(origin);
+                    boolean closer = best == null || distance < best.distanceKm()
+                            || (distance == best.distanceKm() && location.restaurantId() < best.restaurantId());
+                    if (closer && accept.test(location.restaurantId())) {
+                        best = new Hit(location.restaurantId(), distance);
+                    }
+                }
+            }
+        }
+        return new Nearest(best == null ? null : best.restaurantId(), true);
+    }
+
+    /**
+     * @param origin   The point to search around.
+     * @param radiusKm The radius in kilometers.
+     * @return The IDs of all restaurants within the radius, nearest first.
+     */
+    public List<Long> withinRadius(GeoPoint origin, double radiusKm) {
+        return nearest(origin, Integer.MAX_VALUE, radiusKm);
+    }
+
+    /**
+     * @return The number of located restaurants.
+     */
+    public int size() {
+        return locations.size();
+    }
+
+    private static void offer(PriorityQueue<Hit> best, Hit hit, int k) {
+        if (best.size() < k) {
+            best.add(hit);
+            return;
+        }
+        Hit farthest = best.peek();
+        if (hit.distanceKm() < farthest.distanceKm()
+                || (hit.distanceKm() == farthest.distanceKm() && hit.restaurantId() < farthest.restaurantId())) {
+            best.poll();
+            best.add(hit);
+        }
+    }
+
+    /**
+     * The non-empty cells on the perimeter of a ring: every column on its first and last row, the
+     * two edges in between.
+     */
+    private List<Location[]> ringCells(int originRow, int originColumn, int ring) {
+        List<Location[]> found = new ArrayList<>();
+        for (int row = originRow - ring; row <= originRow + ring; row++) {
+            int step = row == originRow - ring || row == originRow + ring ? 1 : Math.max(1, 2 * ring);
+            for (int column = originColumn - ring; column <= originColumn + ring; column += step) {
+                Location[] cell = cells.get(cellKey(row, column));
+                if (cell != null) {
+                    found.add(cell);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * A lower bound of the distance from the origin to any point in the given ring or beyond. Such
+     * a point is at least {@code ring - 1} whole cells away in latitude or in longitude; a gap in
+     * longitude is shortest at the highest latitude those cells reach.
+     */
+    private double ringLowerBoundKm(GeoPoint origin, int ring) {
+        if (ring <= 1) {
+            return 0;
+        }
+        double gapDegrees = (ring - 1) * cellDegrees;
+        double latitudeGapKm = gapDegrees * GeoPoint.KM_PER_DEGREE;
+        double maxLatitude = Math.min(90, Math.abs(origin.getLatitude()) + (ring + 1) * cellDegrees);
+        double longitudeGap = Math.toRadians(Math.min(180, gapDegrees));
+        double longitudeGapKm = 2 * GeoPoint.EARTH_RADIUS_KM
+                * Math.asin(Math.cos(Math.toRadians(maxLatitude)) * Math.sin(longitudeGap / 2));
+        return Math.min(latitudeGapKm, longitudeGapKm);
+    }
+
+    private void removeFromCell(Location location) {
+        cells.computeIfPresent(location.cell(), (key, existing) -> {
+            Location[] remaining = Arrays.stream(existing)
+                    .filter(other -> other.restaurantId() != location.restaurantId())
+                    .toArray(Location[]::new);
+            return remaining.length == 0 ? null : remaining;
+        });
+    }
+
+    private int cellIndex(double degrees) {
+        return (int) Math.floor(degrees / cellDegrees);
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+
+    private record Location(long restaurantId, double latitude, double longitude, long cell) {
+
+        private double distanceKm(GeoPoint origin) {
+            return GeoPoint.distanceKm(latitude, longitude, origin.getLatitude(), origin.getLongitude());
+        }
+    }
+
+    private record Hit(long restaurantId, double distanceKm) {
+    }
+
+    /**
+     * The outcome of {@link #nearest(GeoPoint, LongPredicate, int)}.
+     *
+     * @param restaurantId The ID of the nearest accepted restaurant, or null if no located restaurant is accepted.
+     * @param complete     Whether the search finished; if not, it gave up at its cell limit and found nothing.
+     */
+    public record Nearest(Long restaurantId, boolean complete) {
+    }
+}
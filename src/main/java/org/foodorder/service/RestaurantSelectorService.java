@@ -4,6 +4,7 @@ import org.foodorder.entity.RestaurantEntity;
 import org.foodorder.entity.MenuItemEntity;
 import org.foodorder.model.CartItem;
 import org.foodorder.model.OrderItemRequest;
+import org.foodorder.model.SelectionOptions;
 
 import java.util.List;
 import java.util.Map;
@@ -34,6 +35,17 @@ public interface RestaurantSelectorService {
      */
     Map<Long, List<OrderItemRequest>> groupItemsByRestaurant(List<OrderItemRequest> items, String strategy);
 
+    /**
+     * Group items by the best restaurant based on the selection strategy, scoring with the weights
+     * and measuring distances from the delivery ZIP code sent with the order.
+     *
+     * @param items    The list of items to be grouped.
+     * @param strategy The strategy to use for selection (e.g., "price", "composite" or "nearest").
+     * @param options  The per-order selection options.
+     * @return A map of restaurant IDs to the list of items that each restaurant will fulfill.
+     */
+    Map<Long, List<OrderItemRequest>> groupItemsByRestaurant(List<OrderItemRequest> items, String strategy, SelectionOptions options);
+
     /**
      * Get a list of restaurants that serve the specified menu item.
      *
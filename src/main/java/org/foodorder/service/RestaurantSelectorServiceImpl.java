@@ -5,64 +5,62 @@ import org.foodorder.entity.MenuItemEntity;
 import org.foodorder.model.OrderItemRequest;
 import org.foodorder.repository.MenuItemRepository;
 import org.foodorder.repository.RestaurantRepository;
-import org.foodorder.strategy.HighestRatingStrategy;
-import org.foodorder.strategy.LowestCostStrategy;
+import org.foodorder.model.GeoPoint;
+import org.foodorder.model.SelectionOptions;
+import org.foodorder.strategy.RestaurantSelectionStrategy;
+import org.foodorder.strategy.StrategyRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
 /**
  * Service class to handle restaurant selection based on different strategies such as
- * lowest cost or highest rating.
+ * lowest cost or highest rating. Strategies are looked up by name in the {@link StrategyRegistry}.
  */
 @Service
 public class RestaurantSelectorServiceImpl implements RestaurantSelectorService {
 
     private static final Logger logger = LoggerFactory.getLogger(RestaurantSelectorServiceImpl.class);
 
-    private final HighestRatingStrategy highestRatingStrategy;
-    private final LowestCostStrategy lowestCostStrategy;
+    private final StrategyRegistry strategyRegistry;
     private final RestaurantRepository restaurantRepository;
     private final MenuItemRepository menuItemRepository;
+    private final ZipCentroidGeocoder geocoder;
 
     @Autowired
     private MenuService menuService;
 
     public RestaurantSelectorServiceImpl(
-            HighestRatingStrategy highestRatingStrategy, LowestCostStrategy lowestCostStrategy,
-            RestaurantRepository restaurantRepository, MenuItemRepository menuItemRepository
+            StrategyRegistry strategyRegistry,
+            RestaurantRepository restaurantRepository, MenuItemRepository menuItemRepository,
+            ZipCentroidGeocoder geocoder
     ) {
-        this.highestRatingStrategy = highestRatingStrategy;
-        this.lowestCostStrategy = lowestCostStrategy;
+        this.strategyRegistry = strategyRegistry;
         this.restaurantRepository = restaurantRepository;
         this.menuItemRepository = menuItemRepository;
+        this.geocoder = geocoder;
     }
 
     /**
-     * Selects the best restaurant based on the given strategy (either "price" or "rating").
-     * If the strategy is not recognized, it defaults to the highest rating strategy.
+     * Selects the best restaurant based on the given strategy (e.g. "price" or "rating").
+     * If the strategy is not recognized, it defaults to the configured default strategy.
      *
      * @param restaurants the list of restaurants to select from
      * @param menuItem the menu item to be considered for the selection
-     * @param strategyType the strategy to use ("price" for lowest cost, otherwise highest rating)
+     * @param strategyType the name of the strategy to use
      * @return the selected RestaurantEntity based on the strategy
      */
     public RestaurantEntity selectBestRestaurant(List<RestaurantEntity> restaurants, MenuItemEntity menuItem, String strategyType) {
         try {
-            if ("price".equals(strategyType)) {
-                logger.info("Selecting restaurant based on lowest price strategy for menu item: {}", menuItem.getName());
-                return lowestCostStrategy.selectRestaurant(restaurants, menuItem);
-            } else {
-                logger.info("Selecting restaurant based on highest rating strategy for menu item: {}", menuItem.getName());
-                return highestRatingStrategy.selectRestaurant(restaurants, menuItem);
-            }
+            RestaurantSelectionStrategy strategy = strategyRegistry.resolve(strategyType);
+            logger.info("Selecting restaurant based on {} strategy for menu item: {}", strategy.getName(), menuItem.getName());
+            return strategy.selectRestaurant(restaurants, menuItem);
         } catch (Exception e) {
             logger.error("Error occurred while selecting the best restaurant for menu item: {}", menuItem.getName(), e);
             throw new RuntimeException("Failed to select the best restaurant based on the strategy.");
@@ -70,22 +68,18 @@ public class RestaurantSelectorServiceImpl implements RestaurantSelectorService
     }
 
     /**
-     * Sorts a list of restaurants based on the given strategy (either "price" or "rating").
-     * If the strategy is not recognized, it defaults to sorting by rating.
+     * Sorts a list of restaurants based on the given strategy (e.g. "price" or "rating").
+     * If the strategy is not recognized, it defaults to the configured default strategy.
      *
      * @param restaurants the list of restaurants to sort
-     * @param strategyType the strategy to use for sorting ("price" for lowest cost, otherwise highest rating)
+     * @param strategyType the name of the strategy to use for sorting
      * @return the sorted list of restaurants based on the strategy
      */
     public List<RestaurantEntity> sortRestaurants(List<RestaurantEntity> restaurants, String strategyType) {
         try {
-            if ("price".equals(strategyType)) {
-                logger.info("Sorting restaurants by price (Low to High).");
-                return lowestCostStrategy.sortRestaurants(restaurants);
-            } else {
-                logger.info("Sorting restaurants by rating (High to Low).");
-                return highestRatingStrategy.sortRestaurants(restaurants);
-            }
+            RestaurantSelectionStrategy strategy = strategyRegistry.resolve(strategyType);
+            logger.info("Sorting restaurants using {} strategy.", strategy.getName());
+            return strategy.sortRestaurants(restaurants);
         } catch (Exception e) {
             logger.error("Error occurred while sorting restaurants using strategy: {}", strategyType, e);
             throw new RuntimeException("Failed to sort restaurants based on the strategy.");
@@ -94,6 +88,12 @@ public class RestaurantSelectorServiceImpl implements RestaurantSelectorService
 
     /**
      * Group items by the best restaurant based on the selection strategy.
+     * The strategies select from the in-memory {@link MenuCatalogIndex}, so no database access is
+     * needed to group an order. "price", "rating" and "composite" pick a restaurant for each item
+     * on its own; "optimal-price" and "optimal-rating" assign the whole order at once within the
+     * remaining capacity of the restaurants, "consolidated-price" and "consolidated-rating"
+     * fulfill it from as few restaurants as possible, and "nearest" picks the closest restaurant to
+     * the delivery ZIP code.
      *
      * @param items The list of items to be grouped.
      * @param strategy The strategy to use for selection (e.g., "price" or "rating").
@@ -101,37 +101,28 @@ public class RestaurantSelectorServiceImpl implements RestaurantSelectorService
      */
     @Override
     public Map<Long, List<OrderItemRequest>> groupItemsByRestaurant(List<OrderItemRequest> items, String strategy) {
-        Map<Long, List<OrderItemRequest>> groupedItems = new HashMap<>();
-
-        for (OrderItemRequest item : items) {
-            // fetch menu items to get it's id by name
-            List<MenuItemEntity> availableMenuItems = menuItemRepository.findByNameContainingIgnoreCase(item.getName());
-
-            // Fetch available restaurants by item name
-            List<RestaurantEntity> availableRestaurants = getRestaurantsByMenuItemName(item.getName());
-
-            if (availableRestaurants.isEmpty()) {
-                throw new RuntimeException("No restaurants available for menu item: " + item.getName());
-            }
-
-            // Select the best restaurant according to the strategy
-            RestaurantEntity selectedRestaurant = selectBestRestaurantAsPerCustomerRequest(availableRestaurants, item, strategy);
-
-            // Fetch the menuItemId from the availableMenuItems
-            MenuItemEntity selectedMenuItem = availableMenuItems.stream()
-                    .filter(menuItem -> menuItem.getRestaurantId().equals(selectedRestaurant.getId()))
-                    .findFirst()
-                    .orElseThrow(() -> new RuntimeException("Menu item not found for restaurant ID: " + selectedRestaurant.getId()));
-
-            // Set the menuItemId in the OrderItemRequest
-            item.setMenuItemId(selectedMenuItem.getId());
-            logger.info("-------selected item ----" + selectedMenuItem.getPrice());
-            item.setPrice(selectedMenuItem.getPrice());
-            // Group items by the selected restaurant
-            groupedItems.computeIfAbsent(selectedRestaurant.getId(), k -> new ArrayList<>()).add(item);
+        return groupItemsByRestaurant(items, strategy, SelectionOptions.none());
+    }
+
+    @Override
+    public Map<Long, List<OrderItemRequest>> groupItemsByRestaurant(List<OrderItemRequest> items, String strategy, SelectionOptions options) {
+        logger.info("Assigning {} items using strategy: {}", items.size(), strategy);
+        try {
+            return strategyRegistry.resolve(strategy)
+                    .withWeights(options.getWeights())
+                    .withOrigin(geocodeDeliveryZipCode(options.getDeliveryZipCode()))
+                    .assignItems(items);
+        } catch (NoSuchElementException | IllegalArgumentException e) {
+            throw new RuntimeException(e.getMessage());
         }
+    }
 
-        return groupedItems;
+    private GeoPoint geocodeDeliveryZipCode(String deliveryZipCode) {
+        if (deliveryZipCode == null || deliveryZipCode.isBlank()) {
+            return null;
+        }
+        return geocoder.geocode(deliveryZipCode)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown delivery ZIP code: " + deliveryZipCode));
     }
 
     /**
@@ -166,7 +157,7 @@ public class RestaurantSelectorServiceImpl implements RestaurantSelectorService
 
     /**
      * Selects the best restaurant for a specific cart item based on the strategy provided by the customer.
-     * The strategy can either be "price" for the lowest cost or "rating" for the highest rating.
+     * The strategy is looked up by name, e.g. "price" for the lowest cost or "rating" for the highest rating.
      *
      * @param restaurants The list of restaurants available for selection.
      * @param item        The cart item for which the restaurant is being selected.
@@ -178,11 +169,7 @@ public class RestaurantSelectorServiceImpl implements RestaurantSelectorService
     public RestaurantEntity selectBestRestaurantAsPerCustomerRequest(List<RestaurantEntity> restaurants, OrderItemRequest item, String strategy) {
         try {
             logger.info("Selecting best restaurant for item {} using strategy: {}", item.getName(), strategy);
-            if ("price".equalsIgnoreCase(strategy)) {
-                return lowestCostStrategy.selectRestaurantAsPerCustomerRequest(restaurants, item);
-            } else {
-                return highestRatingStrategy.selectRestaurantAsPerCustomerRequest(restaurants, item);
-            }
+            return strategyRegistry.resolve(strategy).selectRestaurantAsPerCustomerRequest(restaurants, item);
         } catch (Exception e) {
             logger.error("Error selecting restaurant for item {}: {}", item.getName(), e.getMessage());
             throw new RuntimeException("Failed to select best restaurant based on strategy.", e);
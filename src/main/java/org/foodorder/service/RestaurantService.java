@@ -2,8 +2,12 @@ package org.foodorder.service;
 
 import org.foodorder.entity.MenuItemEntity;
 import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.KeysetPage;
+import org.foodorder.model.ListingSort;
+import org.foodorder.model.PageCursor;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -59,6 +63,26 @@ public interface RestaurantService {
    */
   List<RestaurantEntity> findByNameContainingIgnoreCase(String keyword);
 
+  /**
+   * Search restaurants whose name or cuisine contain every word of the keyword, ignoring case and plurals.
+   *
+   * @param keyword the keyword to search for
+   * @return a list of restaurants matching the keyword, most relevant first
+   */
+  List<RestaurantEntity> searchRestaurants(String keyword);
+
+  /**
+   * Get one page of restaurants, all of them or those matching a keyword, in the given order. The
+   * page is found by seeking past the cursor, so it costs the same however deep it is.
+   *
+   * @param keyword the keyword to search for, or null for all restaurants
+   * @param sort    the order to page through, by rating, price or name
+   * @param after   the cursor returned with the page before, or null for the first page
+   * @param size    the maximum number of restaurants on the page
+   * @return the page and the cursor of the next one
+   */
+  KeysetPage<RestaurantEntity> findPage(String keyword, ListingSort sort, PageCursor after, int size);
+
   /**
    * Checks if a restaurant can accept an order based on its current processing load and maximum capacity.
    *
@@ -104,6 +128,68 @@ public interface RestaurantService {
    */
   void dispatchOrder(Long restaurantId, int itemsDispatched);
 
+  /**
+   * Reserves processing capacity for the given number of items. The capacity check and the
+   * increment of the processing load happen in one atomic step.
+   *
+   * @param restaurantId The ID of the restaurant.
+   * @param itemCount    The number of items to reserve.
+   * @return true if the capacity was reserved, false if the restaurant cannot take the items.
+   */
+  boolean reserveCapacity(Long restaurantId, int itemCount);
+
+  /**
+   * Reserves processing capacity like {@link #reserveCapacity(Long, int)} and returns the ID of the
+   * reservation, which can be released exactly once with {@link #releaseReservation(long)}.
+   *
+   * @param restaurantId The ID of the restaurant.
+   * @param itemCount    The number of items to reserve.
+   * @return the ID of the reservation, or 0 if the restaurant cannot take the items.
+   */
+  long reserve(Long restaurantId, int itemCount);
+
+  /**
+   * Releases a reservation by its ID. Releasing the same reservation again has no effect.
+   *
+   * @param reservationId The ID of the reservation.
+   * @return true if this call released the reservation, false if it was already released.
+   */
+  boolean releaseReservation(long reservationId);
+
+  /**
+   * Releases processing capacity previously taken with {@link #reserveCapacity(Long, int)}.
+   * The items are taken from the restaurant's live reservations, oldest first.
+   *
+   * @param restaurantId The ID of the restaurant.
+   * @param itemCount    The number of items to release.
+   */
+  void releaseCapacity(Long restaurantId, int itemCount);
+
+  /**
+   * Reserves processing capacity at several restaurants as one all-or-nothing step.
+   * Restaurants are reserved in ascending ID order, and every reservation already taken is
+   * rolled back if a later restaurant cannot take its items.
+   *
+   * @param itemsByRestaurant the number of items to reserve, keyed by restaurant ID
+   * @return the reservation IDs, keyed by restaurant ID
+   * @throws org.foodorder.exception.CapacityExceededException if any restaurant cannot take its items
+   */
+  Map<Long, Long> reserveCapacityForAll(Map<Long, Integer> itemsByRestaurant);
+
+  /**
+   * Releases reservations made with {@link #reserveCapacityForAll(Map)}.
+   *
+   * @param reservationsByRestaurant the reservation IDs, keyed by restaurant ID
+   */
+  void releaseReservations(Map<Long, Long> reservationsByRestaurant);
+
+  /**
+   * Releases capacity by count at several restaurants.
+   *
+   * @param itemsByRestaurant the number of items to release, keyed by restaurant ID
+   */
+  void releaseCapacityForAll(Map<Long, Integer> itemsByRestaurant);
+
   /**
    * Find restaurants by menu items.
    *
@@ -1,7 +1,9 @@
 package org.foodorder.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -9,11 +11,18 @@ import java.util.stream.Collectors;
 import jakarta.websocket.OnError;
 import org.foodorder.entity.MenuItemEntity;
 import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.exception.CapacityExceededException;
+import org.foodorder.model.KeysetPage;
+import org.foodorder.model.ListingSort;
+import org.foodorder.model.PageCursor;
 import org.foodorder.repository.RestaurantRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Service class responsible for managing Restaurant-related operations.
@@ -26,6 +35,27 @@ public class RestaurantServiceImpl implements RestaurantService {
     @Autowired
     private RestaurantRepository restaurantRepository;
 
+    @Autowired
+    private RestaurantCapacityLedger capacityLedger;
+
+    @Autowired
+    private CapacityReservationTable reservationTable;
+
+    @Autowired
+    private RestaurantExecutorService restaurantExecutorService;
+
+    @Autowired
+    private MenuCatalogIndex catalogIndex;
+
+    @Autowired
+    private RestaurantGeoIndex geoIndex;
+
+    @Autowired
+    private MenuSearchIndex searchIndex;
+
+    @Autowired
+    private SuggestionIndex suggestionIndex;
+
     /**
      * Get a list of all restaurants.
      *
@@ -58,7 +88,14 @@ public class RestaurantServiceImpl implements RestaurantService {
     @Override
     public RestaurantEntity addRestaurant(RestaurantEntity restaurant) {
         LOGGER.log(Level.INFO, "Adding a new restaurant: {0}", restaurant.getName());
-        return restaurantRepository.save(restaurant);
+        RestaurantEntity saved = restaurantRepository.save(restaurant);
+        capacityLedger.updateMaxCapacity(saved);
+        restaurantExecutorService.resizeExecutorForRestaurant(saved.getId(), saved.getMaxCapacity());
+        catalogIndex.putRestaurant(saved);
+        geoIndex.put(saved);
+        searchIndex.putRestaurant(saved);
+        suggestionIndex.catalogChanged();
+        return saved;
     }
 
     /**
@@ -77,7 +114,14 @@ public class RestaurantServiceImpl implements RestaurantService {
             updatedRestaurant.setName(restaurant.getName());
             updatedRestaurant.setAddress(restaurant.getAddress());
             // Update other fields as necessary
-            return restaurantRepository.save(updatedRestaurant);
+            RestaurantEntity saved = restaurantRepository.save(updatedRestaurant);
+            capacityLedger.updateMaxCapacity(saved);
+            restaurantExecutorService.resizeExecutorForRestaurant(saved.getId(), saved.getMaxCapacity());
+            catalogIndex.putRestaurant(saved);
+            geoIndex.put(saved);
+            searchIndex.putRestaurant(saved);
+            suggestionIndex.catalogChanged();
+            return saved;
         }
         LOGGER.log(Level.WARNING, "Restaurant with ID: {0} not found", id);
         return null; // Or throw an exception
@@ -93,6 +137,13 @@ public class RestaurantServiceImpl implements RestaurantService {
         try {
             LOGGER.log(Level.INFO, "Deleting restaurant with ID: {0}", id);
             restaurantRepository.deleteById(id);
+            capacityLedger.evict(id);
+            reservationTable.evict(id);
+            restaurantExecutorService.evictExecutorForRestaurant(id);
+            catalogIndex.removeRestaurant(id);
+            geoIndex.remove(id);
+            searchIndex.removeRestaurant(id);
+            suggestionIndex.catalogChanged();
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error deleting restaurant with ID: " + id, e);
             throw new RuntimeException("Failed to delete restaurant with ID: " + id);
@@ -122,6 +173,69 @@ public class RestaurantServiceImpl implements RestaurantService {
         return restaurantRepository.findByNameContainingIgnoreCase(keyword);
     }
 
+    /**
+     * Search restaurants whose name or cuisine contain every word of the keyword, using the
+     * in-memory {@link MenuSearchIndex} instead of a LIKE scan.
+     *
+     * @param keyword the keyword to search for
+     * @return a list of restaurants matching the keyword, most relevant first
+     */
+    @Override
+    public List<RestaurantEntity> searchRestaurants(String keyword) {
+        LOGGER.log(Level.INFO, "Searching restaurants by name or cuisine: {0}", keyword);
+        List<Long> restaurantIds = searchIndex.searchRestaurants(keyword, Integer.MAX_VALUE);
+        Map<Long, RestaurantEntity> restaurantsById = restaurantRepository.findAllById(restaurantIds).stream()
+                .collect(Collectors.toMap(RestaurantEntity::getId, restaurant -> restaurant));
+        return restaurantIds.stream()
+                .map(restaurantsById::get)
+                .filter(restaurant -> restaurant != null)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get one page of restaurants, all of them or those matching a keyword. All restaurants are
+     * paged by seeking on the (sort key, id) index; matches of a keyword are paged in memory from
+     * the {@link MenuSearchIndex}, which holds their keys, and only the page is loaded. Price
+     * orders by the lowest menu price of each restaurant.
+     *
+     * @param keyword the keyword to search for, or null for all restaurants
+     * @param sort    the order to page through, by rating, price or name
+     * @param after   the cursor returned with the page before, or null for the first page
+     * @param size    the maximum number of restaurants on the page
+     * @return the page and the cursor of the next one
+     */
+    @Override
+    public KeysetPage<RestaurantEntity> findPage(String keyword, ListingSort sort, PageCursor after, int size) {
+        LOGGER.log(Level.INFO, "Fetching a page of restaurants by {0} after {1}", new Object[]{sort.parameter(), after});
+        if (keyword == null) {
+            List<RestaurantEntity> restaurants = restaurantRepository.findPage(sort, after, size + 1);
+            return KeysetPage.of(restaurants, size, sort, restaurant -> sortKey(restaurant, sort), RestaurantEntity::getId);
+        }
+        KeysetPage<MenuSearchIndex.RestaurantMatch> matches = KeysetPage.slice(searchIndex.matchRestaurants(keyword),
+                after, size, sort, match -> match.sortKey(sort), MenuSearchIndex.RestaurantMatch::restaurantId);
+        List<Long> restaurantIds = matches.getItems().stream()
+                .map(MenuSearchIndex.RestaurantMatch::restaurantId)
+                .collect(Collectors.toList());
+        Map<Long, RestaurantEntity> restaurantsById = restaurantRepository.findAllById(restaurantIds).stream()
+                .collect(Collectors.toMap(RestaurantEntity::getId, restaurant -> restaurant));
+        List<RestaurantEntity> restaurants = restaurantIds.stream()
+                .map(restaurantsById::get)
+                .filter(restaurant -> restaurant != null)
+                .collect(Collectors.toList());
+        return new KeysetPage<>(restaurants, matches.getNextCursor());
+    }
+
+    private static Comparable<?> sortKey(RestaurantEntity restaurant, ListingSort sort) {
+        switch (sort) {
+            case PRICE:
+                return restaurant.getMinMenuPrice();
+            case NAME:
+                return restaurant.getName();
+            default:
+                return restaurant.getRating();
+        }
+    }
+
     /**
      * Save a restaurant entity.
      *
@@ -130,7 +244,13 @@ public class RestaurantServiceImpl implements RestaurantService {
     @Override
     public void save(RestaurantEntity restaurant) {
         LOGGER.log(Level.INFO, "Saving restaurant: {0}", restaurant.getName());
-        restaurantRepository.save(restaurant);
+        RestaurantEntity saved = restaurantRepository.save(restaurant);
+        capacityLedger.updateMaxCapacity(saved);
+        restaurantExecutorService.resizeExecutorForRestaurant(saved.getId(), saved.getMaxCapacity());
+        catalogIndex.putRestaurant(saved);
+        geoIndex.put(saved);
+        searchIndex.putRestaurant(saved);
+        suggestionIndex.catalogChanged();
     }
 
     /**
@@ -155,6 +275,13 @@ public class RestaurantServiceImpl implements RestaurantService {
         try {
             LOGGER.log(Level.INFO, "Deleting restaurant by ID: {0}", id);
             restaurantRepository.deleteById(id);
+            capacityLedger.evict(id);
+            reservationTable.evict(id);
+            restaurantExecutorService.evictExecutorForRestaurant(id);
+            catalogIndex.removeRestaurant(id);
+            geoIndex.remove(id);
+            searchIndex.removeRestaurant(id);
+            suggestionIndex.catalogChanged();
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error deleting restaurant with ID: " + id, e);
             throw new RuntimeException("Failed to delete restaurant with ID: " + id);
@@ -172,6 +299,7 @@ public class RestaurantServiceImpl implements RestaurantService {
         try {
             LOGGER.log(Level.INFO, "Updating open status for restaurant with ID: {0} to: {1}", new Object[]{id, openStatus});
             restaurantRepository.updateRestaurantIsOpenStatus(id, openStatus);
+            catalogIndex.updateOpenStatus(id, openStatus);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error updating open status for restaurant with ID: " + id, e);
             throw new RuntimeException("Failed to update open status for restaurant with ID: " + id);
@@ -179,20 +307,23 @@ public class RestaurantServiceImpl implements RestaurantService {
     }
 
     /**
-     * Find restaurants by menu items.
+     * Find restaurants by menu items, loading them all in one query.
      *
      * @param menuItems the list of menu items
-     * @return a list of restaurants that offer these menu items
+     * @return a list of restaurants that offer these menu items, in the order of the menu items
      */
     @Override
     public List<RestaurantEntity> findRestaurantsByMenuItems(List<MenuItemEntity> menuItems) {
         LOGGER.info("Finding restaurants offering the specified menu items.");
-        return menuItems.stream()
+        List<Long> restaurantIds = menuItems.stream()
                 .map(MenuItemEntity::getRestaurantId)
                 .distinct()
-                .map(restaurantRepository::findById)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
+                .collect(Collectors.toList());
+        Map<Long, RestaurantEntity> restaurantsById = restaurantRepository.findAllById(restaurantIds).stream()
+                .collect(Collectors.toMap(RestaurantEntity::getId, restaurant -> restaurant));
+        return restaurantIds.stream()
+                .map(restaurantsById::get)
+                .filter(restaurant -> restaurant != null)
                 .collect(Collectors.toList());
     }
 
@@ -207,10 +338,7 @@ public class RestaurantServiceImpl implements RestaurantService {
     @Override
     public boolean canRestaurantAcceptOrder(Long restaurantId, int itemCount) {
         try {
-            RestaurantEntity restaurant = restaurantRepository.findById(restaurantId)
-                    .orElseThrow(() -> new RuntimeException("Restaurant with ID " + restaurantId + " not found"));
-
-            boolean canAccept = restaurant.getCurrentProcessingLoad() + itemCount <= restaurant.getMaxCapacity();
+            boolean canAccept = capacityLedger.canReserve(restaurantId, itemCount);
             LOGGER.log(Level.INFO, "Restaurant ID {0} can accept more items: {1}", new Object[]{restaurantId, canAccept});
             return canAccept;
         } catch (Exception e) {
@@ -230,12 +358,7 @@ public class RestaurantServiceImpl implements RestaurantService {
     @Override
     public void incrementRestaurantLoad(Long restaurantId, int itemCount) {
         try {
-            RestaurantEntity restaurant = restaurantRepository.findById(restaurantId)
-                    .orElseThrow(() -> new RuntimeException("Restaurant with ID " + restaurantId + " not found"));
-
-            if (canRestaurantAcceptOrder(restaurantId, itemCount)) {
-                restaurant.setCurrentProcessingLoad(restaurant.getCurrentProcessingLoad() + itemCount);
-                restaurantRepository.save(restaurant);
+            if (reserveCapacity(restaurantId, itemCount)) {
                 LOGGER.log(Level.INFO, "Incremented processing load for restaurant ID {0} by {1}", new Object[]{restaurantId, itemCount});
             } else {
                 LOGGER.log(Level.WARNING, "Restaurant ID {0} exceeded capacity with item count {1}", new Object[]{restaurantId, itemCount});
@@ -257,13 +380,7 @@ public class RestaurantServiceImpl implements RestaurantService {
     @Override
     public void decrementRestaurantLoad(Long restaurantId, int itemCount) {
         try {
-            RestaurantEntity restaurant = restaurantRepository.findById(restaurantId)
-                    .orElseThrow(() -> new RuntimeException("Restaurant with ID " + restaurantId + " not found"));
-
-            int newProcessingLoad = Math.max(0, restaurant.getCurrentProcessingLoad() - itemCount);
-            restaurant.setCurrentProcessingLoad(newProcessingLoad);
-            restaurantRepository.save(restaurant);
-
+            releaseCapacity(restaurantId, itemCount);
             LOGGER.log(Level.INFO, "Decremented processing load for restaurant ID {0} by {1}", new Object[]{restaurantId, itemCount});
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error decrementing processing load for restaurant with ID {0}", new Object[]{restaurantId, e});
@@ -280,10 +397,7 @@ public class RestaurantServiceImpl implements RestaurantService {
     @Override
     public int getCurrentProcessingLoad(Long restaurantId) {
         try {
-            RestaurantEntity restaurant = restaurantRepository.findById(restaurantId)
-                    .orElseThrow(() -> new RuntimeException("Restaurant with ID " + restaurantId + " not found"));
-
-            int currentLoad = restaurant.getCurrentProcessingLoad();
+            int currentLoad = capacityLedger.getLoad(restaurantId);
             LOGGER.log(Level.INFO, "Current processing load for restaurant ID {0} is {1}", new Object[]{restaurantId, currentLoad});
             return currentLoad;
         } catch (Exception e) {
@@ -294,25 +408,19 @@ public class RestaurantServiceImpl implements RestaurantService {
 
     /**
      * Checks if the restaurant can accept an order based on its current load and maximum capacity.
-     * This method first attempts to retrieve the capacity status from the cache. If the cache is empty,
-     * the method queries the database and updates the cache.
+     * The check is answered from the in-memory capacity ledger; the database is only read the
+     * first time a restaurant is seen.
      *
      * @param restaurantId   The ID of the restaurant to check.
      * @param itemsRequested The number of items requested in the order.
      * @return true if the restaurant can process the requested items, false otherwise.
      */
     @Override
-    //@Cacheable(value = "restaurantCapacity", key = "#restaurantId", unless = "#result == false")
     public boolean canPlaceOrder(Long restaurantId, int itemsRequested) {
         try {
             LOGGER.log(Level.INFO, "Checking if Restaurant ID {0} can process {1} items.", new Object[]{restaurantId, itemsRequested});
 
-            // Attempt to fetch the restaurant entity from the database
-            RestaurantEntity restaurant = restaurantRepository.findById(restaurantId)
-                    .orElseThrow(() -> new RuntimeException("Restaurant not found with ID: " + restaurantId));
-
-            // Calculate available capacity
-            int availableCapacity = restaurant.getMaxCapacity() - restaurant.getCurrentProcessingLoad();
+            int availableCapacity = capacityLedger.getAvailableCapacity(restaurantId);
             boolean canPlaceOrder = itemsRequested <= availableCapacity;
 
             LOGGER.log(Level.INFO, "Restaurant ID {0} has available capacity of {1} items. Can Place Order: {2}",
@@ -329,31 +437,23 @@ public class RestaurantServiceImpl implements RestaurantService {
     }
 
     /**
-     * Places an order by updating the restaurant's current processing load if the restaurant has the capacity.
-     * If the restaurant cannot process the requested number of items, the order is not placed.
+     * Places an order by reserving capacity in the restaurant's processing load.
+     * The check and the reservation are a single atomic step (see {@link #reserveCapacity(Long, int)}),
+     * so concurrent orders cannot overbook the restaurant. If the restaurant cannot process the
+     * requested number of items, the order is not placed.
      *
      * @param restaurantId   The ID of the restaurant where the order is being placed.
      * @param itemsRequested The number of items requested for the restaurant.
      * @throws RuntimeException If the restaurant cannot handle the order or other errors occur.
      */
     @Override
-    //@CacheEvict(value = "restaurantCapacity", key = "#restaurantId") // Evict cache after placing an order
     public void placeOrder(Long restaurantId, int itemsRequested) {
         try {
             LOGGER.log(Level.INFO, "Attempting to place order for {0} items at Restaurant ID {1}", new Object[]{itemsRequested, restaurantId});
 
-            // Retrieve restaurant data from the repository
-            RestaurantEntity restaurant = restaurantRepository.findById(restaurantId)
-                    .orElseThrow(() -> new RuntimeException("Restaurant not found with ID: " + restaurantId));
-
-            // Check if the restaurant can accept the order
-            if (canPlaceOrder(restaurantId, itemsRequested)) {
-                // Update the restaurant's processing load
-                restaurant.setCurrentProcessingLoad(restaurant.getCurrentProcessingLoad() + itemsRequested);
-                restaurantRepository.save(restaurant);
-
+            if (reserveCapacity(restaurantId, itemsRequested)) {
                 LOGGER.log(Level.INFO, "Successfully placed order for {0} items at Restaurant ID {1}. Current Processing Load: {2}",
-                        new Object[]{itemsRequested, restaurantId, restaurant.getCurrentProcessingLoad()});
+                        new Object[]{itemsRequested, restaurantId, capacityLedger.getLoad(restaurantId)});
             } else {
                 // Throw an exception if the restaurant cannot handle the order
                 throw new RuntimeException("Cannot place order. Restaurant ID " + restaurantId + " exceeds processing capacity.");
@@ -373,22 +473,14 @@ public class RestaurantServiceImpl implements RestaurantService {
      * @param itemsDispatched The number of items being dispatched.
      */
     @Override
-    //@CacheEvict(value = "restaurantCapacity", key = "#restaurantId") // Evict cache after dispatching an order
     public void dispatchOrder(Long restaurantId, int itemsDispatched) {
         try {
             LOGGER.log(Level.INFO, "Dispatching {0} items for Restaurant ID {1}", new Object[]{itemsDispatched, restaurantId});
 
-            // Retrieve the restaurant entity from the repository
-            RestaurantEntity restaurant = restaurantRepository.findById(restaurantId)
-                    .orElseThrow(() -> new RuntimeException("Restaurant not found with ID: " + restaurantId));
-
-            // Calculate the new processing load after dispatch
-            int newLoad = Math.max(restaurant.getCurrentProcessingLoad() - itemsDispatched, 0);
-            restaurant.setCurrentProcessingLoad(newLoad);
-            restaurantRepository.save(restaurant);
+            releaseCapacity(restaurantId, itemsDispatched);
 
             LOGGER.log(Level.INFO, "Order dispatched for Restaurant ID {0}. Updated Processing Load: {1}",
-                    new Object[]{restaurantId, newLoad});
+                    new Object[]{restaurantId, capacityLedger.getLoad(restaurantId)});
         } catch (RuntimeException e) {
             LOGGER.log(Level.SEVERE, "Error dispatching order for Restaurant ID {0}: {1}", new Object[]{restaurantId, e.getMessage()});
             throw e;
@@ -397,4 +489,203 @@ public class RestaurantServiceImpl implements RestaurantService {
             throw new RuntimeException("Failed to dispatch order.");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Reserves processing capacity with a single guarded update of the restaurant row.
+     * The reservation is recorded without an ID; it is released by count through
+     * {@link #releaseCapacity(Long, int)}.
+     *
+     * @param restaurantId The ID of the restaurant.
+     * @param itemCount    The number of items to reserve.
+     * @return true if the capacity was reserved, false if the restaurant cannot take the items.
+     */
+    @Override
+    public boolean reserveCapacity(Long restaurantId, int itemCount) {
+        return reserve(restaurantId, itemCount) != 0;
+    }
+
+    /**
+     * Reserves processing capacity with a single guarded update of the restaurant row.
+     * The in-memory ledger is consulted first, so a restaurant that is already full is rejected
+     * without a database round trip. If the database refuses the update, the ledger reservation
+     * is rolled back. A successful reservation is recorded in the reservation table; if it is made
+     * inside a transaction that later rolls back, the table and ledger entries are undone then.
+     *
+     * @param restaurantId The ID of the restaurant.
+     * @param itemCount    The number of items to reserve.
+     * @return the ID of the reservation, or 0 if the restaurant cannot take the items.
+     */
+    @Override
+    public long reserve(Long restaurantId, int itemCount) {
+        if (!capacityLedger.tryReserve(restaurantId, itemCount)) {
+            LOGGER.log(Level.INFO, "Restaurant ID {0} has no capacity left for {1} items", new Object[]{restaurantId, itemCount});
+            return 0;
+        }
+        try {
+            if (restaurantRepository.reserveCapacity(restaurantId, itemCount) == 1) {
+                long reservationId = reservationTable.add(restaurantId, itemCount);
+                onRollback(() -> {
+                    CapacityReservationTable.Released released = reservationTable.remove(reservationId);
+                    if (released != null) {
+                        capacityLedger.release(released.restaurantId(), released.itemCount());
+                    }
+                });
+                LOGGER.log(Level.INFO, "Reserved capacity for {0} items at Restaurant ID {1} (reservation {2})",
+                        new Object[]{itemCount, restaurantId, reservationId});
+                return reservationId;
+            }
+        } catch (RuntimeException e) {
+            capacityLedger.release(restaurantId, itemCount);
+            LOGGER.log(Level.SEVERE, "Error reserving capacity for Restaurant ID " + restaurantId, e);
+            throw new RuntimeException("Failed to reserve restaurant capacity", e);
+        }
+        capacityLedger.release(restaurantId, itemCount);
+        LOGGER.log(Level.WARNING, "Database rejected reservation of {0} items at Restaurant ID {1}", new Object[]{itemCount, restaurantId});
+        return 0;
+    }
+
+    /**
+     * Releases a reservation made with {@link #reserve(Long, int)}. The reservation is taken out of
+     * the reservation table first, so only one caller ever applies the release.
+     *
+     * @param reservationId The ID of the reservation.
+     * @return true if this call released the reservation, false if it was already released.
+     */
+    @Override
+    public boolean releaseReservation(long reservationId) {
+        CapacityReservationTable.Released released = reservationTable.remove(reservationId);
+        if (released == null) {
+            LOGGER.log(Level.FINE, "Reservation {0} was already released", reservationId);
+            return false;
+        }
+        applyRelease(released.restaurantId(), released.itemCount());
+        return true;
+    }
+
+    /**
+     * Releases processing capacity by count. The items are taken from the live reservations of the
+     * restaurant, oldest first, so capacity that was already released by reservation ID is never
+     * released a second time.
+     *
+     * @param restaurantId The ID of the restaurant.
+     * @param itemCount    The number of items to release.
+     */
+    @Override
+    public void releaseCapacity(Long restaurantId, int itemCount) {
+        int consumed = reservationTable.consume(restaurantId, itemCount);
+        if (consumed < itemCount) {
+            LOGGER.log(Level.WARNING, "Restaurant ID {0} holds reservations for only {1} of {2} items; releasing {1}",
+                    new Object[]{restaurantId, consumed, itemCount});
+        }
+        if (consumed > 0) {
+            applyRelease(restaurantId, consumed);
+        }
+    }
+
+    /**
+     * Releases capacity with a single guarded update of the restaurant row and mirrors the release
+     * in the in-memory ledger once the update has committed. If the surrounding transaction rolls
+     * back, the ledger keeps the load the row still holds, and {@link CapacityReconciler} settles the
+     * reservation that was already taken out of the table.
+     */
+    private void applyRelease(Long restaurantId, int itemCount) {
+        try {
+            if (restaurantRepository.releaseCapacity(restaurantId, itemCount) == 0) {
+                LOGGER.log(Level.WARNING, "Restaurant ID {0} holds less than {1} items; nothing released in the database",
+                        new Object[]{restaurantId, itemCount});
+            }
+            afterCommit(() -> capacityLedger.release(restaurantId, itemCount));
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Error releasing capacity for Restaurant ID " + restaurantId, e);
+            throw new RuntimeException("Failed to release restaurant capacity", e);
+        }
+    }
+
+    /**
+     * Runs an in-memory change once the surrounding transaction has committed, or right away if
+     * there is none.
+     */
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    /**
+     * Runs an in-memory undo if the surrounding transaction rolls back. Without a transaction the
+     * database change is already final and there is nothing to undo.
+     */
+    private static void onRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    undo.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Reserves processing capacity at several restaurants in one transaction.
+     * Restaurants are reserved in ascending ID order, so two orders that share restaurants always
+     * lock the rows in the same order and cannot deadlock. If a restaurant cannot take its items,
+     * the transaction rolls back the rows already reserved, and the ledger and table entries are
+     * undone once the rollback has happened.
+     *
+     * @param itemsByRestaurant the number of items to reserve, keyed by restaurant ID
+     * @return the reservation IDs, keyed by restaurant ID
+     * @throws CapacityExceededException if any restaurant cannot take its items
+     */
+    @Override
+    @Transactional
+    public Map<Long, Long> reserveCapacityForAll(Map<Long, Integer> itemsByRestaurant) {
+        Map<Long, Long> reservations = new TreeMap<>();
+        try {
+            for (Map.Entry<Long, Integer> entry : new TreeMap<>(itemsByRestaurant).entrySet()) {
+                long reservationId = reserve(entry.getKey(), entry.getValue());
+                if (reservationId == 0) {
+                    throw new CapacityExceededException(entry.getKey(), entry.getValue());
+                }
+                reservations.put(entry.getKey(), reservationId);
+            }
+            return reservations;
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Rolling back capacity reservations for restaurants {0}: {1}",
+                    new Object[]{itemsByRestaurant.keySet(), e.getMessage()});
+            throw e;
+        }
+    }
+
+    /**
+     * Releases reservations made with {@link #reserveCapacityForAll(Map)}, in ascending restaurant ID order.
+     *
+     * @param reservationsByRestaurant the reservation IDs, keyed by restaurant ID
+     */
+    @Override
+    @Transactional
+    public void releaseReservations(Map<Long, Long> reservationsByRestaurant) {
+        new TreeMap<>(reservationsByRestaurant).values().forEach(this::releaseReservation);
+    }
+
+    /**
+     * Releases capacity at several restaurants by count, in ascending ID order.
+     *
+     * @param itemsByRestaurant the number of items to release, keyed by restaurant ID
+     */
+    @Override
+    @Transactional
+    public void releaseCapacityForAll(Map<Long, Integer> itemsByRestaurant) {
+        new TreeMap<>(itemsByRestaurant).forEach(this::releaseCapacity);
+    }
+}
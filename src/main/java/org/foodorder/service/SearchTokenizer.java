@@ -0,0 +1,82 @@
+package org.foodorder.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Splits text into the terms indexed and queried by the {@link MenuSearchIndex}. Text is folded to
+ * lower-case ASCII ("Crème Brûlée" becomes "creme brulee"), split on anything but letters and
+ * digits, stripped of a few stop words and lightly stemmed, so that plural and singular forms such
+ * as "tacos" and "taco" or "fries" and "fry" meet.
+ */
+public final class SearchTokenizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "the", "of", "with", "in", "on", "or", "to");
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * @param text The text to split, may be null.
+     * @return The stemmed terms of the text in order, including repetitions.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        String folded = fold(text);
+        if (folded.isEmpty()) {
+            return terms;
+        }
+        for (String token : folded.split(" ")) {
+            if (!STOP_WORDS.contains(token)) {
+                terms.add(stem(token));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Folds text to lower-case ASCII words separated by single spaces, without stemming or dropping
+     * stop words, e.g. "Crème  Brûlée!" becomes "creme brulee". Used to match name prefixes.
+     *
+     * @param text The text to fold, may be null.
+     * @return The folded text, empty if it has no letters or digits.
+     */
+    public static String fold(String text) {
+        if (text == null || text.isBlank()) {
+            return "";
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return SEPARATORS.matcher(folded).replaceAll(" ").trim();
+    }
+
+    /**
+     * Reduces an English plural to its singular form; other words are returned unchanged.
+     *
+     * @param token A lower-case token.
+     * @return The stem of the token.
+     */
+    static String stem(String token) {
+        int length = token.length();
+        if (length <= 3 || !token.endsWith("s")) {
+            return token;
+        }
+        if (token.endsWith("ies") && length > 4) {
+            return token.substring(0, length - 3) + "y"; // fries -> fry
+        }
+        if (token.endsWith("ches") || token.endsWith("shes") || token.endsWith("sses")
+                || token.endsWith("xes") || token.endsWith("zes") || token.endsWith("oes")) {
+            return token.substring(0, length - 2); // dishes -> dish, tomatoes -> tomato
+        }
+        if (token.endsWith("ss") || token.endsWith("us") || token.endsWith("is")) {
+            return token; // glass, hummus and couscous stay as they are
+        }
+        return token.substring(0, length - 1); // tacos -> taco
+    }
+}
@@ -0,0 +1,132 @@
+package org.foodorder.service;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.foodorder.model.CatalogCandidate;
+
+/**
+ * Size-bounded cache of ranked candidate lists, keyed by normalized menu item name and ranking
+ * (usually the name of the strategy). Owned by {@link MenuCatalogIndex}, which invalidates every
+ * entry whose name is a substring of a republished menu item name, so an entry is dropped exactly
+ * when one of the candidates it could contain changes.
+ * <p>
+ * Hits are one lock-free map lookup. When the cache is full, entries are evicted in CLOCK order:
+ * the oldest entry is dropped unless it was read since it was last considered, in which case it
+ * gets a second chance.
+ */
+public class SelectionCache {
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> clock = new ConcurrentLinkedQueue<>();
+    // Incremented before every invalidation, so a list computed across one is not cached
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * @param maxEntries the maximum number of ranked lists to keep
+     */
+    public SelectionCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the cached ranked candidates, computing and caching them on a miss.
+     *
+     * @param itemName The normalized name of the item being ordered.
+     * @param ranking  The name of the ranking, e.g. the strategy name.
+     * @param loader   Computes the ranked candidates from the current catalog.
+     * @return The ranked candidates; immutable.
+     */
+    public List<CatalogCandidate> get(String itemName, String ranking, Supplier<List<CatalogCandidate>> loader) {
+        Key key = new Key(itemName, ranking);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            return entry.candidates;
+        }
+
+        long loadedVersion = version.get();
+        List<CatalogCandidate> candidates = List.copyOf(loader.get());
+        if (maxEntries <= 0) {
+            return candidates;
+        }
+        Entry loaded = new Entry(key, candidates);
+        Entry existing = entries.putIfAbsent(key, loaded);
+        if (existing != null) {
+            return existing.candidates;
+        }
+        if (version.get() != loadedVersion) {
+            // The catalog changed while loading; the invalidation may have missed this entry
+            entries.remove(key, loaded);
+            return candidates;
+        }
+        clock.offer(loaded);
+        evictIfFull();
+        return candidates;
+    }
+
+    /**
+     * Drops every entry whose item name is contained in the given menu item name, i.e. every
+     * ranked list that may include a candidate of that name.
+     *
+     * @param menuItemName The normalized menu item name whose candidates changed.
+     */
+    public void invalidate(String menuItemName) {
+        version.incrementAndGet();
+        entries.values().removeIf(entry -> menuItemName.contains(entry.key.itemName()));
+        clock.removeIf(entry -> menuItemName.contains(entry.key.itemName()));
+    }
+
+    /**
+     * Drops all entries.
+     */
+    public void clear() {
+        version.incrementAndGet();
+        entries.clear();
+        clock.clear();
+    }
+
+    /**
+     * @return The number of cached ranked lists.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictIfFull() {
+        while (entries.size() > maxEntries) {
+            Entry oldest = clock.poll();
+            if (oldest == null) {
+                return;
+            }
+            if (entries.get(oldest.key) != oldest) {
+                continue; // Invalidated while being polled
+            }
+            if (oldest.referenced) {
+                oldest.referenced = false;
+                clock.offer(oldest);
+            } else {
+                entries.remove(oldest.key, oldest);
+            }
+        }
+    }
+
+    private record Key(String itemName, String ranking) {
+    }
+
+    private static final class Entry {
+        private final Key key;
+        private final List<CatalogCandidate> candidates;
+        private volatile boolean referenced;
+
+        private Entry(Key key, List<CatalogCandidate> candidates) {
+            this.key = key;
+            this.candidates = candidates;
+        }
+    }
+}
@@ -0,0 +1,451 @@
+package org.foodorder.service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.Suggestion;
+import org.foodorder.repository.MenuItemRepository;
+import org.foodorder.repository.OrderItemRepository;
+import org.foodorder.repository.RestaurantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prefix completions for the search box, served from a compact trie over the names of all menu
+ * items and restaurants. A name is found by the start of any of its words, so "tac" completes to
+ * "Chicken Tacos" as well as to "Taco Bell", and completions are ranked by popularity: how many
+ * restaurants list the name plus the quantity ordered of it.
+ * <p>
+ * The trie is immutable and held in a volatile field, so lookups never lock. When the catalog
+ * changes, {@link MenuServiceImpl} and {@link RestaurantServiceImpl} call {@link #catalogChanged()},
+ * which rebuilds the trie on a background thread shortly afterwards and swaps it in; changes that
+ * arrive before the rebuild starts are folded into it.
+ */
+@Component
+public class SuggestionIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SuggestionIndex.class);
+
+    private final MenuItemRepository menuItemRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final long rebuildDelayMillis;
+
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "suggestion-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final Object rebuildLock = new Object();
+    private Future<?> pendingRebuild = CompletableFuture.completedFuture(null); // Guarded by this
+
+    private volatile CompletionTrie trie = CompletionTrie.build(List.of());
+
+    @Autowired
+    public SuggestionIndex(MenuItemRepository menuItemRepository, RestaurantRepository restaurantRepository,
+                           OrderItemRepository orderItemRepository,
+                           @Value("${search.suggest.rebuild-delay-ms:1000}") long rebuildDelayMillis) {
+        this.menuItemRepository = menuItemRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.rebuildDelayMillis = rebuildDelayMillis;
+    }
+
+    /**
+     * Builds a new trie from the database and swaps it in. Called once the application is ready,
+     * and in the background after the catalog changed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long started = System.nanoTime();
+            Map<Long, Long> orderedByMenuItem = sumQuantities(orderItemRepository.sumQuantityByMenuItem());
+            Map<Long, Long> orderedByRestaurant = sumQuantities(orderItemRepository.sumQuantityByRestaurant());
+
+            Map<String, Entry> menuItems = new HashMap<>();
+            for (MenuItemEntity menuItem : menuItemRepository.findAll()) {
+                count(menuItems, menuItem.getName(), Suggestion.MENU_ITEM, 1 + orderedByMenuItem.getOrDefault(menuItem.getId(), 0L));
+            }
+            Map<String, Entry> restaurants = new HashMap<>();
+            for (RestaurantEntity restaurant : restaurantRepository.findAll()) {
+                count(restaurants, restaurant.getName(), Suggestion.RESTAURANT, 1 + orderedByRestaurant.getOrDefault(restaurant.getId(), 0L));
+            }
+
+            List<Entry> entries = new ArrayList<>(menuItems.size() + restaurants.size());
+            entries.addAll(menuItems.values());
+            entries.addAll(restaurants.values());
+            CompletionTrie built = CompletionTrie.build(entries);
+            trie = built;
+            LOGGER.info("Built suggestion trie of {} names with {} nodes in {} ms",
+                    entries.size(), built.nodeCount(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        }
+    }
+
+    /**
+     * Schedules a rebuild after a menu item or restaurant was saved or deleted, unless one is
+     * already waiting to start.
+     *
+     * @return The rebuild that will pick up the change.
+     */
+    public synchronized Future<?> catalogChanged() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            pendingRebuild = rebuilder.schedule(() -> {
+                rebuildQueued.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    LOGGER.error("Rebuilding the suggestion trie failed; keeping the previous one", e);
+                }
+            }, rebuildDelayMillis, TimeUnit.MILLISECONDS);
+        }
+        return pendingRebuild;
+    }
+
+    /**
+     * Completes a prefix to the most popular names starting with it, or with one of their words
+     * starting with it. Case, accents and punctuation are ignored.
+     *
+     * @param prefix The text typed so far.
+     * @param limit  The maximum number of completions to return.
+     * @return The completions, most popular first; ties in alphabetical order.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        return trie.complete(SearchTokenizer.fold(prefix), limit);
+    }
+
+    /**
+     * @return The number of distinct names that can be suggested.
+     */
+    public int size() {
+        return trie.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private static Map<Long, Long> sumQuantities(List<Object[]> rows) {
+        Map<Long, Long> quantities = new HashMap<>();
+        for (Object[] row : rows) {
+            if (row[0] != null && row[1] != null) {
+                quantities.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+            }
+        }
+        return quantities;
+    }
+
+    private static void count(Map<String, Entry> entries, String name, String type, long popularity) {
+        String key = SearchTokenizer.fold(name);
+        if (key.isEmpty()) {
+            return;
+        }
+        entries.computeIfAbsent(key, k -> new Entry(k, name.trim(), type)).popularity += popularity;
+    }
+
+    /**
+     * A distinct name: its folded form, which the trie is keyed by, the spelling first seen, which
+     * is displayed, and its popularity.
+     */
+    private static final class Entry {
+
+        private final String key;
+        private final String text;
+        private final String type;
+        private long popularity;
+
+        private Entry(String key, String text, String type) {
+            this.key = key;
+            this.text = text;
+            this.type = type;
+        }
+    }
+
+    /**
+     * Radix trie laid out in flat arrays. Every name is inserted under its folded form and under
+     * each suffix of it that starts a word. Names are numbered by rank, the most popular first, so
+     * each node only records the best rank below it; a completion walks down to the node of the
+     * prefix and then expands nodes best-first until it has enough distinct names. This visits a
+     * few nodes per completion, however many names share the prefix.
+     */
+    static final class CompletionTrie {
+
+        private static final int NODE = 1;
+        private static final int TERMINAL = 0;
+
+        // Names by rank
+        private final String[] texts;
+        private final String[] types;
+        private final long[] popularities;
+
+        // Nodes: the edge label leading into a node, its children, which are stored contiguously
+        // and ordered by their first character, the ranks of names ending at it and its best rank
+        private final char[] labels;
+        private final int[] labelStart;
+        private final int[] labelEnd;
+        private final int[] firstChild;
+        private final int[] childCount;
+        private final int[] terminalStart; // Into terminals, or -1 if no name ends at the node
+        private final int[] bestRank;
+        private final int[] terminals; // Ranks of the names ending at each node, ascending, each list closed by -1
+        private final int nodeCount;
+
+        private CompletionTrie(String[] texts, String[] types, long[] popularities, Builder builder) {
+            this.texts = texts;
+            this.types = types;
+            this.popularities = popularities;
+            this.nodeCount = builder.nodeCount;
+            this.labels = Arrays.copyOf(builder.labels, builder.labelLength);
+            this.labelStart = Arrays.copyOf(builder.labelStart, nodeCount);
+            this.labelEnd = Arrays.copyOf(builder.labelEnd, nodeCount);
+            this.firstChild = Arrays.copyOf(builder.firstChild, nodeCount);
+            this.childCount = Arrays.copyOf(builder.childCount, nodeCount);
+            this.terminalStart = Arrays.copyOf(builder.terminalStart, nodeCount);
+            this.bestRank = Arrays.copyOf(builder.bestRank, nodeCount);
+            this.terminals = Arrays.copyOf(builder.terminals, builder.terminalLength);
+        }
+
+        static CompletionTrie build(List<Entry> entries) {
+            List<Entry> ranked = new ArrayList<>(entries);
+            ranked.sort(Comparator.comparingLong((Entry entry) -> entry.popularity).reversed()
+                    .thenComparing(entry -> entry.key)
+                    .thenComparing(entry -> entry.type));
+            String[] texts = new String[ranked.size()];
+            String[] types = new String[ranked.size()];
+            long[] popularities = new long[ranked.size()];
+            List<Key> keys = new ArrayList<>();
+            for (int rank = 0; rank < ranked.size(); rank++) {
+                Entry entry = ranked.get(rank);
+                texts[rank] = entry.text;
+                types[rank] = entry.type;
+                popularities[rank] = entry.popularity;
+                keys.add(new Key(entry.key, rank));
+                for (int i = entry.key.indexOf(' '); i >= 0; i = entry.key.indexOf(' ', i + 1)) {
+                    keys.add(new Key(entry.key.substring(i + 1), rank));
+                }
+            }
+            keys.sort(Comparator.comparing(Key::text).thenComparingInt(Key::rank));
+
+            Builder builder = new Builder(keys);
+            if (!keys.isEmpty()) {
+                builder.allocate(1);
+                builder.fill(0, 0, keys.size(), 0);
+            }
+            return new CompletionTrie(texts, types, popularities, builder);
+        }
+
+        List<Suggestion> complete(String prefix, int limit) {
+            if (prefix.isEmpty() || limit <= 0 || nodeCount == 0) {
+                return List.of();
+            }
+            int node = find(prefix);
+            if (node < 0) {
+                return List.of();
+            }
+
+            // Candidates ordered by rank: a name ending at a node, or a node whose best name is below it
+            PriorityQueue<Long> candidates = new PriorityQueue<>();
+            candidates.add(candidate(bestRank[node], NODE, node));
+            List<Suggestion> suggestions = new ArrayList<>(limit);
+            int lastRank = -1;
+            while (!candidates.isEmpty() && suggestions.size() < limit) {
+                long candidate = candidates.poll();
+                int rank = (int) (candidate >>> 33);
+                int index = (int) candidate;
+                if (((candidate >>> 32) & 1) == TERMINAL) {
+                    // A name is reached once per word it is keyed under, and always in a row
+                    if (rank != lastRank) {
+                        suggestions.add(new Suggestion(texts[rank], types[rank], popularities[rank]));
+                        lastRank = rank;
+                    }
+                    if (terminals[index + 1] >= 0) {
+                        candidates.add(candidate(terminals[index + 1], TERMINAL, index + 1));
+                    }
+                    continue;
+                }
+                if (terminalStart[index] >= 0) {
+                    candidates.add(candidate(terminals[terminalStart[index]], TERMINAL, terminalStart[index]));
+                }
+                for (int child = firstChild[index]; child < firstChild[index] + childCount[index]; child++) {
+                    candidates.add(candidate(bestRank[child], NODE, child));
+                }
+            }
+            return suggestions;
+        }
+
+        int size() {
+            return texts.length;
+        }
+
+        int nodeCount() {
+            return nodeCount;
+        }
+
+        /**
+         * @return The node the prefix ends at or within the label of, or -1 if no key starts with it.
+         */
+        private int find(String prefix) {
+            int node = 0;
+            int position = 0;
+            while (true) {
+                for (int i = labelStart[node]; i < labelEnd[node]; i++, position++) {
+                    if (position == prefix.length()) {
+                        return node;
+                    }
+                    if (labels[i] != prefix.charAt(position)) {
+                        return -1;
+                    }
+                }
+                if (position == prefix.length()) {
+                    return node;
+                }
+                node = child(node, prefix.charAt(position));
+                if (node < 0) {
+                    return -1;
+                }
+            }
+        }
+
+        private int child(int node, char c) {
+            int low = firstChild[node];
+            int high = low + childCount[node] - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char first = labels[labelStart[middle]];
+                if (first < c) {
+                    low = middle + 1;
+                } else if (first > c) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -1;
+        }
+
+        private static long candidate(int rank, int kind, int index) {
+            return (long) rank << 33 | (long) kind << 32 | (index & 0xFFFFFFFFL);
+        }
+
+        private record Key(String text, int rank) {
+        }
+
+        /**
+         * Lays out the trie from the sorted keys, allocating the children of a node as one block
+         * before descending into them.
+         */
+        private static final class Builder {
+
+            private final List<Key> keys;
+            private char[] labels;
+            private int labelLength;
+            private int[] labelStart;
+            private int[] labelEnd;
+            private int[] firstChild;
+            private int[] childCount;
+            private int[] terminalStart;
+            private int[] bestRank;
+            private int[] terminals;
+            private int terminalLength;
+            private int nodeCount;
+
+            private Builder(List<Key> keys) {
+                this.keys = keys;
+                // A radix trie has fewer nodes than twice its keys
+                int capacity = 2 * keys.size() + 1;
+                int characters = 0;
+                for (Key key : keys) {
+                    characters += key.text().length();
+                }
+                this.labels = new char[characters];
+                this.labelStart = new int[capacity];
+                this.labelEnd = new int[capacity];
+                this.firstChild = new int[capacity];
+                this.childCount = new int[capacity];
+                this.terminalStart = new int[capacity];
+                this.bestRank = new int[capacity];
+                this.terminals = new int[2 * keys.size()];
+            }
+
+            private int allocate(int count) {
+                int first = nodeCount;
+                nodeCount += count;
+                return first;
+            }
+
+            /**
+             * Fills a node with the keys from {@code low} to {@code high}, which share their first
+             * {@code depth} characters.
+             */
+            private void fill(int node, int low, int high, int depth) {
+                String first = keys.get(low).text();
+                String last = keys.get(high - 1).text();
+                int end = depth;
+                while (end < first.length() && end < last.length() && first.charAt(end) == last.charAt(end)) {
+                    end++;
+                }
+                labelStart[node] = labelLength;
+                first.getChars(depth, end, labels, labelLength);
+                labelLength += end - depth;
+                labelEnd[node] = labelLength;
+
+                // Keys ending here sort before the longer ones
+                int best = Integer.MAX_VALUE;
+                int next = low;
+                terminalStart[node] = -1;
+                if (keys.get(next).text().length() == end) {
+                    terminalStart[node] = terminalLength;
+                    best = keys.get(next).rank();
+                    for (; next < high && keys.get(next).text().length() == end; next++) {
+                        terminals[terminalLength++] = keys.get(next).rank();
+                    }
+                    terminals[terminalLength++] = -1;
+                }
+
+                // One child per distinct next character
+                int children = 0;
+                for (int i = next; i < high; i = groupEnd(i, high, end)) {
+                    children++;
+                }
+                firstChild[node] = allocate(children);
+                childCount[node] = children;
+                int child = firstChild[node];
+                for (int i = next; i < high; child++) {
+                    int groupEnd = groupEnd(i, high, end);
+                    fill(child, i, groupEnd, end);
+                    best = Math.min(best, bestRank[child]);
+                    i = groupEnd;
+                }
+                bestRank[node] = best;
+            }
+
+            private int groupEnd(int from, int high, int depth) {
+                char c = keys.get(from).text().charAt(depth);
+                int to = from + 1;
+                while (to < high && keys.get(to).text().charAt(depth) == c) {
+                    to++;
+                }
+                return to;
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.foodorder.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.foodorder.model.GeoPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Offline geocoder that maps a ZIP code to the centroid of its area, read once from a
+ * {@code zip,latitude,longitude} CSV table on the classpath. A centroid is precise enough to rank
+ * restaurants by distance and needs no external service; ZIP codes missing from the table are not
+ * located.
+ */
+@Component
+public class ZipCentroidGeocoder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ZipCentroidGeocoder.class);
+
+    private final Map<String, GeoPoint> centroids;
+
+    /**
+     * @param resource the classpath location of the centroid table
+     */
+    @Autowired
+    public ZipCentroidGeocoder(@Value("${geo.zip-centroids:geo/zip-centroids.csv}") String resource) {
+        this.centroids = load(resource);
+        LOGGER.info("Loaded {} ZIP code centroids from {}", centroids.size(), resource);
+    }
+
+    /**
+     * @param centroids the centroid of each ZIP code
+     */
+    public ZipCentroidGeocoder(Map<String, GeoPoint> centroids) {
+        this.centroids = Map.copyOf(centroids);
+    }
+
+    /**
+     * @param zipCode A five-digit ZIP code, optionally followed by a ZIP+4 suffix.
+     * @return The centroid of the ZIP code, or empty if it is not in the table.
+     */
+    public Optional<GeoPoint> geocode(String zipCode) {
+        if (zipCode == null) {
+            return Optional.empty();
+        }
+        String normalized = zipCode.trim();
+        if (normalized.length() > 5) {
+            normalized = normalized.substring(0, 5);
+        }
+        return Optional.ofNullable(centroids.get(normalized));
+    }
+
+    /**
+     * @return The number of ZIP codes in the table.
+     */
+    public int size() {
+        return centroids.size();
+    }
+
+    private static Map<String, GeoPoint> load(String resource) {
+        Map<String, GeoPoint> centroids = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ClassPathResource(resource).getInputStream(), StandardCharsets.UTF_8))) {
+            String line = reader.readLine(); // Header
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split(",");
+                if (columns.length < 3) {
+                    continue;
+                }
+                centroids.put(columns[0].trim(),
+                        new GeoPoint(Double.parseDouble(columns[1].trim()), Double.parseDouble(columns[2].trim())));
+            }
+        } catch (IOException | NumberFormatException e) {
+            throw new IllegalStateException("Failed to load ZIP code centroids from " + resource, e);
+        }
+        return centroids;
+    }
+}
@@ -0,0 +1,323 @@
+package org.foodorder.strategy;
+
+import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.CandidateFeatures;
+import org.foodorder.model.CatalogCandidate;
+import org.foodorder.model.GeoPoint;
+import org.foodorder.model.OrderItemRequest;
+import org.foodorder.model.ScoringWeights;
+import org.foodorder.service.MenuCatalogIndex;
+import org.foodorder.service.RestaurantCapacityLedger;
+import org.foodorder.service.RestaurantGeoIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongPredicate;
+
+/**
+ * Strategy that blends several criteria into one score per candidate: the restaurant rating, the
+ * menu item price, the capacity left at the restaurant and the distance to it. Rating and price are
+ * scaled to [0, 1] across the candidates of the item; headroom is scored as
+ * {@code spare / (spare + quantity)}, so restaurants with more room than the item needs score higher,
+ * and distance as {@code 1 / (1 + km / 5)} from the delivery location of the order.
+ * The weighted sum decides, ties broken by the lowest restaurant ID, and restaurants without room
+ * for the item are only selected when none has room.
+ * <p>
+ * Candidates are scored over the primitive feature arrays the {@link MenuCatalogIndex} precomputes
+ * per menu item name, so scoring allocates nothing per candidate. Without a delivery location the
+ * distance feature is the same for every candidate and its weight does not affect the choice;
+ * restaurants the {@link RestaurantGeoIndex} cannot locate get the lowest distance score.
+ */
+public class CompositeScoringStrategy implements RestaurantSelectionStrategy {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompositeScoringStrategy.class);
+
+    /**
+     * The distance in kilometers at which the distance score drops to one half.
+     */
+    private static final double HALF_SCORE_DISTANCE_KM = 5;
+
+    private final MenuCatalogIndex catalogIndex;
+    private final RestaurantCapacityLedger capacityLedger;
+    private final RestaurantGeoIndex geoIndex;
+    private final ScoringWeights weights;
+    private final GeoPoint origin;
+
+    /**
+     * @param catalogIndex   the menu catalog to score the candidates of
+     * @param capacityLedger the ledger to read the remaining capacity of restaurants from
+     * @param geoIndex       the index to read the location of restaurants from
+     * @param weights        the weights of the features
+     * @throws IllegalArgumentException If a weight is negative or all weights are zero.
+     */
+    public CompositeScoringStrategy(MenuCatalogIndex catalogIndex, RestaurantCapacityLedger capacityLedger,
+                                    RestaurantGeoIndex geoIndex, ScoringWeights weights) {
+        this(catalogIndex, capacityLedger, geoIndex, weights, null);
+    }
+
+    private CompositeScoringStrategy(MenuCatalogIndex catalogIndex, RestaurantCapacityLedger capacityLedger,
+                                     RestaurantGeoIndex geoIndex, ScoringWeights weights, GeoPoint origin) {
+        if (!weights.isValid()) {
+            throw new IllegalArgumentException("Scoring weights must not be negative and not all zero: " + weights);
+        }
+        this.catalogIndex = catalogIndex;
+        this.capacityLedger = capacityLedger;
+        this.geoIndex = geoIndex;
+        this.weights = weights;
+        this.origin = origin;
+    }
+
+    @Override
+    public String getName() {
+        return "composite";
+    }
+
+    public ScoringWeights getWeights() {
+        return weights;
+    }
+
+    /**
+     * @param weights The weights sent with the order, or null to keep the configured ones.
+     * @return A composite strategy that scores with the given weights.
+     * @throws IllegalArgumentException If a weight is negative or all weights are zero.
+     */
+    @Override
+    public RestaurantSelectionStrategy withWeights(ScoringWeights weights) {
+        return weights == null ? this : new CompositeScoringStrategy(catalogIndex, capacityLedger, geoIndex, weights, origin);
+    }
+
+    /**
+     * @param origin The location the order is delivered to, or null if it is unknown.
+     * @return A composite strategy that scores the distance from the given origin.
+     */
+    @Override
+    public RestaurantSelectionStrategy withOrigin(GeoPoint origin) {
+        return origin == null ? this : new CompositeScoringStrategy(catalogIndex, capacityLedger, geoIndex, weights, origin);
+    }
+
+    /**
+     * Selects the best-scoring restaurant for a menu item among the given restaurants.
+     *
+     * @param restaurants The list of available restaurants.
+     * @param menuItem    The menu item for which the restaurant selection is being made.
+     * @return The best-scoring restaurant.
+     * @throws NoSuchElementException If none of the restaurants offers the menu item.
+     */
+    @Override
+    public RestaurantEntity selectRestaurant(List<RestaurantEntity> restaurants, MenuItemEntity menuItem) {
+        return bestRestaurant(restaurants, menuItem.getName(), 1);
+    }
+
+    /**
+     * Selects the best-scoring restaurant for a cart item among the given restaurants.
+     *
+     * @param restaurants The list of available restaurants.
+     * @param menuItem    The cart item for which the restaurant selection is being made.
+     * @return The best-scoring restaurant.
+     * @throws NoSuchElementException If none of the restaurants offers the cart item.
+     */
+    @Override
+    public RestaurantEntity selectRestaurantAsPerCustomerRequest(List<RestaurantEntity> restaurants, OrderItemRequest menuItem) {
+        return bestRestaurant(restaurants, menuItem.getName(), menuItem.getQuantity());
+    }
+
+    /**
+     * Sorts restaurants by their score, best first, using their rating, lowest menu price,
+     * remaining capacity and distance.
+     *
+     * @param restaurants The list of restaurants to be sorted.
+     * @return The sorted list of restaurants.
+     */
+    @Override
+    public List<RestaurantEntity> sortRestaurants(List<RestaurantEntity> restaurants) {
+        List<RestaurantEntity> sorted = new ArrayList<>(restaurants.size());
+        PrimitiveIterator.OfInt ranked = RestaurantRanking.ranked(scoreRestaurants(restaurants));
+        while (ranked.hasNext()) {
+            sorted.add(restaurants.get(ranked.nextInt()));
+        }
+        return sorted;
+    }
+
+    /**
+     * Scores restaurants by their rating, lowest menu price, remaining capacity and distance, scaled
+     * across the given restaurants. Restaurants without menu items get the lowest price score.
+     *
+     * @param restaurants The list of restaurants to be scored.
+     * @return The score of each restaurant.
+     */
+    @Override
+    public double[] scoreRestaurants(List<RestaurantEntity> restaurants) {
+        int size = restaurants.size();
+        double[] prices = new double[size];
+        double[] ratings = new double[size];
+        double minPrice = Double.POSITIVE_INFINITY;
+        double maxPrice = Double.NEGATIVE_INFINITY;
+        double minRating = Double.POSITIVE_INFINITY;
+        double maxRating = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            RestaurantEntity restaurant = restaurants.get(i);
+            prices[i] = restaurant.getMinMenuPrice() == null ? Double.NaN : restaurant.getMinMenuPrice().doubleValue();
+            ratings[i] = restaurant.getRating() == null ? 0 : restaurant.getRating().doubleValue();
+            if (!Double.isNaN(prices[i])) {
+                minPrice = Math.min(minPrice, prices[i]);
+                maxPrice = Math.max(maxPrice, prices[i]);
+            }
+            minRating = Math.min(minRating, ratings[i]);
+            maxRating = Math.max(maxRating, ratings[i]);
+        }
+
+        double[] scores = new double[size];
+        for (int i = 0; i < size; i++) {
+            RestaurantEntity restaurant = restaurants.get(i);
+            int spare = Math.max(0, restaurant.getMaxCapacity() - restaurant.getCurrentProcessingLoad());
+            double priceScore = Double.isNaN(prices[i]) ? 0 : scaleDown(prices[i], minPrice, maxPrice);
+            scores[i] = score(scaleUp(ratings[i], minRating, maxRating), priceScore, headroomScore(spare, 1),
+                    distanceScore(restaurant.getId()));
+        }
+        return scores;
+    }
+
+    @Override
+    public CatalogCandidate selectCandidate(List<CatalogCandidate> candidates, OrderItemRequest menuItem) {
+        if (candidates.isEmpty()) {
+            LOGGER.error("No catalog candidate found for menu item: {}", menuItem.getName());
+            throw new NoSuchElementException("No restaurant available for the given customer request.");
+        }
+        return best(List.of(new CandidateFeatures(candidates)), menuItem, Map.of(), restaurantId -> true);
+    }
+
+    @Override
+    public CatalogCandidate selectCandidate(OrderItemRequest menuItem) {
+        return selectCandidate(menuItem, Map.of());
+    }
+
+    /**
+     * Selects the best-scoring candidate for a cart item, counting the items already assigned to a
+     * restaurant within the same order against its remaining capacity.
+     *
+     * @param menuItem The cart item that the customer is ordering.
+     * @param claimed  The number of items already assigned to each restaurant, keyed by restaurant ID.
+     * @return The best-scoring candidate.
+     * @throws NoSuchElementException If no restaurant offers the cart item.
+     */
+    @Override
+    public CatalogCandidate selectCandidate(OrderItemRequest menuItem, Map<Long, Integer> claimed) {
+        return best(catalogIndex.findCandidateFeatures(menuItem.getName()), menuItem, claimed, restaurantId -> true);
+    }
+
+    private RestaurantEntity bestRestaurant(List<RestaurantEntity> restaurants, String itemName, int quantity) {
+        Map<Long, RestaurantEntity> byId = new HashMap<>();
+        for (RestaurantEntity restaurant : restaurants) {
+            byId.putIfAbsent(restaurant.getId(), restaurant);
+        }
+        CatalogCandidate best = best(catalogIndex.findCandidateFeatures(itemName),
+                new OrderItemRequest(itemName, quantity), Map.of(), byId::containsKey);
+        return byId.get(best.getRestaurantId());
+    }
+
+    /**
+     * Scores every candidate accepted by the filter in one pass over the feature blocks.
+     */
+    private CatalogCandidate best(List<CandidateFeatures> blocks, OrderItemRequest menuItem,
+                                  Map<Long, Integer> claimed, LongPredicate restaurantFilter) {
+        double minPrice = Double.POSITIVE_INFINITY;
+        double maxPrice = Double.NEGATIVE_INFINITY;
+        double minRating = Double.POSITIVE_INFINITY;
+        double maxRating = Double.NEGATIVE_INFINITY;
+        for (CandidateFeatures block : blocks) {
+            minPrice = Math.min(minPrice, block.getMinPrice());
+            maxPrice = Math.max(maxPrice, block.getMaxPrice());
+            minRating = Math.min(minRating, block.getMinRating());
+            maxRating = Math.max(maxRating, block.getMaxRating());
+        }
+
+        int quantity = menuItem.getQuantity();
+        CatalogCandidate best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        CatalogCandidate bestWithRoom = null;
+        double bestWithRoomScore = Double.NEGATIVE_INFINITY;
+        for (CandidateFeatures block : blocks) {
+            for (int i = 0; i < block.size(); i++) {
+                long restaurantId = block.getRestaurantId(i);
+                if (!restaurantFilter.test(restaurantId)) {
+                    continue;
+                }
+                int spare = capacityLedger.getAvailableCapacity(restaurantId) - claimed.getOrDefault(restaurantId, 0);
+                double score = score(scaleUp(block.getRating(i), minRating, maxRating),
+                        scaleDown(block.getPrice(i), minPrice, maxPrice), headroomScore(spare, quantity),
+                        distanceScore(restaurantId));
+                CatalogCandidate candidate = block.getCandidate(i);
+                if (isBetter(score, candidate, bestScore, best)) {
+                    best = candidate;
+                    bestScore = score;
+                }
+                if (spare >= quantity && isBetter(score, candidate, bestWithRoomScore, bestWithRoom)) {
+                    bestWithRoom = candidate;
+                    bestWithRoomScore = score;
+                }
+            }
+        }
+
+        if (best == null) {
+            LOGGER.error("No catalog candidate found for menu item: {}", menuItem.getName());
+            throw new NoSuchElementException("No restaurant available for the given customer request.");
+        }
+        if (bestWithRoom == null) {
+            LOGGER.warn("No restaurant has capacity left for menu item: {}", menuItem.getName());
+            return best;
+        }
+        return bestWithRoom;
+    }
+
+    private double score(double rating, double price, double headroom, double distance) {
+        return weights.getRating() * rating + weights.getPrice() * price
+                + weights.getHeadroom() * headroom + weights.getDistance() * distance;
+    }
+
+    private static boolean isBetter(double score, CatalogCandidate candidate, double bestScore, CatalogCandidate best) {
+        if (best == null || score > bestScore) {
+            return true;
+        }
+        return score == bestScore && compareIds(candidate, best) < 0;
+    }
+
+    private static int compareIds(CatalogCandidate first, CatalogCandidate second) {
+        int byRestaurant = Long.compare(first.getRestaurantId(), second.getRestaurantId());
+        return byRestaurant != 0 ? byRestaurant : Long.compare(first.getMenuItemId(), second.getMenuItemId());
+    }
+
+    /**
+     * Scales a value where higher is better to [0, 1]; 1 if all values are equal.
+     */
+    private static double scaleUp(double value, double min, double max) {
+        return max > min ? (value - min) / (max - min) : 1;
+    }
+
+    /**
+     * Scales a value where lower is better to [0, 1]; 1 if all values are equal.
+     */
+    private static double scaleDown(double value, double min, double max) {
+        return max > min ? (max - value) / (max - min) : 1;
+    }
+
+    private double distanceScore(Long restaurantId) {
+        if (origin == null) {
+            return 1; // Without a delivery location every candidate is equally close
+        }
+        if (restaurantId == null) {
+            return 0;
+        }
+        return 1 / (1 + geoIndex.distanceKm(restaurantId, origin) / HALF_SCORE_DISTANCE_KM);
+    }
+
+    private static double headroomScore(int spare, int quantity) {
+        return spare <= 0 ? 0 : (double) spare / (spare + Math.max(1, quantity));
+    }
+}
@@ -0,0 +1,335 @@
+package org.foodorder.strategy;
+
+import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.CatalogCandidate;
+import org.foodorder.model.OrderItemRequest;
+import org.foodorder.service.MenuCatalogIndex;
+import org.foodorder.service.RestaurantCapacityLedger;
+import org.foodorder.strategy.OrderOptimizationStrategy.Objective;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+/**
+ * Strategy that fulfills an order from as few restaurants as possible. Every restaurant in an order
+ * costs its own capacity reservation, kitchen task and batch of order items, so fewer restaurants
+ * mean less fan-out per order.
+ * <p>
+ * For each item, the candidates within the tolerance of the best price (or rating) are eligible.
+ * Restaurants are then chosen with the greedy heuristic for weighted set cover: each round picks
+ * the restaurant that covers the most remaining items per unit of weight, where the weight is one
+ * per restaurant plus the relative premium paid over the best candidate of each item it takes.
+ * A restaurant only takes the items that fit its remaining capacity. Finally, every item moves to
+ * the best eligible restaurant among those chosen that has room for it.
+ * <p>
+ * Items that no eligible restaurant has room for go to the best candidate with room, or to the
+ * best candidate if none has room, so that the reservation reports the shortage.
+ */
+public class ConsolidationStrategy implements RestaurantSelectionStrategy {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConsolidationStrategy.class);
+
+    private static final double EPSILON = 1e-9;
+
+    private final MenuCatalogIndex catalogIndex;
+    private final RestaurantCapacityLedger capacityLedger;
+    private final Objective objective;
+    private final double tolerance;
+
+    /**
+     * @param catalogIndex   the menu catalog to take the candidates from
+     * @param capacityLedger the ledger to read the remaining capacity of restaurants from
+     * @param objective      whether the tolerance applies to the price or the rating
+     * @param tolerance      how far a candidate may be from the best one of its item, as a fraction
+     *                       (0.15 allows up to 15% above the lowest price, or 15% below the highest rating)
+     */
+    public ConsolidationStrategy(MenuCatalogIndex catalogIndex, RestaurantCapacityLedger capacityLedger,
+                                 Objective objective, double tolerance) {
+        this.catalogIndex = catalogIndex;
+        this.capacityLedger = capacityLedger;
+        this.objective = objective;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * @return "consolidated-price" or "consolidated-rating", depending on the objective.
+     */
+    @Override
+    public String getName() {
+        return "consolidated-" + objective.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Assigns the items of the order to as few restaurants as possible within the tolerance.
+     *
+     * @param items The items of the order.
+     * @return A map of restaurant IDs to the items each restaurant will fulfill.
+     * @throws NoSuchElementException If no restaurant offers one of the items.
+     */
+    @Override
+    public Map<Long, List<OrderItemRequest>> assignItems(List<OrderItemRequest> items) {
+        int itemCount = items.size();
+        List<List<CatalogCandidate>> candidates = new ArrayList<>(itemCount);
+        double[] bestCosts = new double[itemCount];
+        // Cheapest eligible offer of each restaurant for each item, ordered by restaurant ID
+        Map<Long, Map<Integer, CatalogCandidate>> offers = new TreeMap<>();
+        for (int i = 0; i < itemCount; i++) {
+            OrderItemRequest item = items.get(i);
+            List<CatalogCandidate> itemCandidates = catalogIndex.findCandidates(item.getName());
+            if (itemCandidates.isEmpty()) {
+                LOGGER.error("No catalog candidate found for menu item: {}", item.getName());
+                throw new NoSuchElementException("No restaurants available for menu item: " + item.getName());
+            }
+            candidates.add(itemCandidates);
+            bestCosts[i] = itemCandidates.stream().mapToDouble(this::unitCost).min().orElseThrow();
+            for (CatalogCandidate candidate : itemCandidates) {
+                if (premium(candidate, bestCosts[i]) <= tolerance + EPSILON) {
+                    offers.computeIfAbsent(candidate.getRestaurantId(), k -> new TreeMap<>())
+                            .merge(i, candidate, (first, second) -> unitCost(second) < unitCost(first) ? second : first);
+                }
+            }
+        }
+
+        CatalogCandidate[] assignment = new CatalogCandidate[itemCount];
+        Map<Long, Integer> claimed = new HashMap<>();
+        coverGreedily(items, offers, bestCosts, assignment, claimed);
+        assignLeftovers(items, candidates, assignment, claimed);
+        consolidate(items, offers, assignment, claimed);
+
+        Map<Long, List<OrderItemRequest>> groupedItems = new HashMap<>();
+        for (int i = 0; i < itemCount; i++) {
+            OrderItemRequest item = items.get(i);
+            item.setMenuItemId(assignment[i].getMenuItemId());
+            item.setPrice(assignment[i].getPrice());
+            groupedItems.computeIfAbsent(assignment[i].getRestaurantId(), k -> new ArrayList<>()).add(item);
+        }
+        LOGGER.debug("Consolidated {} items into {} restaurants", itemCount, groupedItems.size());
+        return groupedItems;
+    }
+
+    /**
+     * Picks restaurants until every item is covered or no eligible restaurant has room left.
+     */
+    private void coverGreedily(List<OrderItemRequest> items, Map<Long, Map<Integer, CatalogCandidate>> offers,
+                               double[] bestCosts, CatalogCandidate[] assignment, Map<Long, Integer> claimed) {
+        int uncovered = items.size();
+        while (uncovered > 0) {
+            Long bestRestaurant = null;
+            double bestRatio = 0;
+            for (Map.Entry<Long, Map<Integer, CatalogCandidate>> offer : offers.entrySet()) {
+                int spare = spare(offer.getKey(), claimed);
+                int covered = 0;
+                double weight = 1;
+                for (Map.Entry<Integer, CatalogCandidate> itemOffer : offer.getValue().entrySet()) {
+                    int index = itemOffer.getKey();
+                    int quantity = items.get(index).getQuantity();
+                    if (assignment[index] == null && quantity <= spare) {
+                        spare -= quantity;
+                        covered++;
+                        weight += premium(itemOffer.getValue(), bestCosts[index]);
+                    }
+                }
+                double ratio = covered / weight;
+                if (covered > 0 && ratio > bestRatio + EPSILON) {
+                    bestRestaurant = offer.getKey();
+                    bestRatio = ratio;
+                }
+            }
+            if (bestRestaurant == null) {
+                return;
+            }
+
+            int spare = spare(bestRestaurant, claimed);
+            for (Map.Entry<Integer, CatalogCandidate> itemOffer : offers.get(bestRestaurant).entrySet()) {
+                int index = itemOffer.getKey();
+                int quantity = items.get(index).getQuantity();
+                if (assignment[index] == null && quantity <= spare) {
+                    spare -= quantity;
+                    assignment[index] = itemOffer.getValue();
+                    claimed.merge(bestRestaurant, quantity, Integer::sum);
+                    uncovered--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Assigns the items no eligible restaurant has room for, preferring restaurants already in the order.
+     */
+    private void assignLeftovers(List<OrderItemRequest> items, List<List<CatalogCandidate>> candidates,
+                                 CatalogCandidate[] assignment, Map<Long, Integer> claimed) {
+        for (int i = 0; i < items.size(); i++) {
+            if (assignment[i] != null) {
+                continue;
+            }
+            OrderItemRequest item = items.get(i);
+            Comparator<CatalogCandidate> order = Comparator
+                    .comparing((CatalogCandidate candidate) -> !claimed.containsKey(candidate.getRestaurantId()))
+                    .thenComparingDouble(this::unitCost);
+            CatalogCandidate best = null;
+            CatalogCandidate bestWithRoom = null;
+            for (CatalogCandidate candidate : candidates.get(i)) {
+                if (best == null || unitCost(candidate) < unitCost(best)) {
+                    best = candidate;
+                }
+                if (item.getQuantity() <= spare(candidate.getRestaurantId(), claimed)
+                        && (bestWithRoom == null || order.compare(candidate, bestWithRoom) < 0)) {
+                    bestWithRoom = candidate;
+                }
+            }
+            if (bestWithRoom == null) {
+                LOGGER.warn("No restaurant has capacity left for menu item: {}", item.getName());
+            }
+            assignment[i] = bestWithRoom != null ? bestWithRoom : best;
+            claimed.merge(assignment[i].getRestaurantId(), item.getQuantity(), Integer::sum);
+        }
+    }
+
+    /**
+     * Moves every item to the best eligible offer among the restaurants already in the order.
+     */
+    private void consolidate(List<OrderItemRequest> items, Map<Long, Map<Integer, CatalogCandidate>> offers,
+                             CatalogCandidate[] assignment, Map<Long, Integer> claimed) {
+        List<Long> chosen = new ArrayList<>(claimed.keySet());
+        for (int i = 0; i < items.size(); i++) {
+            int quantity = items.get(i).getQuantity();
+            for (Long restaurantId : chosen) {
+                CatalogCandidate offer = offers.getOrDefault(restaurantId, Map.of()).get(i);
+                if (offer != null && offer.getRestaurantId().equals(assignment[i].getRestaurantId())
+                        && unitCost(offer) < unitCost(assignment[i]) - EPSILON) {
+                    // A cheaper menu item of the same restaurant
+                    assignment[i] = offer;
+                } else if (offer != null && unitCost(offer) < unitCost(assignment[i]) - EPSILON
+                        && quantity <= spare(restaurantId, claimed)) {
+                    claimed.merge(assignment[i].getRestaurantId(), -quantity, Integer::sum);
+                    claimed.merge(restaurantId, quantity, Integer::sum);
+                    assignment[i] = offer;
+                }
+            }
+        }
+    }
+
+    /**
+     * Selects the best restaurant for a menu item among those that can still take one item.
+     *
+     * @param restaurants The list of available restaurants.
+     * @param menuItem    The menu item for which the restaurant selection is being made.
+     * @return The best restaurant with capacity left.
+     * @throws NoSuchElementException If none of the restaurants offers the menu item.
+     */
+    @Override
+    public RestaurantEntity selectRestaurant(List<RestaurantEntity> restaurants, MenuItemEntity menuItem) {
+        return bestRestaurant(restaurants, new OrderItemRequest(menuItem.getName(), 1));
+    }
+
+    /**
+     * Selects the best restaurant for a cart item among those that can still take its quantity.
+     *
+     * @param restaurants The list of available restaurants.
+     * @param menuItem    The cart item for which the restaurant selection is being made.
+     * @return The best restaurant with capacity left.
+     * @throws NoSuchElementException If none of the restaurants offers the cart item.
+     */
+    @Override
+    public RestaurantEntity selectRestaurantAsPerCustomerRequest(List<RestaurantEntity> restaurants, OrderItemRequest menuItem) {
+        return bestRestaurant(restaurants, menuItem);
+    }
+
+    /**
+     * Sorts restaurants by the objective: lowest menu price first, or highest rating first.
+     *
+     * @param restaurants The list of restaurants to be sorted.
+     * @return The sorted list of restaurants.
+     */
+    @Override
+    public List<RestaurantEntity> sortRestaurants(List<RestaurantEntity> restaurants) {
+        List<RestaurantEntity> sorted = new ArrayList<>(restaurants.size());
+        RestaurantRanking.ranked(scoreRestaurants(restaurants)).forEachRemaining((int index) -> sorted.add(restaurants.get(index)));
+        return sorted;
+    }
+
+    /**
+     * Scores restaurants by negated lowest menu price, or by rating. Restaurants without a price or
+     * rating rank last.
+     *
+     * @param restaurants The list of restaurants to be scored.
+     * @return The score of each restaurant.
+     */
+    @Override
+    public double[] scoreRestaurants(List<RestaurantEntity> restaurants) {
+        double[] scores = new double[restaurants.size()];
+        for (int i = 0; i < scores.length; i++) {
+            RestaurantEntity restaurant = restaurants.get(i);
+            BigDecimal value = objective == Objective.PRICE ? restaurant.getMinMenuPrice() : restaurant.getRating();
+            if (value == null) {
+                scores[i] = Double.NEGATIVE_INFINITY;
+            } else {
+                scores[i] = objective == Objective.PRICE ? -value.doubleValue() : value.doubleValue();
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Selects the best candidate for a single cart item, which is the whole order when it has one item.
+     *
+     * @param candidates The candidates offering the cart item.
+     * @param menuItem   The cart item for which the selection is being made.
+     * @return The best candidate with room for the item, or the best candidate if none has room.
+     * @throws NoSuchElementException If there are no candidates.
+     */
+    @Override
+    public CatalogCandidate selectCandidate(List<CatalogCandidate> candidates, OrderItemRequest menuItem) {
+        List<CatalogCandidate> ranked = new ArrayList<>(candidates);
+        ranked.sort(Comparator.comparingDouble(this::unitCost));
+        return RankedSelection.firstWithRoom(ranked, menuItem, Map.of(), capacityLedger, true);
+    }
+
+    @Override
+    public CatalogCandidate selectCandidate(OrderItemRequest menuItem) {
+        return selectCandidate(catalogIndex.findCandidates(menuItem.getName()), menuItem);
+    }
+
+    private RestaurantEntity bestRestaurant(List<RestaurantEntity> restaurants, OrderItemRequest menuItem) {
+        Map<Long, RestaurantEntity> byId = new HashMap<>();
+        for (RestaurantEntity restaurant : restaurants) {
+            byId.putIfAbsent(restaurant.getId(), restaurant);
+        }
+        List<CatalogCandidate> offered = catalogIndex.findCandidates(menuItem.getName()).stream()
+                .filter(candidate -> byId.containsKey(candidate.getRestaurantId()))
+                .toList();
+        return byId.get(selectCandidate(offered, menuItem).getRestaurantId());
+    }
+
+    private int spare(Long restaurantId, Map<Long, Integer> claimed) {
+        return capacityLedger.getAvailableCapacity(restaurantId) - claimed.getOrDefault(restaurantId, 0);
+    }
+
+    /**
+     * Relative premium of a candidate over the best candidate of its item; 0 for the best one.
+     */
+    private double premium(CatalogCandidate candidate, double bestCost) {
+        return (unitCost(candidate) - bestCost) / Math.max(Math.abs(bestCost), EPSILON);
+    }
+
+    /**
+     * Cost of one unit of a candidate under the objective; lower is better.
+     */
+    private double unitCost(CatalogCandidate candidate) {
+        if (objective == Objective.PRICE) {
+            return candidate.getPrice().doubleValue();
+        }
+        BigDecimal rating = candidate.getRating();
+        return rating == null ? 0 : -rating.doubleValue();
+    }
+}
@@ -2,13 +2,19 @@ package org.foodorder.strategy;
 
 import org.foodorder.entity.RestaurantEntity;
 import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.model.CatalogCandidate;
 import org.foodorder.model.OrderItemRequest;
+import org.foodorder.service.MenuCatalogIndex;
+import org.foodorder.service.RestaurantCapacityLedger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 /**
@@ -21,6 +27,50 @@ public class HighestRatingStrategy implements RestaurantSelectionStrategy {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HighestRatingStrategy.class);
 
+    private static final Comparator<CatalogCandidate> RATING_ORDER =
+            Comparator.comparing(CatalogCandidate::getRating, Comparator.nullsFirst(Comparator.naturalOrder()));
+    // Highest rating first, ties to the lowest restaurant ID like RATING_ORDER.max()
+    private static final Comparator<CatalogCandidate> RANKING = RATING_ORDER.reversed()
+            .thenComparing(CatalogCandidate::getRestaurantId)
+            .thenComparing(CatalogCandidate::getMenuItemId);
+
+    private final MenuCatalogIndex catalogIndex;
+    private final RestaurantCapacityLedger capacityLedger;
+    private final boolean capacityAware;
+
+    /**
+     * @param catalogIndex   the menu catalog to select candidates from
+     * @param capacityLedger the ledger to read the remaining capacity of restaurants from
+     * @param capacityAware  whether to skip restaurants without room for an item
+     */
+    public HighestRatingStrategy(MenuCatalogIndex catalogIndex, RestaurantCapacityLedger capacityLedger,
+                                 @Value("${selection.capacity-aware:true}") boolean capacityAware) {
+        this.catalogIndex = catalogIndex;
+        this.capacityLedger = capacityLedger;
+        this.capacityAware = capacityAware;
+    }
+
+    @Override
+    public String getName() {
+        return "rating";
+    }
+
+    /**
+     * Scores restaurants by their rating; restaurants without a rating rank last.
+     *
+     * @param restaurants The list of restaurants to be scored.
+     * @return The rating of each restaurant.
+     */
+    @Override
+    public double[] scoreRestaurants(List<RestaurantEntity> restaurants) {
+        double[] scores = new double[restaurants.size()];
+        for (int i = 0; i < scores.length; i++) {
+            BigDecimal rating = restaurants.get(i).getRating();
+            scores[i] = rating == null ? Double.NEGATIVE_INFINITY : rating.doubleValue();
+        }
+        return scores;
+    }
+
     /**
      * Selects the highest-rated restaurant from the list of available restaurants for a given menu item.
      * If no restaurant is available, it will log the information and throw a NoSuchElementException.
@@ -91,4 +141,54 @@ public class HighestRatingStrategy implements RestaurantSelectionStrategy {
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Selects the catalog candidate with the highest rating for the given cart item from the candidates
+     * of the menu catalog.
+     *
+     * @param menuItem The cart item for which the selection is being made.
+     * @return The candidate with the highest rating.
+     * @throws NoSuchElementException If no restaurant offers the cart item.
+     */
+    @Override
+    public CatalogCandidate selectCandidate(OrderItemRequest menuItem) {
+        return selectCandidate(menuItem, Map.of());
+    }
+
+    /**
+     * Selects the catalog candidate with the highest rating for the given cart item. The candidates
+     * are read ranked by rating from the selection cache of the {@link MenuCatalogIndex}. In
+     * capacity-aware mode, restaurants without room for the item are skipped using the in-memory
+     * headroom of the {@link RestaurantCapacityLedger}, so the next-best restaurant is selected. If no
+     * restaurant has room, the highest-rated candidate is returned and the reservation reports the shortage.
+     *
+     * @param menuItem The cart item for which the selection is being made.
+     * @param claimed  The number of items already assigned to each restaurant, keyed by restaurant ID.
+     * @return The highest-rated candidate with room for the item.
+     * @throws NoSuchElementException If no restaurant offers the cart item.
+     */
+    @Override
+    public CatalogCandidate selectCandidate(OrderItemRequest menuItem, Map<Long, Integer> claimed) {
+        List<CatalogCandidate> ranked = catalogIndex.findRankedCandidates(menuItem.getName(), getName(), RANKING);
+        return RankedSelection.firstWithRoom(ranked, menuItem, claimed, capacityLedger, capacityAware);
+    }
+
+    /**
+     * Selects the catalog candidate with the highest rating for the given cart item.
+     * Ties go to the first candidate, i.e. the restaurant with the lowest ID.
+     *
+     * @param candidates The candidates offering the cart item.
+     * @param menuItem   The cart item for which the selection is being made.
+     * @return The candidate with the highest rating.
+     * @throws NoSuchElementException If no candidate is available.
+     */
+    @Override
+    public CatalogCandidate selectCandidate(List<CatalogCandidate> candidates, OrderItemRequest menuItem) {
+        return candidates.stream()
+                .max(RATING_ORDER)
+                .orElseThrow(() -> {
+                    LOGGER.error("No catalog candidate found for menu item: {}", menuItem.getName());
+                    return new NoSuchElementException("No restaurant available for the given customer request.");
+                });
+    }
+}
@@ -2,14 +2,22 @@ package org.foodorder.strategy;
 
 import org.foodorder.entity.RestaurantEntity;
 import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.model.CatalogCandidate;
 import org.foodorder.model.OrderItemRequest;
+import org.foodorder.service.MenuCatalogIndex;
+import org.foodorder.service.RestaurantCapacityLedger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Strategy implementation for selecting the restaurant offering the lowest cost.
@@ -21,19 +29,62 @@ public class LowestCostStrategy implements RestaurantSelectionStrategy {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LowestCostStrategy.class);
 
+    // Lowest price first, ties to the lowest restaurant ID
+    private static final Comparator<CatalogCandidate> RANKING = Comparator.comparing(CatalogCandidate::getPrice)
+            .thenComparing(CatalogCandidate::getRestaurantId)
+            .thenComparing(CatalogCandidate::getMenuItemId);
+
+    private final MenuCatalogIndex catalogIndex;
+    private final RestaurantCapacityLedger capacityLedger;
+    private final boolean capacityAware;
+
+    /**
+     * @param catalogIndex   the menu catalog to select candidates from
+     * @param capacityLedger the ledger to read the remaining capacity of restaurants from
+     * @param capacityAware  whether to skip restaurants without room for an item
+     */
+    public LowestCostStrategy(MenuCatalogIndex catalogIndex, RestaurantCapacityLedger capacityLedger,
+                              @Value("${selection.capacity-aware:true}") boolean capacityAware) {
+        this.catalogIndex = catalogIndex;
+        this.capacityLedger = capacityLedger;
+        this.capacityAware = capacityAware;
+    }
+
+    @Override
+    public String getName() {
+        return "price";
+    }
+
     /**
-     * Selects the restaurant offering the lowest price for the given menu item.
-     * If no restaurant is found, it logs an error and returns null.
+     * Scores restaurants by their lowest menu price, negated so that the cheapest restaurant scores
+     * highest; restaurants without menu items rank last.
+     *
+     * @param restaurants The list of restaurants to be scored.
+     * @return The negated lowest menu price of each restaurant.
+     */
+    @Override
+    public double[] scoreRestaurants(List<RestaurantEntity> restaurants) {
+        double[] scores = new double[restaurants.size()];
+        for (int i = 0; i < scores.length; i++) {
+            BigDecimal minMenuPrice = restaurants.get(i).getMinMenuPrice();
+            scores[i] = minMenuPrice == null ? Double.NEGATIVE_INFINITY : -minMenuPrice.doubleValue();
+        }
+        return scores;
+    }
+
+    /**
+     * Selects the restaurant offering the lowest price for the given menu item, using the price
+     * index of the menu catalog.
      *
      * @param restaurants The list of available restaurants.
      * @param menuItem    The menu item for which the restaurant selection is being made.
-     * @return The restaurant offering the lowest cost, or null if no restaurant is available.
+     * @return The restaurant offering the lowest cost.
+     * @throws NoSuchElementException If none of the restaurants offers the menu item.
      */
     @Override
     public RestaurantEntity selectRestaurant(List<RestaurantEntity> restaurants, MenuItemEntity menuItem) {
         try {
-            return restaurants.stream()
-                    .min(Comparator.comparing(restaurant -> menuItem.getPrice()))
+            return cheapestRestaurant(restaurants, menuItem.getName())
                     .orElseThrow(() -> {
                         LOGGER.error("No restaurant found offering the menu item with ID: {}", menuItem.getId());
                         return new NoSuchElementException("No restaurant available with the given menu item.");
@@ -45,18 +96,18 @@ public class LowestCostStrategy implements RestaurantSelectionStrategy {
     }
 
     /**
-     * Selects the restaurant offering the lowest price based on the customer's request.
-     * If no restaurant is found, it logs an error and returns null.
+     * Selects the restaurant offering the lowest price based on the customer's request, using the
+     * price index of the menu catalog.
      *
      * @param restaurants The list of available restaurants.
      * @param menuItem    The cart item for which the restaurant selection is being made.
-     * @return The restaurant offering the lowest cost, or null if no restaurant is available.
+     * @return The restaurant offering the lowest cost.
+     * @throws NoSuchElementException If none of the restaurants offers the cart item.
      */
     @Override
     public RestaurantEntity selectRestaurantAsPerCustomerRequest(List<RestaurantEntity> restaurants, OrderItemRequest menuItem) {
         try {
-            return restaurants.stream()
-                    .min(Comparator.comparing(restaurant -> menuItem.getPrice()))
+            return cheapestRestaurant(restaurants, menuItem.getName())
                     .orElseThrow(() -> {
                         LOGGER.error("No restaurant found for customer request with menu item: {}", menuItem.getName());
                         return new NoSuchElementException("No restaurant available for the given customer request.");
@@ -69,7 +120,9 @@ public class LowestCostStrategy implements RestaurantSelectionStrategy {
 
     /**
      * Sorts the list of restaurants in ascending order based on the lowest price of menu items.
-     * If the list is empty or no prices are available, it logs a warning and returns the unsorted list.
+     * The lowest price is read from the precomputed {@code min_menu_price} column, which is kept up to
+     * date whenever a menu is written, so the menu items are never loaded for the sort.
+     * Restaurants without menu items are sorted last.
      *
      * @param restaurants The list of restaurants to be sorted.
      * @return The sorted list of restaurants based on the lowest menu item price.
@@ -82,13 +135,68 @@ public class LowestCostStrategy implements RestaurantSelectionStrategy {
                 return restaurants;
             }
             return restaurants.stream()
-                    .sorted(Comparator.comparing(restaurant -> restaurant.getMenuItems().stream()
-                            .mapToDouble(menuItem -> menuItem.getPrice().doubleValue())
-                            .min().orElse(Double.MAX_VALUE)))
+                    .sorted(Comparator.comparing(RestaurantEntity::getMinMenuPrice,
+                            Comparator.nullsLast(Comparator.naturalOrder())))
                     .toList();
         } catch (Exception e) {
             LOGGER.error("Error sorting restaurants by lowest cost.", e);
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Selects the cheapest catalog candidate for the given cart item.
+     *
+     * @param menuItem The cart item for which the selection is being made.
+     * @return The candidate with the lowest price, ties broken by the lowest restaurant ID.
+     * @throws NoSuchElementException If no restaurant offers the cart item.
+     */
+    @Override
+    public CatalogCandidate selectCandidate(OrderItemRequest menuItem) {
+        return selectCandidate(menuItem, Map.of());
+    }
+
+    /**
+     * Selects the cheapest catalog candidate for the given cart item. The candidates are read ranked
+     * by price from the selection cache of the {@link MenuCatalogIndex}. In capacity-aware mode they
+     * are walked from the cheapest until a restaurant with room for the item is found, using the
+     * in-memory headroom of the {@link RestaurantCapacityLedger}. If no restaurant has room, the
+     * cheapest candidate is returned and the reservation reports the shortage.
+     *
+     * @param menuItem The cart item for which the selection is being made.
+     * @param claimed  The number of items already assigned to each restaurant, keyed by restaurant ID.
+     * @return The cheapest candidate with room for the item, ties broken by the lowest restaurant ID.
+     * @throws NoSuchElementException If no restaurant offers the cart item.
+     */
+    @Override
+    public CatalogCandidate selectCandidate(OrderItemRequest menuItem, Map<Long, Integer> claimed) {
+        List<CatalogCandidate> ranked = catalogIndex.findRankedCandidates(menuItem.getName(), getName(), RANKING);
+        return RankedSelection.firstWithRoom(ranked, menuItem, claimed, capacityLedger, capacityAware);
+    }
+
+    /**
+     * Selects the catalog candidate with the lowest price for the given cart item.
+     * Ties go to the first candidate, i.e. the restaurant with the lowest ID.
+     *
+     * @param candidates The candidates offering the cart item.
+     * @param menuItem   The cart item for which the selection is being made.
+     * @return The candidate with the lowest price.
+     * @throws NoSuchElementException If no candidate is available.
+     */
+    @Override
+    public CatalogCandidate selectCandidate(List<CatalogCandidate> candidates, OrderItemRequest menuItem) {
+        return candidates.stream()
+                .min(Comparator.comparing(CatalogCandidate::getPrice))
+                .orElseThrow(() -> {
+                    LOGGER.error("No catalog candidate found for menu item: {}", menuItem.getName());
+                    return new NoSuchElementException("No restaurant available for the given customer request.");
+                });
+    }
+
+    private Optional<RestaurantEntity> cheapestRestaurant(List<RestaurantEntity> restaurants, String itemName) {
+        Map<Long, RestaurantEntity> byId = restaurants.stream()
+                .collect(Collectors.toMap(RestaurantEntity::getId, restaurant -> restaurant, (first, second) -> first));
+        return catalogIndex.findCheapestCandidate(itemName, candidate -> byId.containsKey(candidate.getRestaurantId()))
+                .map(candidate -> byId.get(candidate.getRestaurantId()));
+    }
+}
@@ -0,0 +1,302 @@
+package org.foodorder.strategy;
+
+import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.CandidateFeatures;
+import org.foodorder.model.CatalogCandidate;
+import org.foodorder.model.GeoPoint;
+import org.foodorder.model.OrderItemRequest;
+import org.foodorder.service.MenuCatalogIndex;
+import org.foodorder.service.RestaurantCapacityLedger;
+import org.foodorder.service.RestaurantGeoIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+
+/**
+ * Strategy that selects the restaurant closest to the delivery location of the order, measured
+ * between ZIP code centroids by the {@link RestaurantGeoIndex}. Ties go to the lowest restaurant ID,
+ * restaurants that cannot be located rank last, and in capacity-aware mode restaurants without room
+ * for an item are skipped.
+ * <p>
+ * A candidate is found by walking the grid of the geo index outwards from the origin, so only the
+ * restaurants around the nearest one offering the item are measured, however many offer it. An
+ * item offered by few restaurants, or by no located restaurant with room, is found by measuring
+ * each of its candidates instead.
+ * <p>
+ * The registered strategy has no origin; {@link #withOrigin(GeoPoint)} returns one for the delivery
+ * location of a single order. Selecting without an origin is rejected, and ranking restaurants
+ * without one keeps their order.
+ */
+@Component
+public class NearestRestaurantStrategy implements RestaurantSelectionStrategy {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NearestRestaurantStrategy.class);
+
+    private final MenuCatalogIndex catalogIndex;
+    private final RestaurantCapacityLedger capacityLedger;
+    private final RestaurantGeoIndex geoIndex;
+    private final boolean capacityAware;
+    private final GeoPoint origin;
+
+    /**
+     * @param catalogIndex   the menu catalog to select candidates from
+     * @param capacityLedger the ledger to read the remaining capacity of restaurants from
+     * @param geoIndex       the index to read the location of restaurants from
+     * @param capacityAware  whether to skip restaurants without room for an item
+     */
+    @Autowired
+    public NearestRestaurantStrategy(MenuCatalogIndex catalogIndex, RestaurantCapacityLedger capacityLedger,
+                                     RestaurantGeoIndex geoIndex,
+                                     @Value("${selection.capacity-aware:true}") boolean capacityAware) {
+        this(catalogIndex, capacityLedger, geoIndex, capacityAware, null);
+    }
+
+    private NearestRestaurantStrategy(MenuCatalogIndex catalogIndex, RestaurantCapacityLedger capacityLedger,
+                                      RestaurantGeoIndex geoIndex, boolean capacityAware, GeoPoint origin) {
+        this.catalogIndex = catalogIndex;
+        this.capacityLedger = capacityLedger;
+        this.geoIndex = geoIndex;
+        this.capacityAware = capacityAware;
+        this.origin = origin;
+    }
+
+    @Override
+    public String getName() {
+        return "nearest";
+    }
+
+    public GeoPoint getOrigin() {
+        return origin;
+    }
+
+    /**
+     * @param origin The location the order is delivered to, or null if it is unknown.
+     * @return A nearest-restaurant strategy that measures distances from the given origin.
+     */
+    @Override
+    public RestaurantSelectionStrategy withOrigin(GeoPoint origin) {
+        return origin == null ? this : new NearestRestaurantStrategy(catalogIndex, capacityLedger, geoIndex, capacityAware, origin);
+    }
+
+    /**
+     * Scores restaurants by their distance, nearest highest; restaurants that cannot be located rank
+     * last. Without an origin every restaurant scores the same.
+     *
+     * @param restaurants The list of restaurants to be scored.
+     * @return The negated distance of each restaurant in kilometers.
+     */
+    @Override
+    public double[] scoreRestaurants(List<RestaurantEntity> restaurants) {
+        double[] scores = new double[restaurants.size()];
+        if (origin == null) {
+            return scores;
+        }
+        for (int i = 0; i < scores.length; i++) {
+            Long restaurantId = restaurants.get(i).getId();
+            scores[i] = restaurantId == null ? Double.NEGATIVE_INFINITY : -geoIndex.distanceKm(restaurantId, origin);
+        }
+        return scores;
+    }
+
+    /**
+     * Sorts restaurants by their distance, nearest first.
+     *
+     * @param restaurants The list of restaurants to be sorted.
+     * @return The sorted list of restaurants.
+     */
+    @Override
+    public List<RestaurantEntity> sortRestaurants(List<RestaurantEntity> restaurants) {
+        List<RestaurantEntity> sorted = new ArrayList<>(restaurants.size());
+        PrimitiveIterator.OfInt ranked = RestaurantRanking.ranked(scoreRestaurants(restaurants));
+        while (ranked.hasNext()) {
+            sorted.add(restaurants.get(ranked.nextInt()));
+        }
+        return sorted;
+    }
+
+    /**
+     * Selects the nearest restaurant for a menu item among the given restaurants.
+     *
+     * @param restaurants The list of available restaurants.
+     * @param menuItem    The menu item for which the restaurant selection is being made.
+     * @return The nearest restaurant offering the menu item.
+     * @throws IllegalArgumentException If the strategy has no origin.
+     * @throws NoSuchElementException   If none of the restaurants offers the menu item.
+     */
+    @Override
+    public RestaurantEntity selectRestaurant(List<RestaurantEntity> restaurants, MenuItemEntity menuItem) {
+        return nearestRestaurant(restaurants, new OrderItemRequest(menuItem.getName(), 1));
+    }
+
+    /**
+     * Selects the nearest restaurant for a cart item among the given restaurants.
+     *
+     * @param restaurants The list of available restaurants.
+     * @param menuItem    The cart item for which the restaurant selection is being made.
+     * @return The nearest restaurant offering the cart item.
+     * @throws IllegalArgumentException If the strategy has no origin.
+     * @throws NoSuchElementException   If none of the restaurants offers the cart item.
+     */
+    @Override
+    public RestaurantEntity selectRestaurantAsPerCustomerRequest(List<RestaurantEntity> restaurants, OrderItemRequest menuItem) {
+        return nearestRestaurant(restaurants, menuItem);
+    }
+
+    /**
+     * Selects the nearest of the given candidates, ignoring capacity.
+     *
+     * @param candidates The candidates offering the cart item.
+     * @param menuItem   The cart item for which the selection is being made.
+     * @return The nearest candidate.
+     * @throws IllegalArgumentException If the strategy has no origin.
+     * @throws NoSuchElementException   If no candidate is available.
+     */
+    @Override
+    public CatalogCandidate selectCandidate(List<CatalogCandidate> candidates, OrderItemRequest menuItem) {
+        if (candidates.isEmpty()) {
+            LOGGER.error("No catalog candidate found for menu item: {}", menuItem.getName());
+            throw new NoSuchElementException("No restaurant available for the given customer request.");
+        }
+        requireOrigin();
+        return scan(List.of(new CandidateFeatures(candidates)), menuItem, Map.of(), null, false);
+    }
+
+    @Override
+    public CatalogCandidate selectCandidate(OrderItemRequest menuItem) {
+        return selectCandidate(menuItem, Map.of());
+    }
+
+    /**
+     * Selects the nearest candidate for a cart item from the menu catalog. In capacity-aware mode,
+     * restaurants without room for the item, counting the items already assigned to them within the
+     * same order, are skipped; if none has room the nearest candidate is returned.
+     *
+     * @param menuItem The cart item for which the selection is being made.
+     * @param claimed  The number of items already assigned to each restaurant, keyed by restaurant ID.
+     * @return The nearest candidate with room for the item.
+     * @throws IllegalArgumentException If the strategy has no origin.
+     * @throws NoSuchElementException   If no restaurant offers the cart item.
+     */
+    @Override
+    public CatalogCandidate selectCandidate(OrderItemRequest menuItem, Map<Long, Integer> claimed) {
+        return nearest(catalogIndex.findCandidateFeatures(menuItem.getName()), menuItem, claimed, null, capacityAware);
+    }
+
+    private RestaurantEntity nearestRestaurant(List<RestaurantEntity> restaurants, OrderItemRequest menuItem) {
+        Set<Long> restaurantIds = new HashSet<>();
+        for (RestaurantEntity restaurant : restaurants) {
+            restaurantIds.add(restaurant.getId());
+        }
+        CatalogCandidate nearest = nearest(catalogIndex.findCandidateFeatures(menuItem.getName()), menuItem, Map.of(),
+                restaurantIds, false);
+        return restaurants.stream()
+                .filter(restaurant -> nearest.getRestaurantId().equals(restaurant.getId()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /**
+     * Finds the nearest candidate, with room if capacity is checked, by walking the grid from the
+     * origin and asking only about the restaurants passed. The walk visits at most one cell per
+     * candidate, so it never costs much more than measuring every candidate; if it gives up, or
+     * finds no located restaurant to select, the candidates are scanned.
+     */
+    private CatalogCandidate nearest(List<CandidateFeatures> blocks, OrderItemRequest menuItem, Map<Long, Integer> claimed,
+                                     Set<Long> restaurantIds, boolean checkCapacity) {
+        requireOrigin();
+        int candidates = 0;
+        for (CandidateFeatures block : blocks) {
+            candidates += block.size();
+        }
+        if (candidates > 0) {
+            RestaurantGeoIndex.Nearest walked = geoIndex.nearest(origin, restaurantId ->
+                    (restaurantIds == null || restaurantIds.contains(restaurantId))
+                            && candidateOf(blocks, restaurantId) != null
+                            && (!checkCapacity || capacityLedger.canReserve(restaurantId,
+                            menuItem.getQuantity() + claimed.getOrDefault(restaurantId, 0))), candidates);
+            if (walked.complete() && walked.restaurantId() != null) {
+                return candidateOf(blocks, walked.restaurantId());
+            }
+        }
+        return scan(blocks, menuItem, claimed, restaurantIds, checkCapacity);
+    }
+
+    /**
+     * Finds the nearest candidate in one pass over the feature blocks, and the nearest with room.
+     */
+    private CatalogCandidate scan(List<CandidateFeatures> blocks, OrderItemRequest menuItem, Map<Long, Integer> claimed,
+                                  Set<Long> restaurantIds, boolean checkCapacity) {
+        CatalogCandidate nearest = null;
+        double nearestKm = Double.POSITIVE_INFINITY;
+        CatalogCandidate nearestWithRoom = null;
+        double nearestWithRoomKm = Double.POSITIVE_INFINITY;
+        for (CandidateFeatures block : blocks) {
+            for (int i = 0; i < block.size(); i++) {
+                long restaurantId = block.getRestaurantId(i);
+                if (restaurantIds != null && !restaurantIds.contains(restaurantId)) {
+                    continue;
+                }
+                double distanceKm = geoIndex.distanceKm(restaurantId, origin);
+                CatalogCandidate candidate = block.getCandidate(i);
+                if (isCloser(distanceKm, candidate, nearestKm, nearest)) {
+                    nearest = candidate;
+                    nearestKm = distanceKm;
+                }
+                if (checkCapacity && isCloser(distanceKm, candidate, nearestWithRoomKm, nearestWithRoom)
+                        && capacityLedger.canReserve(restaurantId, menuItem.getQuantity() + claimed.getOrDefault(restaurantId, 0))) {
+                    nearestWithRoom = candidate;
+                    nearestWithRoomKm = distanceKm;
+                }
+            }
+        }
+
+        if (nearest == null) {
+            LOGGER.error("No catalog candidate found for menu item: {}", menuItem.getName());
+            throw new NoSuchElementException("No restaurant available for the given customer request.");
+        }
+        if (checkCapacity && nearestWithRoom == null) {
+            LOGGER.warn("No restaurant has capacity left for menu item: {}", menuItem.getName());
+        }
+        return nearestWithRoom != null ? nearestWithRoom : nearest;
+    }
+
+    // The candidate of a restaurant with the lowest menu item ID, which wins ties at the same distance
+    private static CatalogCandidate candidateOf(List<CandidateFeatures> blocks, long restaurantId) {
+        CatalogCandidate first = null;
+        for (CandidateFeatures block : blocks) {
+            int index = block.indexOf(restaurantId);
+            if (index >= 0 && (first == null || block.getCandidate(index).getMenuItemId() < first.getMenuItemId())) {
+                first = block.getCandidate(index);
+            }
+        }
+        return first;
+    }
+
+    private void requireOrigin() {
+        if (origin == null) {
+            throw new IllegalArgumentException("A delivery ZIP code is required for the nearest strategy.");
+        }
+    }
+
+    private static boolean isCloser(double distanceKm, CatalogCandidate candidate, double nearestKm, CatalogCandidate nearest) {
+        if (nearest == null || distanceKm < nearestKm) {
+            return true;
+        }
+        if (distanceKm > nearestKm) {
+            return false;
+        }
+        int byRestaurant = Long.compare(candidate.getRestaurantId(), nearest.getRestaurantId());
+        return byRestaurant != 0 ? byRestaurant < 0 : candidate.getMenuItemId() < nearest.getMenuItemId();
+    }
+}
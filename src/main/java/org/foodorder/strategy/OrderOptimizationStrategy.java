@@ -0,0 +1,493 @@
+package org.foodorder.strategy;
+
+import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.CatalogCandidate;
+import org.foodorder.model.OrderItemRequest;
+import org.foodorder.service.MenuCatalogIndex;
+import org.foodorder.service.RestaurantCapacityLedger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Strategy that assigns all items of an order at once instead of one item at a time. It minimizes
+ * the total cost of the order, or maximizes its total rating, subject to the remaining capacity of
+ * every restaurant, so an order is only split across restaurants when that is needed to fit it.
+ * <p>
+ * The assignment is found with branch-and-bound. A regret-based greedy assignment, improved by
+ * moving and swapping items, seeds the incumbent; when no restaurant is contended it already meets
+ * the capacity-free optimum and the search ends at the root. Otherwise a depth-first search decides
+ * the items with the highest regret first and cuts a branch as soon as its cost plus the
+ * capacity-free optimum of the remaining items cannot beat the incumbent. The search stops after a
+ * fixed number of nodes and keeps the best assignment found so far, which bounds its running time
+ * for large orders.
+ * <p>
+ * Remaining capacity is read from the in-memory {@link RestaurantCapacityLedger} and is not
+ * reserved; the reservation made after selection can still be refused if other orders take the
+ * capacity first.
+ */
+public class OrderOptimizationStrategy implements RestaurantSelectionStrategy {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderOptimizationStrategy.class);
+
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * What the assignment optimizes.
+     */
+    public enum Objective {
+        /** Minimize the total price of the order. */
+        PRICE,
+        /** Maximize the quantity-weighted rating of the restaurants preparing the order. */
+        RATING
+    }
+
+    private final MenuCatalogIndex catalogIndex;
+    private final RestaurantCapacityLedger capacityLedger;
+    private final Objective objective;
+    private final int nodeBudget;
+
+    /**
+     * @param catalogIndex   the menu catalog to take the candidates from
+     * @param capacityLedger the ledger to read the remaining capacity of restaurants from
+     * @param objective      what the assignment optimizes
+     * @param nodeBudget     the maximum number of search nodes to visit for one order
+     */
+    public OrderOptimizationStrategy(MenuCatalogIndex catalogIndex, RestaurantCapacityLedger capacityLedger,
+                                     Objective objective, int nodeBudget) {
+        this.catalogIndex = catalogIndex;
+        this.capacityLedger = capacityLedger;
+        this.objective = objective;
+        this.nodeBudget = nodeBudget;
+    }
+
+    public Objective getObjective() {
+        return objective;
+    }
+
+    /**
+     * @return "optimal-price" or "optimal-rating", depending on the objective.
+     */
+    @Override
+    public String getName() {
+        return "optimal-" + objective.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Assigns every item of the order to a restaurant, optimizing the whole order within the
+     * remaining capacity of the restaurants.
+     *
+     * @param items The items of the order.
+     * @return A map of restaurant IDs to the items each restaurant will fulfill.
+     * @throws NoSuchElementException If no restaurant offers one of the items.
+     * @throws RuntimeException If no assignment fits the remaining capacity of the restaurants.
+     */
+    @Override
+    public Map<Long, List<OrderItemRequest>> assignItems(List<OrderItemRequest> items) {
+        Search search = new Search(items);
+        CatalogCandidate[] assignment = search.run();
+
+        Map<Long, List<OrderItemRequest>> groupedItems = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            OrderItemRequest item = items.get(i);
+            CatalogCandidate selected = assignment[i];
+            item.setMenuItemId(selected.getMenuItemId());
+            item.setPrice(selected.getPrice());
+            groupedItems.computeIfAbsent(selected.getRestaurantId(), k -> new ArrayList<>()).add(item);
+        }
+        return groupedItems;
+    }
+
+    /**
+     * Selects the best restaurant for a menu item among those that can still take one item.
+     *
+     * @param restaurants The list of available restaurants.
+     * @param menuItem    The menu item for which the restaurant selection is being made.
+     * @return The best restaurant with capacity left.
+     * @throws NoSuchElementException If none of the restaurants offers the menu item or has capacity left.
+     */
+    @Override
+    public RestaurantEntity selectRestaurant(List<RestaurantEntity> restaurants, MenuItemEntity menuItem) {
+        return bestRestaurant(restaurants, menuItem.getName(), 1);
+    }
+
+    /**
+     * Selects the best restaurant for a cart item among those that can still take its quantity.
+     *
+     * @param restaurants The list of available restaurants.
+     * @param menuItem    The cart item for which the restaurant selection is being made.
+     * @return The best restaurant with capacity left.
+     * @throws NoSuchElementException If none of the restaurants offers the cart item or has capacity left.
+     */
+    @Override
+    public RestaurantEntity selectRestaurantAsPerCustomerRequest(List<RestaurantEntity> restaurants, OrderItemRequest menuItem) {
+        return bestRestaurant(restaurants, menuItem.getName(), menuItem.getQuantity());
+    }
+
+    /**
+     * Sorts restaurants by the objective: lowest menu price first, or highest rating first.
+     *
+     * @param restaurants The list of restaurants to be sorted.
+     * @return The sorted list of restaurants.
+     */
+    @Override
+    public List<RestaurantEntity> sortRestaurants(List<RestaurantEntity> restaurants) {
+        Comparator<RestaurantEntity> order = objective == Objective.PRICE
+                ? Comparator.comparing(RestaurantEntity::getMinMenuPrice, Comparator.nullsLast(Comparator.naturalOrder()))
+                : Comparator.comparing(RestaurantEntity::getRating, Comparator.nullsLast(Comparator.reverseOrder()));
+        return restaurants.stream().sorted(order).toList();
+    }
+
+    /**
+     * Scores restaurants like {@link #sortRestaurants(List)}: by negated lowest menu price, or by
+     * rating. Restaurants without a price or rating rank last.
+     *
+     * @param restaurants The list of restaurants to be scored.
+     * @return The score of each restaurant.
+     */
+    @Override
+    public double[] scoreRestaurants(List<RestaurantEntity> restaurants) {
+        double[] scores = new double[restaurants.size()];
+        for (int i = 0; i < scores.length; i++) {
+            RestaurantEntity restaurant = restaurants.get(i);
+            BigDecimal value = objective == Objective.PRICE ? restaurant.getMinMenuPrice() : restaurant.getRating();
+            if (value == null) {
+                scores[i] = Double.NEGATIVE_INFINITY;
+            } else {
+                scores[i] = objective == Objective.PRICE ? -value.doubleValue() : value.doubleValue();
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Selects the best candidate for a single cart item among the restaurants that can still take
+     * its quantity.
+     *
+     * @param candidates The candidates offering the cart item.
+     * @param menuItem   The cart item for which the selection is being made.
+     * @return The best candidate with capacity left, ties broken by the lowest restaurant ID.
+     * @throws NoSuchElementException If no candidate has capacity left.
+     */
+    @Override
+    public CatalogCandidate selectCandidate(List<CatalogCandidate> candidates, OrderItemRequest menuItem) {
+        return candidates.stream()
+                .filter(candidate -> capacityLedger.getAvailableCapacity(candidate.getRestaurantId()) >= menuItem.getQuantity())
+                .min(Comparator.comparingDouble(this::unitCost))
+                .orElseThrow(() -> {
+                    LOGGER.error("No catalog candidate with capacity left for menu item: {}", menuItem.getName());
+                    return new NoSuchElementException("No restaurants available for menu item: " + menuItem.getName());
+                });
+    }
+
+    @Override
+    public CatalogCandidate selectCandidate(OrderItemRequest menuItem) {
+        return selectCandidate(catalogIndex.findCandidates(menuItem.getName()), menuItem);
+    }
+
+    private RestaurantEntity bestRestaurant(List<RestaurantEntity> restaurants, String itemName, int quantity) {
+        Map<Long, RestaurantEntity> byId = restaurants.stream()
+                .collect(Collectors.toMap(RestaurantEntity::getId, restaurant -> restaurant, (first, second) -> first));
+        Set<Long> restaurantIds = byId.keySet();
+        return catalogIndex.findCandidates(itemName).stream()
+                .filter(candidate -> restaurantIds.contains(candidate.getRestaurantId()))
+                .filter(candidate -> capacityLedger.getAvailableCapacity(candidate.getRestaurantId()) >= quantity)
+                .min(Comparator.comparingDouble(this::unitCost))
+                .map(candidate -> byId.get(candidate.getRestaurantId()))
+                .orElseThrow(() -> new NoSuchElementException("No restaurant available with the given menu item."));
+    }
+
+    /**
+     * Cost of one unit of a candidate under the objective; lower is better.
+     */
+    private double unitCost(CatalogCandidate candidate) {
+        if (objective == Objective.PRICE) {
+            return candidate.getPrice().doubleValue();
+        }
+        BigDecimal rating = candidate.getRating();
+        return rating == null ? 0 : -rating.doubleValue();
+    }
+
+    /**
+     * Branch-and-bound search over the assignments of one order.
+     */
+    private final class Search {
+
+        private static final int MAX_IMPROVEMENT_ROUNDS = 100;
+
+        private final int itemCount;
+        private final int[] quantities; // Quantity of each item, in search order
+        private final int[] itemIndex; // Position in the order of each item, in search order
+        private final CatalogCandidate[][] options; // Feasible candidates of each item, cheapest first
+        private final double[][] optionCosts; // Cost of each option for the whole quantity
+        private final int[][] optionRestaurants; // Dense restaurant index of each option
+        private final int[][] optionAtRestaurant; // Option of each item per dense restaurant index, or -1
+        private final double[] remainingBound; // Capacity-free optimum of the items from each position on
+        private final int[] headroom; // Remaining capacity per dense restaurant index
+
+        private final int[] current;
+        private int[] best;
+        private double bestCost = Double.POSITIVE_INFINITY;
+        private int nodes;
+
+        private Search(List<OrderItemRequest> items) {
+            itemCount = items.size();
+            Map<Long, Integer> restaurantIndex = new HashMap<>();
+            List<Integer> capacities = new ArrayList<>();
+
+            CatalogCandidate[][] itemOptions = new CatalogCandidate[itemCount][];
+            double[] regret = new double[itemCount];
+            for (int i = 0; i < itemCount; i++) {
+                OrderItemRequest item = items.get(i);
+                List<CatalogCandidate> candidates = catalogIndex.findCandidates(item.getName());
+                if (candidates.isEmpty()) {
+                    throw new NoSuchElementException("No restaurants available for menu item: " + item.getName());
+                }
+                itemOptions[i] = bestPerRestaurant(candidates, item.getQuantity(), restaurantIndex, capacities);
+                if (itemOptions[i].length == 0) {
+                    throw new RuntimeException("No restaurant has capacity left for menu item: " + item.getName());
+                }
+                regret[i] = itemOptions[i].length == 1 ? Double.POSITIVE_INFINITY
+                        : (unitCost(itemOptions[i][1]) - unitCost(itemOptions[i][0])) * item.getQuantity();
+            }
+
+            // Items that lose the most when they miss their best restaurant are decided first
+            Integer[] order = new Integer[itemCount];
+            Arrays.setAll(order, i -> i);
+            Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> -regret[i])
+                    .thenComparingInt(i -> itemOptions[i].length)
+                    .thenComparingInt(i -> i));
+
+            headroom = capacities.stream().mapToInt(Integer::intValue).toArray();
+            quantities = new int[itemCount];
+            itemIndex = new int[itemCount];
+            options = new CatalogCandidate[itemCount][];
+            optionCosts = new double[itemCount][];
+            optionRestaurants = new int[itemCount][];
+            optionAtRestaurant = new int[itemCount][];
+            for (int k = 0; k < itemCount; k++) {
+                int i = order[k];
+                itemIndex[k] = i;
+                quantities[k] = items.get(i).getQuantity();
+                options[k] = itemOptions[i];
+                optionCosts[k] = new double[options[k].length];
+                optionRestaurants[k] = new int[options[k].length];
+                optionAtRestaurant[k] = new int[headroom.length];
+                Arrays.fill(optionAtRestaurant[k], -1);
+                for (int o = 0; o < options[k].length; o++) {
+                    optionCosts[k][o] = unitCost(options[k][o]) * quantities[k];
+                    optionRestaurants[k][o] = restaurantIndex.get(options[k][o].getRestaurantId());
+                    optionAtRestaurant[k][optionRestaurants[k][o]] = o;
+                }
+            }
+
+            remainingBound = new double[itemCount + 1];
+            for (int k = itemCount - 1; k >= 0; k--) {
+                remainingBound[k] = remainingBound[k + 1] + optionCosts[k][0];
+            }
+            current = new int[itemCount];
+        }
+
+        /**
+         * The cheapest candidate of each restaurant that could take the whole quantity, ordered by
+         * cost and then restaurant ID.
+         */
+        private CatalogCandidate[] bestPerRestaurant(List<CatalogCandidate> candidates, int quantity,
+                                                     Map<Long, Integer> restaurantIndex, List<Integer> capacities) {
+            Map<Long, CatalogCandidate> best = new HashMap<>();
+            for (CatalogCandidate candidate : candidates) {
+                Long restaurantId = candidate.getRestaurantId();
+                Integer index = restaurantIndex.get(restaurantId);
+                if (index == null) {
+                    index = capacities.size();
+                    restaurantIndex.put(restaurantId, index);
+                    capacities.add(capacityLedger.getAvailableCapacity(restaurantId));
+                }
+                if (capacities.get(index) < quantity) {
+                    continue;
+                }
+                best.merge(restaurantId, candidate, (a, b) -> unitCost(b) < unitCost(a) ? b : a);
+            }
+            return best.values().stream()
+                    .sorted(Comparator.comparingDouble(this::unitCost).thenComparing(CatalogCandidate::getRestaurantId))
+                    .toArray(CatalogCandidate[]::new);
+        }
+
+        private double unitCost(CatalogCandidate candidate) {
+            return OrderOptimizationStrategy.this.unitCost(candidate);
+        }
+
+        private CatalogCandidate[] run() {
+            seed();
+            if (best != null) {
+                improve();
+            }
+            if (bestCost > remainingBound[0] + EPSILON) {
+                branch(0, 0);
+            }
+            if (best == null) {
+                throw new RuntimeException("No restaurant assignment for the order fits the remaining capacity.");
+            }
+            if (nodes >= nodeBudget) {
+                LOGGER.debug("Order optimization stopped after {} nodes; using the best assignment found", nodes);
+            }
+
+            CatalogCandidate[] assignment = new CatalogCandidate[itemCount];
+            for (int k = 0; k < itemCount; k++) {
+                assignment[itemIndex[k]] = options[k][best[k]];
+            }
+            return assignment;
+        }
+
+        /**
+         * Seeds the incumbent with a regret-based greedy assignment: in every step, the item that would
+         * lose the most by not getting its best restaurant that still fits is assigned to it.
+         */
+        private void seed() {
+            boolean[] assigned = new boolean[itemCount];
+            double cost = 0;
+            for (int step = 0; step < itemCount; step++) {
+                int pick = -1;
+                int pickOption = -1;
+                double pickRegret = -1;
+                for (int k = 0; k < itemCount; k++) {
+                    if (assigned[k]) {
+                        continue;
+                    }
+                    int first = -1;
+                    int second = -1;
+                    for (int o = 0; o < options[k].length && second < 0; o++) {
+                        if (headroom[optionRestaurants[k][o]] >= quantities[k]) {
+                            if (first < 0) {
+                                first = o;
+                            } else {
+                                second = o;
+                            }
+                        }
+                    }
+                    if (first < 0) {
+                        apply(current, assigned, 1);
+                        return;
+                    }
+                    double regret = second < 0 ? Double.POSITIVE_INFINITY : optionCosts[k][second] - optionCosts[k][first];
+                    if (regret > pickRegret) {
+                        pick = k;
+                        pickOption = first;
+                        pickRegret = regret;
+                    }
+                }
+                assigned[pick] = true;
+                current[pick] = pickOption;
+                headroom[optionRestaurants[pick][pickOption]] -= quantities[pick];
+                cost += optionCosts[pick][pickOption];
+            }
+            apply(current, assigned, 1);
+            best = current.clone();
+            bestCost = cost;
+        }
+
+        /**
+         * Improves the incumbent with local search: moving one item to a cheaper restaurant that has
+         * room, or swapping the restaurants of two items, until neither helps.
+         */
+        private void improve() {
+            boolean[] all = new boolean[itemCount];
+            Arrays.fill(all, true);
+            apply(best, all, -1);
+            boolean improved = true;
+            for (int round = 0; improved && round < MAX_IMPROVEMENT_ROUNDS; round++) {
+                improved = false;
+                for (int k = 0; k < itemCount; k++) {
+                    for (int o = 0; o < best[k]; o++) {
+                        if (headroom[optionRestaurants[k][o]] >= quantities[k]) {
+                            headroom[optionRestaurants[k][best[k]]] += quantities[k];
+                            headroom[optionRestaurants[k][o]] -= quantities[k];
+                            bestCost += optionCosts[k][o] - optionCosts[k][best[k]];
+                            best[k] = o;
+                            improved = true;
+                            break;
+                        }
+                    }
+                }
+                for (int a = 0; a < itemCount; a++) {
+                    for (int b = a + 1; b < itemCount; b++) {
+                        improved |= trySwap(a, b);
+                    }
+                }
+            }
+            apply(best, all, 1);
+        }
+
+        private boolean trySwap(int a, int b) {
+            int restaurantA = optionRestaurants[a][best[a]];
+            int restaurantB = optionRestaurants[b][best[b]];
+            if (restaurantA == restaurantB) {
+                return false;
+            }
+            int optionA = optionAtRestaurant[a][restaurantB];
+            int optionB = optionAtRestaurant[b][restaurantA];
+            if (optionA < 0 || optionB < 0
+                    || headroom[restaurantA] + quantities[a] < quantities[b]
+                    || headroom[restaurantB] + quantities[b] < quantities[a]) {
+                return false;
+            }
+            double gain = optionCosts[a][best[a]] + optionCosts[b][best[b]] - optionCosts[a][optionA] - optionCosts[b][optionB];
+            if (gain <= EPSILON) {
+                return false;
+            }
+            headroom[restaurantA] += quantities[a] - quantities[b];
+            headroom[restaurantB] += quantities[b] - quantities[a];
+            best[a] = optionA;
+            best[b] = optionB;
+            bestCost -= gain;
+            return true;
+        }
+
+        /**
+         * Gives back (sign 1) or takes (sign -1) the capacity used by the selected items of an assignment.
+         */
+        private void apply(int[] assignment, boolean[] selected, int sign) {
+            for (int k = 0; k < itemCount; k++) {
+                if (selected[k]) {
+                    headroom[optionRestaurants[k][assignment[k]]] += sign * quantities[k];
+                }
+            }
+        }
+
+        private void branch(int k, double cost) {
+            if (k == itemCount) {
+                bestCost = cost;
+                best = current.clone();
+                return;
+            }
+            for (int o = 0; o < options[k].length && nodes < nodeBudget; o++) {
+                double next = cost + optionCosts[k][o];
+                if (next + remainingBound[k + 1] >= bestCost - EPSILON) {
+                    // Options are ordered by cost, so no later option can do better either
+                    return;
+                }
+                int restaurant = optionRestaurants[k][o];
+                if (headroom[restaurant] < quantities[k]) {
+                    continue;
+                }
+                nodes++;
+                headroom[restaurant] -= quantities[k];
+                current[k] = o;
+                branch(k + 1, next);
+                headroom[restaurant] += quantities[k];
+            }
+        }
+    }
+}
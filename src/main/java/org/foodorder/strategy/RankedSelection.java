@@ -0,0 +1,56 @@
+package org.foodorder.strategy;
+
+import org.foodorder.model.CatalogCandidate;
+import org.foodorder.model.OrderItemRequest;
+import org.foodorder.service.RestaurantCapacityLedger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Selection from a list of candidates that is already ranked best first, as cached by the
+ * {@link org.foodorder.service.MenuCatalogIndex}.
+ */
+final class RankedSelection {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RankedSelection.class);
+
+    private RankedSelection() {
+    }
+
+    /**
+     * Returns the best-ranked candidate whose restaurant has room for the cart item, counting the
+     * items already assigned to it within the same order. If no restaurant has room, or capacity is
+     * not checked, the best-ranked candidate is returned.
+     *
+     * @param ranked         The candidates offering the cart item, best first.
+     * @param menuItem       The cart item for which the selection is being made.
+     * @param claimed        The number of items already assigned to each restaurant, keyed by restaurant ID.
+     * @param capacityLedger The ledger to read the remaining capacity of restaurants from.
+     * @param capacityAware  Whether to skip restaurants without room for the item.
+     * @return The selected candidate.
+     * @throws NoSuchElementException If there are no candidates.
+     */
+    static CatalogCandidate firstWithRoom(List<CatalogCandidate> ranked, OrderItemRequest menuItem,
+                                          Map<Long, Integer> claimed, RestaurantCapacityLedger capacityLedger,
+                                          boolean capacityAware) {
+        if (ranked.isEmpty()) {
+            LOGGER.error("No catalog candidate found for menu item: {}", menuItem.getName());
+            throw new NoSuchElementException("No restaurant available for the given customer request.");
+        }
+        if (!capacityAware) {
+            return ranked.get(0);
+        }
+        for (CatalogCandidate candidate : ranked) {
+            Long restaurantId = candidate.getRestaurantId();
+            if (capacityLedger.canReserve(restaurantId, menuItem.getQuantity() + claimed.getOrDefault(restaurantId, 0))) {
+                return candidate;
+            }
+        }
+        LOGGER.warn("No restaurant has capacity left for menu item: {}", menuItem.getName());
+        return ranked.get(0);
+    }
+}
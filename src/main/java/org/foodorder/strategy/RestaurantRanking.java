@@ -0,0 +1,147 @@
+package org.foodorder.strategy;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Ranks restaurants by the scores of {@link RestaurantSelectionStrategy#scoreRestaurants(java.util.List)}
+ * without sorting all of them. Ranks are positions in the scored list: a higher score ranks first,
+ * and equal scores keep the order of the list, like a stable sort would.
+ */
+public final class RestaurantRanking {
+
+    private RestaurantRanking() {
+    }
+
+    /**
+     * Finds the {@code k} best-ranked positions with a bounded heap, in O(n log k).
+     *
+     * @param scores The score of each restaurant.
+     * @param k      The number of positions to return.
+     * @return The positions of the best {@code min(k, n)} restaurants, best first.
+     */
+    public static int[] topK(double[] scores, int k) {
+        int size = Math.max(0, Math.min(k, scores.length));
+        if (size == 0) {
+            return new int[0];
+        }
+        // Min-heap of the best positions seen so far, the worst of them at the root
+        int[] heap = new int[size];
+        int heapSize = 0;
+        for (int i = 0; i < scores.length; i++) {
+            if (heapSize < size) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++, scores, false);
+            } else if (ranksBefore(i, heap[0], scores)) {
+                heap[0] = i;
+                siftDown(heap, 0, heapSize, scores, false);
+            }
+        }
+        int[] top = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            top[i] = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, 0, heapSize, scores, false);
+        }
+        return top;
+    }
+
+    /**
+     * Returns the positions in rank order, extending the ranking only as far as it is read: the
+     * heap is built in O(n) on first use and every further position costs O(log n), so reading the
+     * first page of k restaurants costs O(n + k log n).
+     *
+     * @param scores The score of each restaurant; must not change while iterating.
+     * @return An iterator over all positions, best first.
+     */
+    public static PrimitiveIterator.OfInt ranked(double[] scores) {
+        return new RankedIterator(scores);
+    }
+
+    /**
+     * @return true if position {@code a} ranks before position {@code b}.
+     */
+    private static boolean ranksBefore(int a, int b, double[] scores) {
+        int byScore = Double.compare(scores[a], scores[b]);
+        return byScore > 0 || (byScore == 0 && a < b);
+    }
+
+    /**
+     * @return true if {@code a} belongs nearer the root than {@code b}: the better position in a
+     * max-heap, the worse one in a min-heap.
+     */
+    private static boolean above(int a, int b, double[] scores, boolean maxHeap) {
+        return maxHeap ? ranksBefore(a, b, scores) : ranksBefore(b, a, scores);
+    }
+
+    private static void siftUp(int[] heap, int index, double[] scores, boolean maxHeap) {
+        int value = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!above(value, heap[parent], scores, maxHeap)) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+
+    private static void siftDown(int[] heap, int index, int heapSize, double[] scores, boolean maxHeap) {
+        int value = heap[index];
+        int half = heapSize >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < heapSize && above(heap[right], heap[child], scores, maxHeap)) {
+                child = right;
+            }
+            if (!above(heap[child], value, scores, maxHeap)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = value;
+    }
+
+    /**
+     * Pops positions from a max-heap that is built on first use.
+     */
+    private static final class RankedIterator implements PrimitiveIterator.OfInt {
+
+        private final double[] scores;
+        private int[] heap;
+        private int heapSize;
+
+        private RankedIterator(double[] scores) {
+            this.scores = scores;
+            this.heapSize = scores.length;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return heapSize > 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (heapSize == 0) {
+                throw new NoSuchElementException();
+            }
+            if (heap == null) {
+                heap = new int[heapSize];
+                for (int i = 0; i < heapSize; i++) {
+                    heap[i] = i;
+                }
+                for (int i = (heapSize >>> 1) - 1; i >= 0; i--) {
+                    siftDown(heap, i, heapSize, scores, true);
+                }
+            }
+            int next = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, 0, heapSize, scores, true);
+            return next;
+        }
+    }
+}
@@ -2,9 +2,16 @@ package org.foodorder.strategy;
 
 import org.foodorder.entity.RestaurantEntity;
 import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.model.CatalogCandidate;
+import org.foodorder.model.GeoPoint;
 import org.foodorder.model.OrderItemRequest;
+import org.foodorder.model.ScoringWeights;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * Strategy interface for selecting and sorting restaurants based on different criteria such as price, rating, or customer-specific requests.
@@ -12,6 +19,36 @@ import java.util.List;
  */
 public interface RestaurantSelectionStrategy {
 
+    /**
+     * The name customers use to request this strategy, e.g. "price" or "rating". Names are unique
+     * among the strategies known to the {@link StrategyRegistry} and compared ignoring case.
+     *
+     * @return The name of the strategy.
+     */
+    String getName();
+
+    /**
+     * Returns this strategy with per-request scoring weights applied. Strategies that do not blend
+     * several criteria ignore the weights and return themselves.
+     *
+     * @param weights The weights sent with the order, or null to keep the configured ones.
+     * @return A strategy that scores with the given weights.
+     */
+    default RestaurantSelectionStrategy withWeights(ScoringWeights weights) {
+        return this;
+    }
+
+    /**
+     * Returns this strategy measuring distances from the delivery location of an order. Strategies
+     * that do not consider distance ignore the origin and return themselves.
+     *
+     * @param origin The location the order is delivered to, or null if it is unknown.
+     * @return A strategy that measures distances from the given origin.
+     */
+    default RestaurantSelectionStrategy withOrigin(GeoPoint origin) {
+        return this;
+    }
+
     /**
      * Selects the best restaurant from a list of available restaurants for a given menu item.
      * The selection is based on the strategy's implementation, which could be lowest price, highest rating, etc.
@@ -31,6 +68,15 @@ public interface RestaurantSelectionStrategy {
      */
     List<RestaurantEntity> sortRestaurants(List<RestaurantEntity> restaurants);
 
+    /**
+     * Scores restaurants for ranking with {@link RestaurantRanking}: a restaurant with a higher score
+     * ranks first, consistent with {@link #sortRestaurants(List)}. Scores are never NaN.
+     *
+     * @param restaurants The list of restaurants to be scored.
+     * @return The score of each restaurant, in the order of the list.
+     */
+    double[] scoreRestaurants(List<RestaurantEntity> restaurants);
+
     /**
      * Selects the best restaurant from a list of available restaurants based on a customer-specific request.
      * This method allows for custom selection logic where the restaurant is selected as per the customer's preferences, such as specific items or requirements.
@@ -40,4 +86,64 @@ public interface RestaurantSelectionStrategy {
      * @return The selected RestaurantEntity based on customer-specific request criteria.
      */
     RestaurantEntity selectRestaurantAsPerCustomerRequest(List<RestaurantEntity> restaurants, OrderItemRequest menuItem);
-}
\ No newline at end of file
+
+    /**
+     * Selects the best candidate for a cart item from the candidates of the in-memory menu catalog.
+     * Unlike the entity-based methods, this needs no database access.
+     *
+     * @param candidates The menu items offering the cart item, ordered by restaurant ID then menu item ID.
+     * @param menuItem The cart item that the customer is ordering.
+     * @return The selected CatalogCandidate based on the strategy's criteria.
+     */
+    CatalogCandidate selectCandidate(List<CatalogCandidate> candidates, OrderItemRequest menuItem);
+
+    /**
+     * Selects the best candidate for a cart item straight from the in-memory menu catalog.
+     *
+     * @param menuItem The cart item that the customer is ordering.
+     * @return The selected CatalogCandidate based on the strategy's criteria.
+     * @throws java.util.NoSuchElementException If no restaurant offers the cart item.
+     */
+    CatalogCandidate selectCandidate(OrderItemRequest menuItem);
+
+    /**
+     * Selects the best candidate for a cart item like {@link #selectCandidate(OrderItemRequest)}, given
+     * the capacity already claimed by earlier items of the same order. Strategies that skip saturated
+     * restaurants use it to count those items against the headroom; by default it is ignored.
+     *
+     * @param menuItem The cart item that the customer is ordering.
+     * @param claimed  The number of items already assigned to each restaurant, keyed by restaurant ID.
+     * @return The selected CatalogCandidate based on the strategy's criteria.
+     * @throws java.util.NoSuchElementException If no restaurant offers the cart item.
+     */
+    default CatalogCandidate selectCandidate(OrderItemRequest menuItem, Map<Long, Integer> claimed) {
+        return selectCandidate(menuItem);
+    }
+
+    /**
+     * Assigns every item of an order to a restaurant and sets the selected menu item ID and price on
+     * each item. By default the items are assigned one at a time with {@link #selectCandidate(OrderItemRequest, Map)};
+     * strategies that optimize the order as a whole override this.
+     *
+     * @param items The items of the order.
+     * @return A map of restaurant IDs to the items each restaurant will fulfill.
+     * @throws NoSuchElementException If no restaurant offers one of the items.
+     */
+    default Map<Long, List<OrderItemRequest>> assignItems(List<OrderItemRequest> items) {
+        Map<Long, List<OrderItemRequest>> groupedItems = new HashMap<>();
+        Map<Long, Integer> claimed = new HashMap<>();
+        for (OrderItemRequest item : items) {
+            CatalogCandidate selected;
+            try {
+                selected = selectCandidate(item, claimed);
+            } catch (NoSuchElementException e) {
+                throw new NoSuchElementException("No restaurants available for menu item: " + item.getName());
+            }
+            claimed.merge(selected.getRestaurantId(), item.getQuantity(), Integer::sum);
+            item.setMenuItemId(selected.getMenuItemId());
+            item.setPrice(selected.getPrice());
+            groupedItems.computeIfAbsent(selected.getRestaurantId(), k -> new ArrayList<>()).add(item);
+        }
+        return groupedItems;
+    }
+}
@@ -0,0 +1,82 @@
+package org.foodorder.strategy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Registry of every {@link RestaurantSelectionStrategy} bean, keyed by {@link RestaurantSelectionStrategy#getName()}.
+ * A new strategy becomes selectable by customers as soon as it is declared as a bean, without
+ * touching the services that select restaurants.
+ */
+@Component
+public class StrategyRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StrategyRegistry.class);
+
+    private final Map<String, RestaurantSelectionStrategy> strategies = new TreeMap<>();
+    private final RestaurantSelectionStrategy defaultStrategy;
+
+    /**
+     * @param strategies      every strategy bean of the application context
+     * @param defaultStrategy the name of the strategy used when none or an unknown one is requested
+     * @throws IllegalStateException If two strategies share a name or the default strategy does not exist.
+     */
+    public StrategyRegistry(List<RestaurantSelectionStrategy> strategies,
+                            @Value("${selection.default-strategy:rating}") String defaultStrategy) {
+        for (RestaurantSelectionStrategy strategy : strategies) {
+            RestaurantSelectionStrategy previous = this.strategies.putIfAbsent(normalize(strategy.getName()), strategy);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate restaurant selection strategy name: " + strategy.getName());
+            }
+        }
+        this.defaultStrategy = this.strategies.get(normalize(defaultStrategy));
+        if (this.defaultStrategy == null) {
+            throw new IllegalStateException("Unknown default restaurant selection strategy: " + defaultStrategy);
+        }
+        LOGGER.info("Registered restaurant selection strategies: {}", this.strategies.keySet());
+    }
+
+    /**
+     * Resolves the strategy requested by the customer, falling back to the default strategy.
+     *
+     * @param name The name of the strategy, ignoring case; may be null.
+     * @return The strategy with the given name, or the default strategy if there is none.
+     */
+    public RestaurantSelectionStrategy resolve(String name) {
+        return find(name).orElseGet(() -> {
+            if (name != null && !name.isBlank()) {
+                LOGGER.debug("Unknown strategy {}, using {}", name, defaultStrategy.getName());
+            }
+            return defaultStrategy;
+        });
+    }
+
+    /**
+     * @param name The name of the strategy, ignoring case; may be null.
+     * @return The strategy with the given name, or empty if there is none.
+     */
+    public Optional<RestaurantSelectionStrategy> find(String name) {
+        return name == null ? Optional.empty() : Optional.ofNullable(strategies.get(normalize(name)));
+    }
+
+    /**
+     * @return The names of all registered strategies, in alphabetical order.
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(strategies.keySet());
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -85,6 +85,9 @@ VALUES
     (11, 'Pork Dumplings', 'Steamed dumplings filled with pork.', 7.99, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
     (11, 'Sushi Sashimi Platter', 'Assorted raw fish slices.', 19.99, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
 
+-- Lowest menu item price per restaurant, kept up to date by the application afterwards
+UPDATE restaurant r SET min_menu_price = (SELECT MIN(m.price) FROM menu_item m WHERE m.restaurant_id = r.id);
+
 INSERT INTO customers (id, name, email, password, phone_number, address)
 VALUES
     (123, 'Alice Johnson', 'alice.johnson@example.com', 'hashed_password_1', '555-1234', '123 Maple Street, Springfield, IL'),
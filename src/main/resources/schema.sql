@@ -35,10 +35,19 @@ CREATE TABLE restaurant
     is_open           BOOLEAN NOT NULL DEFAULT TRUE,
     max_capacity      INT NOT NULL DEFAULT 50,
     current_processing_load INT NOT NULL DEFAULT 0,
+    preparation_time_ms INT NOT NULL DEFAULT 3000,
+    min_menu_price    DECIMAL(10, 2),
     created_at        TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at        TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 );
 
+-- Keyset pagination of the restaurant listing seeks on (sort key, id)
+CREATE INDEX idx_restaurant_rating_id ON restaurant (rating DESC, id);
+CREATE INDEX idx_restaurant_min_menu_price_id ON restaurant (min_menu_price, id);
+CREATE INDEX idx_restaurant_name_id ON restaurant (name, id);
+-- The capacity reconciler only reads the rows that hold load
+CREATE INDEX idx_restaurant_current_processing_load ON restaurant (current_processing_load);
+
 
 -- -- Menu Item Table
 CREATE TABLE menu_item
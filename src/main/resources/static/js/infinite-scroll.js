@@ -0,0 +1,29 @@
+// Appends the next page of a listing when its last element, marked with data-next, scrolls into view.
+// The next page is rendered by the server as a fragment ending in its own data-next marker, if any.
+(function () {
+    let observer = new IntersectionObserver(function (entries) {
+        entries.forEach(function (entry) {
+            if (!entry.isIntersecting) {
+                return;
+            }
+            let marker = entry.target;
+            observer.unobserve(marker);
+            fetch(marker.dataset.next)
+                .then(function (response) {
+                    if (!response.ok) {
+                        throw new Error("Failed to load the next page: " + response.status);
+                    }
+                    return response.text();
+                })
+                .then(function (html) {
+                    let container = marker.parentElement;
+                    marker.remove();
+                    container.insertAdjacentHTML("beforeend", html);
+                    container.querySelectorAll("[data-next]").forEach(function (next) { observer.observe(next); });
+                })
+                .catch(function () { observer.observe(marker); });
+        });
+    }, {rootMargin: "200px"});
+
+    document.querySelectorAll("[data-next]").forEach(function (marker) { observer.observe(marker); });
+})();
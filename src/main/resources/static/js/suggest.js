@@ -0,0 +1,30 @@
+// Completes search inputs marked with data-suggest from /search/suggest as the user types.
+document.querySelectorAll("input[data-suggest]").forEach(function (input) {
+    let list = document.createElement("datalist");
+    list.id = input.id + "-suggestions";
+    input.after(list);
+    input.setAttribute("list", list.id);
+    input.setAttribute("autocomplete", "off");
+
+    let timer;
+    input.addEventListener("input", function () {
+        clearTimeout(timer);
+        let prefix = input.value.trim();
+        if (!prefix) {
+            list.replaceChildren();
+            return;
+        }
+        timer = setTimeout(function () {
+            fetch(input.dataset.suggest + "?prefix=" + encodeURIComponent(prefix))
+                .then(function (response) { return response.ok ? response.json() : []; })
+                .then(function (suggestions) {
+                    list.replaceChildren(...suggestions.map(function (suggestion) {
+                        let option = document.createElement("option");
+                        option.value = suggestion.text;
+                        return option;
+                    }));
+                })
+                .catch(function () { list.replaceChildren(); });
+        }, 100);
+    });
+});
@@ -0,0 +1,109 @@
+package org.foodorder.benchmark;
+
+import org.foodorder.service.RestaurantExecutorService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the POOLED and VIRTUAL kitchen execution modes of {@link RestaurantExecutorService}
+ * with orders spread over 10k restaurants. Each order sleeps for a short preparation time, like the
+ * kitchen tasks in {@code OrderServiceImpl}. Besides the time per batch of orders, the peak number of
+ * live threads is reported as the {@code peakThreads} counter.
+ * <p>
+ * Not run by the test suite. Run {@link #main(String[])} from the IDE, or:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main KitchenExecutionModeBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class KitchenExecutionModeBenchmark {
+
+    @Param({"pooled", "virtual", "fair"})
+    private String mode;
+
+    @Param({"10000"})
+    private int restaurants;
+
+    @Param({"50"})
+    private int maxCapacity;
+
+    @Param({"20000"})
+    private int orders;
+
+    @Param({"2"})
+    private int preparationMillis;
+
+    private RestaurantExecutorService executorService;
+
+    /**
+     * Peak live thread count, reported next to the timing results.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ThreadCounters {
+        public long peakThreads;
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        executorService = new RestaurantExecutorService(mode, 256, 600_000, 10_000, 0);
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        executorService.shutdownAllExecutors();
+    }
+
+    @Benchmark
+    public void placeOrders(ThreadCounters counters) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(orders);
+        for (int i = 0; i < orders; i++) {
+            long restaurantId = i % restaurants;
+            executorService.getExecutorServiceForRestaurant(restaurantId, maxCapacity).execute(() -> {
+                try {
+                    Thread.sleep(preparationMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        counters.peakThreads = Math.max(counters.peakThreads, threads.getPeakThreadCount());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(KitchenExecutionModeBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,129 @@
+package org.foodorder.benchmark;
+
+import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.repository.MenuItemRepository;
+import org.foodorder.repository.RestaurantRepository;
+import org.foodorder.service.MenuSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures full-text queries against the {@link MenuSearchIndex} for a catalog of generated menu
+ * items: a rare term, a common term, and two common terms that must both match, spelled
+ * correctly and misspelled. The misspelled queries also report percentiles, p99 included.
+ * <p>
+ * Not run by the test suite. Run {@link #main(String[])} from the IDE, or:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -Xmx4g -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main MenuSearchBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MenuSearchBenchmark {
+
+    private static final String[] STYLES = {"spicy", "grilled", "crispy", "smoked", "roasted", "garlic", "lemon",
+            "honey", "sweet", "sour", "creamy", "baked", "fried", "steamed", "braised", "tandoori"};
+    private static final String[] INGREDIENTS = {"chicken", "beef", "pork", "tofu", "shrimp", "salmon", "lamb",
+            "mushroom", "paneer", "duck", "egg", "bean", "potato", "cheese", "spinach", "corn"};
+    private static final String[] DISHES = {"pizza", "tacos", "burger", "curry", "noodles", "salad", "soup",
+            "sandwich", "burrito", "ramen", "biryani", "dumplings", "wrap", "bowl", "pasta", "risotto"};
+
+    @Param({"1000000"})
+    private int menuItems;
+
+    @Param({"20"})
+    private int limit;
+
+    private MenuSearchIndex searchIndex;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        int restaurantCount = menuItems / 50;
+        List<RestaurantEntity> restaurants = new ArrayList<>(restaurantCount);
+        for (long id = 1; id <= restaurantCount; id++) {
+            RestaurantEntity restaurant = new RestaurantEntity();
+            restaurant.setId(id);
+            restaurant.setName("Restaurant " + id);
+            restaurant.setCuisineType(DISHES[random.nextInt(DISHES.length)] + " house");
+            restaurants.add(restaurant);
+        }
+        List<MenuItemEntity> items = new ArrayList<>(menuItems);
+        for (long id = 1; id <= menuItems; id++) {
+            MenuItemEntity menuItem = new MenuItemEntity();
+            menuItem.setId(id);
+            menuItem.setRestaurantId(1 + random.nextLong(restaurantCount));
+            menuItem.setName(STYLES[random.nextInt(STYLES.length)] + " " + INGREDIENTS[random.nextInt(INGREDIENTS.length)]
+                    + " " + DISHES[random.nextInt(DISHES.length)]);
+            menuItem.setDescription("Served with " + INGREDIENTS[random.nextInt(INGREDIENTS.length)] + " and house sauce #"
+                    + random.nextInt(menuItems));
+            items.add(menuItem);
+        }
+
+        RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+        MenuItemRepository menuItemRepository = mock(MenuItemRepository.class);
+        when(restaurantRepository.findAll()).thenReturn(restaurants);
+        when(menuItemRepository.findAll()).thenReturn(items);
+        searchIndex = new MenuSearchIndex(menuItemRepository, restaurantRepository);
+        searchIndex.rebuild();
+    }
+
+    @Benchmark
+    public List<Long> rareTerm() {
+        return searchIndex.searchMenuItems("sauce 4242", limit);
+    }
+
+    @Benchmark
+    public List<Long> commonTerm() {
+        return searchIndex.searchMenuItems("biryani", limit);
+    }
+
+    @Benchmark
+    public List<Long> twoCommonTerms() {
+        return searchIndex.searchMenuItems("spicy chicken", limit);
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+    public List<Long> misspelledTerm() {
+        return searchIndex.searchMenuItems("biriyani", limit);
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+    public List<Long> twoMisspelledTerms() {
+        return searchIndex.searchMenuItems("spicey chiken", limit);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MenuSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,150 @@
+package org.foodorder.benchmark;
+
+import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.OrderItemRequest;
+import org.foodorder.model.ScoringWeights;
+import org.foodorder.repository.RestaurantRepository;
+import org.foodorder.service.MenuCatalogIndex;
+import org.foodorder.service.RestaurantCapacityLedger;
+import org.foodorder.service.RestaurantGeoIndex;
+import org.foodorder.service.ZipCentroidGeocoder;
+import org.foodorder.strategy.CompositeScoringStrategy;
+import org.foodorder.strategy.ConsolidationStrategy;
+import org.foodorder.strategy.HighestRatingStrategy;
+import org.foodorder.strategy.LowestCostStrategy;
+import org.foodorder.strategy.OrderOptimizationStrategy;
+import org.foodorder.strategy.RestaurantSelectionStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares the time to assign a whole order with the greedy per-item strategies ("price", "rating",
+ * "composite"), the {@link ConsolidationStrategy} ("consolidated-price") and the whole-order
+ * {@link OrderOptimizationStrategy} ("optimal-price", "optimal-rating").
+ * The catalog offers every dish at a random subset of the restaurants, and restaurants have little
+ * capacity left, so the optimizer has to work around contended restaurants.
+ * <p>
+ * Not run by the test suite. Run {@link #main(String[])} from the IDE, or:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main OrderAssignmentBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class OrderAssignmentBenchmark {
+
+    @Param({"price", "rating", "composite", "consolidated-price", "optimal-price", "optimal-rating"})
+    private String strategy;
+
+    @Param({"300"})
+    private int restaurants;
+
+    @Param({"40"})
+    private int dishes;
+
+    @Param({"50"})
+    private int items;
+
+    @Param({"20000"})
+    private int nodeBudget;
+
+    private RestaurantSelectionStrategy selectionStrategy;
+    private List<OrderItemRequest> order;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Map<Long, RestaurantEntity> restaurantsById = new HashMap<>();
+        RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+        when(restaurantRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(restaurantsById.get(invocation.<Long>getArgument(0))));
+
+        MenuCatalogIndex catalogIndex = new MenuCatalogIndex(null, restaurantRepository);
+        long menuItemId = 1;
+        for (long restaurantId = 1; restaurantId <= restaurants; restaurantId++) {
+            RestaurantEntity restaurant = new RestaurantEntity();
+            restaurant.setId(restaurantId);
+            restaurant.setRating(BigDecimal.valueOf(30 + random.nextInt(21), 1));
+            restaurant.setMaxCapacity(10);
+            restaurant.setCurrentProcessingLoad(6 + random.nextInt(5));
+            restaurantsById.put(restaurantId, restaurant);
+            catalogIndex.putRestaurant(restaurant);
+
+            for (int dish = 0; dish < dishes; dish++) {
+                if (random.nextInt(4) == 0) {
+                    MenuItemEntity menuItem = new MenuItemEntity();
+                    menuItem.setId(menuItemId++);
+                    menuItem.setRestaurantId(restaurantId);
+                    menuItem.setName("Dish " + dish);
+                    menuItem.setPrice(BigDecimal.valueOf(500 + random.nextInt(1500), 2));
+                    catalogIndex.putMenuItem(menuItem);
+                }
+            }
+        }
+
+        RestaurantCapacityLedger capacityLedger = new RestaurantCapacityLedger(restaurantRepository);
+        restaurantsById.keySet().forEach(capacityLedger::getLoad);
+
+        selectionStrategy = switch (strategy) {
+            case "price" -> new LowestCostStrategy(catalogIndex, capacityLedger, true);
+            case "rating" -> new HighestRatingStrategy(catalogIndex, capacityLedger, true);
+            case "composite" -> new CompositeScoringStrategy(catalogIndex, capacityLedger,
+                    new RestaurantGeoIndex(restaurantRepository, new ZipCentroidGeocoder("geo/zip-centroids.csv")),
+                    new ScoringWeights(0.4, 0.3, 0.2, 0.1));
+            case "consolidated-price" -> new ConsolidationStrategy(catalogIndex, capacityLedger,
+                    OrderOptimizationStrategy.Objective.PRICE, 0.15);
+            case "optimal-price" -> new OrderOptimizationStrategy(catalogIndex, capacityLedger,
+                    OrderOptimizationStrategy.Objective.PRICE, nodeBudget);
+            default -> new OrderOptimizationStrategy(catalogIndex, capacityLedger,
+                    OrderOptimizationStrategy.Objective.RATING, nodeBudget);
+        };
+
+        order = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            // "Dish 1" also matches "Dish 10".."Dish 19", like the name search of the catalog
+            order.add(new OrderItemRequest("Dish " + random.nextInt(dishes), 1 + random.nextInt(3)));
+        }
+    }
+
+    @Benchmark
+    public Map<Long, List<OrderItemRequest>> assignOrder() {
+        return selectionStrategy.assignItems(order);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderAssignmentBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,118 @@
+package org.foodorder.benchmark;
+
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.GeoPoint;
+import org.foodorder.repository.RestaurantRepository;
+import org.foodorder.service.RestaurantGeoIndex;
+import org.foodorder.service.ZipCentroidGeocoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares finding the k nearest restaurants with the grid of {@link RestaurantGeoIndex} against
+ * measuring and sorting every restaurant, for restaurants spread over the continental US.
+ * <p>
+ * Not run by the test suite. Run {@link #main(String[])} from the IDE, or:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main RestaurantGeoIndexBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class RestaurantGeoIndexBenchmark {
+
+    @Param({"100000"})
+    private int restaurants;
+
+    @Param({"10"})
+    private int k;
+
+    private RestaurantGeoIndex geoIndex;
+    private List<GeoPoint> locations;
+    private GeoPoint[] origins;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Map<String, GeoPoint> centroids = new HashMap<>();
+        List<RestaurantEntity> entities = new ArrayList<>(restaurants);
+        locations = new ArrayList<>(restaurants);
+        for (int id = 1; id <= restaurants; id++) {
+            GeoPoint location = new GeoPoint(25 + random.nextDouble() * 24, -124 + random.nextDouble() * 57);
+            String zipCode = Integer.toString(id);
+            centroids.put(zipCode, location);
+            locations.add(location);
+            RestaurantEntity restaurant = new RestaurantEntity();
+            restaurant.setId((long) id);
+            restaurant.setZipCode(zipCode);
+            entities.add(restaurant);
+        }
+        RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+        when(restaurantRepository.findAll()).thenReturn(entities);
+        geoIndex = new RestaurantGeoIndex(restaurantRepository, new ZipCentroidGeocoder(centroids));
+        geoIndex.rebuild();
+
+        origins = new GeoPoint[1024];
+        for (int i = 0; i < origins.length; i++) {
+            origins[i] = new GeoPoint(25 + random.nextDouble() * 24, -124 + random.nextDouble() * 57);
+        }
+    }
+
+    @Benchmark
+    public List<Long> gridNearest() {
+        return geoIndex.nearest(nextOrigin(), k, Double.POSITIVE_INFINITY);
+    }
+
+    @Benchmark
+    public List<Long> sortAllByDistance() {
+        GeoPoint origin = nextOrigin();
+        double[] distances = new double[locations.size()];
+        List<Long> ids = new ArrayList<>(locations.size());
+        for (int i = 0; i < distances.length; i++) {
+            distances[i] = locations.get(i).distanceKm(origin);
+            ids.add((long) i + 1);
+        }
+        ids.sort(Comparator.comparingDouble(id -> distances[(int) (id - 1)]));
+        return ids.subList(0, k);
+    }
+
+    private GeoPoint nextOrigin() {
+        next = (next + 1) & (origins.length - 1);
+        return origins[next];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RestaurantGeoIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
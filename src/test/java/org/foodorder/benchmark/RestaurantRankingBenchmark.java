@@ -0,0 +1,115 @@
+package org.foodorder.benchmark;
+
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.service.MenuCatalogIndex;
+import org.foodorder.service.RestaurantCapacityLedger;
+import org.foodorder.strategy.HighestRatingStrategy;
+import org.foodorder.strategy.LowestCostStrategy;
+import org.foodorder.strategy.RestaurantRanking;
+import org.foodorder.strategy.RestaurantSelectionStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Compares the time to get the first page of ranked restaurants by fully sorting the candidates
+ * with {@link RestaurantSelectionStrategy#sortRestaurants(List)}, by a bounded-heap top-K with
+ * {@link RestaurantRanking#topK(double[], int)}, and by reading one page from the lazily extended
+ * {@link RestaurantRanking#ranked(double[])} iterator.
+ * <p>
+ * Not run by the test suite. Run {@link #main(String[])} from the IDE, or:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main RestaurantRankingBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class RestaurantRankingBenchmark {
+
+    @Param({"rating", "price"})
+    private String strategy;
+
+    @Param({"100000"})
+    private int candidates;
+
+    @Param({"20"})
+    private int pageSize;
+
+    private RestaurantSelectionStrategy selectionStrategy;
+    private List<RestaurantEntity> restaurants;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        restaurants = new ArrayList<>(candidates);
+        for (long id = 1; id <= candidates; id++) {
+            RestaurantEntity restaurant = new RestaurantEntity();
+            restaurant.setId(id);
+            restaurant.setRating(BigDecimal.valueOf(100 + random.nextInt(400), 2));
+            restaurant.setMinMenuPrice(BigDecimal.valueOf(300 + random.nextInt(3000), 2));
+            restaurants.add(restaurant);
+        }
+
+        MenuCatalogIndex catalogIndex = mock(MenuCatalogIndex.class);
+        RestaurantCapacityLedger capacityLedger = mock(RestaurantCapacityLedger.class);
+        selectionStrategy = "price".equals(strategy)
+                ? new LowestCostStrategy(catalogIndex, capacityLedger, true)
+                : new HighestRatingStrategy(catalogIndex, capacityLedger, true);
+    }
+
+    @Benchmark
+    public List<RestaurantEntity> fullSort() {
+        return selectionStrategy.sortRestaurants(restaurants).subList(0, pageSize);
+    }
+
+    @Benchmark
+    public List<RestaurantEntity> topK() {
+        int[] top = RestaurantRanking.topK(selectionStrategy.scoreRestaurants(restaurants), pageSize);
+        List<RestaurantEntity> page = new ArrayList<>(top.length);
+        for (int index : top) {
+            page.add(restaurants.get(index));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<RestaurantEntity> rankedIteratorPage() {
+        PrimitiveIterator.OfInt ranked = RestaurantRanking.ranked(selectionStrategy.scoreRestaurants(restaurants));
+        List<RestaurantEntity> page = new ArrayList<>(pageSize);
+        while (page.size() < pageSize && ranked.hasNext()) {
+            page.add(restaurants.get(ranked.nextInt()));
+        }
+        return page;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RestaurantRankingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,110 @@
+package org.foodorder.benchmark;
+
+import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.model.Suggestion;
+import org.foodorder.repository.MenuItemRepository;
+import org.foodorder.repository.OrderItemRepository;
+import org.foodorder.repository.RestaurantRepository;
+import org.foodorder.service.SuggestionIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures top-10 completions from the {@link SuggestionIndex} over a catalog of generated menu
+ * item names: a one-letter prefix matching a large share of the names, a word prefix and a prefix
+ * spanning two words.
+ * <p>
+ * Not run by the test suite. Run {@link #main(String[])} from the IDE, or:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -Xmx4g -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main SuggestionBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SuggestionBenchmark {
+
+    private static final String[] STYLES = {"spicy", "grilled", "crispy", "smoked", "roasted", "garlic", "lemon",
+            "honey", "sweet", "sour", "creamy", "baked", "fried", "steamed", "braised", "tandoori"};
+    private static final String[] INGREDIENTS = {"chicken", "beef", "pork", "tofu", "shrimp", "salmon", "lamb",
+            "mushroom", "paneer", "duck", "egg", "bean", "potato", "cheese", "spinach", "corn"};
+    private static final String[] DISHES = {"pizza", "tacos", "burger", "curry", "noodles", "salad", "soup",
+            "sandwich", "burrito", "ramen", "biryani", "dumplings", "wrap", "bowl", "pasta", "risotto"};
+
+    @Param({"1000000"})
+    private int menuItems;
+
+    private SuggestionIndex suggestionIndex;
+
+    @Setup
+    public void setUp() {
+        // Names repeat across restaurants, like the same dish on many menus
+        Random random = new Random(42);
+        List<MenuItemEntity> items = new ArrayList<>(menuItems);
+        for (long id = 1; id <= menuItems; id++) {
+            MenuItemEntity menuItem = new MenuItemEntity();
+            menuItem.setId(id);
+            menuItem.setName(STYLES[random.nextInt(STYLES.length)] + " " + INGREDIENTS[random.nextInt(INGREDIENTS.length)]
+                    + " " + DISHES[random.nextInt(DISHES.length)] + " " + random.nextInt(menuItems / 4));
+            items.add(menuItem);
+        }
+
+        MenuItemRepository menuItemRepository = mock(MenuItemRepository.class);
+        RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+        OrderItemRepository orderItemRepository = mock(OrderItemRepository.class);
+        when(menuItemRepository.findAll()).thenReturn(items);
+        suggestionIndex = new SuggestionIndex(menuItemRepository, restaurantRepository, orderItemRepository, 0);
+        suggestionIndex.rebuild();
+    }
+
+    @TearDown
+    public void tearDown() {
+        suggestionIndex.shutdown();
+    }
+
+    @Benchmark
+    public List<Suggestion> oneLetter() {
+        return suggestionIndex.suggest("s", 10);
+    }
+
+    @Benchmark
+    public List<Suggestion> wordPrefix() {
+        return suggestionIndex.suggest("chick", 10);
+    }
+
+    @Benchmark
+    public List<Suggestion> twoWords() {
+        return suggestionIndex.suggest("spicy chicken t", 10);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SuggestionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -1,10 +1,13 @@
 package org.foodorder.controller;
 
 import org.foodorder.entity.OrderEntity;
+import org.foodorder.exception.CapacityExceededException;
 import org.foodorder.model.CartItem;
 import org.foodorder.model.OrderItemRequest;
 import org.foodorder.model.OrderRequest;
+import org.foodorder.model.KitchenQueueStats;
 import org.foodorder.service.OrderService;
+import org.foodorder.service.RestaurantExecutorService;
 import org.foodorder.service.RestaurantSelectorService;
 import org.foodorder.service.RestaurantService;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,12 +16,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.view.InternalResourceViewResolver;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -41,6 +48,9 @@ class OrderControllerTest {
     @Mock
     private RestaurantSelectorService restaurantSelectorService;
 
+    @Mock
+    private RestaurantExecutorService restaurantExecutorService;
+
     private OrderRequest validOrderRequest;
 
     @BeforeEach
@@ -88,11 +98,8 @@ class OrderControllerTest {
         // Mock the customerId that should be passed in the request
         Long customerId = 1L;
 
-        // Mock the restaurant service to return true for the canPlaceOrder check
-        when(restaurantService.canPlaceOrder(1L, 2)).thenReturn(true);
-
-        // Mock the restaurant service placeOrder method to do nothing (simulate success)
-        doNothing().when(restaurantService).placeOrder(1L, 2);
+        // Mock the restaurant service to reserve the capacity
+        when(restaurantService.reserveCapacityForAll(Map.of(1L, 2))).thenReturn(Map.of(1L, 11L));
 
         // Mock the saved order entity
         OrderEntity mockOrder = new OrderEntity();
@@ -111,8 +118,7 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.orderId").value(1L));
 
         // Verify interactions with the service
-        verify(restaurantService, times(1)).canPlaceOrder(1L, 2);
-        verify(restaurantService, times(1)).placeOrder(1L, 2);
+        verify(restaurantService, times(1)).reserveCapacityForAll(Map.of(1L, 2));
         verify(orderService, times(1)).saveOrdersToDB(anyList(), anyMap(), eq(customerId));
     }
 
@@ -123,7 +129,7 @@ class OrderControllerTest {
         List<CartItem> cartItems = Collections.singletonList(cartItem);
 
         // Mock restaurant service behavior for capacity exceeded
-        when(restaurantService.canPlaceOrder(1L, 2)).thenReturn(false);
+        doThrow(new CapacityExceededException(1L, 2)).when(restaurantService).reserveCapacityForAll(Map.of(1L, 2));
 
         // Perform the mock request
         mockMvc.perform(post("/orders/place")
@@ -132,10 +138,87 @@ class OrderControllerTest {
                 .andExpect(status().isInternalServerError())
                 .andExpect(jsonPath("$.message").value("Restaurant ID 1 cannot handle the order for 2 items."));
 
-        verify(restaurantService, times(1)).canPlaceOrder(1L, 2);
+        verify(restaurantService, times(1)).reserveCapacityForAll(Map.of(1L, 2));
         verify(orderService, never()).saveOrdersToDB(anyList(), anyMap(), anyLong());
     }
 
+    @Test
+    void testPlaceOrder_Failure_SaveReleasesCapacity() throws Exception {
+        when(restaurantService.reserveCapacityForAll(Map.of(1L, 2))).thenReturn(Map.of(1L, 11L));
+        when(orderService.saveOrdersToDB(anyList(), anyMap(), any())).thenThrow(new RuntimeException("Database error"));
+
+        mockMvc.perform(post("/orders/place")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"menuItemId\":1,\"name\":\"Pizza\",\"price\":10.00,\"quantity\":2,\"restaurantId\":1}]"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value("Failed to place order: Database error"));
+
+        verify(restaurantService, times(1)).reserveCapacityForAll(Map.of(1L, 2));
+        verify(restaurantService, times(1)).releaseReservations(Map.of(1L, 11L));
+    }
+
+    @Test
+    void testPlaceOrderUponCustomerRequest_CompletesAsynchronously() throws Exception {
+        OrderEntity order = new OrderEntity();
+        order.setId(7L);
+        when(orderService.placeOrderUponCustomerRequest(anyList(), eq(1L), eq("rating"),
+                argThat(options -> options.getWeights() == null && options.getDeliveryZipCode() == null)))
+                .thenReturn(CompletableFuture.completedFuture(order));
+
+        MvcResult result = mockMvc.perform(post("/orders/placeOrderUponCustomerRequest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerId\":1,\"items\":[{\"name\":\"Pizza\",\"quantity\":1}],\"strategy\":\"rating\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderId").value(7L));
+    }
+
+    @Test
+    void testPlaceOrderUponCustomerRequest_TimesOut() throws Exception {
+        ReflectionTestUtils.setField(orderController, "placementTimeoutMillis", 50L);
+        when(orderService.placeOrderUponCustomerRequest(anyList(), anyLong(), anyString(), any()))
+                .thenReturn(new CompletableFuture<>());
+
+        MvcResult result = mockMvc.perform(post("/orders/placeOrderUponCustomerRequest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerId\":1,\"items\":[{\"name\":\"Pizza\",\"quantity\":1}]}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.message").value("Order placement is taking longer than expected."));
+    }
+
+    @Test
+    void testPlaceOrderUponCustomerRequest_ExecutorSaturated() throws Exception {
+        when(orderService.placeOrderUponCustomerRequest(anyList(), anyLong(), anyString(), any()))
+                .thenThrow(new RejectedExecutionException("Queue full"));
+
+        MvcResult result = mockMvc.perform(post("/orders/placeOrderUponCustomerRequest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerId\":1,\"items\":[{\"name\":\"Pizza\",\"quantity\":1}]}"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void testGetKitchenQueueStats() throws Exception {
+        when(restaurantExecutorService.getKitchenQueueStats())
+                .thenReturn(List.of(new KitchenQueueStats(1L, 50, 4, 12, 35L, 120L)));
+
+        mockMvc.perform(get("/orders/kitchens/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].restaurantId").value(1))
+                .andExpect(jsonPath("$[0].queueDepth").value(12))
+                .andExpect(jsonPath("$[0].averageWaitMillis").value(35));
+    }
+
     // Test for dispatching an order successfully
     @Test
     void testDispatchOrder_Success() throws Exception {
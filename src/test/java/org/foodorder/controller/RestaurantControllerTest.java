@@ -1,6 +1,9 @@
 package org.foodorder.controller;
 
 import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.KeysetPage;
+import org.foodorder.model.ListingSort;
+import org.foodorder.model.PageCursor;
 import org.foodorder.service.RestaurantService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,10 +17,12 @@ import org.springframework.web.servlet.View;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.springframework.web.servlet.view.InternalResourceViewResolver;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -58,14 +63,59 @@ class RestaurantControllerTest {
         List<RestaurantEntity> restaurantList = new ArrayList<>();
         restaurantList.add(new RestaurantEntity());
 
-        when(restaurantService.findAll()).thenReturn(restaurantList);
+        when(restaurantService.findPage(null, ListingSort.RATING, null, 20))
+                .thenReturn(new KeysetPage<>(restaurantList, "next"));
 
         mockMvc.perform(get("/restaurants"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("restaurants"))
-                .andExpect(model().attributeExists("restaurants"));
+                .andExpect(model().attribute("restaurants", restaurantList))
+                .andExpect(model().attribute("nextCursor", "next"))
+                .andExpect(model().attribute("sort", "rating"));
 
-        verify(restaurantService, times(1)).findAll();
+        verify(restaurantService, times(1)).findPage(null, ListingSort.RATING, null, 20);
+    }
+
+    @Test
+    void testGetNextPageOfRestaurants() throws Exception {
+        String cursor = new PageCursor(ListingSort.NAME, "Spicy Spoon", 2L).encode();
+        when(restaurantService.findPage(eq("thai"), eq(ListingSort.NAME), any(PageCursor.class), eq(20)))
+                .thenReturn(new KeysetPage<>(List.of(new RestaurantEntity()), null));
+
+        mockMvc.perform(get("/restaurants/page")
+                        .param("keyword", "thai")
+                        .param("sort", "name")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(view().name("restaurants :: rows"))
+                .andExpect(model().attribute("nextCursor", (Object) null));
+
+        verify(restaurantService).findPage(eq("thai"), eq(ListingSort.NAME),
+                argThat(after -> after.getId() == 2L && "Spicy Spoon".equals(after.getKey())), eq(20));
+    }
+
+    @Test
+    void testGetPageJson() throws Exception {
+        RestaurantEntity restaurant = new RestaurantEntity();
+        restaurant.setId(4L);
+        restaurant.setName("Burger Haven");
+        restaurant.setRating(BigDecimal.valueOf(4.2));
+        when(restaurantService.findPage(null, ListingSort.PRICE, null, 100))
+                .thenReturn(new KeysetPage<>(List.of(restaurant), "next"));
+
+        mockMvc.perform(get("/restaurants/api")
+                        .param("sort", "price")
+                        .param("size", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(4))
+                .andExpect(jsonPath("$.items[0].name").value("Burger Haven"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        // A cursor of another order is rejected
+        mockMvc.perform(get("/restaurants/api")
+                        .param("sort", "price")
+                        .param("cursor", new PageCursor(ListingSort.RATING, null, 1L).encode()))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -1,12 +1,15 @@
 package org.foodorder.controller;
 
-import org.foodorder.entity.MenuItemEntity;
-import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.GeoPoint;
+import org.foodorder.model.KeysetPage;
+import org.foodorder.model.ListingSort;
+import org.foodorder.model.MenuItemCard;
+import org.foodorder.model.PageCursor;
+import org.foodorder.model.RestaurantCard;
+import org.foodorder.model.Suggestion;
 import org.foodorder.service.MenuService;
-import org.foodorder.service.RestaurantSelectorService;
-import org.foodorder.service.RestaurantService;
-import org.foodorder.strategy.HighestRatingStrategy;
-import org.foodorder.strategy.LowestCostStrategy;
+import org.foodorder.service.SuggestionIndex;
+import org.foodorder.service.ZipCentroidGeocoder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -22,6 +25,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -34,16 +38,10 @@ class SearchControllerTest {
     private MenuService menuService;
 
     @Mock
-    private RestaurantService restaurantService;
+    private ZipCentroidGeocoder geocoder;
 
     @Mock
-    private RestaurantSelectorService restaurantSelectorService;
-
-    @Mock
-    private HighestRatingStrategy highestRatingStrategy;
-
-    @Mock
-    private LowestCostStrategy lowestCostStrategy;
+    private SuggestionIndex suggestionIndex;
 
     @InjectMocks
     private SearchController searchController;
@@ -67,71 +65,98 @@ class SearchControllerTest {
     // Test for a successful search with results sorted by rating
     @Test
     void testSearchRestaurantsByItem_RatingSort() throws Exception {
-        List<MenuItemEntity> menuItems = new ArrayList<>();
-        MenuItemEntity menuItem = new MenuItemEntity();
-        menuItem.setId(1L);
-        menuItem.setName("Pizza");
-        menuItems.add(menuItem);
-
-        List<RestaurantEntity> restaurants = new ArrayList<>();
-        RestaurantEntity restaurant = new RestaurantEntity();
-        restaurant.setId(1L);
-        restaurant.setName("Test Restaurant");
-        restaurant.setMenuItems(menuItems);
-        restaurant.setRating(BigDecimal.valueOf(4.5));
-        restaurants.add(restaurant);
-
-        when(menuService.searchMenuItems("Pizza")).thenReturn(menuItems);
-        when(restaurantService.findRestaurantsByMenuItems(menuItems)).thenReturn(restaurants);
+        RestaurantCard higher = card(2L, "Other Restaurant", BigDecimal.valueOf(4.5), BigDecimal.valueOf(12.99));
+        RestaurantCard lower = card(1L, "Test Restaurant", BigDecimal.valueOf(4.0), BigDecimal.valueOf(9.99));
+
+        when(menuService.searchRestaurantCards("Pizza", ListingSort.RATING, null, null, null, 20))
+                .thenReturn(new KeysetPage<>(List.of(higher, lower), "next"));
 
         mockMvc.perform(get("/search/menu")
                         .param("keyword", "Pizza")
                         .param("sort", "rating"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("search_results"))
-                .andExpect(model().attributeExists("restaurants"))
+                .andExpect(model().attribute("restaurants", List.of(higher, lower)))
+                .andExpect(model().attribute("nextCursor", "next"))
+                .andExpect(model().attribute("sort", "rating"))
                 .andExpect(model().attribute("keyword", "Pizza"));
 
-        verify(menuService, times(1)).searchMenuItems("Pizza");
-        verify(restaurantService, times(1)).findRestaurantsByMenuItems(menuItems);
+        verify(menuService, times(1)).searchRestaurantCards("Pizza", ListingSort.RATING, null, null, null, 20);
+    }
+
+    // Test for a search limited to restaurants within a radius of a ZIP code
+    @Test
+    void testSearchRestaurantsByItem_WithinRadius() throws Exception {
+        RestaurantCard nearest = card(3L, "Restaurant 3", BigDecimal.valueOf(4.0), BigDecimal.valueOf(9.99));
+        GeoPoint origin = new GeoPoint(37.7726, -122.4110);
+        when(geocoder.geocode("94103")).thenReturn(Optional.of(origin));
+        when(menuService.searchRestaurantCards("Pizza", ListingSort.DISTANCE, origin, 10.0, null, 20))
+                .thenReturn(new KeysetPage<>(List.of(nearest), null));
+
+        mockMvc.perform(get("/search/menu")
+                        .param("keyword", "Pizza")
+                        .param("sort", "distance")
+                        .param("zip", "94103")
+                        .param("radiusKm", "10"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("search_results"))
+                .andExpect(model().attribute("restaurants", List.of(nearest)))
+                .andExpect(model().attribute("zip", "94103"));
+    }
+
+    // Test for a distance sort without a ZIP code to measure from
+    @Test
+    void testSearchRestaurantsByItem_DistanceWithoutZipSortsByRating() throws Exception {
+        when(menuService.searchRestaurantCards("Pizza", ListingSort.RATING, null, null, null, 20))
+                .thenReturn(new KeysetPage<>(List.of(card(1L, "Test Restaurant", BigDecimal.valueOf(4.0), BigDecimal.ONE)), null));
+
+        mockMvc.perform(get("/search/menu")
+                        .param("keyword", "Pizza")
+                        .param("sort", "distance"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("sort", "rating"));
+    }
+
+    // Test for a search from a ZIP code that cannot be located
+    @Test
+    void testSearchRestaurantsByItem_UnknownZipCode() throws Exception {
+        when(geocoder.geocode("00000")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/search/menu")
+                        .param("keyword", "Pizza")
+                        .param("zip", "00000"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("search_results"))
+                .andExpect(model().attribute("message", "Unknown ZIP code: 00000"));
+
+        verifyNoInteractions(menuService);
     }
 
     // Test for a successful search with results sorted by price
     @Test
     void testSearchRestaurantsByItem_PriceSort() throws Exception {
-        List<MenuItemEntity> menuItems = new ArrayList<>();
-        MenuItemEntity menuItem = new MenuItemEntity();
-        menuItem.setId(1L);
-        menuItem.setName("Pizza");
-        menuItem.setPrice(BigDecimal.valueOf(9.99));
-        menuItems.add(menuItem);
-
-        List<RestaurantEntity> restaurants = new ArrayList<>();
-        RestaurantEntity restaurant = new RestaurantEntity();
-        restaurant.setId(1L);
-        restaurant.setName("Test Restaurant");
-        restaurant.setMenuItems(menuItems);
-        restaurants.add(restaurant);
-
-        when(menuService.searchMenuItems("Pizza")).thenReturn(menuItems);
-        when(restaurantService.findRestaurantsByMenuItems(menuItems)).thenReturn(restaurants);
+        RestaurantCard cheaper = card(2L, "Other Restaurant", BigDecimal.valueOf(4.0), BigDecimal.valueOf(9.99));
+        RestaurantCard pricier = card(1L, "Test Restaurant", BigDecimal.valueOf(4.5), BigDecimal.valueOf(12.99));
+
+        when(menuService.searchRestaurantCards("Pizza", ListingSort.PRICE, null, null, null, 20))
+                .thenReturn(new KeysetPage<>(List.of(cheaper, pricier), null));
 
         mockMvc.perform(get("/search/menu")
                         .param("keyword", "Pizza")
                         .param("sort", "price"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("search_results"))
-                .andExpect(model().attributeExists("restaurants"))
+                .andExpect(model().attribute("restaurants", List.of(cheaper, pricier)))
                 .andExpect(model().attribute("keyword", "Pizza"));
 
-        verify(menuService, times(1)).searchMenuItems("Pizza");
-        verify(restaurantService, times(1)).findRestaurantsByMenuItems(menuItems);
+        verify(menuService, times(1)).searchRestaurantCards("Pizza", ListingSort.PRICE, null, null, null, 20);
     }
 
     // Test for no results found scenario
     @Test
     void testSearchRestaurantsByItem_NoResults() throws Exception {
-        when(menuService.searchMenuItems("Burger")).thenReturn(new ArrayList<>());
+        when(menuService.searchRestaurantCards("Burger", ListingSort.RATING, null, null, null, 20))
+                .thenReturn(new KeysetPage<>(new ArrayList<>(), null));
 
         mockMvc.perform(get("/search/menu")
                         .param("keyword", "Burger"))
@@ -139,14 +164,14 @@ class SearchControllerTest {
                 .andExpect(view().name("search_results"))
                 .andExpect(model().attribute("message", "No restaurants found offering the item: Burger"));
 
-        verify(menuService, times(1)).searchMenuItems("Burger");
-        verify(restaurantService, never()).findRestaurantsByMenuItems(anyList());
+        verify(menuService, times(1)).searchRestaurantCards("Burger", ListingSort.RATING, null, null, null, 20);
     }
 
     // Test for internal server error during search
     @Test
     void testSearchRestaurantsByItem_Error() throws Exception {
-        when(menuService.searchMenuItems("Pasta")).thenThrow(new RuntimeException("Database error"));
+        when(menuService.searchRestaurantCards("Pasta", ListingSort.RATING, null, null, null, 20))
+                .thenThrow(new RuntimeException("Database error"));
 
         mockMvc.perform(get("/search/menu")
                         .param("keyword", "Pasta"))
@@ -154,7 +179,87 @@ class SearchControllerTest {
                 .andExpect(view().name("error"))
                 .andExpect(model().attribute("message", "An error occurred while searching for restaurants."));
 
-        verify(menuService, times(1)).searchMenuItems("Pasta");
-        verify(restaurantService, never()).findRestaurantsByMenuItems(anyList());
+        verify(menuService, times(1)).searchRestaurantCards("Pasta", ListingSort.RATING, null, null, null, 20);
+    }
+
+    // Test for paging through the results with the cursor returned with each page
+    @Test
+    void testSearchRestaurantsByItemJson_FollowsCursors() throws Exception {
+        RestaurantCard first = card(1L, "Bella Napoli", BigDecimal.valueOf(4.5), BigDecimal.valueOf(9.99));
+        String cursor = new PageCursor(ListingSort.RATING, BigDecimal.valueOf(4.5), 1L).encode();
+        when(menuService.searchRestaurantCards("Pizza", ListingSort.RATING, null, null, null, 100))
+                .thenReturn(new KeysetPage<>(List.of(first), cursor));
+
+        mockMvc.perform(get("/search/api/menu")
+                        .param("keyword", "Pizza")
+                        .param("size", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[0].menuItems[0].price").value(9.99))
+                .andExpect(jsonPath("$.nextCursor").value(cursor));
+
+        // The cursor is handed on decoded
+        when(menuService.searchRestaurantCards(eq("Pizza"), eq(ListingSort.RATING), isNull(), isNull(), any(PageCursor.class), eq(1)))
+                .thenReturn(new KeysetPage<>(List.of(card(3L, "Pizza Palace", BigDecimal.valueOf(4.5), BigDecimal.TEN)), null));
+
+        mockMvc.perform(get("/search/api/menu")
+                        .param("keyword", "Pizza")
+                        .param("size", "1")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(3))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        verify(menuService).searchRestaurantCards(eq("Pizza"), eq(ListingSort.RATING), isNull(), isNull(),
+                argThat(after -> after != null && after.getId() == 1L && BigDecimal.valueOf(4.5).equals(after.getKey())), eq(1));
+
+        // A cursor of another order is rejected before searching
+        mockMvc.perform(get("/search/api/menu")
+                        .param("keyword", "Pizza")
+                        .param("sort", "name")
+                        .param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+        verify(menuService, never()).searchRestaurantCards(any(), eq(ListingSort.NAME), any(), any(), any(), anyInt());
+    }
+
+    // Test for appending the next page of results to the results page
+    @Test
+    void testSearchPage() throws Exception {
+        RestaurantCard pricier = card(2L, "Other Restaurant", BigDecimal.valueOf(4.5), BigDecimal.valueOf(12.99));
+        when(menuService.searchRestaurantCards(eq("Pizza"), eq(ListingSort.PRICE), isNull(), isNull(), any(PageCursor.class), eq(20)))
+                .thenReturn(new KeysetPage<>(List.of(pricier), null));
+
+        mockMvc.perform(get("/search/menu/page")
+                        .param("keyword", "Pizza")
+                        .param("sort", "price")
+                        .param("cursor", new PageCursor(ListingSort.PRICE, BigDecimal.valueOf(9.99), 1L).encode()))
+                .andExpect(status().isOk())
+                .andExpect(view().name("search_results :: cards"))
+                .andExpect(model().attribute("restaurants", List.of(pricier)))
+                .andExpect(model().attribute("nextCursor", (Object) null));
+    }
+
+    // Test for completing a prefix to menu item and restaurant names
+    @Test
+    void testSuggest() throws Exception {
+        when(suggestionIndex.suggest("chi", 10)).thenReturn(List.of(
+                new Suggestion("Chicken Tacos", Suggestion.MENU_ITEM, 12),
+                new Suggestion("Chipotle Grill", Suggestion.RESTAURANT, 3)));
+
+        mockMvc.perform(get("/search/suggest")
+                        .param("prefix", "chi"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].text").value("Chicken Tacos"))
+                .andExpect(jsonPath("$[0].type").value("menuItem"))
+                .andExpect(jsonPath("$[1].text").value("Chipotle Grill"))
+                .andExpect(jsonPath("$[1].popularity").value(3));
+
+        verify(suggestionIndex, times(1)).suggest("chi", 10);
+    }
+
+    private static RestaurantCard card(Long id, String name, BigDecimal rating, BigDecimal price) {
+        RestaurantCard restaurant = new RestaurantCard(id, name, "Italian", "1 Main St", rating);
+        restaurant.addMenuItem(new MenuItemCard(10 * id, "Pizza", price));
+        return restaurant;
     }
 }
\ No newline at end of file
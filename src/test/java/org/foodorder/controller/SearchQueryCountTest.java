@@ -0,0 +1,145 @@
+package org.foodorder.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.foodorder.model.KeysetPage;
+import org.foodorder.model.ListingSort;
+import org.foodorder.model.MenuItemCard;
+import org.foodorder.model.RestaurantCard;
+import org.foodorder.service.MenuService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.ui.ExtendedModelMap;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that a page of menu search results takes a single SQL statement, however many
+ * restaurants and menu items match, that each restaurant carries only its matching items, and that
+ * paging runs over every match rather than the {@code search.max-results} most relevant ones,
+ * which is lowered to one for these tests.
+ */
+@SpringBootTest
+class SearchQueryCountTest {
+
+    @Autowired
+    private SearchController searchController;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Object maxSearchResults;
+
+    @BeforeEach
+    public void setUp() {
+        maxSearchResults = ReflectionTestUtils.getField(menuService, "maxSearchResults");
+        ReflectionTestUtils.setField(menuService, "maxSearchResults", 1);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ReflectionTestUtils.setField(menuService, "maxSearchResults", maxSearchResults);
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void testOneStatementPerSearch() {
+        for (String keyword : List.of("pizza", "tomato", "cheese", "curry")) {
+            statistics.clear();
+            List<RestaurantCard> restaurants = search(keyword);
+
+            assertFalse(restaurants.isEmpty(), keyword);
+            restaurants.forEach(restaurant -> restaurant.getMenuItems().forEach(MenuItemCard::getPrice));
+            assertEquals(1, statistics.getPrepareStatementCount(), keyword);
+        }
+    }
+
+    @Test
+    void testRestaurantsCarryOnlyMatchingMenuItems() {
+        // Each of these restaurants has other menu items, which mention no mozzarella
+        List<RestaurantCard> restaurants = search("mozzarella");
+
+        assertEquals(Set.of(1L, 6L, 9L), restaurants.stream().map(RestaurantCard::getId).collect(Collectors.toSet()));
+        for (RestaurantCard restaurant : restaurants) {
+            assertEquals(1, restaurant.getMenuItems().size());
+            assertTrue(restaurant.getMenuItems().get(0).getName().endsWith("Pizza"));
+        }
+    }
+
+    @Test
+    void testPagesCoverEveryMatchInOrder() throws Exception {
+        for (ListingSort sort : List.of(ListingSort.RATING, ListingSort.PRICE, ListingSort.NAME)) {
+            List<RestaurantCard> all = search("tomato", sort.parameter());
+            List<RestaurantCard> sorted = new ArrayList<>(all);
+            sorted.sort((a, b) -> sort.compare(sortKey(a, sort), a.getId(), sortKey(b, sort), b.getId()));
+            assertTrue(all.size() > 1, sort.parameter());
+            assertEquals(sorted, all, sort.parameter());
+
+            // One restaurant at a time, following the cursors
+            List<RestaurantCard> paged = new ArrayList<>();
+            String cursor = null;
+            do {
+                KeysetPage<RestaurantCard> page = searchController.searchRestaurantsByItemJson(
+                        "tomato", sort.parameter(), null, null, cursor, 1).getBody();
+                assertTrue(page.getItems().size() <= 1);
+                paged.addAll(page.getItems());
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+            assertEquals(all.stream().map(RestaurantCard::getId).toList(),
+                    paged.stream().map(RestaurantCard::getId).toList(), sort.parameter());
+        }
+    }
+
+    @Test
+    void testNoStatementWithoutMatches() {
+        statistics.clear();
+        ExtendedModelMap model = new ExtendedModelMap();
+
+        searchController.searchRestaurantsByItem("xyzzy", "rating", null, null, null, model);
+
+        assertNull(model.get("restaurants"));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    private List<RestaurantCard> search(String keyword) {
+        return search(keyword, "rating");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<RestaurantCard> search(String keyword, String sort) {
+        ExtendedModelMap model = new ExtendedModelMap();
+        assertEquals("search_results", searchController.searchRestaurantsByItem(keyword, sort, null, null, null, model));
+        assertNull(model.get("nextCursor"));
+        return (List<RestaurantCard>) model.get("restaurants");
+    }
+
+    // The lowest price of a matching menu item when sorting by price
+    private static Comparable<?> sortKey(RestaurantCard restaurant, ListingSort sort) {
+        switch (sort) {
+            case PRICE:
+                return restaurant.getMenuItems().stream().map(MenuItemCard::getPrice).min(BigDecimal::compareTo).orElseThrow();
+            case NAME:
+                return restaurant.getName();
+            default:
+                return restaurant.getRating();
+        }
+    }
+}
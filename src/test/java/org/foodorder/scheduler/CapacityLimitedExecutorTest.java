@@ -0,0 +1,172 @@
+package org.foodorder.scheduler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CapacityLimitedExecutorTest {
+
+    private ExecutorService shared;
+
+    @BeforeEach
+    public void setUp() {
+        shared = Executors.newFixedThreadPool(16);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        shared.shutdownNow();
+    }
+
+    @Test
+    void testNeverRunsMoreThanMaxParallelTasks() throws Exception {
+        CapacityLimitedExecutor executor = new CapacityLimitedExecutor(shared, 3);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        int tasks = 60;
+        CountDownLatch done = new CountDownLatch(tasks);
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(3, peak.get());
+        assertEquals(0, executor.getQueuedTaskCount());
+    }
+
+    @Test
+    void testViewsShareOneExecutorIndependently() throws Exception {
+        CapacityLimitedExecutor first = new CapacityLimitedExecutor(shared, 1);
+        CapacityLimitedExecutor second = new CapacityLimitedExecutor(shared, 1);
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch secondRan = new CountDownLatch(1);
+
+        first.execute(() -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        first.execute(() -> { });
+        second.execute(secondRan::countDown);
+
+        // A full view does not hold up another view
+        assertTrue(secondRan.await(2, TimeUnit.SECONDS));
+        assertEquals(1, first.getQueuedTaskCount());
+        blocker.countDown();
+    }
+
+    @Test
+    void testShutdownWaitsForQueuedTasks() throws Exception {
+        CapacityLimitedExecutor executor = new CapacityLimitedExecutor(shared, 1);
+        AtomicInteger completed = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            executor.execute(() -> {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                completed.incrementAndGet();
+            });
+        }
+
+        executor.shutdown();
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(5, completed.get());
+        assertTrue(executor.isTerminated());
+    }
+
+    @Test
+    void testTaskRejectedOnCompletionStaysQueued() throws Exception {
+        AtomicBoolean rejecting = new AtomicBoolean();
+        AtomicReference<Throwable> escaped = new AtomicReference<>();
+        CapacityLimitedExecutor executor = new CapacityLimitedExecutor(rejectingWhen(rejecting, escaped), 1);
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch ran = new CountDownLatch(2);
+
+        executor.execute(() -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        executor.execute(ran::countDown);
+        rejecting.set(true);
+        blocker.countDown();
+
+        // The completion that hands the permit on is turned away, and keeps the queued task
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.getActiveCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(50);
+        assertNull(escaped.get());
+        assertEquals(1, executor.getQueuedTaskCount());
+
+        rejecting.set(false);
+        executor.execute(ran::countDown);
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testRejectionReachesTheSubmitter() throws Exception {
+        AtomicBoolean rejecting = new AtomicBoolean(true);
+        CapacityLimitedExecutor executor = new CapacityLimitedExecutor(rejectingWhen(rejecting, new AtomicReference<>()), 2);
+
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        assertEquals(0, executor.getQueuedTaskCount());
+
+        // The rejection did not use up a permit or leave the task pending
+        rejecting.set(false);
+        CountDownLatch ran = new CountDownLatch(2);
+        executor.execute(ran::countDown);
+        executor.execute(ran::countDown);
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    // Runs tasks on the shared pool unless told to reject them, recording anything thrown on a pool thread
+    private Executor rejectingWhen(AtomicBoolean rejecting, AtomicReference<Throwable> escaped) {
+        return command -> {
+            if (rejecting.get()) {
+                throw new RejectedExecutionException("Rejected for the test.");
+            }
+            shared.execute(() -> {
+                try {
+                    command.run();
+                } catch (Throwable t) {
+                    escaped.set(t);
+                }
+            });
+        };
+    }
+}
@@ -0,0 +1,126 @@
+package org.foodorder.scheduler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedWheelTimerTest {
+
+    private ExecutorService taskExecutor;
+    private HashedWheelTimer timer;
+
+    @BeforeEach
+    public void setUp() {
+        taskExecutor = Executors.newFixedThreadPool(2);
+        // A small wheel so that longer delays need several rounds
+        timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 8, taskExecutor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        timer.stop();
+        taskExecutor.shutdownNow();
+    }
+
+    @Test
+    void testTimeoutFiresAfterDelay() throws Exception {
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(fired::countDown, 200, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 190);
+        assertTrue(timeout.isExpired());
+        assertFalse(timeout.cancel());
+        assertEquals(0, timer.pendingTimeouts());
+    }
+
+    @Test
+    void testCancelledTimeoutNeverFires() throws Exception {
+        AtomicInteger fired = new AtomicInteger();
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(fired::incrementAndGet, 100, TimeUnit.MILLISECONDS);
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertEquals(0, timer.pendingTimeouts());
+
+        Thread.sleep(300);
+        assertEquals(0, fired.get());
+        assertTrue(timeout.isCancelled());
+    }
+
+    @Test
+    void testCompleteAfterRunsContinuationOnTaskExecutor() throws Exception {
+        CompletableFuture<String> dispatched = timer.completeAfter(50, TimeUnit.MILLISECONDS)
+                .thenApply(ignored -> Thread.currentThread().getName());
+
+        String threadName = dispatched.get(2, TimeUnit.SECONDS);
+        assertNotEquals("order-timer-wheel", threadName);
+
+        CompletableFuture<Void> cancelled = timer.completeAfter(1, TimeUnit.HOURS);
+        assertTrue(cancelled.cancel(false));
+        Thread.sleep(50);
+        assertEquals(0, timer.pendingTimeouts());
+    }
+
+    @Test
+    void testManyTimeoutsEachFireOrCancelExactlyOnce() throws Exception {
+        int count = 10_000;
+        AtomicInteger fired = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(count / 2);
+        List<HashedWheelTimer.Timeout> timeouts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            timeouts.add(timer.newTimeout(() -> {
+                fired.incrementAndGet();
+                done.countDown();
+            }, i % 250, TimeUnit.MILLISECONDS));
+        }
+        int cancelled = 0;
+        for (int i = 0; i < count; i += 2) {
+            if (timeouts.get(i).cancel()) {
+                cancelled++;
+            }
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertEquals(count, fired.get() + cancelled);
+        assertEquals(0, timer.pendingTimeouts());
+    }
+
+    @Test
+    void testFailingTaskOrExecutorDoesNotStopTheWheel() throws Exception {
+        AtomicInteger handed = new AtomicInteger();
+        HashedWheelTimer failing = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 8, command -> {
+            if (handed.incrementAndGet() == 1) {
+                throw new AssertionError("Executor failed for the test.");
+            }
+            command.run();
+        });
+        try {
+            CountDownLatch fired = new CountDownLatch(1);
+            failing.newTimeout(() -> { }, 10, TimeUnit.MILLISECONDS);
+            failing.newTimeout(() -> {
+                throw new StackOverflowError("Task failed for the test.");
+            }, 30, TimeUnit.MILLISECONDS);
+            failing.newTimeout(fired::countDown, 60, TimeUnit.MILLISECONDS);
+
+            assertTrue(fired.await(2, TimeUnit.SECONDS));
+            assertEquals(0, failing.pendingTimeouts());
+        } finally {
+            failing.stop();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package org.foodorder.scheduler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeightedFairSchedulerTest {
+
+    private ExecutorService pool;
+
+    @BeforeEach
+    public void setUp() {
+        pool = Executors.newWorkStealingPool(4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void testBacklogIsServedInProportionToWeight() throws Exception {
+        WeightedFairScheduler scheduler = new WeightedFairScheduler(pool, 1);
+        WeightedFairScheduler.Flow busy = scheduler.newFlow(1);
+        WeightedFairScheduler.Flow large = scheduler.newFlow(3);
+        List<String> order = new CopyOnWriteArrayList<>();
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(201);
+
+        // Hold the only slot while both backlogs build up, the busy flow first
+        busy.execute(() -> {
+            await(gate);
+            done.countDown();
+        });
+        for (int i = 0; i < 100; i++) {
+            busy.execute(() -> {
+                order.add("busy");
+                done.countDown();
+            });
+        }
+        for (int i = 0; i < 100; i++) {
+            large.execute(() -> {
+                order.add("large");
+                done.countDown();
+            });
+        }
+        assertEquals(100, busy.getQueueDepth());
+        gate.countDown();
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        long largeInFirst40 = order.subList(0, 40).stream().filter("large"::equals).count();
+        assertTrue(largeInFirst40 >= 28 && largeInFirst40 <= 32, "large flow got " + largeInFirst40 + " of 40");
+        assertEquals(201, busy.getStartedCount() + large.getStartedCount());
+        assertTrue(busy.getMaxWaitNanos() > 0);
+    }
+
+    @Test
+    void testFlowNeverRunsMoreTasksThanItsWeight() throws Exception {
+        WeightedFairScheduler scheduler = new WeightedFairScheduler(pool, 4);
+        WeightedFairScheduler.Flow flow = scheduler.newFlow(2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(40);
+        for (int i = 0; i < 40; i++) {
+            flow.execute(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(2);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(2, peak.get());
+
+        flow.shutdown();
+        assertTrue(flow.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testRejectedTaskKeepsItsPlaceAndFreesItsSlot() throws Exception {
+        AtomicBoolean rejecting = new AtomicBoolean(true);
+        ExecutorService rejectingPool = new AbstractExecutorService() {
+            @Override
+            public void execute(Runnable task) {
+                if (rejecting.get()) {
+                    throw new RejectedExecutionException("Pool is saturated.");
+                }
+                pool.execute(task);
+            }
+
+            @Override
+            public void shutdown() {
+            }
+
+            @Override
+            public List<Runnable> shutdownNow() {
+                return List.of();
+            }
+
+            @Override
+            public boolean isShutdown() {
+                return false;
+            }
+
+            @Override
+            public boolean isTerminated() {
+                return false;
+            }
+
+            @Override
+            public boolean awaitTermination(long timeout, TimeUnit unit) {
+                return true;
+            }
+        };
+        WeightedFairScheduler scheduler = new WeightedFairScheduler(rejectingPool, 1);
+        WeightedFairScheduler.Flow flow = scheduler.newFlow(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        // Rejected on submission: the submitter gets the task back and the slot stays free
+        assertThrows(RejectedExecutionException.class, () -> flow.execute(() -> order.add("lost")));
+        assertEquals(0, flow.getQueueDepth());
+
+        rejecting.set(false);
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+        flow.execute(() -> {
+            await(gate);
+            order.add("first");
+            done.countDown();
+        });
+        flow.execute(() -> {
+            order.add("second");
+            done.countDown();
+        });
+
+        // Rejected when the first task completes: the second task goes back to the head of the flow
+        rejecting.set(true);
+        gate.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flow.getActiveCount() > 0 && System.nanoTime() < deadline) {
+            sleep(1);
+        }
+        assertEquals(0, flow.getActiveCount());
+        assertEquals(1, flow.getQueueDepth());
+
+        rejecting.set(false);
+        flow.execute(() -> {
+            order.add("third");
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("first", "second", "third"), order);
+        flow.shutdown();
+        assertTrue(flow.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
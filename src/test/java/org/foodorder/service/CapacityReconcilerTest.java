@@ -0,0 +1,129 @@
+package org.foodorder.service;
+
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CapacityReconcilerTest {
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RestaurantEntity restaurant;
+    private RestaurantCapacityLedger ledger;
+    private CapacityReservationTable table;
+    private CapacityReconciler reconciler;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        restaurant = new RestaurantEntity();
+        restaurant.setId(1L);
+        restaurant.setMaxCapacity(10);
+        restaurant.setCurrentProcessingLoad(7);
+        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
+        when(restaurantRepository.findByCurrentProcessingLoadGreaterThan(0)).thenReturn(List.of(restaurant));
+        when(restaurantRepository.compareAndSetCurrentProcessingLoad(anyLong(), anyInt(), anyInt())).thenReturn(1);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+
+        ledger = new RestaurantCapacityLedger(restaurantRepository);
+        table = new CapacityReservationTable();
+        reconciler = new CapacityReconciler(restaurantRepository, ledger, table, transactionManager);
+        // Loaded at startup, as the ledger preloads every restaurant
+        assertEquals(7, ledger.getLoad(1L));
+    }
+
+    @Test
+    void testDriftIsCorrectedOnSecondSweep() {
+        // Load left over from before a restart: only 2 items are backed by a live reservation
+        table.add(1L, 2);
+
+        assertEquals(0, reconciler.reconcile());
+        verify(restaurantRepository, never()).compareAndSetCurrentProcessingLoad(anyLong(), anyInt(), anyInt());
+
+        assertEquals(1, reconciler.reconcile());
+        verify(restaurantRepository, times(1)).compareAndSetCurrentProcessingLoad(1L, 7, 2);
+        verify(transactionManager).commit(any());
+        assertEquals(2, ledger.getLoad(1L));
+        verify(restaurantRepository, never()).findAll();
+    }
+
+    @Test
+    void testInMemoryLoadOfRestaurantWithoutStoredLoadIsCorrected() {
+        restaurant.setCurrentProcessingLoad(0);
+        when(restaurantRepository.findByCurrentProcessingLoadGreaterThan(0)).thenReturn(List.of());
+        // Load the ledger holds although neither the row nor a reservation backs it
+        assertEquals(3, ledger.release(1L, 4));
+
+        assertEquals(0, reconciler.reconcile());
+        assertEquals(1, reconciler.reconcile());
+        verify(restaurantRepository).compareAndSetCurrentProcessingLoad(1L, 0, 0);
+        assertEquals(0, ledger.getLoad(1L));
+    }
+
+    @Test
+    void testFailedCommitRestoresTheLedger() {
+        table.add(1L, 2);
+        assertEquals(0, reconciler.reconcile());
+        doThrow(new RuntimeException("commit failed")).when(transactionManager).commit(any());
+
+        assertEquals(0, reconciler.reconcile());
+        assertEquals(7, ledger.getLoad(1L));
+    }
+
+    @Test
+    void testTransientMismatchIsLeftAlone() {
+        assertEquals(0, reconciler.reconcile());
+
+        // The load changed between sweeps, as it does while reservations are in flight
+        restaurant.setCurrentProcessingLoad(5);
+
+        assertEquals(0, reconciler.reconcile());
+        verify(restaurantRepository, never()).compareAndSetCurrentProcessingLoad(anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testStoredLoadChangedDuringSweepIsLeftAlone() {
+        table.add(1L, 2);
+        assertEquals(0, reconciler.reconcile());
+
+        // A reservation committed after the live items were read
+        when(restaurantRepository.compareAndSetCurrentProcessingLoad(1L, 7, 2)).thenReturn(0);
+
+        assertEquals(0, reconciler.reconcile());
+        assertEquals(7, ledger.getLoad(1L));
+    }
+
+    @Test
+    void testLedgerLoadChangedDuringSweepIsLeftAlone() {
+        table.add(1L, 2);
+        assertEquals(0, reconciler.reconcile());
+
+        // A reservation taken from the ledger while the stored load is being corrected
+        when(restaurantRepository.compareAndSetCurrentProcessingLoad(1L, 7, 2)).thenAnswer(invocation -> {
+            assertTrue(ledger.tryReserve(1L, 1));
+            return 1;
+        });
+
+        assertEquals(0, reconciler.reconcile());
+        assertEquals(8, ledger.getLoad(1L));
+        // The stored load was reset first, so its update is rolled back
+        verify(transactionManager).commit(argThat(TransactionStatus::isRollbackOnly));
+    }
+}
@@ -0,0 +1,96 @@
+package org.foodorder.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CapacityReservationTableTest {
+
+    private CapacityReservationTable table;
+
+    @BeforeEach
+    public void setUp() {
+        table = new CapacityReservationTable();
+    }
+
+    @Test
+    void testRemoveReleasesReservationOnce() {
+        long reservationId = table.add(1L, 4);
+
+        CapacityReservationTable.Released released = table.remove(reservationId);
+
+        assertEquals(new CapacityReservationTable.Released(1L, 4), released);
+        assertNull(table.remove(reservationId));
+        assertEquals(0, table.liveItems(1L));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void testConsumeTakesOldestReservationsFirst() {
+        long first = table.add(1L, 3);
+        long second = table.add(1L, 4);
+        table.add(2L, 5);
+
+        assertEquals(5, table.consume(1L, 5));
+
+        assertNull(table.remove(first));
+        assertEquals(new CapacityReservationTable.Released(1L, 2), table.remove(second));
+        assertEquals(Map.of(2L, 5), table.liveItemsByRestaurant());
+    }
+
+    @Test
+    void testConsumeNeverTakesMoreThanIsReserved() {
+        long reservationId = table.add(1L, 3);
+
+        assertEquals(3, table.consume(1L, 10));
+        assertEquals(0, table.consume(1L, 1));
+        assertNull(table.remove(reservationId));
+        assertEquals(0, table.consume(99L, 1));
+    }
+
+    @Test
+    void testConcurrentConsumersAlwaysFindTheirItems() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        AtomicInteger shortReleases = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        table.add(1L, 3);
+                        if (table.consume(1L, 3) != 3) {
+                            shortReleases.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(0, shortReleases.get());
+        assertEquals(0, table.liveItems(1L));
+    }
+
+    @Test
+    void testEvictDropsRestaurantReservations() {
+        long reservationId = table.add(1L, 3);
+
+        table.evict(1L);
+
+        assertNull(table.remove(reservationId));
+        assertTrue(table.liveItemsByRestaurant().isEmpty());
+    }
+}
@@ -0,0 +1,198 @@
+package org.foodorder.service;
+
+import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.CatalogCandidate;
+import org.foodorder.repository.MenuItemRepository;
+import org.foodorder.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MenuCatalogIndexTest {
+
+    @Mock
+    private MenuItemRepository menuItemRepository;
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    private MenuCatalogIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(restaurantRepository.findAll()).thenReturn(List.of(restaurant(1L, "4.5"), restaurant(2L, "3.9")));
+        when(menuItemRepository.findAll()).thenReturn(List.of(
+                menuItem(10L, 1L, "Margherita Pizza", "14.99"),
+                menuItem(11L, 1L, "Spaghetti Carbonara", "15.99"),
+                menuItem(20L, 2L, "Pepperoni Pizza", "12.99")));
+
+        index = new MenuCatalogIndex(menuItemRepository, restaurantRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void testFindCandidatesMatchesNameFragmentsIgnoringCase() {
+        List<CatalogCandidate> candidates = index.findCandidates(" PIZZA");
+
+        assertEquals(List.of(10L, 20L), candidates.stream().map(CatalogCandidate::getMenuItemId).toList());
+        assertEquals(new BigDecimal("12.99"), candidates.get(1).getPrice());
+        assertEquals(new BigDecimal("4.5"), candidates.get(0).getRating());
+        assertTrue(index.findCandidates("sushi").isEmpty());
+    }
+
+    @Test
+    void testFindCheapestCandidateUsesPriceOrder() {
+        assertEquals(20L, index.findCheapestCandidate("pizza").orElseThrow().getMenuItemId());
+        assertEquals(10L, index.findCheapestCandidate("pizza", candidate -> candidate.getRestaurantId() == 1L).orElseThrow().getMenuItemId());
+        assertTrue(index.findCheapestCandidate("pizza", candidate -> candidate.getRestaurantId() == 3L).isEmpty());
+
+        index.putMenuItem(menuItem(10L, 1L, "Margherita Pizza", "9.99"));
+        assertEquals(10L, index.findCheapestCandidate("PIZZA").orElseThrow().getMenuItemId());
+    }
+
+    @Test
+    void testFindCheapestCandidatePrefersTheExactName() {
+        index.putMenuItem(menuItem(21L, 2L, "Pizza", "13.49"));
+
+        // A menu item named exactly like the ordered item wins over cheaper names containing it
+        assertEquals(21L, index.findCheapestCandidate(" pizza").orElseThrow().getMenuItemId());
+        assertEquals(21L, index.findCheapestCandidate("PIZZA", candidate -> candidate.getRestaurantId() == 2L)
+                .orElseThrow().getMenuItemId());
+        assertTrue(index.findCheapestCandidate("margherita pizza", candidate -> candidate.getRestaurantId() == 2L).isEmpty());
+        // Without an accepted exact match, names containing it are still matched
+        assertEquals(10L, index.findCheapestCandidate("pizza", candidate -> candidate.getRestaurantId() == 1L)
+                .orElseThrow().getMenuItemId());
+        assertEquals(11L, index.findCheapestCandidate("carbonara").orElseThrow().getMenuItemId());
+    }
+
+    @Test
+    void testHooksKeepIndexCurrentWithoutDatabaseAccess() {
+        clearInvocations(menuItemRepository);
+        clearInvocations(restaurantRepository);
+
+        index.putMenuItem(menuItem(30L, 2L, "Vegan Pizza", "11.49"));
+        index.putMenuItem(menuItem(10L, 1L, "Margherita Flatbread", "14.99"));
+        index.removeMenuItem(11L);
+        index.updateOpenStatus(2L, false);
+        index.putRestaurant(restaurant(1L, "4.8"));
+
+        assertEquals(List.of(20L, 30L), index.findCandidates("pizza").stream().map(CatalogCandidate::getMenuItemId).toList());
+        assertTrue(index.findCandidates("pizza").stream().noneMatch(CatalogCandidate::isOpen));
+        assertEquals(new BigDecimal("4.8"), index.findCandidates("flatbread").get(0).getRating());
+        assertTrue(index.findCandidates("carbonara").isEmpty());
+
+        index.removeRestaurant(2L);
+        assertTrue(index.findCandidates("pizza").isEmpty());
+        assertEquals(1, index.size());
+
+        verifyNoInteractions(menuItemRepository, restaurantRepository);
+    }
+
+    @Test
+    void testRankedCandidatesAreCachedUntilARelevantChange() {
+        Comparator<CatalogCandidate> byPrice = Comparator.comparing(CatalogCandidate::getPrice);
+        List<CatalogCandidate> ranked = index.findRankedCandidates("Pizza", "price", byPrice);
+        assertEquals(List.of(20L, 10L), ranked.stream().map(CatalogCandidate::getMenuItemId).toList());
+        assertSame(ranked, index.findRankedCandidates(" pizza", "price", byPrice));
+
+        // Changes that cannot affect the pizza candidates keep the cached list
+        index.putMenuItem(menuItem(12L, 1L, "Tiramisu", "6.50"));
+        index.putRestaurant(restaurant(2L, "3.9"));
+        assertSame(ranked, index.findRankedCandidates("pizza", "price", byPrice));
+
+        // A new pizza, a rating change and an open status change each drop it
+        index.putMenuItem(menuItem(30L, 2L, "Vegan Pizza", "11.49"));
+        List<CatalogCandidate> withVegan = index.findRankedCandidates("pizza", "price", byPrice);
+        assertEquals(List.of(30L, 20L, 10L), withVegan.stream().map(CatalogCandidate::getMenuItemId).toList());
+
+        index.putRestaurant(restaurant(1L, "4.8"));
+        List<CatalogCandidate> rerated = index.findRankedCandidates("pizza", "price", byPrice);
+        assertNotSame(withVegan, rerated);
+        assertEquals(new BigDecimal("4.8"), rerated.get(2).getRating());
+
+        index.updateOpenStatus(2L, false);
+        assertFalse(index.findRankedCandidates("pizza", "price", byPrice).get(0).isOpen());
+    }
+
+    @Test
+    void testLookupsDuringRepublishingNeverCacheAStaleList() throws Exception {
+        // Many menu items of one name make republishing it slow enough for lookups to overlap it
+        List<MenuItemEntity> menuItems = new ArrayList<>();
+        for (long id = 100; id < 5100; id++) {
+            menuItems.add(menuItem(id, 1L, "Pepperoni Pizza", "15.00"));
+        }
+        when(menuItemRepository.findAll()).thenReturn(menuItems);
+        index.rebuild();
+
+        Comparator<CatalogCandidate> byPrice = Comparator.comparing(CatalogCandidate::getPrice);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Thread reader = new Thread(() -> {
+            while (writing.get()) {
+                index.findRankedCandidates("pepperoni pizza", "price", byPrice);
+            }
+        });
+        reader.start();
+
+        // Once a write returns, no lookup may return the list from before it
+        int stale = 0;
+        try {
+            for (int i = 0; i < 50; i++) {
+                BigDecimal price = BigDecimal.valueOf(1000 + i, 2);
+                index.putMenuItem(menuItem(20L, 2L, "Pepperoni Pizza", price.toPlainString()));
+                if (index.findRankedCandidates("pepperoni pizza", "price", byPrice).get(0).getPrice().compareTo(price) != 0) {
+                    stale++;
+                }
+            }
+        } finally {
+            writing.set(false);
+            reader.join();
+        }
+        assertEquals(0, stale);
+    }
+
+    @Test
+    void testSelectionCacheIsSizeBounded() {
+        MenuCatalogIndex bounded = new MenuCatalogIndex(menuItemRepository, restaurantRepository, 2);
+        bounded.rebuild();
+        Comparator<CatalogCandidate> byPrice = Comparator.comparing(CatalogCandidate::getPrice);
+
+        List<CatalogCandidate> pizza = bounded.findRankedCandidates("pizza", "price", byPrice);
+        bounded.findRankedCandidates("pizza", "price", byPrice);
+        bounded.findRankedCandidates("spaghetti", "price", byPrice);
+        bounded.findRankedCandidates("margherita", "price", byPrice);
+
+        // The recently read pizza list got a second chance; spaghetti was evicted instead
+        assertEquals(2, bounded.cachedSelectionCount());
+        assertSame(pizza, bounded.findRankedCandidates("pizza", "price", byPrice));
+    }
+
+    private static RestaurantEntity restaurant(Long id, String rating) {
+        RestaurantEntity restaurant = new RestaurantEntity();
+        restaurant.setId(id);
+        restaurant.setRating(new BigDecimal(rating));
+        restaurant.setIsOpen(true);
+        return restaurant;
+    }
+
+    private static MenuItemEntity menuItem(Long id, Long restaurantId, String name, String price) {
+        MenuItemEntity menuItem = new MenuItemEntity();
+        menuItem.setId(id);
+        menuItem.setRestaurantId(restaurantId);
+        menuItem.setName(name);
+        menuItem.setPrice(new BigDecimal(price));
+        return menuItem;
+    }
+}
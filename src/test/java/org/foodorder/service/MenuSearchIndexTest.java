@@ -0,0 +1,180 @@
+package org.foodorder.service;
+
+import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.ListingSort;
+import org.foodorder.repository.MenuItemRepository;
+import org.foodorder.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MenuSearchIndexTest {
+
+    @Mock
+    private MenuItemRepository menuItemRepository;
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    private MenuSearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(restaurantRepository.findAll()).thenReturn(List.of(
+                restaurant(1L, "Bella Napoli", "Italian"),
+                restaurant(2L, "Taqueria El Sol", "Mexican")));
+        when(menuItemRepository.findAll()).thenReturn(List.of(
+                menuItem(10L, 1L, "Margherita Pizza", "Tomatoes, mozzarella and basil"),
+                menuItem(11L, 1L, "Spaghetti Carbonara", "With pancetta and a touch of pizza spice"),
+                menuItem(20L, 2L, "Chicken Tacos", "Three tacos with salsa verde"),
+                menuItem(21L, 2L, "Crème Brûlée", null)));
+
+        index = new MenuSearchIndex(menuItemRepository, restaurantRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void testTokenizerFoldsCaseAccentsAndPlurals() {
+        assertEquals(List.of("creme", "brulee"), SearchTokenizer.tokenize("Crème  Brûlée"));
+        assertEquals(List.of("taco", "fry", "dish", "tomato", "hummus", "glass"),
+                SearchTokenizer.tokenize("Tacos & fries, dishes of tomatoes with hummus in glasses"));
+    }
+
+    @Test
+    void testMatchesNameDescriptionAndRestaurantRankingNameFirst() {
+        // A name match outranks a description match
+        assertEquals(List.of(10L, 11L), index.searchMenuItems("pizza", 10));
+        assertEquals(List.of(20L), index.searchMenuItems("TACO", 10));
+        assertEquals(List.of(10L), index.searchMenuItems("tomato basil", 10));
+        // Both match through their restaurant; the shorter document ranks first
+        assertEquals(List.of(21L, 20L), index.searchMenuItems("mexican", 10));
+        assertEquals(List.of(21L), index.searchMenuItems("creme brulee", 10));
+        assertEquals(List.of(10L), index.searchMenuItems("pizza", 1));
+    }
+
+    @Test
+    void testRequiresEveryQueryTerm() {
+        assertEquals(List.of(20L), index.searchMenuItems("chicken mexican", 10));
+        assertTrue(index.searchMenuItems("chicken pizza", 10).isEmpty());
+        assertTrue(index.searchMenuItems("sushi", 10).isEmpty());
+        assertTrue(index.searchMenuItems("  ", 10).isEmpty());
+    }
+
+    @Test
+    void testCorrectsMisspelledTerms() {
+        assertEquals(List.of(10L, 11L), index.searchMenuItems("piza", 10));
+        assertEquals(List.of(11L), index.searchMenuItems("spagheti carbonarra", 10));
+        assertEquals(List.of(20L), index.searchMenuItems("chikcen", 10)); // Transposed letters
+        assertEquals(List.of(20L), index.searchMenuItems("tcao", 10)); // Changes 4 of the 6 trigrams
+        assertEquals(List.of(10L, 11L), index.searchMenuItems("pizaz", 10));
+        assertEquals(List.of(10L), index.searchMenuItems("margarita", 10));
+        assertEquals(List.of(1L), index.searchRestaurants("italain", 10));
+        // Too far off, or too short to guess
+        assertTrue(index.searchMenuItems("pasta", 10).isEmpty());
+        assertTrue(index.searchMenuItems("pz", 10).isEmpty());
+
+        // Terms added later can be reached by a typo, removed ones no longer
+        index.putMenuItem(menuItem(12L, 1L, "Chicken Biryani", null));
+        assertEquals(List.of(12L), index.searchMenuItems("biriyani", 10));
+        index.removeMenuItem(12L);
+        assertTrue(index.searchMenuItems("biriyani", 10).isEmpty());
+    }
+
+    @Test
+    void testBoundedEditDistance() {
+        assertEquals(0, FuzzyTermIndex.distance("taco", "taco", 1));
+        assertEquals(1, FuzzyTermIndex.distance("piza", "pizza", 1));
+        assertEquals(1, FuzzyTermIndex.distance("tcao", "taco", 1));
+        assertEquals(2, FuzzyTermIndex.distance("margarita", "margherita", 2));
+        assertEquals(2, FuzzyTermIndex.distance("pasta", "pizza", 1)); // Capped at the bound plus one
+        assertEquals(3, FuzzyTermIndex.distance("biryani", "curry", 2));
+        assertEquals(0, FuzzyTermIndex.maxEdits("pz"));
+        assertEquals(1, FuzzyTermIndex.maxEdits("piza"));
+        assertEquals(2, FuzzyTermIndex.maxEdits("biriyani"));
+    }
+
+    @Test
+    void testIncrementalUpdates() {
+        index.putMenuItem(menuItem(12L, 1L, "Pizza Diavola", "Spicy salami"));
+        index.putMenuItem(menuItem(10L, 1L, "Margherita", "Tomatoes, mozzarella and basil"));
+        assertEquals(List.of(12L, 11L), index.searchMenuItems("pizza", 10));
+
+        index.removeMenuItem(12L);
+        assertEquals(List.of(11L), index.searchMenuItems("pizza", 10));
+
+        // Renaming a restaurant reindexes its menu items
+        when(menuItemRepository.findByRestaurantId(2L)).thenReturn(List.of(
+                menuItem(20L, 2L, "Chicken Tacos", "Three tacos with salsa verde"),
+                menuItem(21L, 2L, "Crème Brûlée", null)));
+        index.putRestaurant(restaurant(2L, "Taqueria El Sol", "Tex-Mex"));
+        assertTrue(index.searchMenuItems("mexican", 10).isEmpty());
+        assertEquals(List.of(21L, 20L), index.searchMenuItems("tex mex", 10));
+        assertEquals(List.of(2L), index.searchRestaurants("mex", 10));
+
+        index.removeRestaurant(1L);
+        assertTrue(index.searchMenuItems("carbonara", 10).isEmpty());
+        assertTrue(index.searchRestaurants("napoli", 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testGroupsMatchesByRestaurantWithTheirKeys() {
+        index.putMenuItem(menuItem(10L, 1L, "Margherita Pizza", "Tomatoes, mozzarella and basil", new BigDecimal("12.50")));
+        index.putMenuItem(menuItem(11L, 1L, "Spaghetti Carbonara", "With pancetta and a touch of pizza spice", new BigDecimal("9.00")));
+        index.putMenuItem(menuItem(20L, 2L, "Chicken Tacos", "Three tacos with salsa verde", new BigDecimal("7.25")));
+        index.putMenuItem(menuItem(21L, 2L, "Pizza Tacos", null, new BigDecimal("15.00")));
+
+        Map<Long, MenuSearchIndex.RestaurantMatch> matches = index.searchRestaurantsByMenuItems("pizza").stream()
+                .collect(Collectors.toMap(MenuSearchIndex.RestaurantMatch::restaurantId, match -> match));
+        assertEquals(List.of(10L, 11L), matches.get(1L).menuItemIds());
+        assertEquals(new BigDecimal("9.00"), matches.get(1L).sortKey(ListingSort.PRICE));
+        assertEquals("Bella Napoli", matches.get(1L).sortKey(ListingSort.NAME));
+        // Only the price of a matching menu item counts
+        assertEquals(List.of(21L), matches.get(2L).menuItemIds());
+        assertEquals(new BigDecimal("15.00"), matches.get(2L).lowestPrice());
+
+        // Restaurants searched by name carry the lowest price of their whole menu, kept current
+        assertEquals(new BigDecimal("7.25"), index.matchRestaurants("mexican").get(0).lowestPrice());
+        index.removeMenuItem(20L);
+        assertEquals(new BigDecimal("15.00"), index.matchRestaurants("mexican").get(0).lowestPrice());
+        index.putRestaurant(restaurant(2L, "Taqueria El Sol", "Mexican"));
+        assertEquals("Taqueria El Sol", index.matchRestaurants("mexican").get(0).name());
+        assertEquals(new BigDecimal("15.00"), index.matchRestaurants("mexican").get(0).lowestPrice());
+        assertTrue(index.searchRestaurantsByMenuItems("sushi").isEmpty());
+    }
+
+    private static RestaurantEntity restaurant(Long id, String name, String cuisineType) {
+        RestaurantEntity restaurant = new RestaurantEntity();
+        restaurant.setId(id);
+        restaurant.setName(name);
+        restaurant.setCuisineType(cuisineType);
+        return restaurant;
+    }
+
+    private static MenuItemEntity menuItem(Long id, Long restaurantId, String name, String description) {
+        MenuItemEntity menuItem = new MenuItemEntity();
+        menuItem.setId(id);
+        menuItem.setRestaurantId(restaurantId);
+        menuItem.setName(name);
+        menuItem.setDescription(description);
+        return menuItem;
+    }
+
+    private static MenuItemEntity menuItem(Long id, Long restaurantId, String name, String description, BigDecimal price) {
+        MenuItemEntity menuItem = menuItem(id, restaurantId, name, description);
+        menuItem.setPrice(price);
+        return menuItem;
+    }
+}
@@ -0,0 +1,210 @@
+package org.foodorder.service;
+
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.exception.CapacityExceededException;
+import org.foodorder.repository.RestaurantRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress tests proving that concurrent reservations never push a restaurant over its capacity
+ * and that multi-restaurant reservations are all-or-nothing.
+ */
+@SpringBootTest
+class RestaurantCapacityConcurrencyTest {
+
+    private static final int THREADS = 300;
+    private static final int MAX_CAPACITY = 50;
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long restaurantId;
+    private Long otherRestaurantId;
+
+    @BeforeEach
+    public void setUp() {
+        restaurantId = createRestaurant("Stress Test Kitchen");
+        otherRestaurantId = createRestaurant("Stress Test Annex");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        restaurantService.deleteById(restaurantId);
+        restaurantService.deleteById(otherRestaurantId);
+    }
+
+    @Test
+    void testGuardedStatementNeverExceedsCapacity() throws Exception {
+        AtomicInteger accepted = new AtomicInteger();
+        runConcurrently(() -> {
+            if (restaurantRepository.reserveCapacity(restaurantId, 1) == 1) {
+                accepted.incrementAndGet();
+            }
+            return null;
+        });
+
+        assertEquals(MAX_CAPACITY, accepted.get());
+        assertEquals(MAX_CAPACITY, restaurantRepository.findById(restaurantId).orElseThrow().getCurrentProcessingLoad());
+    }
+
+    @Test
+    void testConcurrentOrdersNeverExceedCapacity() throws Exception {
+        AtomicInteger accepted = new AtomicInteger();
+        runConcurrently(() -> {
+            if (restaurantService.reserveCapacity(restaurantId, 2)) {
+                accepted.incrementAndGet();
+            }
+            return null;
+        });
+
+        assertEquals(MAX_CAPACITY / 2, accepted.get());
+        assertEquals(MAX_CAPACITY, restaurantRepository.findById(restaurantId).orElseThrow().getCurrentProcessingLoad());
+
+    }
+
+    @Test
+    void testReserveAndReleaseChurnLeavesNoLoadBehind() throws Exception {
+        AtomicInteger accepted = new AtomicInteger();
+        runConcurrently(() -> {
+            for (int i = 0; i < 5; i++) {
+                if (restaurantService.reserveCapacity(restaurantId, 3)) {
+                    accepted.incrementAndGet();
+                    restaurantService.releaseCapacity(restaurantId, 3);
+                }
+            }
+            return null;
+        });
+
+        assertTrue(accepted.get() > 0);
+        assertEquals(0, restaurantRepository.findById(restaurantId).orElseThrow().getCurrentProcessingLoad());
+        assertEquals(0, restaurantService.getCurrentProcessingLoad(restaurantId));
+    }
+
+    @Test
+    void testBatchReservationRollsBackWhenOneRestaurantIsFull() {
+        assertTrue(restaurantService.reserveCapacity(otherRestaurantId, MAX_CAPACITY));
+
+        assertThrows(CapacityExceededException.class,
+                () -> restaurantService.reserveCapacityForAll(Map.of(restaurantId, 5, otherRestaurantId, 1)));
+
+        assertEquals(0, loadOf(restaurantId));
+        assertEquals(0, restaurantService.getCurrentProcessingLoad(restaurantId));
+        assertEquals(MAX_CAPACITY, loadOf(otherRestaurantId));
+    }
+
+    @Test
+    void testMemoryFollowsTheOutcomeOfTheSurroundingTransaction() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // A reservation whose transaction rolls back leaves no load behind, in the row or in memory
+        transaction.executeWithoutResult(status -> {
+            restaurantService.reserveCapacityForAll(Map.of(restaurantId, 3));
+            assertEquals(3, restaurantService.getCurrentProcessingLoad(restaurantId));
+            status.setRollbackOnly();
+        });
+        assertEquals(0, loadOf(restaurantId));
+        assertEquals(0, restaurantService.getCurrentProcessingLoad(restaurantId));
+
+        // A release whose transaction rolls back leaves the load the row still holds
+        long reservationId = restaurantService.reserve(restaurantId, 4);
+        transaction.executeWithoutResult(status -> {
+            assertTrue(restaurantService.releaseReservation(reservationId));
+            status.setRollbackOnly();
+        });
+        assertEquals(4, loadOf(restaurantId));
+        assertEquals(4, restaurantService.getCurrentProcessingLoad(restaurantId));
+    }
+
+    @Test
+    void testConcurrentBatchReservationsAreAllOrNothing() throws Exception {
+        // Leave less room in one restaurant, so that some batches fail half way through
+        assertTrue(restaurantService.reserveCapacity(otherRestaurantId, MAX_CAPACITY / 2));
+
+        AtomicInteger accepted = new AtomicInteger();
+        runConcurrently(() -> {
+            try {
+                restaurantService.reserveCapacityForAll(Map.of(restaurantId, 1, otherRestaurantId, 1));
+                accepted.incrementAndGet();
+            } catch (CapacityExceededException e) {
+                // Expected once either restaurant is full
+            }
+            return null;
+        });
+
+        assertEquals(MAX_CAPACITY / 2, accepted.get());
+        assertEquals(accepted.get(), loadOf(restaurantId));
+        assertEquals(MAX_CAPACITY, loadOf(otherRestaurantId));
+        assertEquals(accepted.get(), restaurantService.getCurrentProcessingLoad(restaurantId));
+    }
+
+    @Test
+    void testConcurrentReleasesOfSameReservationApplyOnce() throws Exception {
+        long[] reservationIds = new long[MAX_CAPACITY / 5];
+        for (int i = 0; i < reservationIds.length; i++) {
+            reservationIds[i] = restaurantService.reserve(restaurantId, 5);
+            assertTrue(reservationIds[i] > 0);
+        }
+
+        // Every thread releases one of all but the last reservation, each one many times over
+        AtomicInteger counter = new AtomicInteger();
+        AtomicInteger released = new AtomicInteger();
+        runConcurrently(() -> {
+            if (restaurantService.releaseReservation(reservationIds[counter.getAndIncrement() % (reservationIds.length - 1)])) {
+                released.incrementAndGet();
+            }
+            return null;
+        });
+
+        assertEquals(reservationIds.length - 1, released.get());
+        assertEquals(5, loadOf(restaurantId));
+        assertEquals(5, restaurantService.getCurrentProcessingLoad(restaurantId));
+    }
+
+    private Long createRestaurant(String name) {
+        RestaurantEntity restaurant = new RestaurantEntity(name, "1 Load Street", "Austin", "TX", "73301",
+                "American", new BigDecimal("4.00"), "9:00 AM - 9:00 PM", "000-000-0000", "http://stress.test", true,
+                MAX_CAPACITY, 0);
+        return restaurantRepository.save(restaurant).getId();
+    }
+
+    private int loadOf(Long id) {
+        return restaurantRepository.findById(id).orElseThrow().getCurrentProcessingLoad();
+    }
+
+    private void runConcurrently(Callable<Void> task) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < THREADS; i++) {
+            pool.submit(() -> {
+                start.await();
+                return task.call();
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,74 @@
+package org.foodorder.service;
+
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RestaurantCapacityLedgerTest {
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    private RestaurantCapacityLedger ledger;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        RestaurantEntity restaurant = new RestaurantEntity();
+        restaurant.setId(1L);
+        restaurant.setMaxCapacity(10);
+        restaurant.setCurrentProcessingLoad(2);
+        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
+
+        ledger = new RestaurantCapacityLedger(restaurantRepository);
+    }
+
+    @Test
+    void testReserveAndRelease() {
+        assertTrue(ledger.tryReserve(1L, 8));
+        assertFalse(ledger.tryReserve(1L, 1));
+        assertEquals(10, ledger.getLoad(1L));
+
+        assertEquals(7, ledger.release(1L, 3));
+        assertEquals(3, ledger.getAvailableCapacity(1L));
+        assertEquals(0, ledger.release(1L, 50));
+
+        verify(restaurantRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testConcurrentReservationsNeverExceedCapacity() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        for (int i = 0; i < 500; i++) {
+            pool.submit(() -> {
+                start.await();
+                if (ledger.tryReserve(1L, 1)) {
+                    accepted.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(8, accepted.get());
+        assertEquals(10, ledger.getLoad(1L));
+    }
+}
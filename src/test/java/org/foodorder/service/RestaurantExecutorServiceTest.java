@@ -0,0 +1,130 @@
+package org.foodorder.service;
+
+import org.foodorder.model.KitchenQueueStats;
+import org.foodorder.scheduler.CapacityLimitedExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RestaurantExecutorServiceTest {
+
+    private RestaurantExecutorService executorService;
+
+    @AfterEach
+    public void tearDown() {
+        executorService.shutdownAllExecutors();
+    }
+
+    @Test
+    void testPooledExecutorResizesWithCapacity() {
+        executorService = new RestaurantExecutorService("pooled", 4, 600_000, 1_000, 0);
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) executorService.getExecutorServiceForRestaurant(1L, 5);
+
+        executorService.resizeExecutorForRestaurant(1L, 8);
+        assertEquals(8, pool.getCorePoolSize());
+        assertEquals(8, pool.getMaximumPoolSize());
+
+        executorService.getExecutorServiceForRestaurant(1L, 2);
+        assertEquals(2, pool.getCorePoolSize());
+        assertEquals(2, pool.getMaximumPoolSize());
+    }
+
+    @Test
+    void testVirtualModeSharesExecutorAndResizesLimit() {
+        executorService = new RestaurantExecutorService("virtual", 4, 600_000, 1_000, 0);
+        CapacityLimitedExecutor kitchen = (CapacityLimitedExecutor) executorService.getExecutorServiceForRestaurant(1L, 5);
+
+        executorService.resizeExecutorForRestaurant(1L, 3);
+
+        assertEquals(RestaurantExecutorService.ExecutionMode.VIRTUAL, executorService.getExecutionMode());
+        assertEquals(3, kitchen.getMaxParallel());
+    }
+
+    @Test
+    void testFairModeReportsQueueStatsPerRestaurant() throws Exception {
+        executorService = new RestaurantExecutorService("fair", 4, 600_000, 1_000, 2);
+        CountDownLatch done = new CountDownLatch(10);
+        for (int i = 0; i < 10; i++) {
+            executorService.submit(i % 2 == 0 ? 1L : 2L, 5, done::countDown);
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        List<KitchenQueueStats> stats = executorService.getKitchenQueueStats();
+        assertEquals(List.of(1L, 2L), stats.stream().map(KitchenQueueStats::getRestaurantId).toList());
+        assertEquals(5, stats.get(0).getMaxParallel());
+        assertEquals(0, stats.get(0).getQueueDepth());
+        assertNotNull(stats.get(0).getAverageWaitMillis());
+    }
+
+    @Test
+    void testIdleExecutorsAreEvictedButBusyOnesAreKept() throws Exception {
+        executorService = new RestaurantExecutorService("pooled", 4, 0, 1_000, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        executorService.getExecutorServiceForRestaurant(1L, 2);
+        executorService.submit(2L, 2, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Thread.sleep(50);
+
+        assertEquals(1, executorService.evictIdleExecutors());
+        assertEquals(1, executorService.getExecutorCount());
+
+        release.countDown();
+        executorService.evictExecutorForRestaurant(2L);
+        assertEquals(0, executorService.getExecutorCount());
+    }
+
+    @Test
+    void testShutdownDrainsInFlightTasks() {
+        executorService = new RestaurantExecutorService("pooled", 4, 600_000, 5_000, 0);
+        AtomicInteger completed = new AtomicInteger();
+        for (long restaurantId = 1; restaurantId <= 3; restaurantId++) {
+            for (int i = 0; i < 4; i++) {
+                executorService.submit(restaurantId, 2, () -> {
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    completed.incrementAndGet();
+                });
+            }
+        }
+
+        assertTrue(executorService.shutdownAllExecutors());
+        assertEquals(12, completed.get());
+        assertEquals(0, executorService.getExecutorCount());
+    }
+
+    @Test
+    void testRunningTasksOnTheSharedPoolAreInterruptedAfterTheDrainTimeout() throws Exception {
+        for (String mode : List.of("virtual", "fair")) {
+            executorService = new RestaurantExecutorService(mode, 4, 600_000, 50, 2);
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch interrupted = new CountDownLatch(1);
+            executorService.submit(1L, 2, () -> {
+                started.countDown();
+                try {
+                    TimeUnit.SECONDS.sleep(30);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertFalse(executorService.shutdownAllExecutors(), mode);
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS), mode);
+        }
+    }
+}
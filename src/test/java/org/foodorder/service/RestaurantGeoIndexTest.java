@@ -0,0 +1,139 @@
+package org.foodorder.service;
+
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.GeoPoint;
+import org.foodorder.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RestaurantGeoIndexTest {
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    private final Map<String, GeoPoint> centroids = new HashMap<>();
+    private final List<RestaurantEntity> restaurants = new ArrayList<>();
+    private RestaurantGeoIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        // 2,000 restaurants spread over the continental US, some sharing a ZIP code
+        Random random = new Random(42);
+        for (int zip = 0; zip < 1500; zip++) {
+            centroids.put(String.format("%05d", zip),
+                    new GeoPoint(25 + random.nextDouble() * 24, -124 + random.nextDouble() * 57));
+        }
+        for (long id = 1; id <= 2000; id++) {
+            restaurants.add(restaurant(id, String.format("%05d", random.nextInt(1500))));
+        }
+        restaurants.add(restaurant(2001L, "99999")); // Not in the centroid table
+        when(restaurantRepository.findAll()).thenReturn(restaurants);
+
+        index = new RestaurantGeoIndex(restaurantRepository, new ZipCentroidGeocoder(centroids), 0.5);
+        index.rebuild();
+    }
+
+    @Test
+    void testNearestMatchesBruteForce() {
+        Random random = new Random(7);
+        for (int query = 0; query < 50; query++) {
+            GeoPoint origin = new GeoPoint(25 + random.nextDouble() * 24, -124 + random.nextDouble() * 57);
+            int k = 1 + random.nextInt(20);
+
+            assertEquals(bruteForce(origin, k, Double.POSITIVE_INFINITY), index.nearest(origin, k, Double.POSITIVE_INFINITY));
+            assertEquals(bruteForce(origin, k, 150), index.nearest(origin, k, 150));
+        }
+    }
+
+    @Test
+    void testNearestAcceptedMatchesBruteForceAskingAboutFewRestaurants() {
+        Random random = new Random(11);
+        for (int query = 0; query < 50; query++) {
+            GeoPoint origin = new GeoPoint(25 + random.nextDouble() * 24, -124 + random.nextDouble() * 57);
+            AtomicInteger asked = new AtomicInteger();
+
+            RestaurantGeoIndex.Nearest nearest = index.nearest(origin, id -> {
+                asked.incrementAndGet();
+                return id % 3 == 0;
+            }, Integer.MAX_VALUE);
+
+            assertTrue(nearest.complete());
+            assertEquals(bruteForce(origin, Integer.MAX_VALUE, Double.POSITIVE_INFINITY).stream()
+                    .filter(id -> id % 3 == 0).findFirst().orElseThrow(), nearest.restaurantId());
+            assertTrue(asked.get() < 100, "Restaurants asked about: " + asked.get());
+        }
+    }
+
+    @Test
+    void testNearestAcceptedGivesUpAtTheCellLimit() {
+        GeoPoint origin = new GeoPoint(39.5, -98.35);
+
+        RestaurantGeoIndex.Nearest rare = index.nearest(origin, id -> id == 1999L, 20);
+        assertFalse(rare.complete());
+        assertNull(rare.restaurantId());
+
+        RestaurantGeoIndex.Nearest none = index.nearest(origin, id -> false, Integer.MAX_VALUE);
+        assertTrue(none.complete());
+        assertNull(none.restaurantId());
+        assertEquals(1999L, index.nearest(origin, id -> id == 1999L, Integer.MAX_VALUE).restaurantId());
+    }
+
+    @Test
+    void testWithinRadiusReturnsAllRestaurantsInRangeNearestFirst() {
+        GeoPoint origin = new GeoPoint(39.5, -98.35);
+
+        List<Long> withinRadius = index.withinRadius(origin, 300);
+
+        assertFalse(withinRadius.isEmpty());
+        assertEquals(bruteForce(origin, Integer.MAX_VALUE, 300), withinRadius);
+        assertEquals(2000, index.withinRadius(origin, 20_000).size());
+    }
+
+    @Test
+    void testPutMovesAndRemoveDropsRestaurants() {
+        GeoPoint origin = centroids.get("00000");
+        RestaurantEntity moved = restaurants.get(0);
+        moved.setZipCode("00000");
+
+        index.put(moved);
+        assertEquals(0, index.distanceKm(moved.getId(), origin));
+        assertTrue(index.nearest(origin, 10, 0).contains(moved.getId()));
+
+        index.remove(moved.getId());
+        assertFalse(index.nearest(origin, 10, 0).contains(moved.getId()));
+        assertTrue(index.locate(moved.getId()).isEmpty());
+        assertEquals(Double.POSITIVE_INFINITY, index.distanceKm(2001L, origin));
+    }
+
+    private List<Long> bruteForce(GeoPoint origin, int k, double maxKm) {
+        return restaurants.stream()
+                .filter(restaurant -> centroids.containsKey(restaurant.getZipCode()))
+                .map(restaurant -> Map.entry(restaurant.getId(), centroids.get(restaurant.getZipCode()).distanceKm(origin)))
+                .filter(entry -> entry.getValue() <= maxKm)
+                .sorted(Map.Entry.<Long, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                .limit(k)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private static RestaurantEntity restaurant(Long id, String zipCode) {
+        RestaurantEntity restaurant = new RestaurantEntity();
+        restaurant.setId(id);
+        restaurant.setZipCode(zipCode);
+        return restaurant;
+    }
+}
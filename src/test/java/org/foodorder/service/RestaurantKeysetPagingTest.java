@@ -0,0 +1,140 @@
+package org.foodorder.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.KeysetPage;
+import org.foodorder.model.ListingSort;
+import org.foodorder.model.PageCursor;
+import org.foodorder.repository.RestaurantRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that paging through the restaurants with cursors visits each of them exactly once, in
+ * the same order as sorting them all, with at most two SQL statements per page however deep it is.
+ */
+@SpringBootTest
+class RestaurantKeysetPagingTest {
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void testPagesMatchSortingAllRestaurants() {
+        for (ListingSort sort : List.of(ListingSort.RATING, ListingSort.PRICE, ListingSort.NAME)) {
+            List<Long> expected = restaurantRepository.findAll().stream()
+                    .sorted((first, second) -> sort.compare(key(first, sort), first.getId(), key(second, sort), second.getId()))
+                    .map(RestaurantEntity::getId)
+                    .toList();
+
+            assertEquals(expected, pageThrough(null, sort, 3), sort.name());
+            assertEquals(expected, pageThrough(null, sort, 1), sort.name());
+        }
+    }
+
+    @Test
+    void testPagesThroughSearchResults() {
+        List<Long> expected = restaurantService.searchRestaurants("pizza").stream()
+                .sorted((first, second) -> ListingSort.NAME.compare(first.getName(), first.getId(), second.getName(), second.getId()))
+                .map(RestaurantEntity::getId)
+                .toList();
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, pageThrough("pizza", ListingSort.NAME, 1));
+        assertTrue(pageThrough("xyzzy", ListingSort.NAME, 1).isEmpty());
+    }
+
+    @Test
+    void testCursorRoundTrip() {
+        PageCursor cursor = new PageCursor(ListingSort.PRICE, new BigDecimal("12.50"), 7L);
+        PageCursor decoded = PageCursor.decode(cursor.encode(), ListingSort.PRICE);
+        assertEquals(new BigDecimal("12.50"), decoded.getKey());
+        assertEquals(7L, decoded.getId());
+
+        PageCursor named = PageCursor.decode(new PageCursor(ListingSort.NAME, "Pizza: Slice & Co", 3L).encode(), ListingSort.NAME);
+        assertEquals("Pizza: Slice & Co", named.getKey());
+        assertNull(PageCursor.decode(new PageCursor(ListingSort.RATING, null, 9L).encode(), ListingSort.RATING).getKey());
+        assertNull(PageCursor.decode(" ", ListingSort.RATING));
+
+        // A cursor is only valid for the order it was created for
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(cursor.encode(), ListingSort.RATING));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not a cursor!", ListingSort.RATING));
+    }
+
+    @Test
+    void testSlicesInMemoryWithMissingKeysLast() {
+        List<BigDecimal[]> rows = List.of(
+                new BigDecimal[]{BigDecimal.valueOf(1), BigDecimal.valueOf(4.5)},
+                new BigDecimal[]{BigDecimal.valueOf(2), null},
+                new BigDecimal[]{BigDecimal.valueOf(3), BigDecimal.valueOf(4.5)},
+                new BigDecimal[]{BigDecimal.valueOf(4), BigDecimal.valueOf(4.8)},
+                new BigDecimal[]{BigDecimal.valueOf(5), null});
+
+        List<Long> ids = new ArrayList<>();
+        PageCursor after = null;
+        do {
+            KeysetPage<BigDecimal[]> page = KeysetPage.slice(rows, after, 2, ListingSort.RATING,
+                    row -> row[1], row -> row[0].longValue());
+            page.getItems().forEach(row -> ids.add(row[0].longValue()));
+            after = PageCursor.decode(page.getNextCursor(), ListingSort.RATING);
+        } while (after != null);
+
+        assertEquals(Arrays.asList(4L, 1L, 3L, 2L, 5L), ids);
+    }
+
+    private List<Long> pageThrough(String keyword, ListingSort sort, int size) {
+        List<Long> ids = new ArrayList<>();
+        PageCursor after = null;
+        do {
+            statistics.clear();
+            KeysetPage<RestaurantEntity> page = restaurantService.findPage(keyword, sort, after, size);
+            assertTrue(statistics.getPrepareStatementCount() <= 2, "Statements per page");
+            assertTrue(page.getItems().size() <= size);
+            page.getItems().forEach(restaurant -> ids.add(restaurant.getId()));
+            after = PageCursor.decode(page.getNextCursor(), sort);
+        } while (after != null);
+        return ids;
+    }
+
+    private static Comparable<?> key(RestaurantEntity restaurant, ListingSort sort) {
+        switch (sort) {
+            case PRICE:
+                return restaurant.getMinMenuPrice();
+            case NAME:
+                return restaurant.getName();
+            default:
+                return restaurant.getRating();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.foodorder.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.model.OrderItemRequest;
+import org.foodorder.repository.RestaurantRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that resolving the items of an order is served from the in-memory menu catalog,
+ * without any SQL statements, no matter how many items the order contains.
+ */
+@SpringBootTest
+class RestaurantSelectorQueryCountTest {
+
+    private static final String[] ITEM_NAMES = {
+            "Pizza", "Burger", "Roll", "Carbonara", "Vindaloo", "Tacos", "Toast", "Tikka Masala"
+    };
+
+    @Autowired
+    private RestaurantSelectorService restaurantSelectorService;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void testStatementCountDoesNotGrowWithOrderSize() {
+        long singleItem = countStatements(1);
+        long fiveItems = countStatements(5);
+        long twentyItems = countStatements(20);
+
+        assertEquals(0, singleItem);
+        assertEquals(singleItem, fiveItems);
+        assertEquals(singleItem, twentyItems);
+    }
+
+    @Test
+    void testUnknownItemIsStillRejected() {
+        List<OrderItemRequest> items = List.of(new OrderItemRequest("Margherita Pizza", 1),
+                new OrderItemRequest("Unknown Dish", 1));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> restaurantSelectorService.groupItemsByRestaurant(items, "rating"));
+        assertEquals("No restaurants available for menu item: Unknown Dish", exception.getMessage());
+    }
+
+    @Test
+    void testPriceStrategySelectsCheapestRestaurant() {
+        OrderItemRequest item = new OrderItemRequest("Pizza", 1);
+
+        Map<Long, List<OrderItemRequest>> grouped = restaurantSelectorService.groupItemsByRestaurant(List.of(item), "price");
+
+        assertEquals(Set.of(6L), grouped.keySet());
+        assertEquals(new BigDecimal("12.99"), item.getPrice());
+    }
+
+    @Test
+    void testMinMenuPriceFollowsMenuWrites() {
+        assertEquals(new BigDecimal("12.99"), restaurantRepository.findById(6L).orElseThrow().getMinMenuPrice());
+
+        MenuItemEntity menuItem = new MenuItemEntity();
+        menuItem.setName("Slice of the Day");
+        menuItem.setDescription("Daily pizza slice.");
+        menuItem.setPrice(new BigDecimal("3.50"));
+        menuItem.setAvailable(true);
+        MenuItemEntity saved = menuService.addMenuItem(6L, menuItem);
+        assertEquals(new BigDecimal("3.50"), restaurantRepository.findById(6L).orElseThrow().getMinMenuPrice());
+
+        menuService.deleteMenuItem(6L, saved.getId());
+        assertEquals(new BigDecimal("12.99"), restaurantRepository.findById(6L).orElseThrow().getMinMenuPrice());
+    }
+
+    private long countStatements(int itemCount) {
+        List<OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.add(new OrderItemRequest(ITEM_NAMES[i % ITEM_NAMES.length], 1));
+        }
+
+        statistics.clear();
+        Map<Long, List<OrderItemRequest>> grouped = restaurantSelectorService.groupItemsByRestaurant(items, "rating");
+
+        assertEquals(itemCount, grouped.values().stream().mapToInt(List::size).sum());
+        items.forEach(item -> assertNotNull(item.getMenuItemId()));
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,141 @@
+package org.foodorder.service;
+
+import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.Suggestion;
+import org.foodorder.repository.MenuItemRepository;
+import org.foodorder.repository.OrderItemRepository;
+import org.foodorder.repository.RestaurantRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SuggestionIndexTest {
+
+    @Mock
+    private MenuItemRepository menuItemRepository;
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    private SuggestionIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(restaurantRepository.findAll()).thenReturn(List.of(
+                restaurant(1L, "Taco Bell"),
+                restaurant(2L, "Chipotle Grill")));
+        when(menuItemRepository.findAll()).thenReturn(List.of(
+                menuItem(10L, "Chicken Tacos"),
+                menuItem(11L, "chicken tacos"),
+                menuItem(12L, "Chicken Tikka Masala"),
+                menuItem(13L, "Crème Brûlée"),
+                menuItem(14L, "Fish Taco")));
+        when(orderItemRepository.sumQuantityByMenuItem()).thenReturn(List.<Object[]>of(
+                new Object[]{12L, 5L},
+                new Object[]{null, 9L}));
+        when(orderItemRepository.sumQuantityByRestaurant()).thenReturn(List.<Object[]>of(
+                new Object[]{1L, 2L}));
+
+        index = new SuggestionIndex(menuItemRepository, restaurantRepository, orderItemRepository, 0);
+        index.rebuild();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        index.shutdown();
+    }
+
+    @Test
+    void testCompletesPrefixesOfNamesAndTheirWordsByPopularity() {
+        // Chicken Tikka Masala was ordered 5 times; Chicken Tacos is listed twice
+        assertEquals(List.of("Chicken Tikka Masala", "Chicken Tacos", "Chipotle Grill"), texts(index.suggest("Chi", 10)));
+        assertEquals(List.of("Chicken Tacos"), texts(index.suggest("CHICKEN  TA", 10)));
+
+        // "tac" matches the start of a name and the second word of others
+        List<Suggestion> tacos = index.suggest("tac", 10);
+        assertEquals(List.of("Taco Bell", "Chicken Tacos", "Fish Taco"), texts(tacos));
+        assertEquals(Suggestion.RESTAURANT, tacos.get(0).getType());
+        assertEquals(3, tacos.get(0).getPopularity());
+        assertEquals(Suggestion.MENU_ITEM, tacos.get(1).getType());
+
+        assertEquals(List.of("Crème Brûlée"), texts(index.suggest("brul", 10)));
+        assertEquals(List.of("Chicken Tikka Masala"), texts(index.suggest("chi", 1)));
+        assertTrue(index.suggest("sushi", 10).isEmpty());
+        assertTrue(index.suggest(" ", 10).isEmpty());
+        assertEquals(6, index.size());
+    }
+
+    @Test
+    void testMatchesBruteForceOnGeneratedNames() {
+        String[] words = {"spicy", "spinach", "sweet", "sour", "soup", "salad", "salmon", "tofu", "taco", "tandoori"};
+        Random random = new Random(42);
+        List<MenuItemEntity> menuItems = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            menuItems.add(menuItem(id, words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)]
+                    + " " + random.nextInt(300)));
+        }
+        when(menuItemRepository.findAll()).thenReturn(menuItems);
+        when(restaurantRepository.findAll()).thenReturn(List.of());
+        when(orderItemRepository.sumQuantityByMenuItem()).thenReturn(List.of());
+        index.rebuild();
+
+        for (String prefix : List.of("s", "sp", "spi", "sa", "t", "tandoori s", "1", "29", "soup soup")) {
+            List<String> expected = menuItems.stream()
+                    .map(MenuItemEntity::getName)
+                    .distinct()
+                    .filter(name -> (" " + name).contains(" " + prefix))
+                    .sorted(Comparator.comparingLong((String name) -> menuItems.stream().filter(m -> m.getName().equals(name)).count())
+                            .reversed()
+                            .thenComparing(Comparator.naturalOrder()))
+                    .limit(10)
+                    .toList();
+            assertEquals(expected, texts(index.suggest(prefix, 10)), prefix);
+        }
+    }
+
+    @Test
+    void testRebuildsInTheBackgroundAfterCatalogChanges() throws Exception {
+        when(menuItemRepository.findAll()).thenReturn(List.of(menuItem(20L, "Pad Thai")));
+
+        assertTrue(index.suggest("pad", 10).isEmpty());
+        index.catalogChanged().get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("Pad Thai"), texts(index.suggest("pad", 10)));
+        assertEquals(List.of("Taco Bell"), texts(index.suggest("tac", 10)));
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::getText).toList();
+    }
+
+    private static RestaurantEntity restaurant(Long id, String name) {
+        RestaurantEntity restaurant = new RestaurantEntity();
+        restaurant.setId(id);
+        restaurant.setName(name);
+        return restaurant;
+    }
+
+    private static MenuItemEntity menuItem(Long id, String name) {
+        MenuItemEntity menuItem = new MenuItemEntity();
+        menuItem.setId(id);
+        menuItem.setName(name);
+        return menuItem;
+    }
+}
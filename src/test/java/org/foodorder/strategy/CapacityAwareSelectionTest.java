@@ -0,0 +1,112 @@
+package org.foodorder.strategy;
+
+import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.OrderItemRequest;
+import org.foodorder.repository.MenuItemRepository;
+import org.foodorder.repository.RestaurantRepository;
+import org.foodorder.service.MenuCatalogIndex;
+import org.foodorder.service.RestaurantCapacityLedger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CapacityAwareSelectionTest {
+
+    @Mock
+    private MenuItemRepository menuItemRepository;
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    private MenuCatalogIndex catalogIndex;
+    private RestaurantCapacityLedger capacityLedger;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        // Restaurant 1 is the cheapest and best rated but can only take 2 more items
+        when(restaurantRepository.findAll()).thenReturn(List.of(
+                restaurant(1L, "4.9", 10, 8),
+                restaurant(2L, "4.5", 10, 0),
+                restaurant(3L, "4.0", 10, 0)));
+        when(menuItemRepository.findAll()).thenReturn(List.of(
+                menuItem(10L, 1L, "10.00"),
+                menuItem(20L, 2L, "12.00"),
+                menuItem(30L, 3L, "11.00")));
+
+        catalogIndex = new MenuCatalogIndex(menuItemRepository, restaurantRepository);
+        catalogIndex.rebuild();
+        capacityLedger = new RestaurantCapacityLedger(restaurantRepository);
+        capacityLedger.preload();
+    }
+
+    @Test
+    void testHighestRatingSkipsSaturatedRestaurant() {
+        HighestRatingStrategy strategy = new HighestRatingStrategy(catalogIndex, capacityLedger, true);
+
+        assertEquals(1L, strategy.selectCandidate(new OrderItemRequest("Lasagna", 2)).getRestaurantId());
+        assertEquals(2L, strategy.selectCandidate(new OrderItemRequest("Lasagna", 3)).getRestaurantId());
+    }
+
+    @Test
+    void testLowestCostSkipsSaturatedRestaurant() {
+        LowestCostStrategy strategy = new LowestCostStrategy(catalogIndex, capacityLedger, true);
+
+        assertEquals(1L, strategy.selectCandidate(new OrderItemRequest("Lasagna", 2)).getRestaurantId());
+        assertEquals(3L, strategy.selectCandidate(new OrderItemRequest("Lasagna", 3)).getRestaurantId());
+    }
+
+    @Test
+    void testItemsAlreadyClaimedInTheOrderCountAgainstHeadroom() {
+        LowestCostStrategy strategy = new LowestCostStrategy(catalogIndex, capacityLedger, true);
+        OrderItemRequest first = new OrderItemRequest("Lasagna", 2);
+        OrderItemRequest second = new OrderItemRequest("Lasagna", 1);
+
+        Map<Long, List<OrderItemRequest>> grouped = strategy.assignItems(List.of(first, second));
+
+        assertEquals(Map.of(1L, List.of(first), 3L, List.of(second)), grouped);
+    }
+
+    @Test
+    void testFallsBackToBestCandidateWhenNoneHasRoom() {
+        HighestRatingStrategy strategy = new HighestRatingStrategy(catalogIndex, capacityLedger, true);
+
+        assertEquals(1L, strategy.selectCandidate(new OrderItemRequest("Lasagna", 20)).getRestaurantId());
+    }
+
+    @Test
+    void testCapacityIsIgnoredWhenDisabled() {
+        HighestRatingStrategy strategy = new HighestRatingStrategy(catalogIndex, capacityLedger, false);
+
+        assertEquals(1L, strategy.selectCandidate(new OrderItemRequest("Lasagna", 3)).getRestaurantId());
+    }
+
+    private static RestaurantEntity restaurant(Long id, String rating, int maxCapacity, int load) {
+        RestaurantEntity restaurant = new RestaurantEntity();
+        restaurant.setId(id);
+        restaurant.setRating(new BigDecimal(rating));
+        restaurant.setIsOpen(true);
+        restaurant.setMaxCapacity(maxCapacity);
+        restaurant.setCurrentProcessingLoad(load);
+        return restaurant;
+    }
+
+    private static MenuItemEntity menuItem(Long id, Long restaurantId, String price) {
+        MenuItemEntity menuItem = new MenuItemEntity();
+        menuItem.setId(id);
+        menuItem.setRestaurantId(restaurantId);
+        menuItem.setName("Lasagna");
+        menuItem.setPrice(new BigDecimal(price));
+        return menuItem;
+    }
+}
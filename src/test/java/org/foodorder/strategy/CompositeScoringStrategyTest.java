@@ -0,0 +1,123 @@
+package org.foodorder.strategy;
+
+import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.OrderItemRequest;
+import org.foodorder.model.ScoringWeights;
+import org.foodorder.repository.MenuItemRepository;
+import org.foodorder.repository.RestaurantRepository;
+import org.foodorder.service.MenuCatalogIndex;
+import org.foodorder.service.RestaurantCapacityLedger;
+import org.foodorder.service.RestaurantGeoIndex;
+import org.foodorder.service.ZipCentroidGeocoder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CompositeScoringStrategyTest {
+
+    @Mock
+    private MenuItemRepository menuItemRepository;
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    private MenuCatalogIndex catalogIndex;
+    private RestaurantCapacityLedger capacityLedger;
+    private RestaurantGeoIndex geoIndex;
+    private ZipCentroidGeocoder geocoder;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        // Restaurant 1 is best rated, 2 is cheapest, 3 has the most room and is in San Francisco
+        when(restaurantRepository.findAll()).thenReturn(List.of(
+                restaurant(1L, "4.9", 10, 8, "10001"),
+                restaurant(2L, "4.0", 10, 6, "90001"),
+                restaurant(3L, "4.2", 50, 0, "94110")));
+        when(menuItemRepository.findAll()).thenReturn(List.of(
+                menuItem(10L, 1L, "Pad Thai", "15.00"),
+                menuItem(20L, 2L, "Pad Thai", "9.00"),
+                menuItem(30L, 3L, "Chicken Pad Thai", "12.00")));
+
+        catalogIndex = new MenuCatalogIndex(menuItemRepository, restaurantRepository);
+        catalogIndex.rebuild();
+        capacityLedger = new RestaurantCapacityLedger(restaurantRepository);
+        capacityLedger.preload();
+        geocoder = new ZipCentroidGeocoder("geo/zip-centroids.csv");
+        geoIndex = new RestaurantGeoIndex(restaurantRepository, geocoder);
+        geoIndex.rebuild();
+    }
+
+    @Test
+    void testWeightsDecideTheRestaurant() {
+        OrderItemRequest item = new OrderItemRequest("pad thai", 1);
+
+        assertEquals(1L, strategy(new ScoringWeights(1, 0, 0, 0)).selectCandidate(item).getRestaurantId());
+        assertEquals(2L, strategy(new ScoringWeights(0, 1, 0, 0)).selectCandidate(item).getRestaurantId());
+        assertEquals(3L, strategy(new ScoringWeights(0, 0, 1, 0)).selectCandidate(item).getRestaurantId());
+    }
+
+    @Test
+    void testPerRequestWeightsOverrideConfiguredOnes() {
+        RestaurantSelectionStrategy configured = strategy(new ScoringWeights(1, 0, 0, 0));
+        OrderItemRequest item = new OrderItemRequest("Pad Thai", 1);
+
+        assertSame(configured, configured.withWeights(null));
+        assertEquals(2L, configured.withWeights(new ScoringWeights(0, 1, 0, 0)).selectCandidate(item).getRestaurantId());
+        assertThrows(IllegalArgumentException.class, () -> configured.withWeights(new ScoringWeights(-1, 1, 0, 0)));
+    }
+
+    @Test
+    void testSkipsRestaurantsWithoutRoom() {
+        OrderItemRequest item = new OrderItemRequest("Pad Thai", 3);
+
+        assertEquals(3L, strategy(new ScoringWeights(1, 0, 0, 0)).selectCandidate(item).getRestaurantId());
+    }
+
+    @Test
+    void testDistanceCountsOnlyWithDeliveryLocation() {
+        RestaurantSelectionStrategy byDistance = strategy(new ScoringWeights(0.1, 0, 0, 1));
+        OrderItemRequest item = new OrderItemRequest("Pad Thai", 1);
+
+        // Without a location every restaurant is equally close, so the rating decides
+        assertEquals(1L, byDistance.selectCandidate(item).getRestaurantId());
+        assertSame(byDistance, byDistance.withOrigin(null));
+        assertEquals(3L, byDistance.withOrigin(geocoder.geocode("94103").orElseThrow())
+                .selectCandidate(item).getRestaurantId());
+        assertEquals(2L, byDistance.withOrigin(geocoder.geocode("90012").orElseThrow())
+                .selectCandidate(item).getRestaurantId());
+    }
+
+    private CompositeScoringStrategy strategy(ScoringWeights weights) {
+        return new CompositeScoringStrategy(catalogIndex, capacityLedger, geoIndex, weights);
+    }
+
+    private static RestaurantEntity restaurant(Long id, String rating, int maxCapacity, int load, String zipCode) {
+        RestaurantEntity restaurant = new RestaurantEntity();
+        restaurant.setId(id);
+        restaurant.setZipCode(zipCode);
+        restaurant.setRating(new BigDecimal(rating));
+        restaurant.setIsOpen(true);
+        restaurant.setMaxCapacity(maxCapacity);
+        restaurant.setCurrentProcessingLoad(load);
+        return restaurant;
+    }
+
+    private static MenuItemEntity menuItem(Long id, Long restaurantId, String name, String price) {
+        MenuItemEntity menuItem = new MenuItemEntity();
+        menuItem.setId(id);
+        menuItem.setRestaurantId(restaurantId);
+        menuItem.setName(name);
+        menuItem.setPrice(new BigDecimal(price));
+        return menuItem;
+    }
+}
@@ -0,0 +1,123 @@
+package org.foodorder.strategy;
+
+import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.OrderItemRequest;
+import org.foodorder.repository.MenuItemRepository;
+import org.foodorder.repository.RestaurantRepository;
+import org.foodorder.service.MenuCatalogIndex;
+import org.foodorder.service.RestaurantCapacityLedger;
+import org.foodorder.strategy.OrderOptimizationStrategy.Objective;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConsolidationStrategyTest {
+
+    @Mock
+    private MenuItemRepository menuItemRepository;
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    private MenuCatalogIndex catalogIndex;
+    private RestaurantCapacityLedger capacityLedger;
+
+    private final OrderItemRequest soup = new OrderItemRequest("Soup", 1);
+    private final OrderItemRequest salad = new OrderItemRequest("Salad", 1);
+    private final OrderItemRequest curry = new OrderItemRequest("Curry", 1);
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        catalogIndex = new MenuCatalogIndex(menuItemRepository, restaurantRepository);
+        capacityLedger = new RestaurantCapacityLedger(restaurantRepository);
+
+        // Restaurant 1 is cheapest for soup and salad, 3 for curry, 2 offers all three at a small premium
+        when(menuItemRepository.findAll()).thenReturn(List.of(
+                menuItem(10L, 1L, "Soup", "10.00"),
+                menuItem(11L, 1L, "Salad", "10.00"),
+                menuItem(20L, 2L, "Soup", "10.50"),
+                menuItem(21L, 2L, "Salad", "10.50"),
+                menuItem(22L, 2L, "Curry", "8.00"),
+                menuItem(30L, 3L, "Curry", "7.00")));
+    }
+
+    @Test
+    void testFulfillsOrderFromOneRestaurantWithinTolerance() {
+        loadRestaurants(0);
+
+        Map<Long, List<OrderItemRequest>> grouped = strategy(0.15).assignItems(List.of(soup, salad, curry));
+
+        assertEquals(Map.of(2L, List.of(soup, salad, curry)), grouped);
+        assertEquals(22L, curry.getMenuItemId());
+        assertEquals(new BigDecimal("8.00"), curry.getPrice());
+    }
+
+    @Test
+    void testTighterToleranceSplitsTheOrder() {
+        loadRestaurants(0);
+
+        Map<Long, List<OrderItemRequest>> grouped = strategy(0.05).assignItems(List.of(soup, salad, curry));
+
+        assertEquals(Map.of(1L, List.of(soup, salad), 3L, List.of(curry)), grouped);
+    }
+
+    @Test
+    void testRespectsRemainingCapacity() {
+        // Restaurant 2 can only take two more items
+        loadRestaurants(8);
+
+        Map<Long, List<OrderItemRequest>> grouped = strategy(0.15).assignItems(List.of(soup, salad, curry));
+
+        assertEquals(2, grouped.size());
+        assertTrue(grouped.values().stream().allMatch(group -> group.size() <= 2));
+    }
+
+    @Test
+    void testReportsItemsNobodyOffers() {
+        loadRestaurants(0);
+        List<OrderItemRequest> items = List.of(soup, new OrderItemRequest("Ramen", 1));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> strategy(0.15).assignItems(items));
+        assertEquals("No restaurants available for menu item: Ramen", exception.getMessage());
+    }
+
+    private ConsolidationStrategy strategy(double tolerance) {
+        return new ConsolidationStrategy(catalogIndex, capacityLedger, Objective.PRICE, tolerance);
+    }
+
+    private void loadRestaurants(int loadOfRestaurant2) {
+        when(restaurantRepository.findAll()).thenReturn(List.of(
+                restaurant(1L, 0), restaurant(2L, loadOfRestaurant2), restaurant(3L, 0)));
+        catalogIndex.rebuild();
+        capacityLedger.preload();
+    }
+
+    private static RestaurantEntity restaurant(Long id, int load) {
+        RestaurantEntity restaurant = new RestaurantEntity();
+        restaurant.setId(id);
+        restaurant.setRating(new BigDecimal("4.0"));
+        restaurant.setIsOpen(true);
+        restaurant.setMaxCapacity(10);
+        restaurant.setCurrentProcessingLoad(load);
+        return restaurant;
+    }
+
+    private static MenuItemEntity menuItem(Long id, Long restaurantId, String name, String price) {
+        MenuItemEntity menuItem = new MenuItemEntity();
+        menuItem.setId(id);
+        menuItem.setRestaurantId(restaurantId);
+        menuItem.setName(name);
+        menuItem.setPrice(new BigDecimal(price));
+        return menuItem;
+    }
+}
@@ -0,0 +1,157 @@
+package org.foodorder.strategy;
+
+import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.CatalogCandidate;
+import org.foodorder.model.GeoPoint;
+import org.foodorder.model.OrderItemRequest;
+import org.foodorder.repository.MenuItemRepository;
+import org.foodorder.repository.RestaurantRepository;
+import org.foodorder.service.MenuCatalogIndex;
+import org.foodorder.service.RestaurantCapacityLedger;
+import org.foodorder.service.RestaurantGeoIndex;
+import org.foodorder.service.ZipCentroidGeocoder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class NearestRestaurantStrategyTest {
+
+    @Mock
+    private MenuItemRepository menuItemRepository;
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    private ZipCentroidGeocoder geocoder;
+    private NearestRestaurantStrategy strategy;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        // Restaurant 1 is in the Mission, 2 in downtown Los Angeles, 3 is full and in SoMa, 4 cannot be located
+        when(restaurantRepository.findAll()).thenReturn(List.of(
+                restaurant(1L, "94110", 10, 0),
+                restaurant(2L, "90012", 10, 0),
+                restaurant(3L, "94103", 2, 2),
+                restaurant(4L, "00000", 10, 0)));
+        when(menuItemRepository.findAll()).thenReturn(List.of(
+                menuItem(10L, 1L, "Burrito"),
+                menuItem(20L, 2L, "Burrito"),
+                menuItem(30L, 3L, "Burrito"),
+                menuItem(40L, 4L, "Burrito")));
+
+        MenuCatalogIndex catalogIndex = new MenuCatalogIndex(menuItemRepository, restaurantRepository);
+        catalogIndex.rebuild();
+        RestaurantCapacityLedger capacityLedger = new RestaurantCapacityLedger(restaurantRepository);
+        capacityLedger.preload();
+        geocoder = new ZipCentroidGeocoder("geo/zip-centroids.csv");
+        RestaurantGeoIndex geoIndex = new RestaurantGeoIndex(restaurantRepository, geocoder);
+        geoIndex.rebuild();
+        strategy = new NearestRestaurantStrategy(catalogIndex, capacityLedger, geoIndex, true);
+    }
+
+    @Test
+    void testSelectsNearestRestaurantWithRoom() {
+        OrderItemRequest item = new OrderItemRequest("Burrito", 1);
+
+        // The SoMa restaurant is nearest to 94103 but full, so the Mission is next
+        assertEquals(1L, near("94103").selectCandidate(item).getRestaurantId());
+        assertEquals(2L, near("90001").selectCandidate(item).getRestaurantId());
+        // Items already assigned within the order count against the headroom
+        assertEquals(1L, near("94103").selectCandidate(item, Map.of(1L, 9)).getRestaurantId());
+        assertEquals(2L, near("94103").selectCandidate(item, Map.of(1L, 10)).getRestaurantId());
+    }
+
+    @Test
+    void testWalksTheGridWhenManyRestaurantsOfferTheItem() {
+        // 900 restaurants in a 30 x 30 grid of ZIP codes a tenth of a degree apart, every other one full
+        Map<String, GeoPoint> centroids = new HashMap<>();
+        List<RestaurantEntity> restaurants = new ArrayList<>();
+        List<MenuItemEntity> menuItems = new ArrayList<>();
+        for (int row = 0; row < 30; row++) {
+            for (int column = 0; column < 30; column++) {
+                long id = row * 30L + column + 1;
+                String zipCode = String.format("%05d", id);
+                centroids.put(zipCode, new GeoPoint(35 + row * 0.1, -100 + column * 0.1));
+                restaurants.add(restaurant(id, zipCode, 10, id % 2 == 0 ? 10 : 0));
+                menuItems.add(menuItem(id * 10, id, "Burrito"));
+            }
+        }
+        when(restaurantRepository.findAll()).thenReturn(restaurants);
+        when(menuItemRepository.findAll()).thenReturn(menuItems);
+        MenuCatalogIndex catalogIndex = new MenuCatalogIndex(menuItemRepository, restaurantRepository);
+        catalogIndex.rebuild();
+        RestaurantCapacityLedger capacityLedger = spy(new RestaurantCapacityLedger(restaurantRepository));
+        capacityLedger.preload();
+        RestaurantGeoIndex geoIndex = new RestaurantGeoIndex(restaurantRepository, new ZipCentroidGeocoder(centroids));
+        geoIndex.rebuild();
+        NearestRestaurantStrategy grid = new NearestRestaurantStrategy(catalogIndex, capacityLedger, geoIndex, true);
+
+        // Restaurant 466 is full, like those north and south of it; of its neighbours east and west the lower ID wins
+        GeoPoint origin = centroids.get("00466");
+        CatalogCandidate selected = grid.withOrigin(origin).selectCandidate(new OrderItemRequest("Burrito", 1));
+
+        assertEquals(465L, selected.getRestaurantId());
+        verify(capacityLedger, atMost(20)).canReserve(anyLong(), anyInt());
+    }
+
+    @Test
+    void testRequiresDeliveryLocation() {
+        OrderItemRequest item = new OrderItemRequest("Burrito", 1);
+
+        assertSame(strategy, strategy.withOrigin(null));
+        assertThrows(IllegalArgumentException.class, () -> strategy.selectCandidate(item));
+        assertThrows(IllegalArgumentException.class, () -> strategy.assignItems(List.of(item)));
+    }
+
+    @Test
+    void testSortsRestaurantsByDistance() {
+        List<RestaurantEntity> restaurants = List.of(
+                restaurant(4L, "00000", 10, 0),
+                restaurant(2L, "90012", 10, 0),
+                restaurant(1L, "94110", 10, 0),
+                restaurant(3L, "94103", 2, 2));
+
+        List<Long> sorted = near("94103").sortRestaurants(restaurants).stream().map(RestaurantEntity::getId).toList();
+
+        assertEquals(List.of(3L, 1L, 2L, 4L), sorted);
+        assertEquals(restaurants, strategy.sortRestaurants(restaurants));
+    }
+
+    private RestaurantSelectionStrategy near(String zipCode) {
+        GeoPoint origin = geocoder.geocode(zipCode).orElseThrow();
+        return strategy.withOrigin(origin);
+    }
+
+    private static RestaurantEntity restaurant(Long id, String zipCode, int maxCapacity, int load) {
+        RestaurantEntity restaurant = new RestaurantEntity();
+        restaurant.setId(id);
+        restaurant.setZipCode(zipCode);
+        restaurant.setRating(new BigDecimal("4.0"));
+        restaurant.setIsOpen(true);
+        restaurant.setMaxCapacity(maxCapacity);
+        restaurant.setCurrentProcessingLoad(load);
+        return restaurant;
+    }
+
+    private static MenuItemEntity menuItem(Long id, Long restaurantId, String name) {
+        MenuItemEntity menuItem = new MenuItemEntity();
+        menuItem.setId(id);
+        menuItem.setRestaurantId(restaurantId);
+        menuItem.setName(name);
+        menuItem.setPrice(new BigDecimal("10.00"));
+        return menuItem;
+    }
+}
@@ -0,0 +1,111 @@
+package org.foodorder.strategy;
+
+import org.foodorder.entity.MenuItemEntity;
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.model.OrderItemRequest;
+import org.foodorder.repository.MenuItemRepository;
+import org.foodorder.repository.RestaurantRepository;
+import org.foodorder.service.MenuCatalogIndex;
+import org.foodorder.service.RestaurantCapacityLedger;
+import org.foodorder.strategy.OrderOptimizationStrategy.Objective;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OrderOptimizationStrategyTest {
+
+    @Mock
+    private MenuItemRepository menuItemRepository;
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    private MenuCatalogIndex catalogIndex;
+    private RestaurantCapacityLedger capacityLedger;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        // Restaurant 1 is cheaper for both dishes but can only take 3 more items
+        RestaurantEntity cheap = restaurant(1L, "3.5", 10, 7);
+        RestaurantEntity roomy = restaurant(2L, "4.8", 10, 0);
+        when(restaurantRepository.findAll()).thenReturn(List.of(cheap, roomy));
+        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(cheap));
+        when(restaurantRepository.findById(2L)).thenReturn(Optional.of(roomy));
+        when(menuItemRepository.findAll()).thenReturn(List.of(
+                menuItem(10L, 1L, "Garlic Bread", "10.00"),
+                menuItem(11L, 1L, "Lasagna", "10.00"),
+                menuItem(20L, 2L, "Garlic Bread", "11.00"),
+                menuItem(21L, 2L, "Lasagna", "20.00")));
+
+        catalogIndex = new MenuCatalogIndex(menuItemRepository, restaurantRepository);
+        catalogIndex.rebuild();
+        capacityLedger = new RestaurantCapacityLedger(restaurantRepository);
+    }
+
+    @Test
+    void testAssignsWholeOrderAtLowestTotalCostWithinCapacity() {
+        OrderItemRequest bread = new OrderItemRequest("Garlic Bread", 2);
+        OrderItemRequest lasagna = new OrderItemRequest("Lasagna", 2);
+
+        // Greedy puts the bread at restaurant 1 and then has to send the lasagna to restaurant 2 (total 60)
+        Map<Long, List<OrderItemRequest>> grouped = strategy(Objective.PRICE).assignItems(List.of(bread, lasagna));
+
+        assertEquals(List.of(lasagna), grouped.get(1L));
+        assertEquals(List.of(bread), grouped.get(2L));
+        assertEquals(11L, lasagna.getMenuItemId());
+        assertEquals(new BigDecimal("11.00"), bread.getPrice());
+    }
+
+    @Test
+    void testRatingObjectivePrefersBestRatedRestaurantThatFits() {
+        OrderItemRequest lasagna = new OrderItemRequest("Lasagna", 12);
+
+        assertThrows(RuntimeException.class, () -> strategy(Objective.RATING).assignItems(List.of(lasagna)));
+
+        lasagna.setQuantity(3);
+        Map<Long, List<OrderItemRequest>> grouped = strategy(Objective.RATING).assignItems(List.of(lasagna));
+        assertEquals(Map.of(2L, List.of(lasagna)), grouped);
+    }
+
+    @Test
+    void testReportsItemsNobodyOffers() {
+        List<OrderItemRequest> items = List.of(new OrderItemRequest("Ramen", 1));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> strategy(Objective.PRICE).assignItems(items));
+        assertEquals("No restaurants available for menu item: Ramen", exception.getMessage());
+    }
+
+    private OrderOptimizationStrategy strategy(Objective objective) {
+        return new OrderOptimizationStrategy(catalogIndex, capacityLedger, objective, 20_000);
+    }
+
+    private static RestaurantEntity restaurant(Long id, String rating, int maxCapacity, int load) {
+        RestaurantEntity restaurant = new RestaurantEntity();
+        restaurant.setId(id);
+        restaurant.setRating(new BigDecimal(rating));
+        restaurant.setIsOpen(true);
+        restaurant.setMaxCapacity(maxCapacity);
+        restaurant.setCurrentProcessingLoad(load);
+        return restaurant;
+    }
+
+    private static MenuItemEntity menuItem(Long id, Long restaurantId, String name, String price) {
+        MenuItemEntity menuItem = new MenuItemEntity();
+        menuItem.setId(id);
+        menuItem.setRestaurantId(restaurantId);
+        menuItem.setName(name);
+        menuItem.setPrice(new BigDecimal(price));
+        return menuItem;
+    }
+}
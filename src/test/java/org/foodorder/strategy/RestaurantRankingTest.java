@@ -0,0 +1,81 @@
+package org.foodorder.strategy;
+
+import org.foodorder.entity.RestaurantEntity;
+import org.foodorder.service.MenuCatalogIndex;
+import org.foodorder.service.RestaurantCapacityLedger;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RestaurantRankingTest {
+
+    @Test
+    void testTopKMatchesFullSortIncludingTies() {
+        List<RestaurantEntity> restaurants = randomRestaurants(500);
+        HighestRatingStrategy strategy = new HighestRatingStrategy(mock(MenuCatalogIndex.class),
+                mock(RestaurantCapacityLedger.class), true);
+
+        List<RestaurantEntity> sorted = strategy.sortRestaurants(restaurants);
+        int[] top = RestaurantRanking.topK(strategy.scoreRestaurants(restaurants), 25);
+
+        assertEquals(25, top.length);
+        for (int i = 0; i < top.length; i++) {
+            assertSame(sorted.get(i), restaurants.get(top[i]));
+        }
+    }
+
+    @Test
+    void testRankedIteratorReturnsEveryPositionInRankOrder() {
+        List<RestaurantEntity> restaurants = randomRestaurants(300);
+        LowestCostStrategy strategy = new LowestCostStrategy(mock(MenuCatalogIndex.class),
+                mock(RestaurantCapacityLedger.class), true);
+
+        List<RestaurantEntity> sorted = strategy.sortRestaurants(restaurants);
+        List<RestaurantEntity> ranked = new ArrayList<>();
+        PrimitiveIterator.OfInt positions = RestaurantRanking.ranked(strategy.scoreRestaurants(restaurants));
+        positions.forEachRemaining((int position) -> ranked.add(restaurants.get(position)));
+
+        assertEquals(sorted, ranked);
+    }
+
+    @Test
+    void testTopKOfFewerScoresThanK() {
+        double[] scores = {1.0, 3.0, Double.NEGATIVE_INFINITY, 3.0};
+
+        assertArrayEquals(new int[]{1, 3, 0, 2}, RestaurantRanking.topK(scores, 10));
+        assertEquals(0, RestaurantRanking.topK(scores, 0).length);
+        assertFalse(RestaurantRanking.ranked(new double[0]).hasNext());
+    }
+
+    @Test
+    void testRankOrderIsStableForEqualScores() {
+        double[] scores = new double[50];
+        Arrays.fill(scores, 4.5);
+
+        int[] top = RestaurantRanking.topK(scores, 5);
+
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, top);
+    }
+
+    private static List<RestaurantEntity> randomRestaurants(int count) {
+        Random random = new Random(7);
+        List<RestaurantEntity> restaurants = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            RestaurantEntity restaurant = new RestaurantEntity();
+            restaurant.setId(id);
+            // Few distinct values, so that ties are common
+            restaurant.setRating(BigDecimal.valueOf(30 + random.nextInt(20), 1));
+            restaurant.setMinMenuPrice(BigDecimal.valueOf(500 + random.nextInt(50), 2));
+            restaurants.add(restaurant);
+        }
+        return restaurants;
+    }
+}
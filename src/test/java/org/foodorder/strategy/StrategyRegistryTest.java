@@ -0,0 +1,47 @@
+package org.foodorder.strategy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StrategyRegistryTest {
+
+    @Test
+    void testResolvesStrategiesByNameIgnoringCase() {
+        RestaurantSelectionStrategy rating = strategy("rating");
+        RestaurantSelectionStrategy price = strategy("price");
+        StrategyRegistry registry = new StrategyRegistry(List.of(rating, price), "rating");
+
+        assertSame(price, registry.resolve("PRICE"));
+        assertSame(rating, registry.resolve("rating"));
+        assertEquals(Set.of("price", "rating"), registry.getNames());
+    }
+
+    @Test
+    void testFallsBackToDefaultStrategy() {
+        RestaurantSelectionStrategy rating = strategy("rating");
+        StrategyRegistry registry = new StrategyRegistry(List.of(rating, strategy("price")), "rating");
+
+        assertSame(rating, registry.resolve("distance"));
+        assertSame(rating, registry.resolve(null));
+        assertTrue(registry.find("distance").isEmpty());
+    }
+
+    @Test
+    void testRejectsDuplicateNamesAndUnknownDefault() {
+        assertThrows(IllegalStateException.class,
+                () -> new StrategyRegistry(List.of(strategy("price"), strategy("Price")), "price"));
+        assertThrows(IllegalStateException.class,
+                () -> new StrategyRegistry(List.of(strategy("price")), "rating"));
+    }
+
+    private static RestaurantSelectionStrategy strategy(String name) {
+        RestaurantSelectionStrategy strategy = mock(RestaurantSelectionStrategy.class);
+        when(strategy.getName()).thenReturn(name);
+        return strategy;
+    }
+}